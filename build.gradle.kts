@@ -25,6 +25,18 @@ java {
     withJavadocJar()
 }
 
+/**
+ * JMH benchmark sources live in src/jmh/java and see the main classes and their dependencies.
+ */
+val jmh: SourceSet = sourceSets.create("jmh") {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations.named(jmh.implementationConfigurationName) {
+    extendsFrom(configurations.implementation.get())
+}
+
 jacoco {
     toolVersion = "0.8.14"
 }
@@ -71,12 +83,18 @@ dependencies {
     // JSON `serde`
     implementation("com.fasterxml.jackson.core:jackson-databind:2.20.1")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.20.1")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile:2.20.1")
 
     // Validators
     implementation(platform("org.hibernate.validator:hibernate-validator-bom:9.1.0.Final"))
     implementation("org.hibernate.validator:hibernate-validator")
     implementation("org.glassfish.expressly:expressly:6.0.0")
 
+    // Benchmarks
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    "jmhImplementation"("org.openjdk.jol:jol-core:0.17")
+
     // Spotbugs
     testCompileOnly("com.github.spotbugs:spotbugs-annotations:4.9.8")
 
@@ -149,6 +167,11 @@ tasks.withType<JavaCompile>().configureEach {
     options.compilerArgs.addAll(listOf("-Xlint:all", "-Werror"))
 }
 
+tasks.named<JavaCompile>(jmh.compileJavaTaskName) {
+    // The JMH generator does not claim @AllocationBudget, which only AllocationBudgetCheck reads at runtime
+    options.compilerArgs.add("-Xlint:-processing")
+}
+
 /**
  * Gradle Javadoc Task Configurations
  */
@@ -179,6 +202,85 @@ tasks.test {
     }
 }
 
+/**
+ * JMH Benchmark Task
+ *
+ * - Runs every benchmark under src/jmh/java and writes the results to build/reports/jmh/results.json
+ * - Pass JMH options to narrow the run, e.g. `./universal-build jmh --args="CalculatorBenchmark -f 1"`
+ */
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+    doFirst { resultFile.get().asFile.parentFile.mkdirs() }
+    args("-rf", "json", "-rff", resultFile.get().asFile.absolutePath)
+}
+
+/**
+ * Allocation Budget Task
+ *
+ * - Measures the bytes allocated per call of each AllocationBenchmark method and fails when one exceeds the
+ *   budget declared on it with @AllocationBudget
+ * - Not part of check; for the JMH view of the same methods run
+ *   `./universal-build jmh --args="AllocationBenchmark -prof gc"`
+ */
+
+tasks.register<JavaExec>("allocationBudgets") {
+    group = "benchmark"
+    description = "Fails when a benchmarked method allocates beyond its budget"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("io.template.allocation.AllocationBudgetCheck")
+    systemProperty("LOG_LEVEL", "WARN")
+}
+
+/**
+ * Load Generator Task
+ *
+ * - Drives a running daemon, or batch jobs in-process, at a fixed open-loop rate with generated payloads
+ * - Writes coordinated-omission-corrected latency percentiles and throughput to build/reports/load/report.json
+ * - Pass settings as `--name value` pairs, e.g. `./universal-build loadTest --args="--target batch --rate 5"`
+ */
+
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Runs the load generator against a local daemon or batch jobs"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("io.template.load.LoadGenerator")
+    systemProperty("LOG_LEVEL", "WARN")
+}
+
+/**
+ * String Footprint Task
+ *
+ * - Measures with JOL the retained heap of deserialized inputs with and without string deduplication
+ */
+
+tasks.register<JavaExec>("stringFootprint") {
+    group = "benchmark"
+    description = "Measures the heap saved by deduplicating input strings"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("io.template.shared.logic.StringDeduplicationFootprint")
+}
+
+/**
+ * Result Cache Contention Task
+ *
+ * - Runs 1, 2, 4 and 8 processes against one shared result cache file and reports throughput, hit ratio and
+ *   contended stores for each count
+ * - Pass `--processes` and `--seconds` to change the rounds, e.g. `--args="--processes 2,16 --seconds 10"`
+ */
+
+tasks.register<JavaExec>("resultCacheContention") {
+    group = "benchmark"
+    description = "Measures the shared result cache with several processes using it at once"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("io.template.resultcache.logic.SharedResultCacheContention")
+    systemProperty("LOG_LEVEL", "WARN")
+}
+
 /**
  * Gradle Check Task Configurations
  */
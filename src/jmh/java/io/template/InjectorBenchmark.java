@@ -0,0 +1,52 @@
+package io.template;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Stage;
+import io.template.bootstrap.injectionmodules.ApplicationModule;
+import io.template.bootstrap.injectionmodules.LifecycleModule;
+import io.template.bootstrap.logic.Executor;
+import io.template.shared.models.EnvironmentVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time from nothing to a ready {@link Executor} in a fresh JVM, per Guice stage, with the module list of
+ * {@link Main} (the environment is bound directly instead of read from the process). Each fork measures one cold
+ * start, which is what a CLI invocation pays; rerun it when modules are added. {@link Main} also turns off Guice's
+ * class generation for one-shot commands, which JMH's {@code -jvmArgsAppend -Dguice_bytecode_gen_option=DISABLED}
+ * reproduces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class InjectorBenchmark {
+
+    @Param({"DEVELOPMENT", "PRODUCTION"})
+    private Stage stage;
+
+    @Benchmark
+    public Executor createInjector() {
+        EnvironmentVariables environmentVariables = new EnvironmentVariables("benchmark", "local", "", 0, false);
+        Injector injector = Guice.createInjector(
+                stage,
+                binder -> binder.bind(EnvironmentVariables.class).toInstance(environmentVariables),
+                new LifecycleModule(),
+                new ApplicationModule()
+        );
+        return injector.getInstance(Executor.class);
+    }
+}
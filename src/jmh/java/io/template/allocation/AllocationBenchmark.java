@@ -0,0 +1,85 @@
+package io.template.allocation;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Guice;
+import io.template.bootstrap.injectionmodules.ApplicationModule;
+import io.template.bootstrap.injectionmodules.LifecycleModule;
+import io.template.bootstrap.logic.Executor;
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.samplebusinesslayer.logic.Calculator;
+import io.template.samplebusinesslayer.models.CalculationRequest;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.EnvironmentVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation of one call at each stage of the single-input pipeline, with its budget declared next to it.
+ * Run with {@code -prof gc} to read {@code gc.alloc.rate.norm} in bytes per operation; {@link AllocationBudgetCheck}
+ * measures the same methods in-process and fails when one exceeds its budget.
+ * <p>
+ * Budgets cover everything the call allocates, including its return value: a {@link CalculationResult} is
+ * 24 bytes, and its 16-byte {@code Result} wrapper survives when the JIT does not inline the whole call, so
+ * {@link #calculate()} cannot reach zero. Each budget is the measured allocation with a little headroom for
+ * JIT variance. The INFO logging of {@link Executor} is off during measurements, as in a production log level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-DLOG_LEVEL=WARN")
+public class AllocationBenchmark {
+
+    static final String RECORD = """
+            {"exampleStringField":"benchmark record","exampleIntField":42,"exampleBooleanField":true,\
+            "exampleTimestampField":"2024-01-01T00:00:00Z","exampleListField":["alpha","beta","gamma","delta"]}""";
+
+    private InputSanitizer inputSanitizer;
+    private Calculator calculator;
+    private Executor executor;
+    private String[] args;
+    private CalculationRequest request;
+
+    @Setup
+    public void setUp() {
+        EnvironmentVariables environmentVariables = new EnvironmentVariables("benchmark", "local", "", 0, false);
+        executor = Guice.createInjector(
+                binder -> binder.bind(EnvironmentVariables.class).toInstance(environmentVariables),
+                new LifecycleModule(),
+                new ApplicationModule()
+        ).getInstance(Executor.class);
+        inputSanitizer = new InputSanitizer();
+        calculator = new Calculator();
+        args = new String[]{RECORD};
+        request = new CalculationRequest(1234.5678, 8.75, "ADD");
+    }
+
+    @Benchmark
+    @AllocationBudget(bytes = 3200)
+    public ApplicationInput sanitize() {
+        return inputSanitizer.sanitize(args);
+    }
+
+    @Benchmark
+    @AllocationBudget(bytes = 40)
+    public CalculationResult calculate() {
+        return calculator.calculate(request);
+    }
+
+    @Benchmark
+    @AllocationBudget(bytes = 3328)
+    public void execute() {
+        executor.execute(args);
+    }
+}
@@ -0,0 +1,17 @@
+package io.template.allocation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most bytes one invocation of the annotated benchmark may allocate once warmed up.
+ * Checked by {@link AllocationBudgetCheck}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllocationBudget {
+
+    long bytes();
+}
@@ -0,0 +1,89 @@
+package io.template.allocation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Fails when a method of {@link AllocationBenchmark} allocates more per call than its {@link AllocationBudget}.
+ * <p>
+ * Each method is run on this thread until the JIT has settled, then the thread's allocated bytes are read
+ * before and after a fixed number of calls. The cost of the counter reads themselves is measured with no calls
+ * in between and subtracted. Exits with status 1 when any budget is exceeded, which fails the Gradle task.
+ */
+public final class AllocationBudgetCheck {
+
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final int MEASURED_CALLS = 20_000;
+
+    // Keeps results reachable so the JIT cannot drop the allocation that produced them
+    @SuppressWarnings("unused")
+    private static volatile Object sink;
+
+    private AllocationBudgetCheck() {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not report per-thread allocation");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        AllocationBenchmark benchmark = new AllocationBenchmark();
+        benchmark.setUp();
+
+        Method[] methods = Arrays.stream(AllocationBenchmark.class.getMethods())
+                .filter(method -> method.isAnnotationPresent(AllocationBudget.class))
+                .sorted(Comparator.comparing(Method::getName))
+                .toArray(Method[]::new);
+
+        long readCost = readCost(threads);
+        boolean exceeded = false;
+        System.out.printf("%-12s %14s %14s%n", "method", "bytes/call", "budget");
+        for (Method method : methods) {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method).bindTo(benchmark);
+            long perCall = bytesPerCall(threads, handle, readCost);
+            long budget = method.getAnnotation(AllocationBudget.class).bytes();
+            boolean over = perCall > budget;
+            exceeded |= over;
+            System.out.printf("%-12s %14d %14d%s%n", method.getName(), perCall, budget, over ? "  OVER BUDGET" : "");
+        }
+        if (exceeded) {
+            System.err.println("Allocation budget exceeded; lower the allocation or raise the budget in "
+                    + AllocationBenchmark.class.getSimpleName());
+            System.exit(1);
+        }
+    }
+
+    private static long bytesPerCall(ThreadMXBean threads, MethodHandle handle, long readCost) throws Throwable {
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            sink = handle.invoke();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            sink = handle.invoke();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before - readCost;
+        return Math.max(0, allocated) / MEASURED_CALLS;
+    }
+
+    /**
+     * Bytes allocated by one pair of counter reads, after warming them up.
+     */
+    private static long readCost(ThreadMXBean threads) {
+        long cost = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            cost = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        return cost;
+    }
+}
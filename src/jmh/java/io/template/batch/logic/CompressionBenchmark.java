@@ -0,0 +1,115 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to read every record of, and to write, a batch file of {@link #RECORDS} records per codec:
+ * {@code NONE} (plain NDJSON), {@code GZIP} (a single gzip member, inflated sequentially in the background)
+ * and {@code BGZF} (blocked gzip, inflated and deflated in parallel).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    static final int RECORDS = 200_000;
+
+    @Param({"NONE", "GZIP", "BGZF"})
+    private String codec;
+
+    private Path directory;
+    private Path input;
+    private Path output;
+    private byte[] record;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("compression-benchmark");
+        record = ("{\"exampleStringField\":\"benchmark record\",\"exampleIntField\":42,\"exampleBooleanField\":true,"
+                + "\"exampleTimestampField\":\"2024-01-01T00:00:00Z\",\"exampleListField\":[\"alpha\",\"beta\"]}")
+                .getBytes(StandardCharsets.UTF_8);
+        Path plain = directory.resolve("input.ndjson");
+        try (FileChannel channel = FileChannel.open(plain, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             RecordWriter writer = new RecordWriter(channel, 0)) {
+            for (int i = 0; i < RECORDS; i++) {
+                writer.write(record);
+            }
+        }
+        switch (codec) {
+            case "GZIP" -> {
+                input = directory.resolve("input.ndjson.gz");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(input), 64 * 1024)) {
+                    Files.copy(plain, out);
+                }
+            }
+            case "BGZF" -> {
+                input = directory.resolve("input.bgzf.ndjson.gz");
+                try (FileChannel source = FileChannel.open(plain, StandardOpenOption.READ);
+                     FileChannel target = FileChannel.open(input, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     DeflatingChannel deflating = new DeflatingChannel(target, BlockGzipFormat.DEFAULT_PARALLELISM)) {
+                    source.transferTo(0, source.size(), deflating);
+                }
+            }
+            default -> input = plain;
+        }
+        output = directory.resolve("NONE".equals(codec) ? "output.ndjson" : "output.ndjson.gz");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long read() throws IOException {
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             RecordSource source = RecordSources.open(channel, 0)) {
+            while (source.next() != null) {
+                records++;
+            }
+        }
+        return records;
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        try (FileChannel channel = FileChannel.open(output,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             RecordWriter writer = new RecordWriter(BlockGzipFormat.outputChannel(output, channel), 0)) {
+            for (int i = 0; i < RECORDS; i++) {
+                writer.write(record);
+            }
+            return writer.flush();
+        }
+    }
+}
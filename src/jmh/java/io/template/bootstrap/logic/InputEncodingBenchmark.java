@@ -0,0 +1,75 @@
+package io.template.bootstrap.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.utilities.JsonMapperUtility;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse and validation throughput of one {@link ApplicationInput} record as JSON versus Smile.
+ * The {@code inputBytes} counter is reported as bytes per second; divided by the primary score it gives the
+ * encoded size of a record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputEncodingBenchmark {
+
+    private static final String RECORD = """
+            {"exampleStringField":"benchmark record","exampleIntField":42,"exampleBooleanField":true,\
+            "exampleTimestampField":"2024-01-01T00:00:00Z","exampleListField":["alpha","beta","gamma","delta"]}""";
+
+    @Param({"JSON", "SMILE"})
+    private String encoding;
+
+    private InputSanitizer inputSanitizer;
+    private byte[] encoded;
+
+    /**
+     * Secondary result counting encoded input bytes consumed.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long inputBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            inputBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        inputSanitizer = new InputSanitizer();
+        byte[] json = RECORD.getBytes(StandardCharsets.UTF_8);
+        encoded = "SMILE".equals(encoding)
+                ? JsonMapperUtility.SMILE_MAPPER.writeValueAsBytes(JsonMapperUtility.MAPPER.readTree(json))
+                : json;
+    }
+
+    @Benchmark
+    public ApplicationInput sanitize(Counters counters) {
+        counters.inputBytes += encoded.length;
+        return inputSanitizer.sanitizeEncoded(encoded);
+    }
+}
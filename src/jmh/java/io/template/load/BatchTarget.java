@@ -0,0 +1,64 @@
+package io.template.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import io.template.batch.logic.BatchProcessor;
+
+/**
+ * Runs batch jobs in-process through {@link BatchProcessor}, each over the same generated NDJSON input and into
+ * its own output file, which is deleted once the job completes.
+ */
+final class BatchTarget implements LoadTarget {
+
+    private final BatchProcessor batchProcessor;
+    private final Path directory;
+    private final Path input;
+    private final int recordsPerJob;
+
+    BatchTarget(BatchProcessor batchProcessor, byte[][] records) throws IOException {
+        this.batchProcessor = batchProcessor;
+        this.directory = Files.createTempDirectory("load-generator");
+        this.input = directory.resolve("input.ndjson");
+        this.recordsPerJob = records.length;
+        try (OutputStream out = Files.newOutputStream(input)) {
+            for (byte[] record : records) {
+                out.write(record);
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * @return whether the job consumed its whole input; rejected records inside the job are expected
+     */
+    @Override
+    public boolean invoke(long sequence) throws IOException {
+        Path output = directory.resolve("output-" + sequence + ".ndjson");
+        try {
+            return batchProcessor.run(input, output).completed();
+        } finally {
+            Files.deleteIfExists(output);
+            Files.deleteIfExists(BatchProcessor.statisticsPathFor(output));
+            Files.deleteIfExists(BatchProcessor.checkpointPathFor(output));
+        }
+    }
+
+    @Override
+    public int recordsPerInvocation() {
+        return recordsPerJob;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
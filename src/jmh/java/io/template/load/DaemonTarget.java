@@ -0,0 +1,37 @@
+package io.template.load;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import io.template.daemon.logic.DaemonClient;
+import io.template.daemon.logic.DaemonServer;
+import io.template.daemon.models.DaemonRequest;
+
+/**
+ * Sends single-input invocations to a daemon started with {@code --daemon <socket>}, one connection each, as
+ * {@code --client <socket> -} would with the payload on standard input.
+ */
+final class DaemonTarget implements LoadTarget {
+
+    private final DaemonClient client;
+    private final String[] payloads;
+
+    DaemonTarget(DaemonClient client, byte[][] payloads) {
+        this.client = client;
+        this.payloads = new String[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            this.payloads[i] = new String(payloads[i], StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public boolean invoke(long sequence) {
+        String payload = payloads[(int) (sequence % payloads.length)];
+        return client.send(new DaemonRequest(List.of(DaemonServer.STDIN_ARGUMENT), payload)).exitCode() == 0;
+    }
+
+    @Override
+    public int recordsPerInvocation() {
+        return 1;
+    }
+}
@@ -0,0 +1,82 @@
+package io.template.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the latencies of a run and its outcome counts from concurrent invocations. Every latency is kept,
+ * so percentiles are exact; a run of a few million invocations needs a few tens of megabytes.
+ */
+final class LatencyRecorder {
+
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    LatencyRecorder(int capacity) {
+        this.latencies = new long[capacity];
+    }
+
+    void recordSuccess(long latencyNanos) {
+        succeeded.incrementAndGet();
+        latencies[recorded.getAndIncrement()] = latencyNanos;
+    }
+
+    void recordRejection(long latencyNanos) {
+        rejected.incrementAndGet();
+        latencies[recorded.getAndIncrement()] = latencyNanos;
+    }
+
+    /**
+     * Failures to reach or run the target are counted but left out of the latencies, since failing fast would
+     * otherwise improve them.
+     */
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    long succeeded() {
+        return succeeded.get();
+    }
+
+    long rejected() {
+        return rejected.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    /**
+     * Summary of the recorded latencies; only call once every invocation has finished.
+     */
+    LoadReport.Latency latency() {
+        long[] sorted = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(sorted);
+        if (sorted.length == 0) {
+            return new LoadReport.Latency(0, 0, 0, 0, 0, 0);
+        }
+        return new LoadReport.Latency(
+                micros(Arrays.stream(sorted).sum() / (double) sorted.length),
+                micros(percentile(sorted, 0.50)),
+                micros(percentile(sorted, 0.90)),
+                micros(percentile(sorted, 0.99)),
+                micros(percentile(sorted, 0.999)),
+                micros(sorted[sorted.length - 1]));
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double micros(double nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,152 @@
+package io.template.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.inject.Guice;
+import io.template.batch.logic.BatchProcessor;
+import io.template.bootstrap.injectionmodules.ApplicationModule;
+import io.template.bootstrap.injectionmodules.LifecycleModule;
+import io.template.daemon.logic.DaemonClient;
+import io.template.shared.models.EnvironmentVariables;
+
+/**
+ * Open-loop load generator for a running daemon or for in-process batch jobs, entirely on the local machine.
+ * <p>
+ * Invocations are started at a fixed rate on their own virtual threads, whether or not earlier ones have
+ * finished, and each latency is measured from when the invocation was due rather than from when it was actually
+ * sent. A stalled target therefore shows up as queueing delay in the percentiles instead of silently lowering
+ * the offered load (coordinated omission). Payloads come from {@link PayloadGenerator}; see {@link LoadOptions}
+ * for the settings. The report is printed and written as JSON.
+ * <pre>
+ *   ./universal-build run --args="--daemon build/daemon.sock"
+ *   ./universal-build loadTest --args="--target daemon --socket build/daemon.sock --rate 500 --duration 60"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private static final int PAYLOAD_POOL_SIZE = 4096;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final LoadOptions options;
+    private final LoadTarget target;
+
+    LoadGenerator(LoadOptions options, LoadTarget target) {
+        this.options = options;
+        this.target = target;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        LoadReport report;
+        try (LoadTarget target = createTarget(options)) {
+            report = new LoadGenerator(options, target).run();
+        }
+        JsonMapper mapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+        String json = mapper.writeValueAsString(report);
+        writeReport(options.report(), json);
+        System.out.println(json);
+    }
+
+    LoadReport run() {
+        long warmup = (long) options.rate() * options.warmupSeconds();
+        long measured = (long) options.rate() * options.durationSeconds();
+        if (measured > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many measured invocations: " + measured);
+        }
+        LatencyRecorder recorder = new LatencyRecorder((int) measured);
+
+        long start = System.nanoTime();
+        long measuredStart = start + due(warmup);
+        try (ExecutorService invocations = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long sequence = 0; sequence < warmup + measured; sequence++) {
+                long dueAt = start + due(sequence);
+                waitUntil(dueAt);
+                long invocation = sequence;
+                LatencyRecorder invocationRecorder = invocation >= warmup ? recorder : null;
+                invocations.execute(() -> invoke(invocation, dueAt, invocationRecorder));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - measuredStart) / (double) NANOS_PER_SECOND;
+
+        long finished = recorder.succeeded() + recorder.rejected();
+        return new LoadReport(
+                options.target(),
+                options.rate(),
+                measured,
+                recorder.succeeded(),
+                recorder.rejected(),
+                recorder.errors(),
+                elapsedSeconds,
+                finished / elapsedSeconds,
+                finished * target.recordsPerInvocation() / elapsedSeconds,
+                recorder.latency());
+    }
+
+    /**
+     * Runs one invocation and, unless it is part of the warmup ({@code recorder} is null), records it.
+     */
+    private void invoke(long sequence, long dueAt, LatencyRecorder recorder) {
+        boolean accepted;
+        try {
+            accepted = target.invoke(sequence);
+        } catch (Exception e) {
+            if (recorder != null) {
+                recorder.recordError();
+            }
+            return;
+        }
+        if (recorder == null) {
+            return;
+        }
+        long latency = System.nanoTime() - dueAt;
+        if (accepted) {
+            recorder.recordSuccess(latency);
+        } else {
+            recorder.recordRejection(latency);
+        }
+    }
+
+    /**
+     * Offset of the invocation from the start of the run, computed from its index so rounding never drifts.
+     */
+    private long due(long sequence) {
+        return sequence * NANOS_PER_SECOND / options.rate();
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static LoadTarget createTarget(LoadOptions options) throws IOException {
+        PayloadGenerator payloads = new PayloadGenerator(options);
+        if (LoadOptions.DAEMON_TARGET.equals(options.target())) {
+            return new DaemonTarget(new DaemonClient(options.socket()), payloads.generate(PAYLOAD_POOL_SIZE));
+        }
+        EnvironmentVariables environmentVariables = new EnvironmentVariables("load", "local", "", 0, false);
+        BatchProcessor batchProcessor = Guice.createInjector(
+                binder -> binder.bind(EnvironmentVariables.class).toInstance(environmentVariables),
+                new LifecycleModule(),
+                new ApplicationModule()
+        ).getInstance(BatchProcessor.class);
+        return new BatchTarget(batchProcessor, payloads.generate(options.recordsPerJob()));
+    }
+
+    private static void writeReport(Path report, String json) throws IOException {
+        Path parent = report.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(report, json);
+    }
+}
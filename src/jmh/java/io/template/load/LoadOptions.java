@@ -0,0 +1,103 @@
+package io.template.load;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.template.load.PayloadGenerator.SizeDistribution;
+
+/**
+ * Settings of one load run, parsed from {@code --name value} arguments; every setting has a default.
+ *
+ * @param target {@code daemon} to drive a running daemon, or {@code batch} to run batch jobs in-process
+ * @param socket Socket of the daemon, for the {@code daemon} target
+ * @param rate Invocations started per second, on a fixed schedule regardless of how fast they complete
+ * @param durationSeconds Length of the measured part of the run
+ * @param warmupSeconds Length of the unmeasured run at the same rate that precedes it
+ * @param recordsPerJob Records in the input of each job, for the {@code batch} target
+ * @param minStringLength Shortest generated string field
+ * @param maxStringLength Longest generated string field
+ * @param minListLength Fewest generated list elements
+ * @param maxListLength Most generated list elements
+ * @param sizeDistribution How string and list lengths are drawn between their bounds
+ * @param invalidRatio Share of generated payloads that are invalid, between 0 and 1
+ * @param seed Seed of the payload generator
+ * @param report File the JSON report is written to
+ */
+record LoadOptions(
+        String target,
+        Path socket,
+        int rate,
+        int durationSeconds,
+        int warmupSeconds,
+        int recordsPerJob,
+        int minStringLength,
+        int maxStringLength,
+        int minListLength,
+        int maxListLength,
+        SizeDistribution sizeDistribution,
+        double invalidRatio,
+        long seed,
+        Path report
+) {
+
+    static final String DAEMON_TARGET = "daemon";
+    static final String BATCH_TARGET = "batch";
+
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+            "target", "socket", "rate", "duration", "warmup", "records-per-job", "min-string", "max-string",
+            "min-list", "max-list", "distribution", "invalid-ratio", "seed", "report");
+
+    LoadOptions {
+        if (!DAEMON_TARGET.equals(target) && !BATCH_TARGET.equals(target)) {
+            throw new IllegalArgumentException("target must be daemon or batch: " + target);
+        }
+        if (rate <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || recordsPerJob <= 0) {
+            throw new IllegalArgumentException(
+                    "rate, duration and records-per-job must be positive, warmup not negative");
+        }
+        if (minStringLength < 0 || maxStringLength < minStringLength) {
+            throw new IllegalArgumentException("string lengths must satisfy 0 <= min <= max");
+        }
+        if (minListLength < 0 || maxListLength < minListLength) {
+            throw new IllegalArgumentException("list lengths must satisfy 0 <= min <= max");
+        }
+        if (invalidRatio < 0 || invalidRatio > 1) {
+            throw new IllegalArgumentException("invalid-ratio must be between 0 and 1: " + invalidRatio);
+        }
+    }
+
+    static LoadOptions parse(String[] args) {
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected --name value pairs");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option name: " + args[i]);
+            }
+            values.put(args[i].substring(2), args[i + 1]);
+        }
+        LoadOptions options = new LoadOptions(
+                values.getOrDefault("target", DAEMON_TARGET),
+                Path.of(values.getOrDefault("socket", "build/daemon.sock")),
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("records-per-job", "1000")),
+                Integer.parseInt(values.getOrDefault("min-string", "8")),
+                Integer.parseInt(values.getOrDefault("max-string", "256")),
+                Integer.parseInt(values.getOrDefault("min-list", "0")),
+                Integer.parseInt(values.getOrDefault("max-list", "32")),
+                SizeDistribution.valueOf(values.getOrDefault("distribution", "EXPONENTIAL")),
+                Double.parseDouble(values.getOrDefault("invalid-ratio", "0.05")),
+                Long.parseLong(values.getOrDefault("seed", "1")),
+                Path.of(values.getOrDefault("report", "build/reports/load/report.json")));
+        values.keySet().removeAll(KNOWN_OPTIONS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+}
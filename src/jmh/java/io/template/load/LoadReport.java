@@ -0,0 +1,41 @@
+package io.template.load;
+
+/**
+ * Outcome of a load run, written as JSON.
+ *
+ * @param target Target that was driven
+ * @param intendedRate Invocations per second the schedule asked for
+ * @param invocations Measured invocations, excluding the warmup
+ * @param succeeded Invocations the application accepted
+ * @param rejected Invocations the application rejected, such as generated invalid records
+ * @param errors Invocations that failed to reach or run the target
+ * @param elapsedSeconds Time from the first measured invocation being due to the last one finishing
+ * @param throughputPerSecond Finished invocations per second of {@code elapsedSeconds}
+ * @param recordsPerSecond Application records per second, which differs from the above for batch jobs
+ * @param latencyMicros Latency from when each invocation was due, not when it was sent, in microseconds
+ */
+record LoadReport(
+        String target,
+        int intendedRate,
+        long invocations,
+        long succeeded,
+        long rejected,
+        long errors,
+        double elapsedSeconds,
+        double throughputPerSecond,
+        double recordsPerSecond,
+        Latency latencyMicros
+) {
+
+    /**
+     * Distribution of latencies, all in the same unit.
+     */
+    record Latency(
+            double mean,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max
+    ) { }
+}
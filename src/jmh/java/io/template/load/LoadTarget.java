@@ -0,0 +1,26 @@
+package io.template.load;
+
+import java.io.IOException;
+
+/**
+ * Something the {@link LoadGenerator} sends invocations to. Called concurrently from many threads.
+ */
+interface LoadTarget extends AutoCloseable {
+
+    /**
+     * Runs one invocation to completion.
+     *
+     * @param sequence Index of the invocation in the run, for targets that vary their payload
+     * @return whether the application accepted the input; {@code false} for a rejected record, which is
+     *         expected for generated invalid payloads
+     */
+    boolean invoke(long sequence) throws Exception;
+
+    /**
+     * Application records carried by one invocation, for the throughput in records per second.
+     */
+    int recordsPerInvocation();
+
+    @Override
+    default void close() throws IOException { }
+}
@@ -0,0 +1,113 @@
+package io.template.load;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * Synthesizes {@code ApplicationInput} JSON documents in the shapes of the test fixtures: valid records with
+ * string lengths and list lengths drawn from a {@link SizeDistribution}, and, at the configured ratio,
+ * invalid ones (malformed, not JSON, a non-numeric int field, an unparseable timestamp). Output is fully
+ * determined by the seed.
+ */
+final class PayloadGenerator {
+
+    /**
+     * How sizes are drawn between their minimum and maximum.
+     */
+    enum SizeDistribution {
+        /**
+         * Every size equally likely.
+         */
+        UNIFORM,
+        /**
+         * Mostly small with a long tail up to the maximum, as in typical production traffic.
+         */
+        EXPONENTIAL
+    }
+
+    private static final char[] ALPHABET =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ".toCharArray();
+    private static final long TIMESTAMP_RANGE_SECONDS = 365L * 24 * 60 * 60;
+    private static final Instant EPOCH_2024 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final LoadOptions options;
+    private final SplittableRandom random;
+
+    PayloadGenerator(LoadOptions options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.seed());
+    }
+
+    /**
+     * The next {@code count} payloads as UTF-8 JSON.
+     */
+    byte[][] generate(int count) {
+        byte[][] payloads = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            String json = random.nextDouble() < options.invalidRatio() ? invalid() : valid();
+            payloads[i] = json.getBytes(StandardCharsets.UTF_8);
+        }
+        return payloads;
+    }
+
+    private String valid() {
+        return record(
+                quoted(text(size(options.minStringLength(), options.maxStringLength()))),
+                Integer.toString(random.nextInt()),
+                quoted(timestamp()));
+    }
+
+    private String invalid() {
+        return switch (random.nextInt(4)) {
+            case 0 -> "{";
+            case 1 -> "not json at all";
+            case 2 -> record(quoted("hello"), quoted("not-a-number"), quoted(timestamp()));
+            default -> record(quoted("hello"), "3", quoted("invalid-date"));
+        };
+    }
+
+    private String record(String stringField, String intField, String timestampField) {
+        int elements = size(options.minListLength(), options.maxListLength());
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < elements; i++) {
+            if (i > 0) {
+                list.append(',');
+            }
+            list.append(quoted(text(size(1, 16))));
+        }
+        return "{\"exampleStringField\":" + stringField
+                + ",\"exampleIntField\":" + intField
+                + ",\"exampleBooleanField\":" + random.nextBoolean()
+                + ",\"exampleTimestampField\":" + timestampField
+                + ",\"exampleListField\":[" + list + "]}";
+    }
+
+    private int size(int min, int max) {
+        if (min == max) {
+            return min;
+        }
+        int span = max - min;
+        return switch (options.sizeDistribution()) {
+            case UNIFORM -> min + random.nextInt(span + 1);
+            // Mean at a quarter of the range, truncated at the maximum
+            case EXPONENTIAL -> min + (int) Math.min(span, -Math.log(1 - random.nextDouble()) * span / 4);
+        };
+    }
+
+    private String text(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+
+    private String timestamp() {
+        return EPOCH_2024.plusSeconds(random.nextLong(TIMESTAMP_RANGE_SECONDS)).toString();
+    }
+
+    private static String quoted(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,125 @@
+package io.template.resultcache.logic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.template.resultcache.models.ResultCacheMetrics;
+
+/**
+ * Throughput of {@link SharedResultCache} with several processes using the same file at once, which a JMH
+ * benchmark inside one JVM cannot show. For each process count a fresh cache file is created and that many JVMs
+ * look up random keys for the same period, storing a result on every miss and checking every hit against the
+ * expected value. The table reports lookups per second in total and per process, the hit ratio, stores lost to
+ * another writer holding the slot, and wrong results, which must be 0.
+ * <pre>
+ *   ./universal-build resultCacheContention --args="--processes 1,2,4,8 --seconds 5"
+ * </pre>
+ */
+public final class SharedResultCacheContention {
+
+    static final String CHILD_FLAG = "--child";
+    // Half the slots, so that the table fills up and most lookups end up as hits
+    static final int KEYS = SharedResultCache.DEFAULT_SLOTS / 2;
+    static final long OPERATION = 3;
+
+    private static final long START_DELAY_MILLIS = 2_000;
+
+    private SharedResultCacheContention() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 5 && CHILD_FLAG.equals(args[0])) {
+            runChild(Path.of(args[1]), Long.parseLong(args[2]), Long.parseLong(args[3]), Long.parseLong(args[4]));
+            return;
+        }
+        String processes = "1,2,4,8";
+        long seconds = 5;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--processes" -> processes = args[i + 1];
+                case "--seconds" -> seconds = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        System.out.printf("%-9s %14s %14s %9s %10s %6s%n", "processes", "lookups/s", "per process", "hit ratio",
+                "contended", "wrong");
+        for (String count : processes.split(",")) {
+            runRound(Integer.parseInt(count.strip()), seconds);
+        }
+    }
+
+    private static void runRound(int processCount, long seconds) throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("result-cache-contention");
+        Path file = directory.resolve("results");
+        long startAt = System.currentTimeMillis() + START_DELAY_MILLIS;
+        List<Process> processes = new ArrayList<>(processCount);
+        for (int i = 0; i < processCount; i++) {
+            processes.add(new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-DLOG_LEVEL=WARN", "-cp", System.getProperty("java.class.path"),
+                    SharedResultCacheContention.class.getName(), CHILD_FLAG, file.toString(),
+                    Long.toString(startAt), Long.toString(seconds), Integer.toString(i))
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start());
+        }
+        long lookups = 0;
+        long hits = 0;
+        long contended = 0;
+        long wrong = 0;
+        for (Process process : processes) {
+            String[] outcome = lastLine(process.getInputStream()).split(" ");
+            if (process.waitFor() != 0 || outcome.length != 4) {
+                throw new IllegalStateException("Benchmark process failed with exit code " + process.exitValue());
+            }
+            lookups += Long.parseLong(outcome[0]);
+            hits += Long.parseLong(outcome[1]);
+            contended += Long.parseLong(outcome[2]);
+            wrong += Long.parseLong(outcome[3]);
+        }
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+        System.out.printf("%-9d %14d %14d %9.3f %10d %6d%n", processCount, lookups / seconds,
+                lookups / seconds / processCount, lookups == 0 ? 0 : (double) hits / lookups, contended, wrong);
+    }
+
+    /**
+     * Runs lookups from {@code startAt} for {@code seconds} and prints lookups, hits, contended stores and wrong
+     * results on one line.
+     */
+    private static void runChild(Path file, long startAt, long seconds, long seed) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long lookups = 0;
+        long wrong = 0;
+        ResultCacheMetrics metrics;
+        try (SharedResultCache cache = new SharedResultCache(file, SharedResultCache.DEFAULT_SLOTS)) {
+            Thread.sleep(Math.max(0, startAt - System.currentTimeMillis()));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < 1024; i++) {
+                    double operand = random.nextInt(KEYS);
+                    OptionalDouble cached = cache.get(operand, operand, OPERATION);
+                    if (cached.isEmpty()) {
+                        cache.put(operand, operand, OPERATION, operand * operand);
+                    } else if (cached.getAsDouble() != operand * operand) {
+                        wrong++;
+                    }
+                }
+                lookups += 1024;
+            }
+            metrics = cache.metrics();
+        }
+        System.out.println(lookups + " " + metrics.hits() + " " + metrics.contendedStores() + " " + wrong);
+    }
+
+    private static String lastLine(InputStream output) throws IOException {
+        String[] lines = new String(output.readAllBytes(), StandardCharsets.UTF_8).strip().split("\n");
+        return lines[lines.length - 1].strip();
+    }
+}
@@ -0,0 +1,50 @@
+package io.template.samplebusinesslayer.logic;
+
+import java.util.concurrent.TimeUnit;
+
+import io.template.samplebusinesslayer.models.CalculationRequest;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.shared.models.NumericMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one calculation per {@link NumericMode} and operation, to pick the fastest mode that is still correct.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorBenchmark {
+
+    @Param({"DOUBLE", "DECIMAL", "FIXED_POINT"})
+    private NumericMode numericMode;
+
+    @Param({"ADD", "MULTIPLY", "DIVIDE"})
+    private String operation;
+
+    private Calculator calculator;
+    private CalculationRequest request;
+
+    @Setup
+    public void setUp() {
+        calculator = new Calculator();
+        request = new CalculationRequest(1234.5678, 8.75, operation, numericMode);
+    }
+
+    @Benchmark
+    public CalculationResult calculate() {
+        return calculator.calculate(request);
+    }
+}
@@ -0,0 +1,65 @@
+package io.template.shared.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.utilities.JsonMapperUtility;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Retained heap of {@link #RECORDS} deserialized inputs whose text values come from a small vocabulary, measured
+ * with JOL, with and without {@link DeduplicatingStringDeserializer}. The baseline copies every text value into
+ * its own instance, as Jackson does without the deserializer.
+ */
+public final class StringDeduplicationFootprint {
+
+    static final int RECORDS = 100_000;
+    static final int STRING_VALUES = 50;
+    static final int LIST_VALUES = 200;
+    static final int LIST_LENGTH = 5;
+
+    private StringDeduplicationFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        SplittableRandom random = new SplittableRandom(1);
+        List<ApplicationInput> deduplicated = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            byte[] json = record(random, i).getBytes(StandardCharsets.UTF_8);
+            deduplicated.add(JsonMapperUtility.MAPPER.readValue(json, ApplicationInput.class));
+        }
+        List<ApplicationInput> copied = deduplicated.stream().map(StringDeduplicationFootprint::copy).toList();
+
+        long before = GraphLayout.parseInstance(copied).totalSize();
+        long after = GraphLayout.parseInstance(deduplicated).totalSize();
+        System.out.printf("%-14s %14s %14s%n", "", "retained bytes", "bytes/record");
+        System.out.printf("%-14s %14d %14d%n", "per occurrence", before, before / RECORDS);
+        System.out.printf("%-14s %14d %14d%n", "deduplicated", after, after / RECORDS);
+        System.out.printf("saved %.1f%%%n", 100.0 * (before - after) / before);
+    }
+
+    private static String record(SplittableRandom random, int index) {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < LIST_LENGTH; i++) {
+            list.append(i == 0 ? "" : ",").append("\"tag-").append(random.nextInt(LIST_VALUES)).append('"');
+        }
+        return "{\"exampleStringField\":\"category-" + random.nextInt(STRING_VALUES) + "\""
+                + ",\"exampleIntField\":" + index
+                + ",\"exampleBooleanField\":true"
+                + ",\"exampleTimestampField\":\"2024-01-01T00:00:00Z\""
+                + ",\"exampleListField\":[" + list + "]}";
+    }
+
+    private static ApplicationInput copy(ApplicationInput input) {
+        return new ApplicationInput(
+                String.valueOf(input.exampleStringField().toCharArray()),
+                input.exampleIntField(),
+                input.exampleBooleanField(),
+                input.exampleTimestampField(),
+                input.exampleListField().stream().map(value -> String.valueOf(value.toCharArray())).toList());
+    }
+}
@@ -1,6 +1,10 @@
 package io.template;
 
+import java.time.Duration;
+
 import com.google.inject.Injector;
+import io.template.bootstrap.logic.LifecycleRegistry;
+import io.template.bootstrap.models.ShutdownReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +15,8 @@ import org.slf4j.LoggerFactory;
 public final class LifecycleManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LifecycleManager.class);
+    // Kept below the 30 second default termination grace period of container orchestrators
+    private static final Duration SHUTDOWN_DEADLINE = Duration.ofSeconds(25);
 
     private LifecycleManager() { }
 
@@ -28,13 +34,15 @@ public final class LifecycleManager {
 
     /**
      * Cleans up resources that require explicit shutdown.
-     * Extend this method to close additional AutoCloseable resources.
+     * Singletons implementing Drainable, Flushable or AutoCloseable are picked up automatically
+     * through the LifecycleModule; anything else can be registered with the LifecycleRegistry.
      *
      * @param injector the Guice injector containing managed resources
      */
     private static void cleanupResources(Injector injector) {
         try {
-            // Pull resources from the injector and close them here to prevent memory leaks
+            ShutdownReport report = injector.getInstance(LifecycleRegistry.class).shutdown(SHUTDOWN_DEADLINE);
+            LOGGER.info("Shutdown finished in {} ms: {}", report.total().toMillis(), report);
         } catch (Exception e) {
             LOGGER.error("Error during resource cleanup", e);
         }
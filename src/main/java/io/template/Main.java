@@ -2,9 +2,14 @@ package io.template;
 
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Stage;
+import io.template.bootstrap.injectionmodules.ApplicationModule;
 import io.template.bootstrap.injectionmodules.EnvironmentModule;
+import io.template.bootstrap.injectionmodules.LifecycleModule;
 import io.template.bootstrap.logic.Executor;
-import org.slf4j.Logger;
+import io.template.bootstrap.logic.ResourceTuner;
+import io.template.daemon.logic.DaemonClient;
+import io.template.shared.utilities.CarrierThreadUtility;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -16,27 +21,55 @@ import org.slf4j.LoggerFactory;
  */
 public final class Main {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
+    // Read by Guice once, when the injector internals are first loaded
+    private static final String GUICE_BYTECODE_GEN_OPTION = "guice_bytecode_gen_option";
 
     private Main() { }
 
     public static void main(String[] args) {
+        // Nothing before this may touch SLF4J: a forwarded invocation exits without initialising logging
+        if (DaemonClient.isClientInvocation(args)) {
+            System.exit(DaemonClient.forward(args, System.in, System.out, System.err));
+        }
         try {
+            // Sizes are read by components as they are created, so they are published before the injector exists
+            ResourceTuner.tune(System.getenv(), System.getProperties());
+            // Before anything starts a virtual thread, which fixes the scheduler's settings
+            CarrierThreadUtility.configure(System.getProperties());
             Injector injector = Guice.createInjector(
-                    new EnvironmentModule()
+                    selectStage(args),
+                    new EnvironmentModule(),
+                    new LifecycleModule(),
+                    new ApplicationModule()
             );
 
             LifecycleManager.registerShutdownHooks(injector);
 
             Executor executor = injector.getInstance(Executor.class);
-            executor.execute(args);
+            executor.execute(args, System.out);
         } catch (Exception exception) {
             safeCleanup(exception);
             System.exit(1);
         }
     }
 
+    /**
+     * Long-running modes create every singleton upfront, so configuration errors surface at startup and the first
+     * request is not slowed down by construction. One-shot commands only build what they use and skip Guice's
+     * class generation, which costs more than it saves in a process that handles a single invocation.
+     */
+    private static Stage selectStage(String[] args) {
+        if (Executor.isLongRunning(args)) {
+            return Stage.PRODUCTION;
+        }
+        if (System.getProperty(GUICE_BYTECODE_GEN_OPTION) == null) {
+            System.setProperty(GUICE_BYTECODE_GEN_OPTION, "DISABLED");
+        }
+        return Stage.DEVELOPMENT;
+    }
+
     private static void safeCleanup(Exception exception) {
-        LOGGER.error("Technical exception occurred at software entrypoint level: ", exception);
+        LoggerFactory.getLogger(Main.class).error("Technical exception occurred at software entrypoint level: ",
+                exception);
     }
 }
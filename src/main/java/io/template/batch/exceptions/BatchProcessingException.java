@@ -0,0 +1,17 @@
+package io.template.batch.exceptions;
+
+/**
+ * Thrown when a batch job cannot read its input, write its output or persist its progress.
+ */
+public final class BatchProcessingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BatchProcessingException(String message) {
+        super(message);
+    }
+
+    public BatchProcessingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
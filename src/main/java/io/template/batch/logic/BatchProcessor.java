@@ -0,0 +1,476 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.batch.models.BatchSummary;
+import io.template.batch.models.Checkpoint;
+import io.template.batch.models.FlushMetrics;
+import io.template.batch.models.RecordFailure;
+import io.template.batch.models.Shard;
+import io.template.bootstrap.logic.Drainable;
+import io.template.bootstrap.logic.InputProcessor;
+import io.template.incremental.logic.IncrementalState;
+import io.template.incremental.models.CachedOutput;
+import io.template.index.logic.IndexBuilder;
+import io.template.index.logic.RecordIndex;
+import io.template.samplebusinesslayer.logic.ResultAggregator;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.samplebusinesslayer.models.ResultStatistics;
+import io.template.samplebusinesslayer.models.WindowStatistics;
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.Result;
+import io.template.shared.models.WindowSpec;
+import io.template.shared.utilities.HashingUtility;
+import io.template.shared.utilities.HashingUtility.Hash128;
+import io.template.shared.utilities.JsonMapperUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes a newline-delimited JSON input file into a newline-delimited JSON output file,
+ * one output line per input record, in input order. Input in the {@link BinaryRecordFormat} is accepted too and
+ * recognised from its header.
+ * <p>
+ * Progress is checkpointed every {@link #DEFAULT_CHECKPOINT_INTERVAL_RECORDS} records next to the
+ * output file, and a run over the same output resumes from the last checkpoint instead of record zero.
+ * Rejected records produce a {@link RecordFailure} line rather than aborting the job, and are handled without
+ * exceptions through {@link InputProcessor#tryProcessEncoded(byte[])}. Accepted results are
+ * aggregated on the fly into {@link ResultStatistics}, carried in every checkpoint, and written next to the
+ * output once the job completes. {@link #runIndexed(Path, Path)} additionally builds a {@link RecordIndex} of the
+ * accepted records during the same pass, and {@link #runIncremental(Path, Path, Path)} only processes the records
+ * that changed since its previous run. {@link #runStream(ReadableByteChannel, Path, FlushPolicy, WindowSpec)}
+ * processes records as they arrive instead, through a {@link MicroBatchWriter}, and aggregates them into
+ * event-time windows.
+ */
+@Singleton
+public class BatchProcessor implements Drainable {
+
+    static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    static final String STATISTICS_SUFFIX = ".statistics.json";
+    static final String INDEX_SUFFIX = ".index";
+    static final String WINDOWS_SUFFIX = ".windows.ndjson";
+    static final int DEFAULT_CHECKPOINT_INTERVAL_RECORDS = 10_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchProcessor.class);
+
+    private final InputProcessor inputProcessor;
+    private final int checkpointIntervalRecords;
+    private final Set<ActiveRun> activeRuns = ConcurrentHashMap.newKeySet();
+    private volatile boolean intakeStopped;
+
+    @Inject
+    public BatchProcessor(InputProcessor inputProcessor) {
+        this(inputProcessor, DEFAULT_CHECKPOINT_INTERVAL_RECORDS);
+    }
+
+    BatchProcessor(InputProcessor inputProcessor, int checkpointIntervalRecords) {
+        this.inputProcessor = inputProcessor;
+        this.checkpointIntervalRecords = checkpointIntervalRecords;
+    }
+
+    public static Path checkpointPathFor(Path output) {
+        return output.resolveSibling(output.getFileName() + CHECKPOINT_SUFFIX);
+    }
+
+    /**
+     * File the {@link ResultStatistics} of a completed job are written to.
+     */
+    public static Path statisticsPathFor(Path output) {
+        return output.resolveSibling(output.getFileName() + STATISTICS_SUFFIX);
+    }
+
+    /**
+     * File the {@link WindowStatistics} of a stream are written to, one JSON line per window.
+     */
+    public static Path windowsPathFor(Path output) {
+        return output.resolveSibling(output.getFileName() + WINDOWS_SUFFIX);
+    }
+
+    /**
+     * Directory the {@link RecordIndex} of an indexed job is written to.
+     */
+    public static Path indexPathFor(Path output) {
+        return output.resolveSibling(output.getFileName() + INDEX_SUFFIX);
+    }
+
+    public BatchSummary run(Path input, Path output) {
+        return run(input, output, false, null);
+    }
+
+    /**
+     * Same as {@link #run(Path, Path)}, also writing a {@link RecordIndex} of the accepted records to
+     * {@link #indexPathFor(Path)} once the job completes. The index is built in memory as records are processed,
+     * so a job resumed from a checkpoint has not seen every record and writes no index; rerun it from the start
+     * to index it.
+     */
+    public BatchSummary runIndexed(Path input, Path output) {
+        return run(input, output, true, null);
+    }
+
+    /**
+     * Same as {@link #run(Path, Path)}, reusing the output line of every record whose 128-bit fingerprint matches
+     * one processed by the previous run with the same {@link IncrementalState} directory, so that only new or changed
+     * records are processed. The output and statistics are the same as those of a full run. The state is replaced
+     * once the job completes; a job resumed from a checkpoint has not seen every record and keeps the previous
+     * state. Delete the state directory whenever the calculation or validation rules change.
+     */
+    public BatchSummary runIncremental(Path input, Path output, Path stateDirectory) {
+        return run(input, output, false, stateDirectory);
+    }
+
+    private BatchSummary run(Path input, Path output, boolean indexed, Path stateDirectory) {
+        ActiveRun run = register();
+        try {
+            return runFromCheckpoint(run, input, output, indexed, stateDirectory);
+        } catch (IOException e) {
+            throw new BatchProcessingException("Batch I/O failed for input " + input + ", output " + output, e);
+        } finally {
+            unregister(run);
+        }
+    }
+
+    /**
+     * Processes records as they arrive on {@code input}, such as standard input, until it ends or intake stops.
+     * Output lines are written in micro-batches bounded by {@code flushPolicy}, trading the latency of each line
+     * against the number of writes; the flush sizes are logged at the end. Accepted results are also aggregated into
+     * the event-time windows of {@code windowSpec}, keyed on {@code exampleTimestampField}, which are written to
+     * {@link #windowsPathFor(Path)} as they close, see {@link StreamWindows}. Nothing is checkpointed, and the
+     * statistics are written next to the output once the input ends.
+     */
+    public BatchSummary runStream(ReadableByteChannel input, Path output, FlushPolicy flushPolicy,
+                                  WindowSpec windowSpec) {
+        ActiveRun run = register();
+        try {
+            ResultAggregator aggregator = new ResultAggregator();
+            long processed = 0;
+            long rejected = 0;
+            MicroBatchWriter writer = new MicroBatchWriter(Files.newOutputStream(output), flushPolicy);
+            StreamWindows windows;
+            try (writer;
+                 StreamWindows opened = new StreamWindows(windowsPathFor(output), windowSpec, flushPolicy);
+                 RecordReader reader = new RecordReader(input, 0)) {
+                windows = opened;
+                byte[] record;
+                while (!run.stopRequested && (record = reader.next()) != null) {
+                    Result<CalculationResult> outcome = inputProcessor.tryProcessEncoded(record, windows);
+                    if (outcome instanceof Result.Success<CalculationResult>(CalculationResult result)) {
+                        windows.add(result);
+                    }
+                    if (!writeOutcome(writer::write, outcome, aggregator)) {
+                        rejected++;
+                    }
+                    processed++;
+                }
+                windows.finish();
+            }
+
+            ResultStatistics statistics = aggregator.snapshot();
+            FlushMetrics flushes = writer.metrics();
+            LOGGER.info("Stream {} after {} records ({} rejected) in {} writes: {}",
+                    run.stopRequested ? "stopped" : "completed", processed, rejected, flushes.flushes(), flushes);
+            LOGGER.info("Wrote {} windows; dropped {} records later than the allowed lateness and {} without a "
+                    + "timestamp", windows.written(), windows.droppedRecords(), windows.withoutTimestamp());
+            writeStatistics(statisticsPathFor(output), statistics);
+            return new BatchSummary(0, processed, rejected, !run.stopRequested, statistics);
+        } catch (IOException e) {
+            throw new BatchProcessingException("Stream I/O failed for output " + output, e);
+        } finally {
+            unregister(run);
+        }
+    }
+
+    /**
+     * Processes the records of one shard of the input into its own output file, without checkpoints;
+     * a failed shard is retried as a whole. The shard's statistics are written next to its output.
+     */
+    public BatchSummary runShard(Path input, Shard shard, Path shardOutput) {
+        try (FileChannel inputChannel = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel outputChannel = FileChannel.open(shardOutput,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             RecordSource reader = RecordSources.open(inputChannel, shard.start());
+             RecordWriter writer = new RecordWriter(
+                     BlockGzipFormat.outputChannel(shardOutput, outputChannel), 0)) {
+            ResultAggregator aggregator = new ResultAggregator();
+            long processed = 0;
+            long rejected = 0;
+            byte[] record;
+            while (reader.position() < shard.end() && (record = reader.next()) != null) {
+                if (!processRecord(writer, record, aggregator)) {
+                    rejected++;
+                }
+                processed++;
+            }
+            writer.flush();
+            outputChannel.force(false);
+
+            ResultStatistics statistics = aggregator.snapshot();
+            writeStatistics(statisticsPathFor(shardOutput), statistics);
+            return new BatchSummary(shard.start(), processed, rejected, true, statistics);
+        } catch (IOException e) {
+            throw new BatchProcessingException("Batch I/O failed for shard " + shard + " of input " + input, e);
+        }
+    }
+
+    /**
+     * Makes every running job stop after its current record and write its final checkpoint. Jobs started
+     * afterwards stop before their first record; the stop is never lifted, as it is only requested on shutdown.
+     */
+    @Override
+    public void stopIntake() {
+        intakeStopped = true;
+        for (ActiveRun run : activeRuns) {
+            run.stopRequested = true;
+        }
+    }
+
+    /**
+     * Waits for every running job to write its final checkpoint.
+     */
+    @Override
+    public boolean awaitDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (ActiveRun run : List.copyOf(activeRuns)) {
+                if (!run.finished.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Tracks a job until {@link #unregister(ActiveRun)}. It is added before the stop is checked, and
+     * {@link #stopIntake()} sets the stop before visiting the jobs, so a job starting during a stop is stopped
+     * either way.
+     */
+    private ActiveRun register() {
+        ActiveRun run = new ActiveRun();
+        activeRuns.add(run);
+        if (intakeStopped) {
+            run.stopRequested = true;
+        }
+        return run;
+    }
+
+    private void unregister(ActiveRun run) {
+        activeRuns.remove(run);
+        run.finished.countDown();
+    }
+
+    private BatchSummary runFromCheckpoint(ActiveRun run, Path input, Path output, boolean indexed,
+                                           Path stateDirectory) throws IOException {
+        Path checkpointPath = checkpointPathFor(output);
+        Checkpoint start = Checkpointer.load(checkpointPath).orElse(Checkpoint.START);
+        if (start.inputOffset() > 0) {
+            LOGGER.info("Resuming batch from {}", start);
+        }
+        IndexBuilder indexBuilder = null;
+        if (indexed && start.recordsProcessed() > 0) {
+            LOGGER.warn("Not indexing a batch resumed after {} records", start.recordsProcessed());
+        } else if (indexed) {
+            indexBuilder = new IndexBuilder();
+        }
+        boolean commitState = stateDirectory != null && start.recordsProcessed() == 0;
+        if (stateDirectory != null && !commitState) {
+            LOGGER.warn("Not updating incremental state of a batch resumed after {} records",
+                    start.recordsProcessed());
+        }
+
+        try (IncrementalState state = stateDirectory == null ? null : IncrementalState.open(stateDirectory);
+             FileChannel inputChannel = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel outputChannel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             RecordSource reader = RecordSources.open(inputChannel, start.inputOffset());
+             RecordWriter writer = new RecordWriter(BlockGzipFormat.outputChannel(output,
+                     outputChannel.truncate(start.outputPosition()).position(start.outputPosition())),
+                     start.outputPosition())) {
+            Checkpointer checkpointer = new Checkpointer(checkpointPath, outputChannel);
+            BatchSummary summary;
+            try {
+                summary = processRecords(run, reader, writer, outputChannel, checkpointer, start, indexBuilder,
+                        state);
+            } finally {
+                checkpointer.close();
+            }
+            if (summary.completed()) {
+                writeStatistics(statisticsPathFor(output), summary.statistics());
+                if (indexBuilder != null) {
+                    indexBuilder.write(indexPathFor(output));
+                }
+                if (commitState) {
+                    state.commit();
+                }
+                checkpointer.delete();
+            }
+            return summary;
+        }
+    }
+
+    private BatchSummary processRecords(
+            ActiveRun run,
+            RecordSource reader,
+            RecordWriter writer,
+            FileChannel outputChannel,
+            Checkpointer checkpointer,
+            Checkpoint start,
+            IndexBuilder indexBuilder,
+            IncrementalState state
+    ) throws IOException {
+        ResultAggregator aggregator = ResultAggregator.restore(start.statistics());
+        long processed = start.recordsProcessed();
+        // Every accepted record adds one result, so the rest of those processed before a resume were rejected
+        long rejected = start.recordsProcessed() - start.statistics().count();
+        byte[] record;
+        while (!run.stopRequested && (record = reader.next()) != null) {
+            boolean accepted;
+            if (state != null) {
+                accepted = processIncrementally(writer, record, aggregator, state);
+            } else {
+                Result<CalculationResult> outcome = indexBuilder == null
+                        ? inputProcessor.tryProcessEncoded(record)
+                        : inputProcessor.tryProcessEncoded(record, indexer(indexBuilder, processed));
+                accepted = writeOutcome(writer::write, outcome, aggregator);
+            }
+            if (!accepted) {
+                rejected++;
+            }
+            processed++;
+            if (processed % checkpointIntervalRecords == 0) {
+                checkpointer.submit(new Checkpoint(
+                        reader.position(), flush(writer, outputChannel), processed, aggregator.snapshot()));
+            }
+        }
+        ResultStatistics statistics = aggregator.snapshot();
+        checkpointer.submit(new Checkpoint(reader.position(), flush(writer, outputChannel), processed, statistics));
+
+        boolean completed = !run.stopRequested;
+        String outcome = completed ? "completed" : "stopped";
+        LOGGER.info("Batch {} after {} records ({} rejected), results sum {} mean {} min {} max {}",
+                outcome, processed, rejected,
+                statistics.total(), statistics.mean(), statistics.min(), statistics.max());
+        if (state != null) {
+            LOGGER.info("Reused the output of {} unchanged records", state.reused());
+        }
+        return new BatchSummary(start.inputOffset(), processed, rejected, completed, statistics);
+    }
+
+    /**
+     * Flushes buffered output and returns the position in the output file to checkpoint. For compressed output this
+     * is the compressed size so far, which differs from the writer's logical position.
+     */
+    private static long flush(RecordWriter writer, FileChannel outputChannel) throws IOException {
+        writer.flush();
+        return outputChannel.position();
+    }
+
+    /**
+     * Writes the outcome of one record and aggregates its result.
+     *
+     * @return whether the record was accepted
+     */
+    private boolean processRecord(RecordWriter writer, byte[] record, ResultAggregator aggregator)
+            throws IOException {
+        return writeOutcome(writer::write, inputProcessor.tryProcessEncoded(record), aggregator);
+    }
+
+    /**
+     * Writes the output the record produced last time if it is unchanged, or processes it and remembers its output.
+     *
+     * @return whether the record was accepted
+     */
+    private boolean processIncrementally(
+            RecordWriter writer,
+            byte[] record,
+            ResultAggregator aggregator,
+            IncrementalState state
+    ) throws IOException {
+        Hash128 fingerprint = HashingUtility.hash128(record);
+        CachedOutput cached = state.reuse(fingerprint);
+        if (cached != null) {
+            writer.write(cached.output());
+            if (cached.accepted()) {
+                aggregator.accept(cached.result());
+            }
+            return cached.accepted();
+        }
+        switch (inputProcessor.tryProcessEncoded(record)) {
+            case Result.Success<CalculationResult>(CalculationResult result) -> {
+                byte[] line = JsonMapperUtility.MAPPER.writeValueAsBytes(result);
+                writer.write(line);
+                aggregator.accept(result);
+                state.remember(fingerprint, line, true, result.result());
+                return true;
+            }
+            case Result.Failure<CalculationResult>(String message) -> {
+                byte[] line = JsonMapperUtility.MAPPER.writeValueAsBytes(new RecordFailure(message));
+                writer.write(line);
+                state.remember(fingerprint, line, false, 0);
+                return false;
+            }
+        }
+    }
+
+    private static boolean writeOutcome(
+            LineSink writer,
+            Result<CalculationResult> outcome,
+            ResultAggregator aggregator
+    ) throws IOException {
+        switch (outcome) {
+            case Result.Success<CalculationResult>(CalculationResult result) -> {
+                writer.write(JsonMapperUtility.MAPPER.writeValueAsBytes(result));
+                aggregator.accept(result);
+                return true;
+            }
+            case Result.Failure<CalculationResult>(String message) -> {
+                writer.write(JsonMapperUtility.MAPPER.writeValueAsBytes(new RecordFailure(message)));
+                return false;
+            }
+        }
+    }
+
+    private static Consumer<ApplicationInput> indexer(IndexBuilder indexBuilder, long recordNumber) {
+        return input -> indexBuilder.add(recordNumber, input);
+    }
+
+    static void writeStatistics(Path statisticsPath, ResultStatistics statistics) throws IOException {
+        Files.write(statisticsPath, JsonMapperUtility.MAPPER.writeValueAsBytes(statistics));
+    }
+
+    /**
+     * Where output lines go: a {@link RecordWriter} or a {@link MicroBatchWriter}.
+     */
+    @FunctionalInterface
+    private interface LineSink {
+
+        void write(byte[] line) throws IOException;
+    }
+
+    /**
+     * Stop flag and completion of one job, so that concurrent jobs, such as those of a daemon, are stopped and
+     * awaited separately.
+     */
+    private static final class ActiveRun {
+
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile boolean stopRequested;
+    }
+}
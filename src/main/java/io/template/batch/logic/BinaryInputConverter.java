@@ -0,0 +1,83 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.inject.Inject;
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.shared.utilities.JsonMapperUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts a newline-delimited JSON input file into the {@link BinaryRecordFormat}, one Smile document per
+ * record. The conversion is purely syntactic: validation still happens when the converted file is processed,
+ * and records that are not well-formed JSON are carried over verbatim so they are rejected the same way.
+ * Either side may be gzip-compressed, see {@link BlockGzipFormat}.
+ */
+public class BinaryInputConverter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryInputConverter.class);
+
+    private final JsonFactory jsonFactory = JsonMapperUtility.MAPPER.getFactory();
+    private final JsonFactory smileFactory = JsonMapperUtility.SMILE_MAPPER.getFactory();
+
+    @Inject
+    public BinaryInputConverter() { }
+
+    /**
+     * @return number of records written
+     */
+    public long convert(Path ndjsonInput, Path binaryOutput) {
+        try (FileChannel inputChannel = FileChannel.open(ndjsonInput, StandardOpenOption.READ);
+             FileChannel outputChannel = FileChannel.open(binaryOutput,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             RecordSource reader = RecordSources.open(inputChannel, 0);
+             BinaryRecordWriter writer = new BinaryRecordWriter(
+                     BlockGzipFormat.outputChannel(binaryOutput, outputChannel))) {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            long records = 0;
+            long verbatim = 0;
+            byte[] record;
+            while ((record = reader.next()) != null) {
+                encoded.reset();
+                if (toSmile(record, encoded)) {
+                    writer.write(encoded.toByteArray());
+                } else {
+                    writer.write(record);
+                    verbatim++;
+                }
+                records++;
+            }
+            LOGGER.info("Converted {} records ({} not well-formed, kept verbatim)", records, verbatim);
+            return records;
+        } catch (IOException e) {
+            throw new BatchProcessingException("Conversion failed for input " + ndjsonInput
+                    + ", output " + binaryOutput, e);
+        }
+    }
+
+    /**
+     * @return whether the record was well-formed JSON and has been written to {@code target} as Smile
+     */
+    private boolean toSmile(byte[] json, ByteArrayOutputStream target) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = smileFactory.createGenerator(target)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            generator.copyCurrentStructure(parser);
+            generator.flush();
+            return parser.nextToken() == null;
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+}
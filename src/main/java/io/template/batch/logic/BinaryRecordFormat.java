@@ -0,0 +1,53 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Length-prefixed binary layout for batch input files, an alternative to newline-delimited JSON that avoids
+ * text parsing.
+ * <pre>
+ *   header: the {@link #MAGIC} bytes, then a format version byte
+ *   record: 4-byte big-endian payload length, then the payload (a Smile document, or JSON bytes for records
+ *           that were not valid JSON when converted, so they are rejected exactly as before)
+ * </pre>
+ * The header lets the batch job pick the reader from the file itself, without an extra flag.
+ */
+public final class BinaryRecordFormat {
+
+    static final byte[] MAGIC = {'T', 'P', 'L', 'B'};
+    static final byte VERSION = 1;
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+    static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+    static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private BinaryRecordFormat() { }
+
+    /**
+     * Whether the file starts with the binary header. Does not move the channel's position.
+     */
+    static boolean isBinary(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return false;
+            }
+        }
+        return isHeader(header.array());
+    }
+
+    /**
+     * Whether {@code leading}, the first bytes of a file, are the binary header.
+     */
+    static boolean isHeader(byte[] leading) throws IOException {
+        if (leading.length < HEADER_LENGTH || !Arrays.equals(leading, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            return false;
+        }
+        if (leading[MAGIC.length] != VERSION) {
+            throw new IOException("Unsupported binary input version: " + leading[MAGIC.length]);
+        }
+        return true;
+    }
+}
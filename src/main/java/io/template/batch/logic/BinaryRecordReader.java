@@ -0,0 +1,91 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads length-prefixed records in the {@link BinaryRecordFormat} while tracking the byte offset of the next
+ * record, the binary counterpart of {@link RecordReader}.
+ */
+public final class BinaryRecordReader implements RecordSource {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long position;
+    private boolean endOfInput;
+
+    /**
+     * @param channel channel already positioned at the start of a record, {@code startOffset}
+     * @param startOffset byte offset of the channel's current position within the file
+     */
+    public BinaryRecordReader(ReadableByteChannel channel, long startOffset) {
+        this.channel = channel;
+        this.position = startOffset;
+        buffer.flip();
+    }
+
+    @Override
+    public byte[] next() throws IOException {
+        if (!ensureAvailable(BinaryRecordFormat.LENGTH_PREFIX_BYTES)) {
+            if (buffer.hasRemaining()) {
+                throw new IOException("Truncated record length at offset " + position);
+            }
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > BinaryRecordFormat.MAX_RECORD_BYTES) {
+            throw new IOException("Invalid record length " + length + " at offset " + position);
+        }
+        byte[] record = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            if (!buffer.hasRemaining() && !fill()) {
+                throw new IOException("Truncated record at offset " + position);
+            }
+            int chunk = Math.min(buffer.remaining(), length - copied);
+            buffer.get(record, copied, chunk);
+            copied += chunk;
+        }
+        position += BinaryRecordFormat.LENGTH_PREFIX_BYTES + length;
+        return record;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean ensureAvailable(int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.compact();
+        int read = 0;
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a file in the {@link BinaryRecordFormat}: the header on construction, then one length-prefixed
+ * frame per record.
+ */
+public final class BinaryRecordWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    public BinaryRecordWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        buffer.put(BinaryRecordFormat.MAGIC).put(BinaryRecordFormat.VERSION);
+    }
+
+    public void write(byte[] record) throws IOException {
+        if (record.length > BinaryRecordFormat.MAX_RECORD_BYTES) {
+            throw new IOException("Record of " + record.length + " bytes exceeds the binary format limit");
+        }
+        if (buffer.remaining() < BinaryRecordFormat.LENGTH_PREFIX_BYTES) {
+            flush();
+        }
+        buffer.putInt(record.length);
+        int written = 0;
+        while (written < record.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int chunk = Math.min(buffer.remaining(), record.length - written);
+            buffer.put(record, written, chunk);
+            written += chunk;
+        }
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import io.template.shared.utilities.SystemPropertyUtility;
+
+/**
+ * Gzip handling for batch files.
+ * <p>
+ * Output is written as blocked gzip (BGZF): a series of independent gzip members of at most 64 KiB each,
+ * whose compressed size is recorded in a header extra field. Any gzip reader can decompress it, but because
+ * members can be located without inflating them, they can also be decompressed in parallel, and a file can
+ * be truncated at a member boundary to resume it. Plain gzip input, single or multi-member, is supported too
+ * and decompressed sequentially.
+ * <p>
+ * Blocks are compressed and decompressed on up to four threads, or as many as
+ * {@code -Dio.template.batch.compressionThreads=<n>} sets.
+ */
+public final class BlockGzipFormat {
+
+    static final String COMPRESSED_SUFFIX = ".gz";
+    static final String PARALLELISM_PROPERTY = "io.template.batch.compressionThreads";
+    /** Most threads compressing one file unless configured otherwise; more barely helps. */
+    public static final int MAX_DEFAULT_PARALLELISM = 4;
+    static final int DEFAULT_PARALLELISM = SystemPropertyUtility.positiveInt(PARALLELISM_PROPERTY,
+            Math.min(MAX_DEFAULT_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+    // Leaves room for deflate overhead on incompressible input, so a block always fits the 16-bit size field
+    static final int MAX_BLOCK_INPUT = 0xff00;
+    static final int MAX_BLOCK_SIZE = 0x10000;
+    static final int HEADER_LENGTH = 18;
+    static final int TRAILER_LENGTH = 8;
+
+    private static final int ID1 = 0x1f;
+    private static final int ID2 = 0x8b;
+    private static final int CM_DEFLATE = 8;
+    private static final int FLG_EXTRA = 4;
+    private static final int OS_UNKNOWN = 0xff;
+    private static final int EXTRA_LENGTH = 6;
+    private static final int XLEN_OFFSET = 10;
+    private static final int PEEK_COMPRESSED_BYTES = 64 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+
+    private BlockGzipFormat() { }
+
+    /**
+     * Whether outputs to this path are compressed, decided by the {@code .gz} suffix.
+     */
+    public static boolean isCompressedOutput(Path output) {
+        return String.valueOf(output.getFileName()).endsWith(COMPRESSED_SUFFIX);
+    }
+
+    /**
+     * Channel writing to {@code target}, compressing on background threads when {@code output} is compressed.
+     */
+    static WritableByteChannel outputChannel(Path output, FileChannel target) {
+        return isCompressedOutput(output) ? new DeflatingChannel(target, DEFAULT_PARALLELISM) : target;
+    }
+
+    /**
+     * Whether the file starts with the gzip magic bytes. Does not move the channel's position.
+     */
+    static boolean isGzip(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        while (magic.hasRemaining()) {
+            if (channel.read(magic, magic.position()) < 0) {
+                return false;
+            }
+        }
+        return (magic.get(0) & 0xff) == ID1 && (magic.get(1) & 0xff) == ID2;
+    }
+
+    /**
+     * Up to {@code length} leading bytes of the decompressed content of a gzip file.
+     */
+    static byte[] peek(FileChannel channel, int length) throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate((int) Math.min(PEEK_COMPRESSED_BYTES, channel.size()));
+        channel.read(compressed, 0);
+        try (InputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(compressed.array(), 0, compressed.position()))) {
+            return in.readNBytes(length);
+        } catch (IOException e) {
+            // Fewer leading bytes than requested fit in the peeked prefix
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Total size of the block whose header is at the start of {@code header}, or -1 if it is not a BGZF header.
+     */
+    static int blockSize(ByteBuffer header) {
+        ByteBuffer le = header.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (le.remaining() < HEADER_LENGTH
+                || (le.get(0) & 0xff) != ID1 || (le.get(1) & 0xff) != ID2 || le.get(2) != CM_DEFLATE
+                || (le.get(3) & FLG_EXTRA) == 0 || le.getShort(XLEN_OFFSET) != EXTRA_LENGTH
+                || le.get(12) != 'B' || le.get(13) != 'C' || le.getShort(14) != 2) {
+            return -1;
+        }
+        return (le.getShort(16) & 0xffff) + 1;
+    }
+
+    /**
+     * Compresses up to {@link #MAX_BLOCK_INPUT} bytes into one BGZF block.
+     */
+    static byte[] compress(byte[] data, int offset, int length) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            byte[] block = new byte[MAX_BLOCK_SIZE];
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+            int compressedLength = deflater.deflate(
+                    block, HEADER_LENGTH, MAX_BLOCK_SIZE - HEADER_LENGTH - TRAILER_LENGTH);
+            if (!deflater.finished()) {
+                throw new IOException("Block of " + length + " bytes does not fit a BGZF block");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, offset, length);
+            int size = HEADER_LENGTH + compressedLength + TRAILER_LENGTH;
+            ByteBuffer le = ByteBuffer.wrap(block, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            writeHeader(le, size);
+            le.position(HEADER_LENGTH + compressedLength);
+            le.putInt((int) crc.getValue()).putInt(length);
+            return Arrays.copyOf(block, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Empty block that conventionally terminates a BGZF file.
+     */
+    static byte[] endOfFileBlock() throws IOException {
+        return compress(EMPTY, 0, 0);
+    }
+
+    /**
+     * Decompresses one complete BGZF block, verifying its length and checksum.
+     */
+    static byte[] inflate(ByteBuffer block) throws IOException {
+        ByteBuffer le = block.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int size = le.remaining();
+        int dataStart = XLEN_OFFSET + 2 + (le.getShort(XLEN_OFFSET) & 0xffff);
+        int expectedCrc = le.getInt(size - TRAILER_LENGTH);
+        int inflatedSize = le.getInt(size - Integer.BYTES);
+        if (inflatedSize < 0 || inflatedSize > MAX_BLOCK_SIZE) {
+            throw new ZipException("Invalid BGZF block length " + inflatedSize);
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            byte[] inflated = new byte[inflatedSize];
+            inflater.setInput(le.array(), le.arrayOffset() + dataStart, size - dataStart - TRAILER_LENGTH);
+            int produced = 0;
+            while (produced < inflatedSize && !inflater.finished()) {
+                int count = inflater.inflate(inflated, produced, inflatedSize - produced);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                produced += count;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(inflated, 0, produced);
+            if (produced != inflatedSize || (int) crc.getValue() != expectedCrc) {
+                throw new ZipException("Corrupt BGZF block");
+            }
+            return inflated;
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupt BGZF block: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeHeader(ByteBuffer le, int size) {
+        le.put((byte) ID1).put((byte) ID2).put((byte) CM_DEFLATE).put((byte) FLG_EXTRA)
+                .putInt(0)
+                .put((byte) 0).put((byte) OS_UNKNOWN)
+                .putShort((short) EXTRA_LENGTH)
+                .put((byte) 'B').put((byte) 'C').putShort((short) 2)
+                .putShort((short) (size - 1));
+    }
+}
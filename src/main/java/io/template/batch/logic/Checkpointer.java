@@ -0,0 +1,169 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.batch.models.Checkpoint;
+import io.template.shared.utilities.JsonMapperUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists {@link Checkpoint}s of a batch job on a background thread.
+ * <p>
+ * {@link #submit(Checkpoint)} never blocks the processing thread: it only publishes the latest
+ * checkpoint, and checkpoints submitted faster than they can be persisted are coalesced so only
+ * the newest one is written. Persisting first forces the output channel, so the checkpoint never
+ * refers to output that is not on disk, then writes the checkpoint to a temporary file, forces it
+ * and atomically renames it over the previous one.
+ */
+public final class Checkpointer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Checkpointer.class);
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final Path checkpointPath;
+    private final Path temporaryPath;
+    private final FileChannel outputChannel;
+    private final ExecutorService writerThread = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("checkpoint-writer").daemon(true).factory()
+    );
+    private final AtomicReference<Checkpoint> pending = new AtomicReference<>();
+    private volatile Checkpoint lastPersisted;
+    private volatile IOException failure;
+
+    /**
+     * @param checkpointPath file the checkpoint is kept in
+     * @param outputChannel channel of the output file the checkpoints refer to
+     */
+    public Checkpointer(Path checkpointPath, FileChannel outputChannel) {
+        this.checkpointPath = checkpointPath;
+        this.temporaryPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        this.outputChannel = outputChannel;
+    }
+
+    /**
+     * Reads the checkpoint stored at the given path, if any.
+     */
+    public static Optional<Checkpoint> load(Path checkpointPath) {
+        if (!Files.exists(checkpointPath)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(JsonMapperUtility.MAPPER.readValue(checkpointPath.toFile(), Checkpoint.class));
+        } catch (IOException e) {
+            throw new BatchProcessingException("Unreadable checkpoint: " + checkpointPath, e);
+        }
+    }
+
+    /**
+     * Schedules the checkpoint to be persisted and returns immediately.
+     */
+    public void submit(Checkpoint checkpoint) {
+        if (pending.getAndSet(checkpoint) == null) {
+            writerThread.execute(this::persistPending);
+        }
+    }
+
+    /**
+     * Latest checkpoint known to be durable, or {@code null} if none has been persisted yet.
+     */
+    public Checkpoint lastPersisted() {
+        return lastPersisted;
+    }
+
+    /**
+     * Removes the checkpoint file, typically once the job it belongs to has completed.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(checkpointPath);
+        } catch (IOException e) {
+            throw new BatchProcessingException("Could not delete checkpoint: " + checkpointPath, e);
+        }
+    }
+
+    /**
+     * Waits for every submitted checkpoint to be persisted.
+     *
+     * @throws BatchProcessingException if any checkpoint could not be persisted
+     */
+    @Override
+    public void close() {
+        writerThread.shutdown();
+        try {
+            if (!writerThread.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new BatchProcessingException("Timed out persisting the final checkpoint");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BatchProcessingException("Interrupted while persisting the final checkpoint", e);
+        }
+        if (failure != null) {
+            throw new BatchProcessingException("Could not persist checkpoint: " + checkpointPath, failure);
+        }
+    }
+
+    private void persistPending() {
+        Checkpoint checkpoint = pending.getAndSet(null);
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            persist(checkpoint);
+            lastPersisted = checkpoint;
+        } catch (IOException e) {
+            LOGGER.error("Could not persist checkpoint {}", checkpoint, e);
+            failure = e;
+        }
+    }
+
+    private void persist(Checkpoint checkpoint) throws IOException {
+        outputChannel.force(false);
+
+        byte[] content = JsonMapperUtility.MAPPER.writeValueAsBytes(checkpoint);
+        try (FileChannel channel = FileChannel.open(temporaryPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer source = ByteBuffer.wrap(content);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temporaryPath, checkpointPath,
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(checkpointPath.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Makes the rename itself durable. Not every platform allows opening a directory, in which case
+     * the rename is left to the file system's own ordering guarantees.
+     */
+    private static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Could not force directory {}", directory, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.template.batch.logic;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compresses everything written to it into {@link BlockGzipFormat BGZF} blocks on a pool of background threads,
+ * writing the blocks to the target in order.
+ * <p>
+ * Writes return as soon as their blocks are queued. {@link #flush()} waits for every queued block to reach the
+ * target, after which the target's position is a block boundary that can be checkpointed and truncated to.
+ */
+final class DeflatingChannel implements WritableByteChannel, Flushable {
+
+    private final WritableByteChannel target;
+    private final int parallelism;
+    private final ExecutorService pool;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private boolean closed;
+
+    DeflatingChannel(WritableByteChannel target, int parallelism) {
+        this.target = target;
+        this.parallelism = parallelism;
+        this.pool = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("gzip-deflate-", 0).daemon(true).factory());
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        int written = source.remaining();
+        while (source.hasRemaining()) {
+            byte[] data = new byte[Math.min(source.remaining(), BlockGzipFormat.MAX_BLOCK_INPUT)];
+            source.get(data);
+            pending.add(pool.submit(() -> BlockGzipFormat.compress(data, 0, data.length)));
+            if (pending.size() >= parallelism * 2) {
+                writeNext();
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Writes the remaining blocks and the end-of-file marker block, then closes the target.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            writeFully(ByteBuffer.wrap(BlockGzipFormat.endOfFileBlock()));
+        } finally {
+            pool.shutdownNow();
+            target.close();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        try {
+            writeFully(ByteBuffer.wrap(pending.poll().get()));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing output");
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+}
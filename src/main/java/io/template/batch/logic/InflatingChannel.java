@@ -0,0 +1,196 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses a gzip file on a background thread, so the reader parses one chunk while the next is inflated.
+ * <p>
+ * Chunks are handed over through a queue of depth two. {@link BlockGzipFormat BGZF} files are inflated block by
+ * block on a pool of {@code parallelism} threads and handed over in file order; other gzip files, including
+ * multi-member ones, are inflated sequentially because member boundaries are only known after inflating.
+ */
+final class InflatingChannel implements ReadableByteChannel {
+
+    static final int CHUNK_SIZE = 256 * 1024;
+    private static final int HANDOFF_DEPTH = 2;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final FileChannel source;
+    private final int parallelism;
+    private final BlockingQueue<ByteBuffer> handoff = new ArrayBlockingQueue<>(HANDOFF_DEPTH);
+    // Chunk being read, chunks in the queue and the chunk being filled; recycled in sequential mode
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(HANDOFF_DEPTH + 2);
+    private final Thread producer;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private final boolean recycle;
+    private ByteBuffer current;
+
+    InflatingChannel(FileChannel source, int parallelism) throws IOException {
+        this.source = source;
+        this.parallelism = parallelism;
+        ByteBuffer header = ByteBuffer.allocate(BlockGzipFormat.HEADER_LENGTH);
+        source.read(header, 0);
+        boolean blocked = parallelism > 1 && BlockGzipFormat.blockSize(header.flip()) > 0;
+        this.recycle = !blocked;
+        if (recycle) {
+            for (int i = 0; i < HANDOFF_DEPTH + 2; i++) {
+                free.add(ByteBuffer.allocate(CHUNK_SIZE));
+            }
+        }
+        this.producer = Thread.ofPlatform().name("gzip-inflater").daemon(true).unstarted(() -> produce(blocked));
+        producer.start();
+    }
+
+    @Override
+    public int read(ByteBuffer destination) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (current == END) {
+            return -1;
+        }
+        if (current == null || !current.hasRemaining()) {
+            if (current != null && recycle) {
+                free.add(current);
+            }
+            current = take();
+            if (current == END) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return -1;
+            }
+        }
+        int count = Math.min(current.remaining(), destination.remaining());
+        destination.put(destination.position(), current, current.position(), count);
+        destination.position(destination.position() + count);
+        current.position(current.position() + count);
+        return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        producer.interrupt();
+        source.close();
+    }
+
+    private ByteBuffer take() throws InterruptedIOException {
+        try {
+            return handoff.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for decompressed input");
+        }
+    }
+
+    private void produce(boolean blocked) {
+        try {
+            if (blocked) {
+                produceBlocks();
+            } else {
+                produceStream();
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            // Closed by the reader
+            return;
+        }
+        try {
+            handoff.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void produceStream() throws IOException, InterruptedException {
+        try (InputStream in = new GZIPInputStream(Channels.newInputStream(source.position(0)), CHUNK_SIZE)) {
+            while (true) {
+                ByteBuffer chunk = free.take();
+                int length = in.readNBytes(chunk.array(), 0, chunk.capacity());
+                if (length == 0) {
+                    return;
+                }
+                handoff.put(chunk.clear().limit(length));
+            }
+        }
+    }
+
+    private void produceBlocks() throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("gzip-inflate-", 0).daemon(true).factory());
+        try {
+            Deque<Future<byte[]>> pending = new ArrayDeque<>();
+            long position = 0;
+            long size = source.size();
+            while (position < size) {
+                ByteBuffer block = readBlock(position);
+                position += block.remaining();
+                pending.add(pool.submit(() -> BlockGzipFormat.inflate(block)));
+                if (pending.size() >= parallelism * 2) {
+                    handOff(pending.poll());
+                }
+            }
+            while (!pending.isEmpty()) {
+                handOff(pending.poll());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ByteBuffer readBlock(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BlockGzipFormat.HEADER_LENGTH);
+        readFully(header, position);
+        int size = BlockGzipFormat.blockSize(header.flip());
+        if (size < BlockGzipFormat.HEADER_LENGTH + BlockGzipFormat.TRAILER_LENGTH) {
+            throw new IOException("Not a BGZF block at offset " + position);
+        }
+        ByteBuffer block = ByteBuffer.allocate(size);
+        readFully(block, position);
+        return block.flip();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated BGZF block at offset " + position);
+            }
+        }
+    }
+
+    private void handOff(Future<byte[]> block) throws IOException, InterruptedException {
+        byte[] inflated;
+        try {
+            inflated = block.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+        if (inflated.length > 0) {
+            handoff.put(ByteBuffer.wrap(inflated));
+        }
+    }
+}
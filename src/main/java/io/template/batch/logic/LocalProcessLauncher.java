@@ -0,0 +1,79 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Inject;
+
+/**
+ * Launches workers as child JVMs on this host, with the same Java binary, JVM options, system properties, class path
+ * and environment as the current process. Worker output is inherited so it shows up in the coordinator's logs.
+ */
+public class LocalProcessLauncher implements WorkerLauncher {
+
+    static final String MAIN_CLASS = "io.template.Main";
+    // A second debug agent would try to listen on the coordinator's port and fail to start
+    private static final String DEBUG_AGENT_PREFIX = "-agentlib:jdwp";
+    private static final long EXIT_GRACE_SECONDS = 5;
+
+    @Inject
+    public LocalProcessLauncher() { }
+
+    @Override
+    public WorkerHandle launch(List<String> applicationArguments) throws IOException {
+        return new ProcessWorker(new ProcessBuilder(command(applicationArguments)).inheritIO().start());
+    }
+
+    static List<String> command(List<String> applicationArguments) {
+        return command(ManagementFactory.getRuntimeMXBean().getInputArguments(), applicationArguments);
+    }
+
+    /**
+     * @param jvmArguments options the current JVM was started with, such as heap and GC flags and {@code -D}
+     *                     properties, passed on so that workers run with the coordinator's configuration
+     */
+    static List<String> command(List<String> jvmArguments, List<String> applicationArguments) {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        for (String argument : jvmArguments) {
+            if (!argument.startsWith(DEBUG_AGENT_PREFIX)) {
+                command.add(argument);
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MAIN_CLASS);
+        command.addAll(applicationArguments);
+        return command;
+    }
+
+    record ProcessWorker(Process process) implements WorkerHandle {
+
+        @Override
+        public CompletableFuture<?> exited() {
+            return process.onExit();
+        }
+
+        /**
+         * Asks the worker to exit, which runs its shutdown hook so it drains and checkpoints, and forces it only if
+         * it is still running after the grace period.
+         */
+        @Override
+        public void stop() throws InterruptedException {
+            try {
+                process.destroy();
+                if (!process.waitFor(EXIT_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package io.template.batch.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.template.batch.models.FlushMetrics;
+import io.template.shared.logic.LogLinearHistogram;
+import io.template.shared.models.FlushPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups newline-delimited records into micro-batches in front of a stream, so that records produced one by one
+ * cost one write per batch instead of one per record, while none of them is held for long.
+ * <p>
+ * A batch is written and flushed as soon as it holds {@link FlushPolicy#maxRecords()} records or
+ * {@link FlushPolicy#maxBytes()} bytes, or once its oldest record has waited {@link FlushPolicy#maxLinger()},
+ * whichever comes first. The linger time is enforced by a virtual thread, so it holds while the producer is
+ * blocked waiting for more input. The size and age of every flush are recorded, see {@link #metrics()}.
+ * <p>
+ * Thread-safe. A failed write is reported by the next call and the writer accepts no more records.
+ */
+public final class MicroBatchWriter implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MicroBatchWriter.class);
+    private static final int MAX_INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream output;
+    private final FlushPolicy policy;
+    private final long lingerNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchStarted = lock.newCondition();
+    private final LogLinearHistogram recordsPerFlush = new LogLinearHistogram();
+    private final LogLinearHistogram bytesPerFlush = new LogLinearHistogram();
+    private final LogLinearHistogram flushAges = new LogLinearHistogram();
+    private final long[] flushesByTrigger = new long[Trigger.values().length];
+    private final Thread flusher;
+    private byte[] buffer;
+    private int size;
+    private int count;
+    private long batchStartNanos;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * @param output unbuffered stream, written once per batch; closed with this writer
+     */
+    public MicroBatchWriter(OutputStream output, FlushPolicy policy) {
+        this.output = output;
+        this.policy = policy;
+        this.lingerNanos = policy.maxLinger().toNanos();
+        this.buffer = new byte[Math.min(policy.maxBytes(), MAX_INITIAL_BUFFER_SIZE)];
+        this.flusher = Thread.ofVirtual().name("micro-batch-flusher").start(this::flushLingering);
+    }
+
+    /**
+     * Adds a record, followed by a line break, to the current batch, and writes the batch if it is full.
+     *
+     * @throws IOException if this or an earlier write failed
+     */
+    public void write(byte[] record) throws IOException {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            if (closed) {
+                throw new IOException("Micro-batch writer is closed");
+            }
+            if (count == 0) {
+                batchStartNanos = System.nanoTime();
+                batchStarted.signal();
+            }
+            append(record);
+            count++;
+            if (count >= policy.maxRecords()) {
+                flush(Trigger.RECORDS);
+            } else if (size >= policy.maxBytes()) {
+                flush(Trigger.BYTES);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public FlushMetrics metrics() {
+        lock.lock();
+        try {
+            return new FlushMetrics(
+                    flushesByTrigger[Trigger.RECORDS.ordinal()],
+                    flushesByTrigger[Trigger.BYTES.ordinal()],
+                    flushesByTrigger[Trigger.LINGER.ordinal()],
+                    flushesByTrigger[Trigger.CLOSE.ordinal()],
+                    recordsPerFlush.percentile(0.50), recordsPerFlush.percentile(0.99), recordsPerFlush.max(),
+                    bytesPerFlush.percentile(0.50), bytesPerFlush.percentile(0.99), bytesPerFlush.max(),
+                    flushAges.percentile(0.99), flushAges.max());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the remaining records and closes the stream. Closing again has no effect.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            batchStarted.signalAll();
+            if (failure == null) {
+                flush(Trigger.CLOSE);
+            }
+        } finally {
+            lock.unlock();
+            try {
+                output.close();
+            } finally {
+                awaitFlusher();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void append(byte[] record) {
+        int required = size + record.length + 1;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+        System.arraycopy(record, 0, buffer, size, record.length);
+        buffer[required - 1] = '\n';
+        size = required;
+    }
+
+    /**
+     * Writes the current batch, if any, as a single write. Called with the lock held.
+     */
+    private void flush(Trigger trigger) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        try {
+            output.write(buffer, 0, size);
+            output.flush();
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        flushesByTrigger[trigger.ordinal()]++;
+        recordsPerFlush.record(count);
+        bytesPerFlush.record(size);
+        flushAges.record(System.nanoTime() - batchStartNanos);
+        count = 0;
+        size = 0;
+    }
+
+    /**
+     * Body of the flusher thread: sleeps until a batch starts, then until its linger time is up.
+     */
+    private void flushLingering() {
+        lock.lock();
+        try {
+            while (!closed && failure == null) {
+                if (count == 0) {
+                    batchStarted.await();
+                    continue;
+                }
+                long remaining = batchStartNanos + lingerNanos - System.nanoTime();
+                if (remaining > 0) {
+                    batchStarted.await(remaining, TimeUnit.NANOSECONDS);
+                } else {
+                    flush(Trigger.LINGER);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.debug("Lingering batch could not be written; reporting it to the next call", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitFlusher() {
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private enum Trigger {
+        RECORDS,
+        BYTES,
+        LINGER,
+        CLOSE
+    }
+}
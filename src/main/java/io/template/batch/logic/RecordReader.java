@@ -0,0 +1,98 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Reads newline-delimited records from a channel while tracking the byte offset of the next record.
+ * <p>
+ * The offset is what makes a batch job resumable: it is recorded in a {@link io.template.batch.models.Checkpoint}
+ * and the channel is positioned at it on restart. Blank lines are skipped and a trailing {@code \r} is stripped.
+ */
+public final class RecordReader implements RecordSource {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_RECORD_CAPACITY = 256;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] record = new byte[INITIAL_RECORD_CAPACITY];
+    private long position;
+    private boolean endOfInput;
+
+    /**
+     * @param channel channel already positioned at {@code startOffset}
+     * @param startOffset byte offset of the channel's current position within the logical input
+     */
+    public RecordReader(ReadableByteChannel channel, long startOffset) {
+        this.channel = channel;
+        this.position = startOffset;
+        buffer.flip();
+    }
+
+    /**
+     * Returns the next non-blank record, or {@code null} once the input is exhausted.
+     */
+    @Override
+    public byte[] next() throws IOException {
+        while (true) {
+            int length = readLine();
+            if (length < 0) {
+                return null;
+            }
+            if (length > 0 && record[length - 1] == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                return Arrays.copyOf(record, length);
+            }
+        }
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                return length == 0 ? -1 : length;
+            }
+            byte current = buffer.get();
+            position++;
+            if (current == '\n') {
+                return length;
+            }
+            if (length == record.length) {
+                record = Arrays.copyOf(record, record.length * 2);
+            }
+            record[length++] = current;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.clear();
+        int read = 0;
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+}
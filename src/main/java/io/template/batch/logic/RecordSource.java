@@ -0,0 +1,23 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+
+/**
+ * Sequence of raw input records that tracks the byte offset of the next record, so a batch job can checkpoint
+ * and resume regardless of how its input is encoded.
+ */
+interface RecordSource extends AutoCloseable {
+
+    /**
+     * Returns the next record, or {@code null} once the input is exhausted.
+     */
+    byte[] next() throws IOException;
+
+    /**
+     * Byte offset of the first record that has not been returned by {@link #next()} yet.
+     */
+    long position();
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,54 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Opens the {@link RecordSource} matching an input file: newline-delimited JSON or {@link BinaryRecordFormat},
+ * either of them optionally gzip-compressed. The format is recognised from the file's leading bytes.
+ * <p>
+ * Offsets always refer to the decompressed content, so checkpoints of compressed inputs stay valid; resuming one
+ * decompresses and skips everything before the offset.
+ */
+final class RecordSources {
+
+    private static final int SKIP_BUFFER_SIZE = 64 * 1024;
+
+    private RecordSources() { }
+
+    /**
+     * Opens the input positioned at {@code offset}. An offset of zero means the first record, which for binary
+     * files comes after the header.
+     */
+    static RecordSource open(FileChannel channel, long offset) throws IOException {
+        if (BlockGzipFormat.isGzip(channel)) {
+            byte[] leading = BlockGzipFormat.peek(channel, BinaryRecordFormat.HEADER_LENGTH);
+            boolean binary = BinaryRecordFormat.isHeader(leading);
+            long start = binary ? Math.max(offset, BinaryRecordFormat.HEADER_LENGTH) : offset;
+            ReadableByteChannel inflating = new InflatingChannel(channel, BlockGzipFormat.DEFAULT_PARALLELISM);
+            skip(inflating, start);
+            return binary ? new BinaryRecordReader(inflating, start) : new RecordReader(inflating, start);
+        }
+        if (BinaryRecordFormat.isBinary(channel)) {
+            long start = Math.max(offset, BinaryRecordFormat.HEADER_LENGTH);
+            return new BinaryRecordReader(channel.position(start), start);
+        }
+        return new RecordReader(channel.position(offset), offset);
+    }
+
+    private static void skip(ReadableByteChannel channel, long bytes) throws IOException {
+        ByteBuffer scratch = ByteBuffer.allocate((int) Math.min(SKIP_BUFFER_SIZE, Math.max(bytes, 1)));
+        long remaining = bytes;
+        while (remaining > 0) {
+            scratch.clear().limit((int) Math.min(scratch.capacity(), remaining));
+            int read = channel.read(scratch);
+            if (read < 0) {
+                channel.close();
+                throw new IOException("Offset " + bytes + " is past the end of the decompressed input");
+            }
+            remaining -= read;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.template.batch.logic;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffers newline-delimited records in front of a channel while tracking the logical output position.
+ * <p>
+ * Records only reach the channel on {@link #flush()} or when the buffer fills up, so callers that
+ * record the position in a checkpoint must flush first.
+ */
+public final class RecordWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long position;
+
+    /**
+     * @param channel channel already positioned at {@code startPosition}
+     * @param startPosition byte offset of the channel's current position within the logical output
+     */
+    public RecordWriter(WritableByteChannel channel, long startPosition) {
+        this.channel = channel;
+        this.position = startPosition;
+    }
+
+    public void write(byte[] record) throws IOException {
+        if (record.length + 1 > buffer.remaining()) {
+            flush();
+        }
+        if (record.length + 1 > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(record));
+            writeFully(ByteBuffer.wrap(new byte[]{'\n'}));
+        } else {
+            buffer.put(record).put((byte) '\n');
+        }
+        position += record.length + 1;
+    }
+
+    /**
+     * Hands every buffered record to the channel, flushing the channel too if it buffers itself,
+     * and returns the logical output position.
+     */
+    public long flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+        if (channel instanceof Flushable flushable) {
+            flushable.flush();
+        }
+        return position;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package io.template.batch.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.inject.Inject;
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.batch.models.BatchSummary;
+import io.template.batch.models.Shard;
+import io.template.samplebusinesslayer.logic.ResultAggregator;
+import io.template.samplebusinesslayer.models.ResultStatistics;
+import io.template.shared.utilities.JsonMapperUtility;
+import io.template.shared.utilities.SystemPropertyUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coordinator side of a sharded batch job.
+ * <p>
+ * The input is split into byte-range shards by the {@link ShardPlanner} and worker processes are started
+ * through the {@link WorkerLauncher}, each with its own identifier. Workers connect to a Unix domain socket and
+ * pull shards with a line-based protocol:
+ * <pre>
+ *   worker:      READY &lt;worker&gt;
+ *   coordinator: SHARD &lt;index&gt; &lt;start&gt; &lt;end&gt; &lt;shard output path&gt;   (or DONE)
+ *   worker:      COMPLETE &lt;records processed&gt; &lt;records rejected&gt;
+ * </pre>
+ * A worker that disconnects or exits while holding a shard is considered dead and its shard goes back in the
+ * queue. A worker that holds a shard longer than the lease timeout, {@code -Dio.template.shard.leaseTimeout=
+ * <ISO-8601 duration>} (15 minutes by default), is stopped, and its shard is reassigned once it has exited.
+ * Every worker that exits while shards remain, including one that never connected, is replaced, up to
+ * {@link #MAX_RELAUNCHES_PER_WORKER} times per initial worker; the job fails when a shard has failed
+ * {@link #MAX_ATTEMPTS_PER_SHARD} times or when no worker is left. Once every shard is complete, shard outputs
+ * are concatenated in input order and their statistics merged, so the result is identical to a single-process
+ * {@link BatchProcessor} run.
+ */
+public class ShardCoordinator {
+
+    static final String READY = "READY";
+    static final String SHARD = "SHARD";
+    static final String COMPLETE = "COMPLETE";
+    static final String DONE = "DONE";
+    static final String WORKER_FLAG = "--worker";
+    static final int SHARDS_PER_WORKER = 4;
+    static final int MAX_ATTEMPTS_PER_SHARD = 3;
+    static final int MAX_RELAUNCHES_PER_WORKER = 3;
+    static final String LEASE_TIMEOUT_PROPERTY = "io.template.shard.leaseTimeout";
+    static final Duration DEFAULT_LEASE_TIMEOUT = Duration.ofMinutes(15);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardCoordinator.class);
+    private static final int UNKNOWN_WORKER = -1;
+
+    private final WorkerLauncher workerLauncher;
+    private final Duration leaseTimeout;
+
+    @Inject
+    public ShardCoordinator(WorkerLauncher workerLauncher) {
+        this(workerLauncher, SystemPropertyUtility.positiveDuration(LEASE_TIMEOUT_PROPERTY, DEFAULT_LEASE_TIMEOUT));
+    }
+
+    /**
+     * @param leaseTimeout Longest a worker may hold one shard before it is stopped
+     */
+    ShardCoordinator(WorkerLauncher workerLauncher, Duration leaseTimeout) {
+        this.workerLauncher = workerLauncher;
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Arguments that make the application entry point run as worker {@code worker} of a coordinator.
+     */
+    public static List<String> workerArguments(Path coordinatorSocket, Path input, int worker) {
+        return List.of(WORKER_FLAG, coordinatorSocket.toString(), input.toString(), Integer.toString(worker));
+    }
+
+    public BatchSummary run(Path input, Path output, int workerCount) {
+        Path socketDirectory = null;
+        try {
+            List<Shard> shards = ShardPlanner.plan(input, workerCount * SHARDS_PER_WORKER);
+            socketDirectory = Files.createTempDirectory("shard-coordinator");
+            Path socketPath = socketDirectory.resolve("coordinator.sock");
+            int initialWorkers = Math.min(workerCount, shards.size());
+            ShardQueue queue = new ShardQueue(shards, initialWorkers * MAX_RELAUNCHES_PER_WORKER);
+
+            Workers workers = new Workers(socketPath, input, queue);
+            try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+                server.bind(UnixDomainSocketAddress.of(socketPath));
+                Thread acceptor = Thread.ofPlatform().name("shard-coordinator").daemon(true)
+                        .start(() -> acceptWorkers(server, queue, output));
+                for (int i = 0; i < initialWorkers; i++) {
+                    workers.launch();
+                }
+                List<Integer> overdue;
+                while (!(overdue = queue.awaitCompletion(leaseTimeout.toNanos())).isEmpty()) {
+                    for (int worker : overdue) {
+                        LOGGER.warn("Worker {} held its shard longer than {}, stopping it", worker, leaseTimeout);
+                        workers.stop(worker);
+                    }
+                }
+                acceptor.interrupt();
+            } finally {
+                workers.stopAll();
+            }
+            return merge(shards, queue, output);
+        } catch (IOException e) {
+            throw new BatchProcessingException("Sharded batch failed for input " + input + ", output " + output, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BatchProcessingException("Interrupted while waiting for shards of input " + input, e);
+        } finally {
+            deleteQuietly(socketDirectory);
+        }
+    }
+
+    private static void acceptWorkers(ServerSocketChannel server, ShardQueue queue, Path output) {
+        while (true) {
+            try {
+                SocketChannel connection = server.accept();
+                Thread.ofVirtual().name("shard-worker-connection")
+                        .start(() -> serveWorker(connection, queue, output));
+            } catch (ClosedChannelException e) {
+                LOGGER.debug("Coordinator socket closed, no longer accepting workers");
+                return;
+            } catch (IOException e) {
+                LOGGER.warn("Could not accept worker connection", e);
+            }
+        }
+    }
+
+    private static void serveWorker(SocketChannel connection, ShardQueue queue, Path output) {
+        int worker = UNKNOWN_WORKER;
+        try (connection;
+             BufferedReader reader = new BufferedReader(Channels.newReader(connection, StandardCharsets.UTF_8))) {
+            Writer writer = Channels.newWriter(connection, StandardCharsets.UTF_8);
+            String[] request;
+            while ((request = fields(reader.readLine())).length == 2 && READY.equals(request[0])) {
+                worker = Integer.parseInt(request[1]);
+                Shard assigned = queue.take(worker);
+                if (assigned == null) {
+                    send(writer, DONE);
+                    return;
+                }
+                send(writer, SHARD + " " + assigned.index() + " " + assigned.start() + " " + assigned.end()
+                        + " " + shardOutputPath(output, assigned));
+                String[] reply = fields(reader.readLine());
+                if (reply.length != 3 || !COMPLETE.equals(reply[0])
+                        || !queue.complete(worker, Long.parseLong(reply[1]), Long.parseLong(reply[2]))) {
+                    break;
+                }
+            }
+        } catch (IOException | InterruptedException | NumberFormatException e) {
+            LOGGER.warn("Lost connection to worker {}", worker, e);
+        } finally {
+            if (worker != UNKNOWN_WORKER) {
+                release(queue, worker);
+            }
+        }
+    }
+
+    /**
+     * Puts the shard the worker holds, if any, back in the queue.
+     */
+    private static void release(ShardQueue queue, int worker) {
+        Shard released = queue.release(worker);
+        if (released != null) {
+            LOGGER.warn("Worker {} died while processing shard {}, reassigning it", worker, released.index());
+        }
+    }
+
+    private static BatchSummary merge(List<Shard> shards, ShardQueue queue, Path output) throws IOException {
+        ResultAggregator aggregator = new ResultAggregator();
+        try (FileChannel target = FileChannel.open(output,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Shard shard : shards) {
+                Path shardOutput = shardOutputPath(output, shard);
+                try (FileChannel source = FileChannel.open(shardOutput, StandardOpenOption.READ)) {
+                    long transferred = 0;
+                    while (transferred < source.size()) {
+                        transferred += source.transferTo(transferred, source.size() - transferred, target);
+                    }
+                }
+                Path shardStatistics = BatchProcessor.statisticsPathFor(shardOutput);
+                aggregator.merge(ResultAggregator.restore(
+                        JsonMapperUtility.MAPPER.readValue(shardStatistics.toFile(), ResultStatistics.class)));
+                Files.delete(shardOutput);
+                Files.delete(shardStatistics);
+            }
+            target.force(false);
+        }
+
+        ResultStatistics statistics = aggregator.snapshot();
+        BatchProcessor.writeStatistics(BatchProcessor.statisticsPathFor(output), statistics);
+        LOGGER.info("Merged {} shards: {} records ({} rejected)",
+                shards.size(), queue.recordsProcessed(), queue.recordsRejected());
+        return new BatchSummary(0, queue.recordsProcessed(), queue.recordsRejected(), true, statistics);
+    }
+
+    /**
+     * Compressed outputs get compressed shard outputs; gzip members can be concatenated as they are.
+     */
+    static Path shardOutputPath(Path output, Shard shard) {
+        String suffix = BlockGzipFormat.isCompressedOutput(output) ? BlockGzipFormat.COMPRESSED_SUFFIX : "";
+        return output.toAbsolutePath().resolveSibling(output.getFileName() + ".shard-" + shard.index() + suffix);
+    }
+
+    private static String[] fields(String line) {
+        return String.valueOf(line).split(" ");
+    }
+
+    private static void send(Writer writer, String message) throws IOException {
+        writer.write(message);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private static void deleteQuietly(Path socketDirectory) {
+        if (socketDirectory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(socketDirectory.resolve("coordinator.sock"));
+            Files.deleteIfExists(socketDirectory);
+        } catch (IOException e) {
+            LOGGER.debug("Could not delete {}", socketDirectory, e);
+        }
+    }
+
+    /**
+     * Launched workers by identifier, replaced when they exit while shards remain.
+     */
+    private final class Workers {
+
+        private final Path socketPath;
+        private final Path input;
+        private final ShardQueue queue;
+        private final AtomicInteger nextWorker = new AtomicInteger();
+        private final Map<Integer, WorkerHandle> handles = new ConcurrentHashMap<>();
+
+        private Workers(Path socketPath, Path input, ShardQueue queue) {
+            this.socketPath = socketPath;
+            this.input = input;
+            this.queue = queue;
+        }
+
+        void launch() {
+            int worker = nextWorker.incrementAndGet();
+            queue.workerLaunched();
+            WorkerHandle handle;
+            try {
+                handle = workerLauncher.launch(workerArguments(socketPath, input, worker));
+            } catch (IOException e) {
+                LOGGER.error("Could not launch worker {}", worker, e);
+                exited(worker);
+                return;
+            }
+            handles.put(worker, handle);
+            handle.exited().whenComplete((ignored, failure) -> exited(worker));
+        }
+
+        /**
+         * Stops the worker in the background; its shard is reassigned once it has exited.
+         */
+        void stop(int worker) {
+            WorkerHandle handle = handles.get(worker);
+            if (handle != null) {
+                Thread.ofPlatform().name("shard-worker-stop").daemon(true).start(() -> stop(worker, handle));
+            }
+        }
+
+        void stopAll() {
+            handles.forEach(this::stop);
+        }
+
+        private void exited(int worker) {
+            release(queue, worker);
+            if (queue.workerExited()) {
+                LOGGER.warn("Worker {} exited while shards remain, launching a replacement", worker);
+                launch();
+            }
+        }
+
+        private void stop(int worker, WorkerHandle handle) {
+            try {
+                handle.stop();
+            } catch (IOException e) {
+                LOGGER.warn("Could not stop worker {}", worker, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Pending and completed shards, the shard each worker holds and the number of live workers, shared by the
+     * worker connections and the exit callbacks of the workers.
+     */
+    private static final class ShardQueue {
+
+        private final Deque<Shard> pending;
+        private final int[] attempts;
+        private final Map<Integer, Lease> leases = new HashMap<>();
+        private int remaining;
+        private int relaunchesLeft;
+        private int liveWorkers;
+        private long recordsProcessed;
+        private long recordsRejected;
+        private String failure;
+
+        private ShardQueue(List<Shard> shards, int relaunches) {
+            this.pending = new ArrayDeque<>(shards);
+            this.attempts = new int[shards.size()];
+            this.remaining = shards.size();
+            this.relaunchesLeft = relaunches;
+        }
+
+        /**
+         * Next shard for {@code worker} to process, waiting while every remaining shard is held by a worker.
+         *
+         * @return the shard, or {@code null} once there is nothing left to assign
+         */
+        synchronized Shard take(int worker) throws InterruptedException {
+            while (pending.isEmpty() && isRunning()) {
+                wait();
+            }
+            if (!isRunning()) {
+                return null;
+            }
+            Shard shard = pending.poll();
+            attempts[shard.index()]++;
+            leases.put(worker, new Lease(shard, System.nanoTime()));
+            notifyAll();
+            return shard;
+        }
+
+        /**
+         * @return whether the worker still held its shard; a stopped worker's result no longer counts
+         */
+        synchronized boolean complete(int worker, long processed, long rejected) {
+            Lease lease = leases.get(worker);
+            if (lease == null || lease.overdue) {
+                return false;
+            }
+            leases.remove(worker);
+            remaining--;
+            recordsProcessed += processed;
+            recordsRejected += rejected;
+            notifyAll();
+            return true;
+        }
+
+        /**
+         * Returns the shard {@code worker} holds to the queue, or fails the job once it has failed too often.
+         *
+         * @return the shard released, or {@code null} if the worker held none
+         */
+        synchronized Shard release(int worker) {
+            Lease lease = leases.remove(worker);
+            if (lease == null) {
+                return null;
+            }
+            if (attempts[lease.shard.index()] < MAX_ATTEMPTS_PER_SHARD) {
+                pending.addFirst(lease.shard);
+            } else if (failure == null) {
+                failure = "Shard " + lease.shard.index() + " failed " + MAX_ATTEMPTS_PER_SHARD + " times";
+            }
+            notifyAll();
+            return lease.shard;
+        }
+
+        synchronized void workerLaunched() {
+            liveWorkers++;
+        }
+
+        /**
+         * Counts a worker out, after {@link #release(int) releasing} its shard.
+         *
+         * @return whether to launch a replacement
+         */
+        synchronized boolean workerExited() {
+            liveWorkers--;
+            if (!isRunning()) {
+                return false;
+            }
+            if (relaunchesLeft > 0) {
+                relaunchesLeft--;
+                return true;
+            }
+            if (liveWorkers == 0) {
+                failure = "No live workers left with " + remaining + " shards unfinished";
+                notifyAll();
+            }
+            return false;
+        }
+
+        /**
+         * Waits until every shard is complete or a worker has held its shard for longer than {@code leaseNanos}.
+         * An overdue shard stays with its worker until the worker exits or disconnects.
+         *
+         * @return workers whose lease has just expired, or an empty list once every shard is complete
+         * @throws BatchProcessingException if the job failed
+         */
+        synchronized List<Integer> awaitCompletion(long leaseNanos) throws InterruptedException {
+            while (isRunning()) {
+                long now = System.nanoTime();
+                long nextExpiry = Long.MAX_VALUE;
+                List<Integer> overdue = new ArrayList<>();
+                for (Map.Entry<Integer, Lease> entry : leases.entrySet()) {
+                    Lease lease = entry.getValue();
+                    if (lease.overdue) {
+                        continue;
+                    }
+                    long left = lease.startNanos + leaseNanos - now;
+                    if (left <= 0) {
+                        lease.overdue = true;
+                        overdue.add(entry.getKey());
+                    } else {
+                        nextExpiry = Math.min(nextExpiry, left);
+                    }
+                }
+                if (!overdue.isEmpty()) {
+                    return overdue;
+                }
+                if (nextExpiry == Long.MAX_VALUE) {
+                    wait();
+                } else {
+                    TimeUnit.NANOSECONDS.timedWait(this, nextExpiry);
+                }
+            }
+            if (failure != null) {
+                throw new BatchProcessingException(failure);
+            }
+            return List.of();
+        }
+
+        synchronized long recordsProcessed() {
+            return recordsProcessed;
+        }
+
+        synchronized long recordsRejected() {
+            return recordsRejected;
+        }
+
+        private boolean isRunning() {
+            return remaining > 0 && failure == null;
+        }
+    }
+
+    /**
+     * Shard held by a worker since {@code startNanos}.
+     */
+    private static final class Lease {
+
+        private final Shard shard;
+        private final long startNanos;
+        private boolean overdue;
+
+        private Lease(Shard shard, long startNanos) {
+            this.shard = shard;
+            this.startNanos = startNanos;
+        }
+    }
+}
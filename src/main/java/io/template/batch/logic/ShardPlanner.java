@@ -0,0 +1,96 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.batch.models.Shard;
+
+/**
+ * Splits a newline-delimited or {@link BinaryRecordFormat} input file into byte ranges of roughly equal size
+ * that start and end on record boundaries, so each can be processed independently. A gzip-compressed input is
+ * planned as a single shard.
+ */
+public final class ShardPlanner {
+
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+    private ShardPlanner() { }
+
+    /**
+     * @return at most {@code shardCount} non-empty shards covering the whole input, in input order
+     */
+    public static List<Shard> plan(Path input, int shardCount) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive, got: " + shardCount);
+        }
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            if (BlockGzipFormat.isGzip(channel)) {
+                // Offsets of compressed inputs refer to the decompressed content, whose size is unknown upfront
+                return List.of(new Shard(0, 0, Long.MAX_VALUE));
+            }
+            long size = channel.size();
+            boolean binary = BinaryRecordFormat.isBinary(channel);
+            List<Shard> shards = new ArrayList<>(shardCount);
+            long start = binary ? BinaryRecordFormat.HEADER_LENGTH : 0;
+            for (int i = 1; i <= shardCount && start < size; i++) {
+                long target = Math.max(start, size * i / shardCount);
+                long end = i == shardCount ? size
+                        : binary ? nextFrameStart(channel, start, target) : nextRecordStart(channel, target);
+                if (end > start) {
+                    shards.add(new Shard(shards.size(), start, end));
+                    start = end;
+                }
+            }
+            return shards;
+        }
+    }
+
+    /**
+     * Offset of the first frame starting at or after {@code offset}, walking length prefixes from {@code from},
+     * which must be a frame start.
+     */
+    private static long nextFrameStart(FileChannel channel, long from, long offset) throws IOException {
+        ByteBuffer lengthPrefix = ByteBuffer.allocate(BinaryRecordFormat.LENGTH_PREFIX_BYTES);
+        long position = from;
+        while (position < offset) {
+            lengthPrefix.clear();
+            while (lengthPrefix.hasRemaining()) {
+                if (channel.read(lengthPrefix, position + lengthPrefix.position()) < 0) {
+                    return channel.size();
+                }
+            }
+            int length = lengthPrefix.getInt(0);
+            if (length < 0 || length > BinaryRecordFormat.MAX_RECORD_BYTES) {
+                throw new IOException("Invalid record length " + length + " at offset " + position);
+            }
+            position += BinaryRecordFormat.LENGTH_PREFIX_BYTES + length;
+        }
+        return Math.min(position, channel.size());
+    }
+
+    /**
+     * Offset just past the first newline at or after {@code offset - 1}, or the end of the file.
+     */
+    private static long nextRecordStart(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = Math.max(0, offset - 1);
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.template.batch.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import com.google.inject.Inject;
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.batch.models.BatchSummary;
+import io.template.batch.models.Shard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Worker side of a sharded batch job: pulls shards from the {@link ShardCoordinator} over its Unix domain
+ * socket and processes them with the {@link BatchProcessor} until the coordinator has no work left.
+ */
+public class ShardWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardWorker.class);
+
+    private final BatchProcessor batchProcessor;
+
+    @Inject
+    public ShardWorker(BatchProcessor batchProcessor) {
+        this.batchProcessor = batchProcessor;
+    }
+
+    /**
+     * @param worker Identifier the coordinator launched this worker with
+     * @return number of shards this worker processed
+     */
+    public int run(Path coordinatorSocket, Path input, int worker) {
+        int processedShards = 0;
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(coordinatorSocket));
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8))) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+
+            while (true) {
+                send(writer, ShardCoordinator.READY + " " + worker);
+                String assignment = reader.readLine();
+                if (assignment == null || assignment.equals(ShardCoordinator.DONE)) {
+                    return processedShards;
+                }
+                String[] fields = assignment.split(" ", 5);
+                Shard shard = new Shard(
+                        Integer.parseInt(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+                Path shardOutput = Path.of(fields[4]);
+
+                BatchSummary summary = batchProcessor.runShard(input, shard, shardOutput);
+                processedShards++;
+                LOGGER.info("Processed shard {} ({} records)", shard.index(), summary.recordsProcessed());
+                send(writer, ShardCoordinator.COMPLETE + " " + summary.recordsProcessed()
+                        + " " + summary.recordsRejected());
+            }
+        } catch (IOException e) {
+            throw new BatchProcessingException("Lost connection to coordinator at " + coordinatorSocket, e);
+        }
+    }
+
+    private static void send(Writer writer, String message) throws IOException {
+        writer.write(message);
+        writer.write('\n');
+        writer.flush();
+    }
+}
@@ -0,0 +1,93 @@
+package io.template.batch.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import io.template.samplebusinesslayer.logic.WindowedAggregator;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.samplebusinesslayer.models.WindowStatistics;
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.WindowSpec;
+import io.template.shared.utilities.JsonMapperUtility;
+
+/**
+ * Event-time windows of the results a stream accepts, keyed on each input's {@code exampleTimestampField}.
+ * <p>
+ * Handed to {@link io.template.bootstrap.logic.InputProcessor#tryProcessEncoded(byte[], Consumer)} to learn the
+ * timestamp of each accepted input, then given its result through {@link #add(CalculationResult)}. Windows are
+ * written as {@link WindowStatistics} JSON lines as soon as the {@link WindowedAggregator} closes them, through a
+ * {@link MicroBatchWriter} with the stream's flush policy; a window changed by a late record is written again,
+ * marked late. Inputs without a timestamp are counted and left out. Not thread-safe.
+ */
+final class StreamWindows implements Consumer<ApplicationInput>, Closeable {
+
+    private final WindowedAggregator aggregator;
+    private final List<WindowStatistics> closed = new ArrayList<>();
+    private final MicroBatchWriter writer;
+    private Instant timestamp;
+    private long written;
+    private long withoutTimestamp;
+
+    StreamWindows(Path file, WindowSpec spec, FlushPolicy flushPolicy) throws IOException {
+        this.aggregator = new WindowedAggregator(spec, closed::add);
+        this.writer = new MicroBatchWriter(Files.newOutputStream(file), flushPolicy);
+    }
+
+    @Override
+    public void accept(ApplicationInput input) {
+        timestamp = input.exampleTimestampField();
+    }
+
+    /**
+     * Adds the result of the input accepted last, writing the windows it closes.
+     */
+    void add(CalculationResult result) throws IOException {
+        if (timestamp == null) {
+            withoutTimestamp++;
+        } else {
+            aggregator.accept(timestamp, result);
+            timestamp = null;
+        }
+        writeClosed();
+    }
+
+    /**
+     * Writes every window still open, at the end of the stream.
+     */
+    void finish() throws IOException {
+        aggregator.flush();
+        writeClosed();
+    }
+
+    long written() {
+        return written;
+    }
+
+    long droppedRecords() {
+        return aggregator.droppedRecords();
+    }
+
+    long withoutTimestamp() {
+        return withoutTimestamp;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeClosed() throws IOException {
+        for (WindowStatistics window : closed) {
+            writer.write(JsonMapperUtility.MAPPER.writeValueAsBytes(window));
+            written++;
+        }
+        closed.clear();
+    }
+}
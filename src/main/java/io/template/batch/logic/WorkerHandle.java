@@ -0,0 +1,20 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Worker started by a {@link WorkerLauncher}, which the {@link ShardCoordinator} watches and stops.
+ */
+public interface WorkerHandle {
+
+    /**
+     * Completes once the worker has exited, whether it finished, failed or was stopped.
+     */
+    CompletableFuture<?> exited();
+
+    /**
+     * Asks the worker to exit, and forces it to if it is still running after a short grace period.
+     */
+    void stop() throws IOException, InterruptedException;
+}
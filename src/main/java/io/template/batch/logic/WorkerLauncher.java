@@ -0,0 +1,19 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Starts batch worker processes for a {@link ShardCoordinator}.
+ * The default, {@link LocalProcessLauncher}, launches local JVMs; other implementations can start workers on
+ * other hosts, as long as they can reach the coordinator's socket.
+ */
+public interface WorkerLauncher {
+
+    /**
+     * Starts a worker running the application entry point with the given arguments.
+     *
+     * @return handle that reports when the worker exits and stops it
+     */
+    WorkerHandle launch(List<String> applicationArguments) throws IOException;
+}
@@ -0,0 +1,20 @@
+package io.template.batch.models;
+
+import io.template.samplebusinesslayer.models.ResultStatistics;
+
+/**
+ * Outcome of a batch run.
+ *
+ * @param resumedFromOffset Input byte offset the run started from (0 for a fresh run)
+ * @param recordsProcessed Total records processed, including those processed before a resume
+ * @param recordsRejected Records rejected, including those rejected before a resume
+ * @param completed Whether the whole input was consumed, as opposed to stopping early on request
+ * @param statistics Aggregate of every accepted result, including those processed before a resume
+ */
+public record BatchSummary(
+        long resumedFromOffset,
+        long recordsProcessed,
+        long recordsRejected,
+        boolean completed,
+        ResultStatistics statistics
+) { }
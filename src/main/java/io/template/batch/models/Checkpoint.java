@@ -0,0 +1,34 @@
+package io.template.batch.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.template.samplebusinesslayer.logic.ResultAggregator;
+import io.template.samplebusinesslayer.models.ResultStatistics;
+
+/**
+ * Durable progress marker of a batch job.
+ * Every input record before {@code inputOffset} has its output fully contained in the first
+ * {@code outputPosition} bytes of the output file.
+ *
+ * @param inputOffset Byte offset of the first input record that has not been processed yet
+ * @param outputPosition Byte length of the output that belongs to the processed records
+ * @param recordsProcessed Number of input records processed up to {@code inputOffset}
+ * @param statistics Aggregate of the results of the records processed up to {@code inputOffset}
+ */
+public record Checkpoint(
+
+        @JsonProperty("inputOffset")
+        long inputOffset,
+
+        @JsonProperty("outputPosition")
+        long outputPosition,
+
+        @JsonProperty("recordsProcessed")
+        long recordsProcessed,
+
+        @JsonProperty("statistics")
+        ResultStatistics statistics
+
+) {
+
+    public static final Checkpoint START = new Checkpoint(0, 0, 0, new ResultAggregator().snapshot());
+}
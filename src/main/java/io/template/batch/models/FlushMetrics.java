@@ -0,0 +1,38 @@
+package io.template.batch.models;
+
+/**
+ * Flushes of a micro-batched output since it was opened. Sizes and ages are upper bounds of histogram buckets,
+ * within 1/16 of the recorded values.
+ *
+ * @param flushesByRecords Flushes triggered by the record limit
+ * @param flushesByBytes Flushes triggered by the byte limit
+ * @param flushesByLinger Flushes triggered by the linger time
+ * @param flushesOnClose Final flush of the remaining records, 0 or 1
+ * @param recordsP50 Median number of records per flush
+ * @param recordsP99 99th percentile of the number of records per flush
+ * @param recordsMax Most records in one flush
+ * @param bytesP50 Median number of bytes per flush
+ * @param bytesP99 99th percentile of the number of bytes per flush
+ * @param bytesMax Most bytes in one flush
+ * @param ageP99Nanos 99th percentile of the time the oldest record of a flush was held
+ * @param ageMaxNanos Longest time a record was held before it was written
+ */
+public record FlushMetrics(
+        long flushesByRecords,
+        long flushesByBytes,
+        long flushesByLinger,
+        long flushesOnClose,
+        long recordsP50,
+        long recordsP99,
+        long recordsMax,
+        long bytesP50,
+        long bytesP99,
+        long bytesMax,
+        long ageP99Nanos,
+        long ageMaxNanos
+) {
+
+    public long flushes() {
+        return flushesByRecords + flushesByBytes + flushesByLinger + flushesOnClose;
+    }
+}
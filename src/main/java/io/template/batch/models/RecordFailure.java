@@ -0,0 +1,15 @@
+package io.template.batch.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Output line written in place of a result when an input record is rejected.
+ *
+ * @param error Reason the record was rejected
+ */
+public record RecordFailure(
+
+        @JsonProperty("error")
+        String error
+
+) { }
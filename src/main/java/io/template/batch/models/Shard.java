@@ -0,0 +1,15 @@
+package io.template.batch.models;
+
+/**
+ * Byte range of an input file processed as one unit by a sharded batch job.
+ * Both ends fall on record boundaries.
+ *
+ * @param index Position of the shard within the input; outputs are merged in index order
+ * @param start Byte offset of the first record of the shard
+ * @param end Byte offset just past the last record of the shard
+ */
+public record Shard(
+        int index,
+        long start,
+        long end
+) { }
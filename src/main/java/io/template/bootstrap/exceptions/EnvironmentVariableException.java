@@ -1,17 +1,20 @@
 package io.template.bootstrap.exceptions;
 
+import io.template.shared.utilities.StackTraceUtility;
+
 /**
  * Thrown when a required environment variable is missing or invalid.
+ * Captures a stack trace only while {@link StackTraceUtility#isCapturing()}.
  */
 public final class EnvironmentVariableException extends RuntimeException {
 
     private static final long serialVersionUID = 1L;
 
     public EnvironmentVariableException(String message) {
-        super(message);
+        super(message, null, true, StackTraceUtility.isCapturing());
     }
 
     public EnvironmentVariableException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, true, StackTraceUtility.isCapturing());
     }
 }
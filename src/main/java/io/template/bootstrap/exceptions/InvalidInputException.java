@@ -1,17 +1,66 @@
 package io.template.bootstrap.exceptions;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.function.Supplier;
+
+import io.template.shared.utilities.StackTraceUtility;
+
 /**
  * Thrown when input validation or parsing fails.
+ * Captures a stack trace only while {@link StackTraceUtility#isCapturing()}.
  */
 public final class InvalidInputException extends RuntimeException {
 
     private static final long serialVersionUID = 1L;
 
+    private transient Supplier<String> messageSupplier;
+    private String resolvedMessage;
+
     public InvalidInputException(String message) {
-        super(message);
+        super(message, null, true, StackTraceUtility.isCapturing());
     }
 
     public InvalidInputException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, true, StackTraceUtility.isCapturing());
+    }
+
+    /**
+     * Defers building the message until it is first read, for messages that are costly to format and often
+     * never looked at.
+     */
+    public InvalidInputException(Supplier<String> messageSupplier) {
+        super(null, null, true, StackTraceUtility.isCapturing());
+        this.messageSupplier = messageSupplier;
+    }
+
+    private InvalidInputException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Exception that never captures a stack trace, for rejections that are frequent and fully described by
+     * their message.
+     */
+    public static InvalidInputException withoutStackTrace(String message) {
+        return new InvalidInputException(message, false);
+    }
+
+    @Override
+    public String getMessage() {
+        Supplier<String> supplier = messageSupplier;
+        if (supplier != null) {
+            resolvedMessage = supplier.get();
+            messageSupplier = null;
+        }
+        return resolvedMessage != null ? resolvedMessage : super.getMessage();
+    }
+
+    /**
+     * Resolves a deferred message first, since the supplier is not serialized.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
     }
 }
@@ -0,0 +1,66 @@
+package io.template.bootstrap.injectionmodules;
+
+import com.google.inject.AbstractModule;
+import io.template.batch.logic.BatchProcessor;
+import io.template.batch.logic.BinaryInputConverter;
+import io.template.batch.logic.LocalProcessLauncher;
+import io.template.batch.logic.ShardCoordinator;
+import io.template.batch.logic.ShardWorker;
+import io.template.batch.logic.WorkerLauncher;
+import io.template.bootstrap.logic.Executor;
+import io.template.bootstrap.logic.InputPrevalidator;
+import io.template.bootstrap.logic.InputProcessor;
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.concurrency.logic.AdaptiveConcurrencyLimiter;
+import io.template.concurrency.logic.PinningMonitor;
+import io.template.concurrency.logic.PriorityScheduler;
+import io.template.concurrency.logic.RequestCoalescer;
+import io.template.concurrency.logic.VirtualExecution;
+import io.template.daemon.logic.DaemonServer;
+import io.template.replay.logic.InputJournal;
+import io.template.replay.logic.Replayer;
+import io.template.resultcache.logic.SharedResultCache;
+import io.template.samplebusinesslayer.logic.Calculator;
+
+/**
+ * Index of every injectable application class.
+ * <p>
+ * Explicit bindings are required, so Guice never discovers a class just in time: the whole graph is known, and
+ * checked, when the injector is created. A class missing here fails injector creation instead of being found
+ * by reflection on first use. Add new injectable classes to this list.
+ */
+public class ApplicationModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        binder().requireExplicitBindings();
+        binder().requireAtInjectOnConstructors();
+        binder().disableCircularProxies();
+
+        bind(Executor.class);
+        bind(InputPrevalidator.class);
+        bind(InputSanitizer.class);
+        bind(InputProcessor.class);
+
+        bind(Calculator.class);
+        bind(SharedResultCache.class);
+
+        bind(AdaptiveConcurrencyLimiter.class);
+        bind(RequestCoalescer.class);
+        bind(VirtualExecution.class);
+        bind(PinningMonitor.class);
+        bind(PriorityScheduler.class);
+
+        bind(BatchProcessor.class);
+        bind(BinaryInputConverter.class);
+        bind(ShardCoordinator.class);
+        bind(ShardWorker.class);
+        bind(LocalProcessLauncher.class);
+        bind(WorkerLauncher.class).to(LocalProcessLauncher.class);
+
+        bind(DaemonServer.class);
+
+        bind(InputJournal.class);
+        bind(Replayer.class);
+    }
+}
@@ -0,0 +1,28 @@
+package io.template.bootstrap.injectionmodules;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.spi.ProvisionListener;
+import io.template.bootstrap.logic.LifecycleRegistry;
+
+/**
+ * Registers every singleton that takes part in shutdown with the {@link LifecycleRegistry}, in creation order.
+ */
+public class LifecycleModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        LifecycleRegistry lifecycleRegistry = new LifecycleRegistry();
+        bind(LifecycleRegistry.class).toInstance(lifecycleRegistry);
+        bindListener(Matchers.any(), new ProvisionListener() {
+            @Override
+            public <T> void onProvision(ProvisionInvocation<T> provision) {
+                T instance = provision.provision();
+                if (Scopes.isSingleton(provision.getBinding())) {
+                    lifecycleRegistry.register(instance);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.template.bootstrap.logic;
+
+import java.time.Duration;
+
+/**
+ * A component that accepts work and can finish its in-flight work before shutdown.
+ * Singletons implementing this are drained by {@link LifecycleRegistry#shutdown(Duration)}.
+ */
+public interface Drainable {
+
+    /**
+     * Stops accepting new work. Must return immediately.
+     */
+    void stopIntake();
+
+    /**
+     * Waits for in-flight work to finish.
+     *
+     * @return whether all in-flight work finished within the timeout
+     */
+    boolean awaitDrained(Duration timeout);
+}
@@ -1,11 +1,21 @@
 package io.template.bootstrap.logic;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import io.template.bootstrap.exceptions.EnvironmentVariableException;
+import io.template.bootstrap.models.ResourceSetting;
 import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.NumericMode;
+import io.template.shared.models.NumericSettings;
+import io.template.shared.models.PrevalidationLimits;
+import io.template.shared.models.WindowSpec;
 import io.template.shared.utilities.HibernateValidatorUtility;
 import jakarta.validation.ConstraintViolation;
 
@@ -27,7 +37,11 @@ public class EnvironmentVariablesFactory {
                 extractString(environment, "REGION"),
                 extractString(environment, "EXAMPLE_STRING_VAR"),
                 extractInt(environment, "EXAMPLE_INT_VAR"),
-                extractBoolean(environment, "EXAMPLE_BOOLEAN_VAR")
+                extractBoolean(environment, "EXAMPLE_BOOLEAN_VAR"),
+                flushPolicy(environment),
+                windowSpec(environment),
+                prevalidationLimits(environment),
+                numericSettings(environment)
         );
 
         validateEnvironmentVariables(environmentVariables);
@@ -35,6 +49,90 @@ public class EnvironmentVariablesFactory {
         return environmentVariables;
     }
 
+    /**
+     * Explicit values for the {@link ResourceSetting}s, taken from their optional {@code TUNING_*} variables.
+     * Settings whose variable is not set are left to {@link ResourceTuner}.
+     */
+    public static Map<ResourceSetting, Integer> resourceOverrides(Map<String, String> environment) {
+        Map<ResourceSetting, Integer> overrides = new EnumMap<>(ResourceSetting.class);
+        for (ResourceSetting setting : ResourceSetting.values()) {
+            String key = setting.environmentVariable();
+            String value = environment.get(key);
+            if (value != null && !value.isBlank()) {
+                overrides.put(setting, extractPositiveInt(key, value.strip()));
+            }
+        }
+        return overrides;
+    }
+
+    /**
+     * Flush policy of streaming output from the optional {@code FLUSH_MAX_RECORDS}, {@code FLUSH_MAX_BYTES} and
+     * {@code FLUSH_MAX_LINGER_MILLIS} variables, each falling back to {@link FlushPolicy#DEFAULT} when not set.
+     */
+    public static FlushPolicy flushPolicy(Map<String, String> environment) {
+        FlushPolicy defaults = FlushPolicy.DEFAULT;
+        return new FlushPolicy(
+                optionalPositiveInt(environment, "FLUSH_MAX_RECORDS", defaults.maxRecords()),
+                optionalPositiveInt(environment, "FLUSH_MAX_BYTES", defaults.maxBytes()),
+                Duration.ofMillis(optionalPositiveInt(environment, "FLUSH_MAX_LINGER_MILLIS",
+                        (int) defaults.maxLinger().toMillis()))
+        );
+    }
+
+    /**
+     * Windows of streamed results from the optional {@code WINDOW_SIZE_MILLIS}, {@code WINDOW_SLIDE_MILLIS},
+     * {@code WINDOW_MAX_OUT_OF_ORDERNESS_MILLIS} and {@code WINDOW_ALLOWED_LATENESS_MILLIS} variables, each falling
+     * back to {@link WindowSpec#DEFAULT} when not set, except the slide, which defaults to the size.
+     */
+    public static WindowSpec windowSpec(Map<String, String> environment) {
+        WindowSpec defaults = WindowSpec.DEFAULT;
+        int size = optionalPositiveInt(environment, "WINDOW_SIZE_MILLIS", (int) defaults.size().toMillis());
+        try {
+            return new WindowSpec(
+                    Duration.ofMillis(size),
+                    Duration.ofMillis(optionalPositiveInt(environment, "WINDOW_SLIDE_MILLIS", size)),
+                    Duration.ofMillis(optionalNonNegativeInt(environment, "WINDOW_MAX_OUT_OF_ORDERNESS_MILLIS",
+                            (int) defaults.maxOutOfOrderness().toMillis())),
+                    Duration.ofMillis(optionalNonNegativeInt(environment, "WINDOW_ALLOWED_LATENESS_MILLIS",
+                            (int) defaults.allowedLateness().toMillis()))
+            );
+        } catch (IllegalArgumentException e) {
+            throw new EnvironmentVariableException("Invalid WINDOW_* environment variables: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Limits of the input prevalidation from the optional {@code PREVALIDATION_MAX_BYTES},
+     * {@code PREVALIDATION_MAX_DEPTH} and {@code PREVALIDATION_MAX_ARRAY_ELEMENTS} variables, each falling back to
+     * {@link PrevalidationLimits#DEFAULT} when not set.
+     */
+    public static PrevalidationLimits prevalidationLimits(Map<String, String> environment) {
+        PrevalidationLimits defaults = PrevalidationLimits.DEFAULT;
+        return new PrevalidationLimits(
+                optionalPositiveInt(environment, "PREVALIDATION_MAX_BYTES", defaults.maxBytes()),
+                optionalPositiveInt(environment, "PREVALIDATION_MAX_DEPTH", defaults.maxDepth()),
+                optionalPositiveInt(environment, "PREVALIDATION_MAX_ARRAY_ELEMENTS", defaults.maxArrayElements())
+        );
+    }
+
+    /**
+     * Arithmetic of calculations from the optional {@code NUMERIC_MODE} ({@code double}, {@code decimal} or
+     * {@code fixed_point}), {@code NUMERIC_DECIMAL_PRECISION} and {@code NUMERIC_FIXED_POINT_SCALE} variables, each
+     * falling back to {@link NumericSettings#DEFAULT} when not set.
+     */
+    public static NumericSettings numericSettings(Map<String, String> environment) {
+        NumericSettings defaults = NumericSettings.DEFAULT;
+        try {
+            return new NumericSettings(
+                    optionalNumericMode(environment, "NUMERIC_MODE", defaults.mode()),
+                    optionalPositiveInt(environment, "NUMERIC_DECIMAL_PRECISION", defaults.decimalPrecision()),
+                    optionalNonNegativeInt(environment, "NUMERIC_FIXED_POINT_SCALE", defaults.fixedPointScale())
+            );
+        } catch (IllegalArgumentException e) {
+            throw new EnvironmentVariableException("Invalid NUMERIC_* environment variables: " + e.getMessage(), e);
+        }
+    }
+
     private static void validateEnvironmentVariables(EnvironmentVariables environmentVariables) {
         Set<ConstraintViolation<EnvironmentVariables>> violations = HibernateValidatorUtility.VALIDATOR
                 .validate(environmentVariables);
@@ -66,6 +164,56 @@ public class EnvironmentVariablesFactory {
         }
     }
 
+    private static int optionalPositiveInt(Map<String, String> environment, String key, int defaultValue) {
+        String value = environment.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return extractPositiveInt(key, value.strip());
+    }
+
+    private static int optionalNonNegativeInt(Map<String, String> environment, String key, int defaultValue) {
+        String value = environment.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return extractIntAtLeast(key, value.strip(), 0, "a non-negative integer");
+    }
+
+    private static NumericMode optionalNumericMode(Map<String, String> environment, String key,
+                                                   NumericMode defaultValue) {
+        String value = environment.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        for (NumericMode mode : NumericMode.values()) {
+            if (mode.name().equalsIgnoreCase(value.strip())) {
+                return mode;
+            }
+        }
+        throw new EnvironmentVariableException("Environment variable '" + key + "' must be one of "
+                + Arrays.toString(NumericMode.values()).toLowerCase(Locale.ROOT) + ", got: " + value);
+    }
+
+    private static int extractPositiveInt(String key, String value) {
+        return extractIntAtLeast(key, value, 1, "a positive integer");
+    }
+
+    private static int extractIntAtLeast(String key, String value, int minimum, String description) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            String message = "Environment variable '" + key + "' must be " + description + ", got: " + value;
+            throw new EnvironmentVariableException(message, e);
+        }
+        if (parsed < minimum) {
+            throw new EnvironmentVariableException("Environment variable '" + key
+                    + "' must be " + description + ", got: " + value);
+        }
+        return parsed;
+    }
+
     private static boolean extractBoolean(Map<String, String> environment, String key) {
         String value = environment.get(key);
         ensureVariableExists(key, value);
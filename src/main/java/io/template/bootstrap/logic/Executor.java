@@ -1,44 +1,303 @@
 package io.template.bootstrap.logic;
 
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.inject.Inject;
+import io.template.batch.logic.BatchProcessor;
+import io.template.batch.logic.BinaryInputConverter;
+import io.template.batch.logic.ShardCoordinator;
+import io.template.batch.logic.ShardWorker;
+import io.template.batch.models.BatchSummary;
+import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.concurrency.logic.AdaptiveConcurrencyLimiter;
+import io.template.concurrency.logic.RequestCoalescer;
+import io.template.daemon.logic.DaemonServer;
+import io.template.replay.logic.InputJournal;
+import io.template.replay.logic.Replayer;
+import io.template.replay.models.JournalEntry;
+import io.template.replay.models.JournalOutcome;
+import io.template.replay.models.ReplayReport;
 import io.template.samplebusinesslayer.logic.Calculator;
 import io.template.samplebusinesslayer.models.CalculationRequest;
+import io.template.samplebusinesslayer.models.CalculationResult;
 import io.template.shared.models.ApplicationInput;
 import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.utilities.JsonMapperUtility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Main business logic executor.
+ * <p>
+ * By default the first argument is a single JSON input. {@code --batch <input> <output>} instead
+ * processes a newline-delimited JSON file through {@link BatchProcessor}, adding {@code --index} after the output
+ * also writes a queryable index of the accepted records, adding {@code --incremental <state directory>} instead
+ * only processes the records that changed since the previous run with that state, and
+ * {@code --coordinator <input> <output> <workers>} splits the same job across worker processes
+ * started with {@code --worker <socket> <input> <worker id>}. {@code --stream <output>} processes records from
+ * standard input as they arrive, writing their output in micro-batches bounded by the configured
+ * {@link FlushPolicy}.
+ * {@code --daemon <socket>} keeps the process running and serves single-input and batch invocations forwarded by
+ * {@code --client <socket> <arguments...>} through {@link DaemonServer}, returning their output; concurrent
+ * single-input invocations with the same input share one sanitization and calculation through the
+ * {@link RequestCoalescer}, and the {@link AdaptiveConcurrencyLimiter} sheds single-input invocations beyond the
+ * concurrency it can sustain.
+ * {@code --convert-to-binary <ndjson input> <binary output>} prepares batch input in the compact binary format.
+ * <p>
+ * {@code --record <journal> <arguments...>} runs the rest of the arguments while appending every single-input
+ * invocation, including those a daemon serves, to an {@link InputJournal}; {@code --replay <journal> [<speed>]}
+ * runs a journal again through {@link Replayer} and reports how results and latencies differ.
  */
 public class Executor {
 
+    static final String BATCH_FLAG = "--batch";
+    static final String INDEX_FLAG = "--index";
+    static final String INCREMENTAL_FLAG = "--incremental";
+    static final String STREAM_FLAG = "--stream";
+    static final String COORDINATOR_FLAG = "--coordinator";
+    static final String WORKER_FLAG = "--worker";
+    static final String DAEMON_FLAG = "--daemon";
+    static final String CONVERT_FLAG = "--convert-to-binary";
+    static final String RECORD_FLAG = "--record";
+    static final String REPLAY_FLAG = "--replay";
+
+    /**
+     * The calculation every single-input invocation runs; {@link Replayer} runs the same one.
+     */
+    public static final CalculationRequest SAMPLE_REQUEST = new CalculationRequest(10.0, 5.0, "ADD");
+
     private static final Logger LOGGER = LoggerFactory.getLogger(Executor.class);
 
     private final EnvironmentVariables environmentVariables;
     private final InputSanitizer inputSanitizer;
     private final Calculator calculator;
+    private final BatchProcessor batchProcessor;
+    private final ShardCoordinator shardCoordinator;
+    private final ShardWorker shardWorker;
+    private final DaemonServer daemonServer;
+    private final BinaryInputConverter binaryInputConverter;
+    private final InputJournal inputJournal;
+    private final Replayer replayer;
+    private final RequestCoalescer requestCoalescer;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     @Inject
-    public Executor(EnvironmentVariables environmentVariables, InputSanitizer inputSanitizer, Calculator calculator) {
+    public Executor(
+            EnvironmentVariables environmentVariables,
+            InputSanitizer inputSanitizer,
+            Calculator calculator,
+            BatchProcessor batchProcessor,
+            ShardCoordinator shardCoordinator,
+            ShardWorker shardWorker,
+            DaemonServer daemonServer,
+            BinaryInputConverter binaryInputConverter,
+            InputJournal inputJournal,
+            Replayer replayer,
+            RequestCoalescer requestCoalescer,
+            AdaptiveConcurrencyLimiter concurrencyLimiter
+    ) {
         this.environmentVariables = environmentVariables;
         this.inputSanitizer = inputSanitizer;
         this.calculator = calculator;
+        this.batchProcessor = batchProcessor;
+        this.shardCoordinator = shardCoordinator;
+        this.shardWorker = shardWorker;
+        this.daemonServer = daemonServer;
+        this.binaryInputConverter = binaryInputConverter;
+        this.inputJournal = inputJournal;
+        this.replayer = replayer;
+        this.requestCoalescer = requestCoalescer;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     public void execute(String[] args) {
+        execute(args, null);
+    }
+
+    /**
+     * Runs the invocation and writes its output to {@code out}: the result of a single input as a JSON line, the
+     * same as a batch output line, or a one-line summary of a batch run. Everything else only goes to the log.
+     *
+     * @param out Where the invocation's output goes, or {@code null} to discard it
+     */
+    public void execute(String[] args, PrintStream out) {
+        if (isRecording(args)) {
+            inputJournal.start(Path.of(args[1]));
+            execute(Arrays.copyOfRange(args, 2, args.length), out);
+            return;
+        }
         String stage = environmentVariables.stage();
         String region = environmentVariables.region();
         LOGGER.info("Executing with stage: {}, region: {}", stage, region);
 
-        ApplicationInput input = inputSanitizer.sanitize(args);
+        if (isInvocation(args, BATCH_FLAG, 3)) {
+            report(batchProcessor.run(Path.of(args[1]), Path.of(args[2])), out);
+            return;
+        }
+        if (isInvocation(args, BATCH_FLAG, 4) && INDEX_FLAG.equals(args[3])) {
+            report(batchProcessor.runIndexed(Path.of(args[1]), Path.of(args[2])), out);
+            return;
+        }
+        if (isInvocation(args, BATCH_FLAG, 5) && INCREMENTAL_FLAG.equals(args[3])) {
+            report(batchProcessor.runIncremental(Path.of(args[1]), Path.of(args[2]), Path.of(args[4])), out);
+            return;
+        }
+        if (isInvocation(args, STREAM_FLAG, 2)) {
+            logSummary(batchProcessor.runStream(Channels.newChannel(System.in), Path.of(args[1]),
+                    environmentVariables.flushPolicy(), environmentVariables.windowSpec()));
+            return;
+        }
+        if (isInvocation(args, COORDINATOR_FLAG, 4)) {
+            logSummary(shardCoordinator.run(Path.of(args[1]), Path.of(args[2]), Integer.parseInt(args[3])));
+            return;
+        }
+        if (isInvocation(args, WORKER_FLAG, 4)) {
+            int shards = shardWorker.run(Path.of(args[1]), Path.of(args[2]), Integer.parseInt(args[3]));
+            LOGGER.info("Worker processed {} shards", shards);
+            return;
+        }
+        if (isInvocation(args, DAEMON_FLAG, 2)) {
+            daemonServer.serve(Path.of(args[1]));
+            return;
+        }
+        if (isInvocation(args, CONVERT_FLAG, 3)) {
+            binaryInputConverter.convert(Path.of(args[1]), Path.of(args[2]));
+            return;
+        }
+        if (isInvocation(args, REPLAY_FLAG, 2) || isInvocation(args, REPLAY_FLAG, 3)) {
+            double speed = args.length == 3 ? Double.parseDouble(args[2]) : 1.0;
+            logReport(replayer.replay(Path.of(args[1]), speed));
+            return;
+        }
+        if (inputJournal.isRecording() && args != null && args.length > 0) {
+            print(concurrencyLimiter.execute(() -> executeRecorded(args)), out);
+            return;
+        }
+
+        if (args != null && args.length == 1) {
+            print(requestCoalescer.execute(args[0].getBytes(StandardCharsets.UTF_8),
+                    raw -> concurrencyLimiter.execute(() -> sanitizeAndCalculate(args))), out);
+            return;
+        }
+        print(sanitizeAndCalculate(args), out);
+    }
+
+    /**
+     * Whether the invocation keeps the process running to serve many requests, as opposed to a one-shot command.
+     */
+    public static boolean isLongRunning(String[] args) {
+        if (isRecording(args)) {
+            return isLongRunning(Arrays.copyOfRange(args, 2, args.length));
+        }
+        return isInvocation(args, DAEMON_FLAG, 2)
+                || isInvocation(args, STREAM_FLAG, 2)
+                || isInvocation(args, COORDINATOR_FLAG, 4)
+                || isInvocation(args, WORKER_FLAG, 4);
+    }
+
+    /**
+     * Whether a {@link DaemonServer} may run the invocation for a client: a single input or a batch run, whose paths
+     * the daemon resolves against its own working directory. Serving and worker modes would hold one of the
+     * daemon's scheduler permits for as long as they run, {@code --stream} would read the daemon's standard input,
+     * and recording would start the daemon's shared {@link InputJournal} for every invocation that follows; start
+     * the daemon itself with {@code --record} instead.
+     */
+    public static boolean isForwardable(String[] args) {
+        if (args == null) {
+            return false;
+        }
+        return args.length == 1 || args.length >= 3 && args.length <= 5 && BATCH_FLAG.equals(args[0]);
+    }
+
+    private static void print(CalculationResult result, PrintStream out) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.println(JsonMapperUtility.MAPPER.writeValueAsString(result));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not write result " + result, e);
+        }
+    }
+
+    private static void report(BatchSummary summary, PrintStream out) {
+        logSummary(summary);
+        if (out != null) {
+            out.printf("Batch processed %d records (%d rejected), completed: %b%n",
+                    summary.recordsProcessed(), summary.recordsRejected(), summary.completed());
+        }
+    }
+
+    private static boolean isInvocation(String[] args, String flag, int length) {
+        return args != null && args.length == length && flag.equals(args[0]);
+    }
+
+    private static boolean isRecording(String[] args) {
+        return args != null && args.length >= 3 && RECORD_FLAG.equals(args[0]);
+    }
+
+    private static void logSummary(BatchSummary summary) {
+        LOGGER.info("Batch processed {} records ({} rejected), completed: {}",
+                summary.recordsProcessed(), summary.recordsRejected(), summary.completed());
+    }
+
+    private static void logReport(ReplayReport report) {
+        LOGGER.info("Replayed {} entries, {} with a different outcome; sanitize p50/p99 {}/{} ns recorded, {}/{} ns "
+                        + "replayed; calculate p50/p99 {}/{} ns recorded, {}/{} ns replayed",
+                report.entries(), report.mismatches(),
+                report.sanitize().recordedP50Nanos(), report.sanitize().recordedP99Nanos(),
+                report.sanitize().replayedP50Nanos(), report.sanitize().replayedP99Nanos(),
+                report.calculate().recordedP50Nanos(), report.calculate().recordedP99Nanos(),
+                report.calculate().replayedP50Nanos(), report.calculate().replayedP99Nanos());
+    }
+
+    /**
+     * Same stages as the unrecorded path, timed and appended to the journal; exceptions still propagate.
+     */
+    private CalculationResult executeRecorded(String[] args) {
+        byte[] raw = args[0].getBytes(StandardCharsets.UTF_8);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        ApplicationInput input;
+        try {
+            input = inputSanitizer.sanitize(args);
+        } catch (InvalidInputException e) {
+            inputJournal.record(JournalEntry.unaccepted(startedAt, raw, System.nanoTime() - start, 0,
+                    JournalOutcome.REJECTED, e.getMessage()));
+            throw e;
+        } catch (RuntimeException e) {
+            inputJournal.record(JournalEntry.unaccepted(startedAt, raw, System.nanoTime() - start, 0,
+                    JournalOutcome.FAILED, e.getMessage()));
+            throw e;
+        }
+        long sanitizeNanos = System.nanoTime() - start;
         LOGGER.info("Sanitized input: {}", input);
 
-        invokeSampleLogic();
+        long calculationStart = System.nanoTime();
+        try {
+            CalculationResult result = calculator.calculate(SAMPLE_REQUEST);
+            inputJournal.record(JournalEntry.accepted(startedAt, raw, sanitizeNanos,
+                    System.nanoTime() - calculationStart, result.result()));
+            return result;
+        } catch (RuntimeException e) {
+            inputJournal.record(JournalEntry.unaccepted(startedAt, raw, sanitizeNanos,
+                    System.nanoTime() - calculationStart, JournalOutcome.FAILED, e.getMessage()));
+            throw e;
+        }
     }
 
-    private void invokeSampleLogic() {
-        CalculationRequest request = new CalculationRequest(10.0, 5.0, "ADD");
-        calculator.calculate(request);
+    private CalculationResult sanitizeAndCalculate(String[] args) {
+        ApplicationInput input = inputSanitizer.sanitize(args);
+        LOGGER.info("Sanitized input: {}", input);
+
+        return calculator.calculate(SAMPLE_REQUEST);
     }
 }
@@ -0,0 +1,237 @@
+package io.template.bootstrap.logic;
+
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.inject.Inject;
+import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.PrevalidationLimits;
+
+/**
+ * Cheap checks on raw input that run before deserialization, so trivially invalid inputs are rejected without
+ * paying for data binding, bean validation and stack traces.
+ * <p>
+ * JSON is scanned once: it must fit the size cap, be an object, stay within the nesting depth and array length
+ * limits, and name every {@link ApplicationInput} property as a top-level key. The scan only follows strings
+ * and brackets and does not check the rest of the syntax. Anything it cannot judge cheaply, such as unbalanced
+ * input or keys written with escapes, is left to the deserializer, so it never rejects an input that full
+ * sanitization would accept. Smile input is only checked for size.
+ */
+public class InputPrevalidator {
+
+    private static final String REJECTION_PREFIX = "Invalid input JSON: ";
+    // Property names as UTF-8, in the order of the record components; at most 64 so they fit a bit set
+    private static final byte[][] REQUIRED_KEYS = requiredKeys();
+    private static final long ALL_KEYS = REQUIRED_KEYS.length == Long.SIZE ? -1L : (1L << REQUIRED_KEYS.length) - 1;
+
+    private final PrevalidationLimits limits;
+
+    public InputPrevalidator() {
+        this(PrevalidationLimits.DEFAULT);
+    }
+
+    /**
+     * Prevalidator with the limits configured by the optional {@code PREVALIDATION_*} variables.
+     */
+    @Inject
+    public InputPrevalidator(EnvironmentVariables environmentVariables) {
+        this(environmentVariables.prevalidationLimits());
+    }
+
+    public InputPrevalidator(PrevalidationLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * @throws InvalidInputException without a stack trace if the UTF-8 JSON fails a check
+     */
+    public void checkJson(byte[] json) {
+        throwIfRejected(jsonRejection(json));
+    }
+
+    /**
+     * @throws InvalidInputException without a stack trace if the Smile document exceeds the size cap
+     */
+    public void checkSmile(byte[] smile) {
+        throwIfRejected(smileRejection(smile));
+    }
+
+    /**
+     * Same as {@link #checkJson(byte[])} without throwing.
+     *
+     * @return the rejection message, or {@code null} if the input passes
+     */
+    public String jsonRejection(byte[] json) {
+        String sizeRejection = sizeRejection(json);
+        if (sizeRejection != null) {
+            return sizeRejection;
+        }
+        int start = skipWhitespace(json, skipByteOrderMark(json));
+        if (start == json.length) {
+            return REJECTION_PREFIX + "empty payload";
+        }
+        if (json[start] != '{') {
+            return REJECTION_PREFIX + "expected a JSON object";
+        }
+        return scan(json, start);
+    }
+
+    /**
+     * Same as {@link #checkSmile(byte[])} without throwing.
+     *
+     * @return the rejection message, or {@code null} if the input passes
+     */
+    public String smileRejection(byte[] smile) {
+        return sizeRejection(smile);
+    }
+
+    private String sizeRejection(byte[] bytes) {
+        if (bytes.length > limits.maxBytes()) {
+            return REJECTION_PREFIX + "payload of " + bytes.length + " bytes exceeds the limit of " + limits.maxBytes();
+        }
+        return null;
+    }
+
+    /**
+     * Follows the structure from the top-level object at {@code start} until that object is closed.
+     */
+    private String scan(byte[] json, int start) {
+        int maxDepth = limits.maxDepth();
+        // Per open container, indexed by depth: whether it is an array, and how many commas it has so far
+        boolean[] isArray = new boolean[maxDepth + 1];
+        int[] commas = new int[maxDepth + 1];
+        int depth = 0;
+        boolean expectingKey = false;
+        boolean keysComparable = true;
+        long foundKeys = 0;
+        int i = start;
+        while (i < json.length) {
+            byte b = json[i];
+            if (b == '"') {
+                int end = endOfString(json, i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                if (depth == 1 && expectingKey) {
+                    if (containsEscape(json, i + 1, end)) {
+                        keysComparable = false;
+                    }
+                    foundKeys |= requiredKeyBit(json, i + 1, end);
+                    expectingKey = false;
+                }
+                i = end + 1;
+                continue;
+            }
+            switch (b) {
+                case '{', '[' -> {
+                    if (depth == maxDepth) {
+                        return REJECTION_PREFIX + "nesting deeper than " + maxDepth + " levels";
+                    }
+                    depth++;
+                    isArray[depth] = b == '[';
+                    commas[depth] = 0;
+                    expectingKey = b == '{';
+                }
+                case '}', ']' -> {
+                    depth--;
+                    if (depth == 0) {
+                        if (keysComparable && foundKeys != ALL_KEYS) {
+                            return REJECTION_PREFIX + "missing required key '" + firstMissingKey(foundKeys) + "'";
+                        }
+                        return null;
+                    }
+                    expectingKey = false;
+                }
+                case ',' -> {
+                    if (isArray[depth] && ++commas[depth] >= limits.maxArrayElements()) {
+                        return REJECTION_PREFIX + "array of more than " + limits.maxArrayElements() + " elements";
+                    }
+                    expectingKey = !isArray[depth];
+                }
+                default -> { }
+            }
+            i++;
+        }
+        return null;
+    }
+
+    /**
+     * Index of the quote closing the string whose content starts at {@code from}, or -1 if it is unterminated.
+     */
+    private static int endOfString(byte[] json, int from) {
+        for (int i = from; i < json.length; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean containsEscape(byte[] json, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (json[i] == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long requiredKeyBit(byte[] json, int from, int to) {
+        for (int k = 0; k < REQUIRED_KEYS.length; k++) {
+            byte[] key = REQUIRED_KEYS[k];
+            if (Arrays.equals(json, from, to, key, 0, key.length)) {
+                return 1L << k;
+            }
+        }
+        return 0;
+    }
+
+    private static String firstMissingKey(long foundKeys) {
+        int missing = Long.numberOfTrailingZeros(~foundKeys);
+        return new String(REQUIRED_KEYS[missing], StandardCharsets.UTF_8);
+    }
+
+    private static int skipByteOrderMark(byte[] json) {
+        boolean bom = json.length >= 3 && (json[0] & 0xff) == 0xef && (json[1] & 0xff) == 0xbb
+                && (json[2] & 0xff) == 0xbf;
+        return bom ? 3 : 0;
+    }
+
+    private static int skipWhitespace(byte[] json, int from) {
+        int i = from;
+        while (i < json.length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void throwIfRejected(String rejection) {
+        if (rejection != null) {
+            throw InvalidInputException.withoutStackTrace(rejection);
+        }
+    }
+
+    /**
+     * Every property of {@link ApplicationInput} is required, since the mapper fails on missing creator
+     * properties.
+     */
+    private static byte[][] requiredKeys() {
+        RecordComponent[] components = ApplicationInput.class.getRecordComponents();
+        if (components.length > Long.SIZE) {
+            throw new IllegalStateException("Too many input properties to prevalidate: " + components.length);
+        }
+        byte[][] keys = new byte[components.length][];
+        for (int i = 0; i < components.length; i++) {
+            JsonProperty property = components[i].getAccessor().getAnnotation(JsonProperty.class);
+            String name = property == null || property.value().isEmpty() ? components[i].getName() : property.value();
+            keys[i] = name.getBytes(StandardCharsets.UTF_8);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,65 @@
+package io.template.bootstrap.logic;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.inject.Inject;
+import io.template.samplebusinesslayer.logic.Calculator;
+import io.template.samplebusinesslayer.models.CalculationRequest;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.Result;
+
+/**
+ * Runs a single raw input record through sanitization and the business layer.
+ * Used by the modes that process many records per launch, such as batch mode.
+ */
+public class InputProcessor {
+
+    private static final String OPERATION = "ADD";
+
+    private final InputSanitizer inputSanitizer;
+    private final Calculator calculator;
+
+    @Inject
+    public InputProcessor(
+            InputSanitizer inputSanitizer,
+            Calculator calculator
+    ) {
+        this.inputSanitizer = inputSanitizer;
+        this.calculator = calculator;
+    }
+
+    /**
+     * Processes a raw record that is either UTF-8 JSON or Smile, returning rejections and calculation failures as
+     * a {@link Result} instead of throwing, see {@link InputSanitizer#trySanitizeEncoded(byte[])}.
+     */
+    public Result<CalculationResult> tryProcessEncoded(byte[] record) {
+        return inputSanitizer.trySanitizeEncoded(record)
+                .flatMap(input -> calculator.tryCalculate(toCalculationRequest(input)));
+    }
+
+    /**
+     * Same as {@link #tryProcessEncoded(byte[])}, also handing the sanitized input to {@code acceptedInputs}
+     * once its calculation has succeeded, for callers that index what they process.
+     */
+    public Result<CalculationResult> tryProcessEncoded(byte[] record, Consumer<ApplicationInput> acceptedInputs) {
+        return inputSanitizer.trySanitizeEncoded(record)
+                .flatMap(input -> {
+                    Result<CalculationResult> result = calculator.tryCalculate(toCalculationRequest(input));
+                    if (result instanceof Result.Success<CalculationResult>) {
+                        acceptedInputs.accept(input);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Sample mapping from an input record to a calculation; replace with the application's own.
+     */
+    static CalculationRequest toCalculationRequest(ApplicationInput input) {
+        List<String> elements = input.exampleListField();
+        int elementCount = elements == null ? 0 : elements.size();
+        return new CalculationRequest(input.exampleIntField(), elementCount, OPERATION);
+    }
+}
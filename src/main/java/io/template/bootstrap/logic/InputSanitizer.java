@@ -1,12 +1,14 @@
 package io.template.bootstrap.logic;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
 import com.google.inject.Inject;
 import io.template.bootstrap.exceptions.InvalidInputException;
 import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.Result;
 import io.template.shared.utilities.HibernateValidatorUtility;
 import io.template.shared.utilities.JsonMapperUtility;
 import jakarta.validation.ConstraintViolation;
@@ -14,20 +16,44 @@ import jakarta.validation.ConstraintViolation;
 /**
  * Handles input sanitization.
  * Deserializes raw input strings into ApplicationInput objects and validates them.
+ * Besides JSON, inputs may be encoded as Smile (binary JSON), recognised by its {@code :)\n} header.
+ * Raw input first goes through the {@link InputPrevalidator}, which rejects trivially invalid input cheaply.
+ * {@link #trySanitizeEncoded(byte[])} reports rejections as a {@link Result} instead of throwing.
  */
 public class InputSanitizer {
 
+    private final InputPrevalidator inputPrevalidator;
+
+    public InputSanitizer() {
+        this(new InputPrevalidator());
+    }
+
     @Inject
-    public InputSanitizer() { }
+    public InputSanitizer(InputPrevalidator inputPrevalidator) {
+        this.inputPrevalidator = inputPrevalidator;
+    }
 
     public ApplicationInput sanitize(String[] args) {
         validateArgumentsStructure(args);
-        String jsonString = args[0];
+        return sanitizeJson(args[0]);
+    }
+
+    /**
+     * Encoded to UTF-8 once, so the prevalidator and the parser both work on bytes.
+     */
+    public ApplicationInput sanitizeJson(String jsonString) {
+        return sanitizeJson(jsonString.getBytes(StandardCharsets.UTF_8));
+    }
 
+    /**
+     * Same as {@link #sanitizeJson(String)}, for UTF-8 bytes that have not been decoded yet.
+     */
+    public ApplicationInput sanitizeJson(byte[] jsonBytes) {
+        inputPrevalidator.checkJson(jsonBytes);
         ApplicationInput applicationInput;
         try {
-            applicationInput = JsonMapperUtility.MAPPER.readValue(jsonString, ApplicationInput.class);
-        } catch (JsonProcessingException e) {
+            applicationInput = JsonMapperUtility.MAPPER.readValue(jsonBytes, ApplicationInput.class);
+        } catch (IOException e) {
             throw new InvalidInputException("Invalid input JSON: ", e);
         }
 
@@ -35,6 +61,61 @@ public class InputSanitizer {
         return applicationInput;
     }
 
+    /**
+     * Same as {@link #sanitizeJson(byte[])}, for Smile-encoded input.
+     */
+    public ApplicationInput sanitizeSmile(byte[] smileBytes) {
+        inputPrevalidator.checkSmile(smileBytes);
+        ApplicationInput applicationInput;
+        try {
+            applicationInput = JsonMapperUtility.SMILE_MAPPER.readValue(smileBytes, ApplicationInput.class);
+        } catch (IOException e) {
+            throw new InvalidInputException("Invalid input JSON: ", e);
+        }
+
+        validateDeserializedInput(applicationInput);
+        return applicationInput;
+    }
+
+    /**
+     * Sanitizes input that is either UTF-8 JSON or Smile, choosing the decoder from the leading bytes.
+     */
+    public ApplicationInput sanitizeEncoded(byte[] bytes) {
+        return isSmile(bytes) ? sanitizeSmile(bytes) : sanitizeJson(bytes);
+    }
+
+    /**
+     * Same as {@link #sanitizeEncoded(byte[])}, returning rejections as a failure with the message the exception
+     * would have had. Only input that passes prevalidation but is not well-formed still costs an exception
+     * internally, thrown by the parser.
+     */
+    public Result<ApplicationInput> trySanitizeEncoded(byte[] bytes) {
+        boolean smile = isSmile(bytes);
+        String rejection = smile ? inputPrevalidator.smileRejection(bytes) : inputPrevalidator.jsonRejection(bytes);
+        if (rejection != null) {
+            return Result.failure(rejection);
+        }
+        ApplicationInput applicationInput;
+        try {
+            applicationInput = smile
+                    ? JsonMapperUtility.SMILE_MAPPER.readValue(bytes, ApplicationInput.class)
+                    : JsonMapperUtility.MAPPER.readValue(bytes, ApplicationInput.class);
+        } catch (IOException e) {
+            return Result.failure("Invalid input JSON: ");
+        }
+
+        Set<ConstraintViolation<ApplicationInput>> violations = HibernateValidatorUtility.VALIDATOR
+                .validate(applicationInput);
+        return violations.isEmpty() ? Result.success(applicationInput) : Result.failure(describe(violations));
+    }
+
+    public static boolean isSmile(byte[] bytes) {
+        return bytes.length >= 3
+                && bytes[0] == SmileConstants.HEADER_BYTE_1
+                && bytes[1] == SmileConstants.HEADER_BYTE_2
+                && bytes[2] == SmileConstants.HEADER_BYTE_3;
+    }
+
     private void validateArgumentsStructure(String[] args) {
         if (args == null || args.length == 0) {
             throw new InvalidInputException("No input provided");
@@ -45,11 +126,17 @@ public class InputSanitizer {
         Set<ConstraintViolation<ApplicationInput>> violations = HibernateValidatorUtility.VALIDATOR.validate(input);
 
         if (!violations.isEmpty()) {
-            String errors = violations.stream()
-                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
-                    .collect(Collectors.joining(", "));
+            throw new InvalidInputException(() -> describe(violations));
+        }
+    }
 
-            throw new InvalidInputException("Input validation failed: " + errors);
+    private static String describe(Set<ConstraintViolation<ApplicationInput>> violations) {
+        StringBuilder errors = new StringBuilder("Input validation failed: ");
+        String separator = "";
+        for (ConstraintViolation<ApplicationInput> violation : violations) {
+            errors.append(separator).append(violation.getPropertyPath()).append(": ").append(violation.getMessage());
+            separator = ", ";
         }
+        return errors.toString();
     }
 }
@@ -0,0 +1,212 @@
+package io.template.bootstrap.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+import io.template.batch.logic.BlockGzipFormat;
+import io.template.bootstrap.models.ContainerLimits;
+import io.template.bootstrap.models.ResourcePlan;
+import io.template.bootstrap.models.ResourceSetting;
+import io.template.concurrency.logic.RequestCoalescer;
+import io.template.replay.logic.InputJournal;
+import io.template.shared.utilities.SystemPropertyUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizes thread pools, queues and caches from the CPU and memory limits of the container, before anything that
+ * reads them is created.
+ * <p>
+ * Limits are read from the cgroup v2 files {@code cpu.max} and {@code memory.max} of the process's cgroup and of
+ * every cgroup above it, keeping the tightest. Thread counts follow the CPU quota, rounded up. Queue and cache
+ * sizes scale the built-in defaults, which suit {@link #REFERENCE_MEMORY_BYTES}, with the memory limit, within a
+ * factor of {@link #MAX_SCALE} either way. Without a limit, including on hosts that only mount cgroup v1, the
+ * built-in defaults apply unchanged.
+ * <p>
+ * The plan is published as the system properties listed in {@link ResourceSetting} and logged. A property passed
+ * with {@code -D} is kept as it is, and a {@code TUNING_*} environment variable takes precedence over the derived
+ * value.
+ */
+public final class ResourceTuner {
+
+    static final Path CGROUP_MOUNT = Path.of("/sys/fs/cgroup");
+    static final Path SELF_CGROUP = Path.of("/proc/self/cgroup");
+    static final long REFERENCE_MEMORY_BYTES = 1L << 30;
+    static final int MAX_SCALE = 16;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceTuner.class);
+    private static final String UNIFIED_HIERARCHY_PREFIX = "0::";
+    private static final String UNLIMITED = "max";
+    private static final long DEFAULT_CPU_PERIOD = 100_000;
+    private static final long MEBIBYTE = 1L << 20;
+
+    private ResourceTuner() { }
+
+    /**
+     * Reads the limits of this process, derives a plan from them and publishes it to {@code properties}.
+     *
+     * @return the plan in effect, overrides included
+     * @throws io.template.bootstrap.exceptions.EnvironmentVariableException if a {@code TUNING_*} variable is invalid
+     * @throws IllegalArgumentException if a property already set is not a positive integer
+     */
+    public static ResourcePlan tune(Map<String, String> environment, Properties properties) {
+        ContainerLimits limits = readLimits(CGROUP_MOUNT, SELF_CGROUP);
+        ResourcePlan derived = derive(limits, Runtime.getRuntime().availableProcessors());
+        return apply(derived, EnvironmentVariablesFactory.resourceOverrides(environment), properties);
+    }
+
+    /**
+     * Limits of the cgroup named in {@code selfCgroup}, under the cgroup v2 hierarchy mounted at {@code mount}.
+     * Missing or unreadable files count as no limit, so this never fails outside a container.
+     */
+    static ContainerLimits readLimits(Path mount, Path selfCgroup) {
+        Path directory = cgroupDirectory(mount, selfCgroup);
+        ContainerLimits limits = ContainerLimits.UNLIMITED;
+        for (Path current = directory; current != null && current.startsWith(mount); current = current.getParent()) {
+            limits = limits.within(new ContainerLimits(readCpus(current.resolve("cpu.max")),
+                    readMemory(current.resolve("memory.max"))));
+        }
+        return limits;
+    }
+
+    static ResourcePlan derive(ContainerLimits limits, int availableProcessors) {
+        int cpus = availableProcessors;
+        if (limits.isCpuLimited()) {
+            cpus = (int) Math.max(1, Math.min(availableProcessors, Math.ceil(limits.cpus())));
+        }
+        Map<ResourceSetting, Integer> settings = new EnumMap<>(ResourceSetting.class);
+        settings.put(ResourceSetting.CARRIER_THREADS, cpus);
+        settings.put(ResourceSetting.SCHEDULER_PARALLELISM, cpus);
+        settings.put(ResourceSetting.COMPRESSION_THREADS, Math.min(BlockGzipFormat.MAX_DEFAULT_PARALLELISM, cpus));
+        settings.put(ResourceSetting.JOURNAL_QUEUE_CAPACITY,
+                scale(InputJournal.DEFAULT_QUEUE_CAPACITY, limits));
+        settings.put(ResourceSetting.REJECTION_CACHE_ENTRIES,
+                scale(RequestCoalescer.DEFAULT_MAX_NEGATIVE_ENTRIES, limits));
+        return new ResourcePlan(limits, settings);
+    }
+
+    /**
+     * Publishes {@code derived} to {@code properties}, except where a property is already set or an override is
+     * given, and logs the outcome.
+     *
+     * @return the plan in effect
+     */
+    static ResourcePlan apply(ResourcePlan derived, Map<ResourceSetting, Integer> overrides, Properties properties) {
+        Map<ResourceSetting, Integer> settings = new EnumMap<>(ResourceSetting.class);
+        StringJoiner description = new StringJoiner(", ");
+        for (ResourceSetting setting : ResourceSetting.values()) {
+            String source = "";
+            int value;
+            if (properties.getProperty(setting.property()) != null) {
+                value = SystemPropertyUtility.positiveInt(properties, setting.property(), derived.get(setting));
+                source = " (-D" + setting.property() + ")";
+            } else {
+                Integer override = overrides.get(setting);
+                if (override != null) {
+                    source = " (" + setting.environmentVariable() + ")";
+                }
+                value = override == null ? derived.get(setting) : override;
+                properties.setProperty(setting.property(), Integer.toString(value));
+            }
+            settings.put(setting, value);
+            description.add(setting.name().toLowerCase(Locale.ROOT).replace('_', ' ') + " " + value + source);
+        }
+        ResourcePlan plan = new ResourcePlan(derived.limits(), settings);
+        LOGGER.info("Resource plan for {} CPUs and {} of memory: {}", describeCpus(plan.limits()),
+                describeMemory(plan.limits()), description);
+        return plan;
+    }
+
+    private static int scale(int defaultValue, ContainerLimits limits) {
+        if (!limits.isMemoryLimited()) {
+            return defaultValue;
+        }
+        double scaled = defaultValue * ((double) limits.memoryBytes() / REFERENCE_MEMORY_BYTES);
+        return (int) Math.max(Math.max(1, defaultValue / MAX_SCALE), Math.min((long) defaultValue * MAX_SCALE, scaled));
+    }
+
+    private static Path cgroupDirectory(Path mount, Path selfCgroup) {
+        for (String line : readLines(selfCgroup)) {
+            if (line.startsWith(UNIFIED_HIERARCHY_PREFIX)) {
+                String relative = line.substring(UNIFIED_HIERARCHY_PREFIX.length()).replaceFirst("^/+", "");
+                Path directory = mount.resolve(relative).normalize();
+                return directory.startsWith(mount) ? directory : mount;
+            }
+        }
+        return mount;
+    }
+
+    /**
+     * {@code cpu.max} holds the quota and the period in microseconds, or {@code max} instead of a quota.
+     */
+    private static double readCpus(Path file) {
+        List<String> lines = readLines(file);
+        if (lines.isEmpty()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        String[] fields = lines.getFirst().strip().split("\\s+");
+        if (UNLIMITED.equals(fields[0])) {
+            return Double.POSITIVE_INFINITY;
+        }
+        long quota = positiveLong(fields[0]);
+        long period = fields.length > 1 ? positiveLong(fields[1]) : DEFAULT_CPU_PERIOD;
+        if (quota > 0 && period > 0) {
+            return (double) quota / period;
+        }
+        LOGGER.warn("Ignoring unexpected CPU limit in {}: {}", file, lines.getFirst());
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static long readMemory(Path file) {
+        List<String> lines = readLines(file);
+        if (lines.isEmpty() || UNLIMITED.equals(lines.getFirst().strip())) {
+            return Long.MAX_VALUE;
+        }
+        long bytes = positiveLong(lines.getFirst().strip());
+        if (bytes > 0) {
+            return bytes;
+        }
+        LOGGER.warn("Ignoring unexpected memory limit in {}: {}", file, lines.getFirst());
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * The value, or -1 if it is not a positive number.
+     */
+    private static long positiveLong(String value) {
+        try {
+            long parsed = Long.parseLong(value);
+            return parsed > 0 ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static List<String> readLines(Path file) {
+        if (!Files.isReadable(file)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.debug("Could not read {}", file, e);
+            return List.of();
+        }
+    }
+
+    private static String describeCpus(ContainerLimits limits) {
+        return limits.isCpuLimited() ? String.format(Locale.ROOT, "%.2f", limits.cpus()) : "unlimited";
+    }
+
+    private static String describeMemory(ContainerLimits limits) {
+        return limits.isMemoryLimited() ? limits.memoryBytes() / MEBIBYTE + " MiB" : "unlimited";
+    }
+}
@@ -0,0 +1,36 @@
+package io.template.bootstrap.models;
+
+/**
+ * CPU and memory limits of the cgroup the process runs in.
+ *
+ * @param cpus CPU time available per unit of wall time, {@link Double#POSITIVE_INFINITY} when unlimited
+ * @param memoryBytes Memory available to the whole cgroup, {@link Long#MAX_VALUE} when unlimited
+ */
+public record ContainerLimits(
+        double cpus,
+        long memoryBytes
+) {
+
+    public static final ContainerLimits UNLIMITED = new ContainerLimits(Double.POSITIVE_INFINITY, Long.MAX_VALUE);
+
+    public ContainerLimits {
+        if (!(cpus > 0) || memoryBytes <= 0) {
+            throw new IllegalArgumentException("Container limits must be positive, got: " + cpus + ", " + memoryBytes);
+        }
+    }
+
+    public boolean isCpuLimited() {
+        return cpus != Double.POSITIVE_INFINITY;
+    }
+
+    public boolean isMemoryLimited() {
+        return memoryBytes != Long.MAX_VALUE;
+    }
+
+    /**
+     * The tighter of both limits, for nested cgroups.
+     */
+    public ContainerLimits within(ContainerLimits parent) {
+        return new ContainerLimits(Math.min(cpus, parent.cpus), Math.min(memoryBytes, parent.memoryBytes));
+    }
+}
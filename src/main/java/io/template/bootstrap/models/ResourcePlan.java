@@ -0,0 +1,28 @@
+package io.template.bootstrap.models;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Value of every {@link ResourceSetting}, and the limits they were derived from.
+ *
+ * @param limits Limits of the container the plan is for
+ * @param settings Value of each setting, in declaration order
+ */
+public record ResourcePlan(
+        ContainerLimits limits,
+        Map<ResourceSetting, Integer> settings
+) {
+
+    public ResourcePlan {
+        if (settings.size() != ResourceSetting.values().length) {
+            throw new IllegalArgumentException("Resource plan must set every setting, got: " + settings.keySet());
+        }
+        settings = Collections.unmodifiableMap(new EnumMap<>(settings));
+    }
+
+    public int get(ResourceSetting setting) {
+        return settings.get(setting);
+    }
+}
@@ -0,0 +1,37 @@
+package io.template.bootstrap.models;
+
+/**
+ * Sizes chosen at startup from the container's resource limits.
+ * <p>
+ * Each is published as the system property its component reads, and can be overridden with the environment
+ * variable of the same name prefixed with {@code TUNING_}, such as {@code TUNING_CARRIER_THREADS=4}.
+ */
+public enum ResourceSetting {
+
+    /** Carrier threads virtual threads are scheduled on. */
+    CARRIER_THREADS("io.template.carrierParallelism"),
+    /** Daemon invocations run at once by the priority scheduler. */
+    SCHEDULER_PARALLELISM("io.template.scheduler.parallelism"),
+    /** Threads compressing or decompressing a blocked gzip batch file. */
+    COMPRESSION_THREADS("io.template.batch.compressionThreads"),
+    /** Invocations the input journal buffers before dropping them. */
+    JOURNAL_QUEUE_CAPACITY("io.template.journal.queueCapacity"),
+    /** Rejected inputs the request coalescer remembers. */
+    REJECTION_CACHE_ENTRIES("io.template.coalescer.rejectionCacheEntries");
+
+    public static final String ENVIRONMENT_PREFIX = "TUNING_";
+
+    private final String property;
+
+    ResourceSetting(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public String environmentVariable() {
+        return ENVIRONMENT_PREFIX + name();
+    }
+}
@@ -0,0 +1,25 @@
+package io.template.bootstrap.models;
+
+import java.time.Duration;
+
+/**
+ * Timings of the phases of an application shutdown.
+ *
+ * @param drain Time spent stopping intake and waiting for in-flight work
+ * @param flush Time spent flushing buffered output and metrics
+ * @param close Time spent closing resources
+ * @param drained Whether all in-flight work finished before the deadline
+ * @param failures Number of components that threw during flush or close
+ */
+public record ShutdownReport(
+        Duration drain,
+        Duration flush,
+        Duration close,
+        boolean drained,
+        int failures
+) {
+
+    public Duration total() {
+        return drain.plus(flush).plus(close);
+    }
+}
@@ -0,0 +1,17 @@
+package io.template.concurrency.exceptions;
+
+import io.template.shared.utilities.StackTraceUtility;
+
+/**
+ * Thrown when work is shed because the concurrency limit has been reached.
+ * Callers should treat it as a signal to back off rather than as an input or calculation error.
+ * Captures a stack trace only while {@link StackTraceUtility#isCapturing()}.
+ */
+public final class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message, null, true, StackTraceUtility.isCapturing());
+    }
+}
@@ -0,0 +1,19 @@
+package io.template.concurrency.exceptions;
+
+import io.template.concurrency.models.WorkPriority;
+import io.template.shared.utilities.StackTraceUtility;
+
+/**
+ * Thrown when work is dropped by {@link io.template.concurrency.logic.PriorityScheduler} because its deadline
+ * passed before it could start. The work has not run.
+ * Captures a stack trace only while {@link StackTraceUtility#isCapturing()}.
+ */
+public final class DeadlineExpiredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExpiredException(WorkPriority priority) {
+        super("Deadline of " + priority + " work expired before it started", null, true,
+                StackTraceUtility.isCapturing());
+    }
+}
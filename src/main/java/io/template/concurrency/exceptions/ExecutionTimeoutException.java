@@ -0,0 +1,19 @@
+package io.template.concurrency.exceptions;
+
+import java.time.Duration;
+
+import io.template.shared.utilities.StackTraceUtility;
+
+/**
+ * Thrown when work run through {@link io.template.concurrency.logic.VirtualExecution} does not finish within its
+ * timeout. The work has been interrupted and has stopped by the time this is thrown.
+ * Captures a stack trace only while {@link StackTraceUtility#isCapturing()}.
+ */
+public final class ExecutionTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExecutionTimeoutException(Duration timeout) {
+        super("Work did not finish within " + timeout, null, true, StackTraceUtility.isCapturing());
+    }
+}
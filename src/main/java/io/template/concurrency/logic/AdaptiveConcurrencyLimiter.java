@@ -0,0 +1,143 @@
+package io.template.concurrency.logic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.concurrency.exceptions.ConcurrencyLimitExceededException;
+import io.template.concurrency.models.LimiterMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounds concurrent work with a limit that adapts to observed latency, in the style of TCP Vegas.
+ * <p>
+ * The lowest recent latency is taken as the no-queueing baseline. Each completed unit of work estimates
+ * how many requests are queued as {@code limit * (1 - minRtt / rtt)}: below {@link #ALPHA} the limit grows,
+ * above {@link #BETA} it shrinks. Work arriving while the limit is reached is rejected immediately with
+ * {@link ConcurrencyLimitExceededException} instead of queueing.
+ * <p>
+ * Acquire and release are lock-free: both are compare-and-set loops on atomics. The final limit and the admitted
+ * and shed counts are logged on shutdown, see {@link #close()}.
+ */
+@Singleton
+public class AdaptiveConcurrencyLimiter implements AutoCloseable {
+
+    static final int INITIAL_LIMIT = 20;
+    static final int MIN_LIMIT = 1;
+    static final int MAX_LIMIT = 1_000;
+    static final int ALPHA = 3;
+    static final int BETA = 6;
+    // The baseline is re-measured periodically so the limiter can recover after latency permanently shifts
+    static final long BASELINE_RESET_SAMPLES = 10_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final LongSupplier nanoClock;
+    private final AtomicInteger limit = new AtomicInteger(INITIAL_LIMIT);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong samples = new AtomicLong();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Inject
+    public AdaptiveConcurrencyLimiter() {
+        this(System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs the work if a permit is available, feeding its latency back into the limit.
+     *
+     * @throws ConcurrencyLimitExceededException if the concurrency limit has been reached
+     */
+    public <T> T execute(Supplier<T> work) {
+        int inFlightAtStart = acquire();
+        long startNanos = nanoClock.getAsLong();
+        try {
+            return work.get();
+        } finally {
+            release(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+        }
+    }
+
+    public LimiterMetrics metrics() {
+        long minRtt = minRttNanos.get();
+        return new LimiterMetrics(
+                limit.get(),
+                inFlight.get(),
+                accepted.sum(),
+                rejected.sum(),
+                minRtt == Long.MAX_VALUE ? 0 : minRtt
+        );
+    }
+
+    /**
+     * Logs the limit, the work still in flight and the admitted and shed counts, if any work was seen.
+     */
+    @Override
+    public void close() {
+        LimiterMetrics metrics = metrics();
+        if (metrics.accepted() + metrics.rejected() == 0) {
+            return;
+        }
+        LOGGER.info("Concurrency limit {} with {} in flight: {} admitted, {} shed; baseline latency {} ns",
+                metrics.limit(), metrics.inFlight(), metrics.accepted(), metrics.rejected(), metrics.minRttNanos());
+    }
+
+    private int acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.increment();
+                throw new ConcurrencyLimitExceededException("Concurrency limit of " + limit.get() + " reached");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return current + 1;
+            }
+        }
+    }
+
+    private void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        long rtt = Math.max(1, rttNanos);
+        long baseline = samples.incrementAndGet() % BASELINE_RESET_SAMPLES == 0
+                ? resetBaseline(rtt)
+                : minRttNanos.accumulateAndGet(rtt, Math::min);
+        adjustLimit(rtt, baseline, inFlightAtStart);
+    }
+
+    private long resetBaseline(long rtt) {
+        minRttNanos.set(rtt);
+        return rtt;
+    }
+
+    private void adjustLimit(long rtt, long baseline, int inFlightAtStart) {
+        int current = limit.get();
+        double queued = current * (1.0 - (double) baseline / rtt);
+
+        int next;
+        if (queued < ALPHA) {
+            // Only grow when the limit is actually being used, otherwise idle periods inflate it unboundedly
+            if (inFlightAtStart * 2 < current) {
+                return;
+            }
+            next = Math.min(MAX_LIMIT, current + 1);
+        } else if (queued > BETA) {
+            next = Math.max(MIN_LIMIT, current - 1);
+        } else {
+            return;
+        }
+        // Losing the race means a concurrent sample has just adjusted the limit, which is just as good
+        limit.compareAndSet(current, next);
+    }
+}
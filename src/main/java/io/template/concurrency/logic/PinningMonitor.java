@@ -0,0 +1,171 @@
+package io.template.concurrency.logic;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.concurrency.models.PinningMetrics;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects virtual threads that block while pinned to their carrier thread, from the JFR
+ * {@code jdk.VirtualThreadPinned} event streamed in-process.
+ * <p>
+ * A pinned virtual thread holds its carrier while it blocks, so enough of them starve every other virtual thread
+ * of carriers. Since JDK 24 {@code synchronized} no longer pins; what still does is blocking beneath a native
+ * frame, such as inside a class initializer or a JNI upcall. Each event is attributed to the innermost
+ * application frame on its stack, the first occurrence per frame is logged as a warning, and totals are available
+ * from {@link #metrics()}. The JFR event is only emitted when pinning happens, so monitoring costs nothing on a
+ * path that does not pin.
+ */
+@Singleton
+public class PinningMonitor implements AutoCloseable {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    // JFR's own default threshold for the event
+    static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(20);
+    static final String UNKNOWN_FRAME = "unknown";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PinningMonitor.class);
+    private static final List<String> PLATFORM_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final Duration threshold;
+    private final LongAdder events = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final Map<String, LongAdder> eventsByFrame = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private long flushes;
+    private RecordingStream stream;
+
+    @Inject
+    public PinningMonitor() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold Shortest pinned block reported; zero reports every one
+     */
+    PinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Starts streaming pinning events; has no effect if already started.
+     */
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream started = new RecordingStream();
+        started.enable(EVENT).withThreshold(threshold).withStackTrace();
+        started.onEvent(EVENT, this::record);
+        started.onFlush(this::flushed);
+        started.startAsync();
+        stream = started;
+    }
+
+    public PinningMetrics metrics() {
+        Map<String, Long> byFrame = new LinkedHashMap<>();
+        eventsByFrame.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum())
+                        .reversed())
+                .forEach(entry -> byFrame.put(entry.getKey(), entry.getValue().sum()));
+        return new PinningMetrics(events.sum(), pinnedNanos.sum(), byFrame);
+    }
+
+    /**
+     * Stops streaming and logs the totals if any pinning was seen.
+     */
+    @Override
+    public synchronized void close() {
+        if (stream == null) {
+            return;
+        }
+        stream.close();
+        stream = null;
+        PinningMetrics metrics = metrics();
+        if (metrics.pinnedEvents() > 0) {
+            LOGGER.warn("Virtual threads pinned their carrier {} times for {} ms in total: {}", metrics.pinnedEvents(),
+                    metrics.pinnedNanos() / 1_000_000, metrics.eventsByFrame());
+        }
+    }
+
+    /**
+     * Waits until JFR has delivered every event committed before this call, which it does in periodic flushes.
+     *
+     * @return whether that happened within {@code timeout}
+     */
+    boolean awaitDelivery(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (flushLock) {
+            // The flush in progress may have started before this call, the one after it cannot have
+            long target = flushes + 2;
+            while (flushes < target) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                flushLock.wait(remainingMillis);
+            }
+            return true;
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        events.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+        String frame = applicationFrame(event.getStackTrace());
+        LongAdder count = eventsByFrame.computeIfAbsent(frame, key -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            LOGGER.warn("Virtual thread pinned its carrier for {} ms at {}", event.getDuration().toMillis(), frame);
+        }
+    }
+
+    private void flushed() {
+        synchronized (flushLock) {
+            flushes++;
+            flushLock.notifyAll();
+        }
+    }
+
+    /**
+     * Innermost frame outside the JDK, or the innermost frame if the stack has only JDK frames.
+     */
+    static String applicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return UNKNOWN_FRAME;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && !isPlatform(frame.getMethod().getType().getName())) {
+                return describe(frame);
+            }
+        }
+        return describe(frames.getFirst());
+    }
+
+    private static boolean isPlatform(String className) {
+        for (String prefix : PLATFORM_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,305 @@
+package io.template.concurrency.logic;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.concurrency.exceptions.DeadlineExpiredException;
+import io.template.concurrency.models.SchedulerMetrics;
+import io.template.concurrency.models.WorkPriority;
+import io.template.shared.logic.LogLinearHistogram;
+import io.template.shared.utilities.SystemPropertyUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs at most {@link #parallelism()} units of work at once, starting waiting work by priority instead of by
+ * arrival.
+ * <p>
+ * Work runs on the calling thread. Once every permit is taken, callers wait in a {@link ConcurrentSkipListSet}
+ * ordered by {@link WorkPriority}, then by earliest deadline, then by arrival, and each released permit is handed
+ * to the first of them. Priorities are strict: bulk work only starts while no urgent or normal work is waiting, so
+ * urgent latency does not depend on the size of a bulk backlog. Work whose deadline has passed, on arrival or by
+ * the time a permit is handed to it, is dropped with {@link DeadlineExpiredException} without running, so expired
+ * requests cost no parsing or calculation; this is also what bounds how long bulk work can starve.
+ * <p>
+ * Time spent waiting and time until completion are recorded per priority, see {@link #metrics()}, and logged on
+ * shutdown. Permits default to the number of available processors and can be set with
+ * {@code -Dio.template.scheduler.parallelism=<n>}.
+ */
+@Singleton
+public class PriorityScheduler implements AutoCloseable {
+
+    /**
+     * Deadline of work that may wait indefinitely.
+     */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    static final String PARALLELISM_PROPERTY = "io.template.scheduler.parallelism";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriorityScheduler.class);
+    private static final Comparator<Waiter> WAITER_ORDER = Comparator
+            .comparing((Waiter waiter) -> waiter.priority)
+            .thenComparing((first, second) -> compareDeadlines(first.deadlineNanos, second.deadlineNanos))
+            .thenComparingLong(waiter -> waiter.arrival);
+
+    private final int parallelism;
+    private final AtomicInteger available;
+    private final AtomicLong arrivals = new AtomicLong();
+    private final ConcurrentSkipListSet<Waiter> waiting = new ConcurrentSkipListSet<>(WAITER_ORDER);
+    private final Map<WorkPriority, PriorityStatistics> statistics = new EnumMap<>(WorkPriority.class);
+
+    @Inject
+    public PriorityScheduler() {
+        this(SystemPropertyUtility.positiveInt(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    PriorityScheduler(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Scheduler parallelism must be positive, got: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.available = new AtomicInteger(parallelism);
+        for (WorkPriority priority : WorkPriority.values()) {
+            statistics.put(priority, new PriorityStatistics());
+        }
+    }
+
+    /**
+     * Deadline {@code budget} after {@code startNanos} on the {@link System#nanoTime()} clock, or
+     * {@link #NO_DEADLINE} for a {@code null} budget or one too large to represent.
+     */
+    public static long deadlineAfter(long startNanos, Duration budget) {
+        if (budget == null) {
+            return NO_DEADLINE;
+        }
+        try {
+            long deadline = Math.addExact(startNanos, budget.toNanos());
+            return deadline == NO_DEADLINE ? NO_DEADLINE - 1 : deadline;
+        } catch (ArithmeticException e) {
+            return NO_DEADLINE;
+        }
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs {@code work} on the calling thread once a permit is free and no more important work is waiting.
+     *
+     * @param deadlineNanos {@link System#nanoTime()} after which the work is no longer worth starting, or
+     *        {@link #NO_DEADLINE}
+     * @throws DeadlineExpiredException if the deadline passed before the work could start
+     * @throws CancellationException if the calling thread was interrupted while waiting; its interrupt status is
+     *         kept
+     */
+    public <T> T execute(WorkPriority priority, long deadlineNanos, Supplier<T> work) {
+        long arrivedNanos = System.nanoTime();
+        PriorityStatistics priorityStatistics = statistics.get(priority);
+        if (isExpired(deadlineNanos, arrivedNanos)) {
+            throw priorityStatistics.expire(priority);
+        }
+        if (!tryAcquire()) {
+            awaitPermit(priority, deadlineNanos, priorityStatistics);
+        }
+        long startedNanos = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            priorityStatistics.complete(startedNanos - arrivedNanos, System.nanoTime() - arrivedNanos);
+            release();
+        }
+    }
+
+    public SchedulerMetrics metrics() {
+        Map<WorkPriority, SchedulerMetrics.PriorityMetrics> priorities = new EnumMap<>(WorkPriority.class);
+        statistics.forEach((priority, priorityStatistics) -> priorities.put(priority, priorityStatistics.snapshot()));
+        return new SchedulerMetrics(parallelism, parallelism - available.get(), waiting.size(), priorities);
+    }
+
+    /**
+     * Logs the latencies of every priority that saw any work.
+     */
+    @Override
+    public void close() {
+        metrics().priorities().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .filter(entry -> entry.getValue().completed() + entry.getValue().expired() > 0)
+                .forEach(entry -> {
+                    SchedulerMetrics.PriorityMetrics metrics = entry.getValue();
+                    LOGGER.info("{} work: {} ran, {} expired; wait p50/p99/max {}/{}/{} ns, "
+                                    + "latency p50/p99/max {}/{}/{} ns", entry.getKey(), metrics.completed(),
+                            metrics.expired(), metrics.waitP50Nanos(), metrics.waitP99Nanos(), metrics.waitMaxNanos(),
+                            metrics.latencyP50Nanos(), metrics.latencyP99Nanos(), metrics.latencyMaxNanos());
+                });
+    }
+
+    /**
+     * Takes a permit without queueing, unless other work is already waiting for one.
+     */
+    private boolean tryAcquire() {
+        if (!waiting.isEmpty()) {
+            return false;
+        }
+        for (int permits = available.get(); permits > 0; permits = available.get()) {
+            if (available.compareAndSet(permits, permits - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues the calling thread until {@link #dispatch()} hands it a permit.
+     */
+    private void awaitPermit(WorkPriority priority, long deadlineNanos, PriorityStatistics priorityStatistics) {
+        Waiter waiter = new Waiter(Thread.currentThread(), priority, deadlineNanos, arrivals.getAndIncrement());
+        waiting.add(waiter);
+        dispatch();
+        while (!waiter.isGranted()) {
+            if (Thread.interrupted()) {
+                abandon(waiter);
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting to be scheduled");
+            }
+            long now = System.nanoTime();
+            if (isExpired(deadlineNanos, now)) {
+                abandon(waiter);
+                throw priorityStatistics.expire(priority);
+            }
+            if (deadlineNanos == NO_DEADLINE) {
+                LockSupport.park(this);
+            } else {
+                LockSupport.parkNanos(this, deadlineNanos - now);
+            }
+        }
+        if (isExpired(deadlineNanos, System.nanoTime())) {
+            release();
+            throw priorityStatistics.expire(priority);
+        }
+    }
+
+    /**
+     * Withdraws a waiter that gives up, returning its permit if one was handed to it in the meantime.
+     */
+    private void abandon(Waiter waiter) {
+        if (waiter.cancel()) {
+            waiting.remove(waiter);
+        } else {
+            release();
+        }
+    }
+
+    private void release() {
+        available.incrementAndGet();
+        dispatch();
+    }
+
+    /**
+     * Hands free permits to the first waiters. Both releasing threads and newly queued waiters call this after
+     * publishing their change, so whichever comes second sees both the permit and the waiter.
+     */
+    private void dispatch() {
+        while (true) {
+            int permits = available.get();
+            if (permits == 0) {
+                return;
+            }
+            Waiter next = waiting.pollFirst();
+            if (next == null) {
+                return;
+            }
+            if (!available.compareAndSet(permits, permits - 1)) {
+                waiting.add(next);
+                continue;
+            }
+            if (next.grant()) {
+                LockSupport.unpark(next.thread);
+            } else {
+                available.incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean isExpired(long deadlineNanos, long nowNanos) {
+        return deadlineNanos != NO_DEADLINE && deadlineNanos - nowNanos <= 0;
+    }
+
+    private static int compareDeadlines(long first, long second) {
+        if (first == NO_DEADLINE || second == NO_DEADLINE) {
+            return Boolean.compare(first == NO_DEADLINE, second == NO_DEADLINE);
+        }
+        return Long.compare(first - second, 0);
+    }
+
+    private static final class Waiter {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Thread thread;
+        private final WorkPriority priority;
+        private final long deadlineNanos;
+        private final long arrival;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Waiter(Thread thread, WorkPriority priority, long deadlineNanos, long arrival) {
+            this.thread = thread;
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+            this.arrival = arrival;
+        }
+
+        boolean grant() {
+            return state.compareAndSet(WAITING, GRANTED);
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        boolean isGranted() {
+            return state.get() == GRANTED;
+        }
+    }
+
+    private static final class PriorityStatistics {
+
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder expired = new LongAdder();
+        private final LogLinearHistogram wait = new LogLinearHistogram();
+        private final LogLinearHistogram latency = new LogLinearHistogram();
+
+        void complete(long waitNanos, long latencyNanos) {
+            completed.increment();
+            wait.record(waitNanos);
+            latency.record(latencyNanos);
+        }
+
+        DeadlineExpiredException expire(WorkPriority priority) {
+            expired.increment();
+            return new DeadlineExpiredException(priority);
+        }
+
+        SchedulerMetrics.PriorityMetrics snapshot() {
+            return new SchedulerMetrics.PriorityMetrics(completed.sum(), expired.sum(),
+                    wait.percentile(0.50), wait.percentile(0.99), wait.max(),
+                    latency.percentile(0.50), latency.percentile(0.99), latency.max());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.template.concurrency.logic;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.concurrency.models.CoalescingMetrics;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.shared.utilities.HashingUtility;
+import io.template.shared.utilities.SystemPropertyUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single-flight layer for byte-identical raw inputs.
+ * <p>
+ * Concurrent requests with the same bytes share one execution of the work: the first becomes the leader,
+ * the others wait for its result or exception. Inputs rejected with {@link InvalidInputException} are
+ * remembered for {@link #NEGATIVE_TTL_NANOS} so repeats are rejected without parsing, with a stackless exception
+ * carrying the same message. Requests are keyed on
+ * {@link HashingUtility#hash64(byte[])} and a hash match is always confirmed by comparing the full bytes.
+ * Callers must not modify the bytes while a request is in flight. The coalescing ratio and the rejection cache hits
+ * are logged on shutdown, see {@link #close()}.
+ */
+@Singleton
+public class RequestCoalescer implements AutoCloseable {
+
+    static final long NEGATIVE_TTL_NANOS = 5_000_000_000L;
+    /** Rejections remembered unless {@code -Dio.template.coalescer.rejectionCacheEntries=<n>} sets otherwise. */
+    public static final int DEFAULT_MAX_NEGATIVE_ENTRIES = 10_000;
+    static final String MAX_NEGATIVE_ENTRIES_PROPERTY = "io.template.coalescer.rejectionCacheEntries";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final LongSupplier nanoClock;
+    private final int maxNegativeEntries;
+    private final Map<Key, CompletableFuture<CalculationResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, Rejection> recentRejections = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+
+    @Inject
+    public RequestCoalescer() {
+        this(System::nanoTime);
+    }
+
+    RequestCoalescer(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.maxNegativeEntries =
+                SystemPropertyUtility.positiveInt(MAX_NEGATIVE_ENTRIES_PROPERTY, DEFAULT_MAX_NEGATIVE_ENTRIES);
+    }
+
+    public CalculationResult execute(byte[] rawInput, Function<byte[], CalculationResult> work) {
+        requests.increment();
+        Key key = new Key(rawInput);
+
+        Rejection rejection = recentRejections.get(key);
+        if (rejection != null) {
+            if (nanoClock.getAsLong() - rejection.rejectedAtNanos < NEGATIVE_TTL_NANOS) {
+                negativeHits.increment();
+                throw InvalidInputException.withoutStackTrace(rejection.message);
+            }
+            recentRejections.remove(key, rejection);
+        }
+
+        CompletableFuture<CalculationResult> leader = new CompletableFuture<>();
+        CompletableFuture<CalculationResult> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+            return awaitLeader(existing);
+        }
+
+        executed.increment();
+        try {
+            CalculationResult result = work.apply(rawInput);
+            leader.complete(result);
+            return result;
+        } catch (InvalidInputException e) {
+            rememberRejection(key, e);
+            leader.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    public CoalescingMetrics metrics() {
+        return new CoalescingMetrics(requests.sum(), executed.sum(), coalesced.sum(), negativeHits.sum());
+    }
+
+    /**
+     * Logs how many requests were answered without running the work, if any requests were seen.
+     */
+    @Override
+    public void close() {
+        CoalescingMetrics metrics = metrics();
+        if (metrics.requests() == 0) {
+            return;
+        }
+        LOGGER.info("Coalesced {} of {} requests and rejected {} from the rejection cache, {} ran: ratio {}",
+                metrics.coalesced(), metrics.requests(), metrics.negativeHits(), metrics.executed(),
+                String.format(Locale.ROOT, "%.3f", metrics.coalescingRatio()));
+    }
+
+    private static CalculationResult awaitLeader(CompletableFuture<CalculationResult> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void rememberRejection(Key key, InvalidInputException exception) {
+        long now = nanoClock.getAsLong();
+        if (recentRejections.size() >= maxNegativeEntries) {
+            recentRejections.values().removeIf(entry -> now - entry.rejectedAtNanos >= NEGATIVE_TTL_NANOS);
+            if (recentRejections.size() >= maxNegativeEntries) {
+                return;
+            }
+        }
+        recentRejections.put(key, new Rejection(exception.getMessage(), now));
+    }
+
+    private record Rejection(String message, long rejectedAtNanos) { }
+
+    /**
+     * Raw input compared by content, with the 64-bit hash checked first.
+     */
+    private static final class Key {
+
+        private final byte[] bytes;
+        private final long hash;
+
+        private Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = HashingUtility.hash64(bytes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && hash == key.hash && Arrays.equals(bytes, key.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+    }
+}
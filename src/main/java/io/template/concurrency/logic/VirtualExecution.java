@@ -0,0 +1,111 @@
+package io.template.concurrency.logic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.concurrency.exceptions.ExecutionTimeoutException;
+
+/**
+ * Runs units of work on virtual threads within a scope that none of them outlives.
+ * <p>
+ * Each call opens a scope, forks one virtual thread per unit and joins them: the first failure or the timeout
+ * interrupts every unit still running, and the call only returns or throws once all of them have stopped, so no
+ * work is left behind in the background. This is the contract of {@code StructuredTaskScope} with a
+ * fail-on-first-error policy, built on a thread-per-task executor whose close waits for its threads, because the
+ * structured concurrency API is still a preview feature. Failures are rethrown unchanged.
+ * <p>
+ * Virtual threads run on the JDK's work-stealing carrier pool, sized by {@code -Dio.template.carrierParallelism}
+ * (see {@link io.template.shared.utilities.CarrierThreadUtility}).
+ */
+@Singleton
+public class VirtualExecution {
+
+    private final ThreadFactory threads = Thread.ofVirtual().name("virtual-execution-", 0).factory();
+
+    @Inject
+    public VirtualExecution() { }
+
+    /**
+     * Runs {@code work} on its own virtual thread.
+     *
+     * @throws ExecutionTimeoutException if it does not finish within {@code timeout}
+     */
+    public <T> T call(Supplier<? extends T> work, Duration timeout) {
+        return invokeAll(List.of(work), timeout).getFirst();
+    }
+
+    /**
+     * Runs every unit concurrently, one virtual thread each, and returns their results in the order of
+     * {@code work}. If any unit fails, the others are interrupted and its exception is rethrown.
+     *
+     * @throws ExecutionTimeoutException if they do not all finish within {@code timeout}
+     */
+    public <T> List<T> invokeAll(List<? extends Supplier<? extends T>> work, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Future<T>> forked = new ArrayList<>(work.size());
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(threads)) {
+            ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(scope);
+            for (Supplier<? extends T> unit : work) {
+                forked.add(completion.submit(unit::get));
+            }
+            // Cancelling before leaving the block matters: closing the scope waits for every unit to stop
+            try {
+                join(completion, forked, deadline, timeout);
+            } catch (InterruptedException e) {
+                cancel(forked);
+                Thread.currentThread().interrupt();
+                throw new CompletionException("Interrupted while waiting for virtual threads", e);
+            }
+        }
+        List<T> results = new ArrayList<>(forked.size());
+        for (Future<T> unit : forked) {
+            results.add(unit.resultNow());
+        }
+        return results;
+    }
+
+    private static <T> void join(ExecutorCompletionService<T> completion, List<Future<T>> forked, long deadline,
+            Duration timeout) throws InterruptedException {
+        for (int joined = 0; joined < forked.size(); joined++) {
+            Future<T> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (done == null) {
+                cancel(forked);
+                throw new ExecutionTimeoutException(timeout);
+            }
+            try {
+                done.get();
+            } catch (ExecutionException e) {
+                cancel(forked);
+                throw rethrowable(e.getCause());
+            }
+        }
+    }
+
+    private static void cancel(List<? extends Future<?>> forked) {
+        for (Future<?> unit : forked) {
+            unit.cancel(true);
+        }
+    }
+
+    private static RuntimeException rethrowable(Throwable failure) {
+        if (failure instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(failure);
+    }
+}
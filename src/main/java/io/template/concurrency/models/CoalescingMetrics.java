@@ -0,0 +1,24 @@
+package io.template.concurrency.models;
+
+/**
+ * Point-in-time view of request coalescing.
+ *
+ * @param requests Requests received since startup
+ * @param executed Requests that ran the work themselves
+ * @param coalesced Requests that shared the result of an identical in-flight request
+ * @param negativeHits Requests rejected from the cache of recently invalid inputs
+ */
+public record CoalescingMetrics(
+        long requests,
+        long executed,
+        long coalesced,
+        long negativeHits
+) {
+
+    /**
+     * Fraction of requests answered without running the work.
+     */
+    public double coalescingRatio() {
+        return requests == 0 ? 0 : (double) (coalesced + negativeHits) / requests;
+    }
+}
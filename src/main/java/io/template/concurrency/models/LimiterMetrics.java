@@ -0,0 +1,18 @@
+package io.template.concurrency.models;
+
+/**
+ * Point-in-time view of a concurrency limiter.
+ *
+ * @param limit Current concurrency limit
+ * @param inFlight Work currently holding a permit
+ * @param accepted Work admitted since startup
+ * @param rejected Work shed since startup
+ * @param minRttNanos Lowest recently observed latency, used as the no-queueing baseline
+ */
+public record LimiterMetrics(
+        int limit,
+        int inFlight,
+        long accepted,
+        long rejected,
+        long minRttNanos
+) { }
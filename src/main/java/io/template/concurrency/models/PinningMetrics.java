@@ -0,0 +1,17 @@
+package io.template.concurrency.models;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of carrier-thread pinning by virtual threads.
+ *
+ * @param pinnedEvents Times a virtual thread blocked while pinned to its carrier for at least the threshold
+ * @param pinnedNanos Total time carriers spent pinned in those events
+ * @param eventsByFrame Number of events per application frame that was running when the thread pinned, most
+ *        frequent first
+ */
+public record PinningMetrics(
+        long pinnedEvents,
+        long pinnedNanos,
+        Map<String, Long> eventsByFrame
+) { }
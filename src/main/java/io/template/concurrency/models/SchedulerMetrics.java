@@ -0,0 +1,46 @@
+package io.template.concurrency.models;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of a priority scheduler.
+ *
+ * @param parallelism Work allowed to run at once
+ * @param running Work currently running
+ * @param queued Work currently waiting to start
+ * @param priorities Counts and latencies of each priority since startup
+ */
+public record SchedulerMetrics(
+        int parallelism,
+        int running,
+        int queued,
+        Map<WorkPriority, PriorityMetrics> priorities
+) {
+
+    public SchedulerMetrics {
+        priorities = Map.copyOf(priorities);
+    }
+
+    /**
+     * Latencies are upper bounds of histogram buckets, within 1/16 of the recorded values.
+     *
+     * @param completed Work that ran, whether it succeeded or failed
+     * @param expired Work dropped without running because its deadline passed
+     * @param waitP50Nanos Median time from arrival until the work started
+     * @param waitP99Nanos 99th percentile of the time from arrival until the work started
+     * @param waitMaxNanos Longest time from arrival until the work started
+     * @param latencyP50Nanos Median time from arrival until the work finished
+     * @param latencyP99Nanos 99th percentile of the time from arrival until the work finished
+     * @param latencyMaxNanos Longest time from arrival until the work finished
+     */
+    public record PriorityMetrics(
+            long completed,
+            long expired,
+            long waitP50Nanos,
+            long waitP99Nanos,
+            long waitMaxNanos,
+            long latencyP50Nanos,
+            long latencyP99Nanos,
+            long latencyMaxNanos
+    ) { }
+}
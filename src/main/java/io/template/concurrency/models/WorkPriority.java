@@ -0,0 +1,27 @@
+package io.template.concurrency.models;
+
+import java.util.Locale;
+
+/**
+ * Scheduling class of a unit of work, most urgent first.
+ */
+public enum WorkPriority {
+
+    URGENT,
+    NORMAL,
+    BULK;
+
+    /**
+     * Parses a priority name, ignoring case.
+     *
+     * @throws IllegalArgumentException if {@code name} is not a priority
+     */
+    public static WorkPriority parse(String name) {
+        try {
+            return valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown priority: " + name + ", expected one of urgent, normal, bulk",
+                    e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.template.daemon.exceptions;
+
+/**
+ * Thrown when the daemon socket cannot be bound, reached or spoken to.
+ */
+public final class DaemonException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DaemonException(String message) {
+        super(message);
+    }
+
+    public DaemonException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
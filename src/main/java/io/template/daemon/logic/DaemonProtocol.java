@@ -0,0 +1,75 @@
+package io.template.daemon.logic;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.daemon.models.DaemonRequest;
+import io.template.daemon.models.DaemonResponse;
+
+/**
+ * Wire format between {@link DaemonClient} and {@link DaemonServer}: big-endian length-prefixed UTF-8 strings.
+ * <pre>
+ *   request:  argument count, arguments..., stdin
+ *   response: exit code, output, message
+ * </pre>
+ * Deliberately free of JSON so the client does not pay for Jackson initialisation.
+ */
+final class DaemonProtocol {
+
+    static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+    static final int MAX_ARGUMENTS = 1024;
+
+    private DaemonProtocol() { }
+
+    static void writeRequest(DataOutputStream out, DaemonRequest request) throws IOException {
+        out.writeInt(request.arguments().size());
+        for (String argument : request.arguments()) {
+            writeString(out, argument);
+        }
+        writeString(out, request.stdin());
+        out.flush();
+    }
+
+    static DaemonRequest readRequest(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_ARGUMENTS) {
+            throw new IOException("Invalid argument count: " + count);
+        }
+        List<String> arguments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            arguments.add(readString(in));
+        }
+        return new DaemonRequest(arguments, readString(in));
+    }
+
+    static void writeResponse(DataOutputStream out, DaemonResponse response) throws IOException {
+        out.writeInt(response.exitCode());
+        writeString(out, response.output());
+        writeString(out, response.message());
+        out.flush();
+    }
+
+    static DaemonResponse readResponse(DataInputStream in) throws IOException {
+        return new DaemonResponse(in.readInt(), readString(in), readString(in));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,296 @@
+package io.template.daemon.logic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import io.template.bootstrap.logic.Drainable;
+import io.template.bootstrap.logic.Executor;
+import io.template.concurrency.exceptions.ConcurrencyLimitExceededException;
+import io.template.concurrency.exceptions.DeadlineExpiredException;
+import io.template.concurrency.exceptions.ExecutionTimeoutException;
+import io.template.concurrency.logic.PinningMonitor;
+import io.template.concurrency.logic.PriorityScheduler;
+import io.template.concurrency.logic.VirtualExecution;
+import io.template.concurrency.models.WorkPriority;
+import io.template.daemon.exceptions.DaemonException;
+import io.template.daemon.models.DaemonRequest;
+import io.template.daemon.models.DaemonResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived process that runs CLI invocations forwarded by {@link DaemonClient} over a Unix domain socket.
+ * <p>
+ * Every invocation goes through the same {@link Executor} as a regular run, but on an already warmed-up JIT and with
+ * Guice singletons already built, so per-call latency is that of the work itself rather than of JVM and injector
+ * startup. Its output is captured and returned to the client, which prints it; the log lines it produces stay in the
+ * daemon's log. Invocations are served concurrently, one virtual thread per connection, and carrier threads pinned by
+ * them are reported by the {@link PinningMonitor} while serving. Starting the JVM with
+ * {@code -Dio.template.daemon.invocationTimeout=<ISO-8601 duration>} runs each invocation through
+ * {@link VirtualExecution} with that timeout, so a stuck invocation is interrupted and answered with an error.
+ * <p>
+ * Invocations start through the {@link PriorityScheduler}. Clients can lead their arguments with
+ * {@code --priority <urgent|normal|bulk>} (normal by default) and {@code --deadline <ISO-8601 duration>}, counted
+ * from when the daemon received the invocation; one still waiting when its deadline passes is answered with an
+ * error without being parsed or calculated. Single-input invocations the {@link Executor} sheds under its
+ * concurrency limit are answered with an error as well, so that clients back off. Invocations that are
+ * not {@link Executor#isForwardable(String[]) forwardable} are refused before they are scheduled.
+ */
+@Singleton
+public class DaemonServer implements Drainable {
+
+    /**
+     * Argument replaced by the client's standard input.
+     */
+    public static final String STDIN_ARGUMENT = "-";
+
+    static final String TIMEOUT_PROPERTY = "io.template.daemon.invocationTimeout";
+    static final String PRIORITY_FLAG = "--priority";
+    static final String DEADLINE_FLAG = "--deadline";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DaemonServer.class);
+
+    private final Provider<Executor> executorProvider;
+    private final PinningMonitor pinningMonitor;
+    private final VirtualExecution virtualExecution;
+    private final PriorityScheduler scheduler;
+    private final Duration invocationTimeout;
+    private final Object inFlightLock = new Object();
+    private int inFlight;
+    private volatile ServerSocketChannel server;
+
+    @Inject
+    public DaemonServer(
+            Provider<Executor> executorProvider,
+            PinningMonitor pinningMonitor,
+            VirtualExecution virtualExecution,
+            PriorityScheduler scheduler
+    ) {
+        this(executorProvider, pinningMonitor, virtualExecution, scheduler,
+                invocationTimeout(System.getProperty(TIMEOUT_PROPERTY)));
+    }
+
+    /**
+     * @param invocationTimeout Longest an invocation may run, or {@code null} for no limit
+     */
+    DaemonServer(
+            Provider<Executor> executorProvider,
+            PinningMonitor pinningMonitor,
+            VirtualExecution virtualExecution,
+            PriorityScheduler scheduler,
+            Duration invocationTimeout
+    ) {
+        this.executorProvider = executorProvider;
+        this.pinningMonitor = pinningMonitor;
+        this.virtualExecution = virtualExecution;
+        this.scheduler = scheduler;
+        this.invocationTimeout = invocationTimeout;
+    }
+
+    /**
+     * Serves invocations on {@code socketPath} until {@link #stopIntake()} is called.
+     * A stale socket file left by a previous daemon is replaced.
+     *
+     * @return number of invocations accepted
+     */
+    public long serve(Path socketPath) {
+        long accepted = 0;
+        pinningMonitor.start();
+        try (ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            Files.deleteIfExists(socketPath);
+            channel.bind(UnixDomainSocketAddress.of(socketPath));
+            restrictToOwner(socketPath);
+            server = channel;
+            LOGGER.info("Daemon listening on {}", socketPath);
+            while (true) {
+                SocketChannel connection = channel.accept();
+                begin();
+                accepted++;
+                Thread.ofVirtual().name("daemon-invocation").start(() -> handle(connection));
+            }
+        } catch (ClosedChannelException e) {
+            LOGGER.info("Daemon stopped after {} invocations", accepted);
+            return accepted;
+        } catch (IOException e) {
+            throw new DaemonException("Daemon failed on socket " + socketPath, e);
+        } finally {
+            deleteQuietly(socketPath);
+        }
+    }
+
+    @Override
+    public void stopIntake() {
+        ServerSocketChannel channel = server;
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close daemon socket", e);
+        }
+    }
+
+    @Override
+    public boolean awaitDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (inFlightLock) {
+            while (inFlight > 0) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                try {
+                    inFlightLock.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void handle(SocketChannel connection) {
+        try (connection;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(connection)));
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(connection)))) {
+            DaemonRequest request = DaemonProtocol.readRequest(in);
+            DaemonProtocol.writeResponse(out, execute(request));
+        } catch (IOException e) {
+            LOGGER.warn("Lost daemon client connection", e);
+        } finally {
+            end();
+        }
+    }
+
+    private DaemonResponse execute(DaemonRequest request) {
+        long receivedNanos = System.nanoTime();
+        String[] args = request.arguments().stream()
+                .map(argument -> STDIN_ARGUMENT.equals(argument) ? request.stdin() : argument)
+                .toArray(String[]::new);
+        try {
+            WorkPriority priority = WorkPriority.NORMAL;
+            long deadlineNanos = PriorityScheduler.NO_DEADLINE;
+            int first = 0;
+            for (; first + 1 < args.length; first += 2) {
+                if (PRIORITY_FLAG.equals(args[first])) {
+                    priority = WorkPriority.parse(args[first + 1]);
+                } else if (DEADLINE_FLAG.equals(args[first])) {
+                    deadlineNanos = PriorityScheduler.deadlineAfter(receivedNanos, deadline(args[first + 1]));
+                } else {
+                    break;
+                }
+            }
+            String[] applicationArgs = Arrays.copyOfRange(args, first, args.length);
+            if (applicationArgs.length == 0) {
+                LOGGER.warn("Forwarded invocation refused: no arguments");
+                return DaemonResponse.failure("Invocation has no arguments to run");
+            }
+            if (!Executor.isForwardable(applicationArgs)) {
+                LOGGER.warn("Forwarded invocation refused: {}", applicationArgs[0]);
+                return DaemonResponse.failure("Invocation cannot be forwarded to a daemon: " + applicationArgs[0]);
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8);
+            scheduler.execute(priority, deadlineNanos, () -> {
+                run(applicationArgs, out);
+                return null;
+            });
+            return DaemonResponse.success(output.toString(StandardCharsets.UTF_8));
+        } catch (DeadlineExpiredException e) {
+            LOGGER.warn("Forwarded invocation dropped: {}", e.getMessage());
+            return DaemonResponse.failure(String.valueOf(e.getMessage()));
+        } catch (ConcurrencyLimitExceededException e) {
+            LOGGER.warn("Forwarded invocation shed: {}", e.getMessage());
+            return DaemonResponse.failure(String.valueOf(e.getMessage()));
+        } catch (ExecutionTimeoutException e) {
+            LOGGER.error("Forwarded invocation timed out after {}", invocationTimeout);
+            return DaemonResponse.failure(String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            LOGGER.error("Forwarded invocation failed", e);
+            return DaemonResponse.failure(String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void run(String[] args, PrintStream out) {
+        if (invocationTimeout == null) {
+            executorProvider.get().execute(args, out);
+        } else {
+            virtualExecution.call(() -> {
+                executorProvider.get().execute(args, out);
+                return null;
+            }, invocationTimeout);
+        }
+    }
+
+    private void begin() {
+        synchronized (inFlightLock) {
+            inFlight++;
+        }
+    }
+
+    private void end() {
+        synchronized (inFlightLock) {
+            inFlight--;
+            inFlightLock.notifyAll();
+        }
+    }
+
+    private static Duration invocationTimeout(String property) {
+        if (property == null) {
+            return null;
+        }
+        try {
+            return Duration.parse(property);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(TIMEOUT_PROPERTY + " must be an ISO-8601 duration, got: " + property, e);
+        }
+    }
+
+    private static Duration deadline(String argument) {
+        try {
+            return Duration.parse(argument);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(DEADLINE_FLAG + " must be an ISO-8601 duration, got: " + argument, e);
+        }
+    }
+
+    private static void restrictToOwner(Path socketPath) {
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException e) {
+            LOGGER.warn("Could not restrict permissions of {}", socketPath, e);
+        }
+    }
+
+    private static void deleteQuietly(Path socketPath) {
+        try {
+            Files.deleteIfExists(socketPath);
+        } catch (IOException e) {
+            LOGGER.debug("Could not delete {}", socketPath, e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.template.daemon.models;
+
+import java.util.List;
+
+/**
+ * One CLI invocation forwarded from a thin client to the daemon.
+ *
+ * @param arguments Application arguments, without the client flag and socket path
+ * @param stdin Standard input of the client, substituted for {@code -} arguments; empty when not read
+ */
+public record DaemonRequest(
+        List<String> arguments,
+        String stdin
+) {
+
+    public DaemonRequest {
+        arguments = List.copyOf(arguments);
+    }
+}
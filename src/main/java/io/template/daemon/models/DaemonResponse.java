@@ -0,0 +1,25 @@
+package io.template.daemon.models;
+
+/**
+ * Outcome of a forwarded invocation.
+ *
+ * @param exitCode Exit code the client process should terminate with
+ * @param output What the invocation wrote to its standard output, for the client to print there
+ * @param message Error description for the client to print, empty on success
+ */
+public record DaemonResponse(
+        int exitCode,
+        String output,
+        String message
+) {
+
+    public static final DaemonResponse SUCCESS = success("");
+
+    public static DaemonResponse success(String output) {
+        return new DaemonResponse(0, output, "");
+    }
+
+    public static DaemonResponse failure(String message) {
+        return new DaemonResponse(1, "", message);
+    }
+}
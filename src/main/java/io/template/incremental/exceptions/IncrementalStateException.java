@@ -0,0 +1,17 @@
+package io.template.incremental.exceptions;
+
+/**
+ * Thrown when the state of an incremental batch job cannot be read or written, or is not a valid state file.
+ */
+public final class IncrementalStateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IncrementalStateException(String message) {
+        super(message);
+    }
+
+    public IncrementalStateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
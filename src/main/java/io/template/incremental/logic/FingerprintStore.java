@@ -0,0 +1,160 @@
+package io.template.incremental.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.template.incremental.exceptions.IncrementalStateException;
+import io.template.incremental.models.CachedOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory-mapped fingerprints of the records an incremental batch job processed last time, each with the output
+ * line it produced.
+ * <p>
+ * Two files, in big-endian longs:
+ * <pre>
+ *   fingerprints.idx: magic, generation, entry count, then one entry per distinct record sorted by fingerprint:
+ *                     fingerprint high, fingerprint low, output offset, output length &lt;&lt; 1 | accepted, result
+ *   outputs.dat:      magic, generation, then the output lines the entries point to, without line breaks
+ * </pre>
+ * Both carry the generation of the run that wrote them, so a pair left mismatched by an interrupted commit is
+ * ignored rather than read. A lookup binary-searches the entries, touching a few pages however many there are.
+ * Not thread-safe.
+ */
+final class FingerprintStore implements Closeable {
+
+    static final String FINGERPRINTS_FILE = "fingerprints.idx";
+    static final String OUTPUTS_FILE = "outputs.dat";
+    static final long FINGERPRINTS_MAGIC = 0x46494E4750524E31L;
+    static final long OUTPUTS_MAGIC = 0x4F55545055545331L;
+    static final long FINGERPRINTS_HEADER_BYTES = 3L * Long.BYTES;
+    static final long OUTPUTS_HEADER_BYTES = 2L * Long.BYTES;
+    static final int ENTRY_LONGS = 5;
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FingerprintStore.class);
+    private static final long ENTRY_BYTES = ENTRY_LONGS * Long.BYTES;
+
+    private final Arena arena;
+    private final MemorySegment fingerprints;
+    private final MemorySegment outputs;
+    private final long entryCount;
+
+    private FingerprintStore(Arena arena, MemorySegment fingerprints, MemorySegment outputs, long entryCount) {
+        this.arena = arena;
+        this.fingerprints = fingerprints;
+        this.outputs = outputs;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Maps the store in {@code directory}, or returns an empty one if there is none yet.
+     *
+     * @throws IncrementalStateException if the files cannot be mapped or are not a fingerprint store
+     */
+    static FingerprintStore open(Path directory) {
+        Path fingerprintsFile = directory.resolve(FINGERPRINTS_FILE);
+        Path outputsFile = directory.resolve(OUTPUTS_FILE);
+        if (!Files.exists(fingerprintsFile) || !Files.exists(outputsFile)) {
+            return empty();
+        }
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment fingerprints = map(fingerprintsFile, arena);
+            MemorySegment outputs = map(outputsFile, arena);
+            validate(fingerprints, FINGERPRINTS_HEADER_BYTES, FINGERPRINTS_MAGIC, fingerprintsFile);
+            validate(outputs, OUTPUTS_HEADER_BYTES, OUTPUTS_MAGIC, outputsFile);
+            if (fingerprints.get(LONG, Long.BYTES) != outputs.get(LONG, Long.BYTES)) {
+                LOGGER.warn("Ignoring incremental state in {} left behind by an interrupted run", directory);
+                arena.close();
+                return empty();
+            }
+            long entryCount = fingerprints.get(LONG, 2L * Long.BYTES);
+            if (fingerprints.byteSize() != FINGERPRINTS_HEADER_BYTES + entryCount * ENTRY_BYTES) {
+                throw new IncrementalStateException("Truncated fingerprint store: " + fingerprintsFile);
+            }
+            return new FingerprintStore(arena, fingerprints, outputs, entryCount);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e instanceof IncrementalStateException stateException
+                    ? stateException
+                    : new IncrementalStateException("Could not map incremental state " + directory, e);
+        }
+    }
+
+    long size() {
+        return entryCount;
+    }
+
+    /**
+     * What the record with this fingerprint produced, or {@code null} if it was not processed last time.
+     */
+    CachedOutput find(long high, long low) {
+        long lowIndex = 0;
+        long highIndex = entryCount;
+        while (lowIndex < highIndex) {
+            long middle = (lowIndex + highIndex) >>> 1;
+            long entry = FINGERPRINTS_HEADER_BYTES + middle * ENTRY_BYTES;
+            int comparison = compare(fingerprints.get(LONG, entry), fingerprints.get(LONG, entry + Long.BYTES),
+                    high, low);
+            if (comparison == 0) {
+                return read(entry);
+            }
+            if (comparison < 0) {
+                lowIndex = middle + 1;
+            } else {
+                highIndex = middle;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+        }
+    }
+
+    static int compare(long firstHigh, long firstLow, long secondHigh, long secondLow) {
+        int byHigh = Long.compare(firstHigh, secondHigh);
+        return byHigh != 0 ? byHigh : Long.compare(firstLow, secondLow);
+    }
+
+    private CachedOutput read(long entry) {
+        long offset = fingerprints.get(LONG, entry + 2L * Long.BYTES);
+        long lengthAndAccepted = fingerprints.get(LONG, entry + 3L * Long.BYTES);
+        long length = lengthAndAccepted >>> 1;
+        if (offset < OUTPUTS_HEADER_BYTES || length > outputs.byteSize() - offset) {
+            throw new IncrementalStateException("Fingerprint entry points past the end of the outputs: " + offset);
+        }
+        byte[] output = outputs.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE);
+        double result = Double.longBitsToDouble(fingerprints.get(LONG, entry + 4L * Long.BYTES));
+        return new CachedOutput(output, (lengthAndAccepted & 1) != 0, result);
+    }
+
+    private static FingerprintStore empty() {
+        return new FingerprintStore(null, MemorySegment.NULL, MemorySegment.NULL, 0);
+    }
+
+    private static void validate(MemorySegment segment, long headerBytes, long magic, Path file) {
+        if (segment.byteSize() < headerBytes || segment.get(LONG, 0) != magic) {
+            throw new IncrementalStateException("Not an incremental state file: " + file);
+        }
+    }
+
+    private static MemorySegment map(Path file, Arena arena) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.template.incremental.logic;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the next generation of a {@link FingerprintStore} next to the current one and swaps it in on
+ * {@link #commit()}.
+ * <p>
+ * Output lines are streamed to a temporary file as they are remembered; only the fixed-size entries, five longs
+ * each, are held in memory until they are sorted and written. The outputs file is moved into place before the
+ * fingerprints file, so an interruption in between leaves two generations that {@link FingerprintStore#open}
+ * ignores. Not thread-safe.
+ */
+final class FingerprintStoreWriter implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FingerprintStoreWriter.class);
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path directory;
+    private final Path temporaryOutputs;
+    private final Path temporaryFingerprints;
+    private final FileChannel outputsChannel;
+    private final DataOutputStream outputs;
+    private final long generation;
+    private long[] highs = new long[INITIAL_CAPACITY];
+    private long[] lows = new long[INITIAL_CAPACITY];
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private long[] lengthsAndAccepted = new long[INITIAL_CAPACITY];
+    private long[] results = new long[INITIAL_CAPACITY];
+    private int count;
+    private long outputsSize = FingerprintStore.OUTPUTS_HEADER_BYTES;
+    private boolean committed;
+
+    FingerprintStoreWriter(Path directory) throws IOException {
+        this.directory = directory;
+        this.temporaryOutputs = directory.resolve(FingerprintStore.OUTPUTS_FILE + TEMPORARY_SUFFIX);
+        this.temporaryFingerprints = directory.resolve(FingerprintStore.FINGERPRINTS_FILE + TEMPORARY_SUFFIX);
+        this.generation = ThreadLocalRandom.current().nextLong();
+        this.outputsChannel = FileChannel.open(temporaryOutputs,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.outputs = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(outputsChannel)));
+        outputs.writeLong(FingerprintStore.OUTPUTS_MAGIC);
+        outputs.writeLong(generation);
+    }
+
+    /**
+     * Adds a record to the next generation. A fingerprint remembered twice keeps its first output.
+     */
+    void remember(long high, long low, byte[] output, boolean accepted, double result) throws IOException {
+        if (count == highs.length) {
+            grow();
+        }
+        outputs.write(output);
+        highs[count] = high;
+        lows[count] = low;
+        offsets[count] = outputsSize;
+        lengthsAndAccepted[count] = (long) output.length << 1 | (accepted ? 1 : 0);
+        results[count] = Double.doubleToRawLongBits(result);
+        outputsSize += output.length;
+        count++;
+    }
+
+    /**
+     * Makes the remembered records the store of {@code directory}, replacing the previous generation, which must no
+     * longer be mapped.
+     */
+    void commit() throws IOException {
+        outputs.flush();
+        outputsChannel.force(true);
+        outputs.close();
+
+        int[] order = sortedOrder();
+        long distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || !sameFingerprint(order[i - 1], order[i])) {
+                distinct++;
+            }
+        }
+        FileChannel channel = FileChannel.open(temporaryFingerprints,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            out.writeLong(FingerprintStore.FINGERPRINTS_MAGIC);
+            out.writeLong(generation);
+            out.writeLong(distinct);
+            for (int i = 0; i < count; i++) {
+                int entry = order[i];
+                if (i > 0 && sameFingerprint(order[i - 1], entry)) {
+                    continue;
+                }
+                out.writeLong(highs[entry]);
+                out.writeLong(lows[entry]);
+                out.writeLong(offsets[entry]);
+                out.writeLong(lengthsAndAccepted[entry]);
+                out.writeLong(results[entry]);
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        move(temporaryOutputs, directory.resolve(FingerprintStore.OUTPUTS_FILE));
+        move(temporaryFingerprints, directory.resolve(FingerprintStore.FINGERPRINTS_FILE));
+        forceDirectory(directory);
+        committed = true;
+    }
+
+    /**
+     * Discards the remembered records unless they were committed.
+     */
+    @Override
+    public void close() throws IOException {
+        outputs.close();
+        if (!committed) {
+            Files.deleteIfExists(temporaryOutputs);
+            Files.deleteIfExists(temporaryFingerprints);
+        }
+    }
+
+    private boolean sameFingerprint(int left, int right) {
+        return highs[left] == highs[right] && lows[left] == lows[right];
+    }
+
+    /**
+     * Bottom-up merge sort of the entry indexes by fingerprint. Being stable, it keeps the first of equal
+     * fingerprints first.
+     */
+    private int[] sortedOrder() {
+        int[] source = new int[count];
+        for (int i = 0; i < count; i++) {
+            source[i] = i;
+        }
+        int[] target = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int start = 0; start < count; start += 2 * width) {
+                int middle = Math.min(start + width, count);
+                int end = Math.min(start + 2 * width, count);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    boolean takeLeft = right >= end || left < middle && FingerprintStore.compare(
+                            highs[source[left]], lows[source[left]], highs[source[right]], lows[source[right]]) <= 0;
+                    target[i] = takeLeft ? source[left++] : source[right++];
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        return source;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, highs.length * 2L);
+        if (capacity == highs.length) {
+            throw new IllegalStateException("Too many records for one incremental state: " + count);
+        }
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        lengthsAndAccepted = Arrays.copyOf(lengthsAndAccepted, capacity);
+        results = Arrays.copyOf(results, capacity);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Makes the renames durable where the platform allows opening a directory.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Could not force directory {}", directory, e);
+        }
+    }
+}
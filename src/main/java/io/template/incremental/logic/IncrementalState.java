@@ -0,0 +1,123 @@
+package io.template.incremental.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.template.incremental.exceptions.IncrementalStateException;
+import io.template.incremental.models.CachedOutput;
+import io.template.shared.utilities.HashingUtility.Hash128;
+
+/**
+ * What an incremental batch job remembers between runs: the 128-bit fingerprint of every record it processed and
+ * the output line each produced, so that the next run over a mostly unchanged input only processes new or changed
+ * records.
+ * <p>
+ * Lookups read the previous run's store; every record seen in this run, reused or processed, goes into the next
+ * one, which replaces it on {@link #commit()}. Records that disappeared from the input are therefore dropped.
+ * Fingerprints are trusted without comparing record bytes. Cached outputs are only valid for the calculation and
+ * validation rules that produced them, so the state directory must be deleted whenever those change.
+ * Not thread-safe.
+ */
+public final class IncrementalState implements Closeable {
+
+    private final Path directory;
+    private final FingerprintStore previous;
+    private final FingerprintStoreWriter next;
+    private long reused;
+    private boolean previousClosed;
+
+    private IncrementalState(Path directory, FingerprintStore previous, FingerprintStoreWriter next) {
+        this.directory = directory;
+        this.previous = previous;
+        this.next = next;
+    }
+
+    /**
+     * Opens the state in {@code directory}, creating it if needed; a new directory has nothing to reuse.
+     *
+     * @throws IncrementalStateException if the directory cannot be created or holds an invalid state
+     */
+    public static IncrementalState open(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IncrementalStateException("Could not create incremental state directory " + directory, e);
+        }
+        FingerprintStore previous = FingerprintStore.open(directory);
+        try {
+            return new IncrementalState(directory, previous, new FingerprintStoreWriter(directory));
+        } catch (IOException e) {
+            previous.close();
+            throw new IncrementalStateException("Could not start incremental state in " + directory, e);
+        }
+    }
+
+    /**
+     * Output of the record with this fingerprint in the previous run, or {@code null} if it has to be processed.
+     * A hit is carried over to the next run.
+     */
+    public CachedOutput reuse(Hash128 fingerprint) {
+        CachedOutput cached = previous.find(fingerprint.high(), fingerprint.low());
+        if (cached != null) {
+            remember(fingerprint, cached.output(), cached.accepted(), cached.result());
+            reused++;
+        }
+        return cached;
+    }
+
+    /**
+     * Records the output of a record processed in this run.
+     *
+     * @param output Output line, without the line break
+     * @param accepted Whether the record was accepted
+     * @param result Calculated result of an accepted record
+     */
+    public void remember(Hash128 fingerprint, byte[] output, boolean accepted, double result) {
+        try {
+            next.remember(fingerprint.high(), fingerprint.low(), output, accepted, result);
+        } catch (IOException e) {
+            throw new IncrementalStateException("Could not write incremental state in " + directory, e);
+        }
+    }
+
+    /**
+     * Number of records reused from the previous run so far.
+     */
+    public long reused() {
+        return reused;
+    }
+
+    /**
+     * Replaces the previous run's state with the records seen in this run. Call once, after the output is durable.
+     */
+    public void commit() {
+        closePrevious();
+        try {
+            next.commit();
+        } catch (IOException e) {
+            throw new IncrementalStateException("Could not commit incremental state in " + directory, e);
+        }
+    }
+
+    /**
+     * Releases the previous run's state and discards this run's unless it was committed.
+     */
+    @Override
+    public void close() {
+        closePrevious();
+        try {
+            next.close();
+        } catch (IOException e) {
+            throw new IncrementalStateException("Could not discard incremental state in " + directory, e);
+        }
+    }
+
+    private void closePrevious() {
+        if (!previousClosed) {
+            previous.close();
+            previousClosed = true;
+        }
+    }
+}
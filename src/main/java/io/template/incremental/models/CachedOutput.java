@@ -0,0 +1,14 @@
+package io.template.incremental.models;
+
+/**
+ * What an unchanged record produced the last time it was processed.
+ *
+ * @param output Output line of the record, without the line break
+ * @param accepted Whether the record was accepted, as opposed to rejected with a failure line
+ * @param result Calculated result of an accepted record, 0 for a rejected one
+ */
+public record CachedOutput(
+        byte[] output,
+        boolean accepted,
+        double result
+) { }
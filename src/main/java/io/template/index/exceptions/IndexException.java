@@ -0,0 +1,17 @@
+package io.template.index.exceptions;
+
+/**
+ * Thrown when a record index cannot be written, mapped, or is not a valid index file.
+ */
+public final class IndexException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IndexException(String message) {
+        super(message);
+    }
+
+    public IndexException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,65 @@
+package io.template.index.logic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.template.shared.models.ApplicationInput;
+
+/**
+ * Collects the indexed fields of accepted records in memory during ingestion, then writes the files a
+ * {@link RecordIndex} maps. Records must be added in ascending record number order. Not thread-safe.
+ */
+public final class IndexBuilder {
+
+    private long[] seconds = new long[1024];
+    private long[] nanosAndRecords = new long[1024];
+    private int timestampCount;
+    private final Map<String, LongList> strings = new HashMap<>();
+    private final Map<String, LongList> listElements = new HashMap<>();
+
+    /**
+     * @param recordNumber Position of the record in the input, counting rejected records too
+     */
+    public void add(long recordNumber, ApplicationInput input) {
+        if (recordNumber < 0 || recordNumber > TimestampColumn.MAX_RECORD_NUMBER) {
+            throw new IllegalArgumentException("Record number out of range: " + recordNumber);
+        }
+        Instant timestamp = input.exampleTimestampField();
+        if (timestamp != null) {
+            if (timestampCount == seconds.length) {
+                seconds = Arrays.copyOf(seconds, timestampCount * 2);
+                nanosAndRecords = Arrays.copyOf(nanosAndRecords, timestampCount * 2);
+            }
+            seconds[timestampCount] = timestamp.getEpochSecond();
+            nanosAndRecords[timestampCount] = TimestampColumn.pack(timestamp, recordNumber);
+            timestampCount++;
+        }
+        if (input.exampleStringField() != null) {
+            strings.computeIfAbsent(input.exampleStringField(), key -> new LongList()).addIfNotLast(recordNumber);
+        }
+        List<String> elements = input.exampleListField();
+        if (elements != null) {
+            for (String element : elements) {
+                if (element != null) {
+                    listElements.computeIfAbsent(element, key -> new LongList()).addIfNotLast(recordNumber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the index files into {@code directory}, creating it if needed and replacing any previous index.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        TimestampColumn.write(directory.resolve(RecordIndex.TIMESTAMPS_FILE), seconds, nanosAndRecords, timestampCount);
+        TermDictionary.write(directory.resolve(RecordIndex.STRINGS_FILE), strings);
+        TermDictionary.write(directory.resolve(RecordIndex.LIST_ELEMENTS_FILE), listElements);
+    }
+}
@@ -0,0 +1,36 @@
+package io.template.index.logic;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive longs, so building an index does not box a record number per occurrence.
+ */
+final class LongList {
+
+    private long[] values = new long[4];
+    private int size;
+
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Adds {@code value} unless it is already the last element, for appending ascending record numbers once each.
+     */
+    void addIfNotLast(long value) {
+        if (size == 0 || values[size - 1] != value) {
+            add(value);
+        }
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,115 @@
+package io.template.index.logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+import io.template.index.exceptions.IndexException;
+
+/**
+ * Read-only queries over the index a batch job wrote with {@code --index}, answered from memory-mapped files
+ * without reading the input or output again.
+ * <p>
+ * Queries return record numbers: the 0-based position of a record in the batch input, which is also its line
+ * in the batch output. Results are ascending, so they can be combined with {@link #intersect(long[], long[])}.
+ * Only records the job accepted are indexed. Queries may run concurrently, but not concurrently with
+ * {@link #close()}, which unmaps the files.
+ */
+public final class RecordIndex implements Closeable {
+
+    static final String TIMESTAMPS_FILE = "timestamps.idx";
+    static final String STRINGS_FILE = "strings.idx";
+    static final String LIST_ELEMENTS_FILE = "list-elements.idx";
+
+    private final Arena arena;
+    private final TimestampColumn timestamps;
+    private final TermDictionary strings;
+    private final TermDictionary listElements;
+
+    private RecordIndex(Arena arena, Path directory) throws IOException {
+        this.arena = arena;
+        Path timestampsFile = directory.resolve(TIMESTAMPS_FILE);
+        Path stringsFile = directory.resolve(STRINGS_FILE);
+        Path listElementsFile = directory.resolve(LIST_ELEMENTS_FILE);
+        this.timestamps = new TimestampColumn(map(timestampsFile), timestampsFile);
+        this.strings = new TermDictionary(map(stringsFile), stringsFile);
+        this.listElements = new TermDictionary(map(listElementsFile), listElementsFile);
+    }
+
+    /**
+     * Maps the index written into {@code directory}.
+     *
+     * @throws IndexException if a file is missing, unreadable or not an index file
+     */
+    public static RecordIndex open(Path directory) {
+        Arena arena = Arena.ofShared();
+        try {
+            return new RecordIndex(arena, directory);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e instanceof IndexException indexException
+                    ? indexException
+                    : new IndexException("Could not map record index " + directory, e);
+        }
+    }
+
+    /**
+     * Records whose {@code exampleStringField} equals {@code value}.
+     */
+    public long[] findByString(String value) {
+        return strings.find(value);
+    }
+
+    /**
+     * Records whose {@code exampleListField} contains {@code element}.
+     */
+    public long[] findByListElement(String element) {
+        return listElements.find(element);
+    }
+
+    /**
+     * Records whose {@code exampleTimestampField} is at or after {@code from} and before {@code to}.
+     */
+    public long[] findByTimestamp(Instant from, Instant to) {
+        return timestamps.find(from, to);
+    }
+
+    /**
+     * Record numbers present in both ascending arrays.
+     */
+    public static long[] intersect(long[] first, long[] second) {
+        long[] both = new long[Math.min(first.length, second.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                both[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(both, count);
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private MemorySegment map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.template.index.logic;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.template.index.exceptions.IndexException;
+import io.template.shared.utilities.HashingUtility;
+
+/**
+ * Memory-mapped hash table from each distinct term to the ascending numbers of the records it occurs in.
+ * <p>
+ * Layout, in big-endian longs so every field is 8-byte aligned:
+ * <pre>
+ *   header: magic, term count, slot count (a power of two, at least twice the term count)
+ *   slots:  byte offset of an entry, or 0 for an empty slot; probed linearly from the term's hash
+ *   entry:  64-bit hash, term length in bytes, UTF-8 term padded to 8 bytes, posting count, record numbers
+ * </pre>
+ * A lookup touches the slots it probes and the one entry it finds, without reading the rest of the file.
+ */
+final class TermDictionary {
+
+    static final long MAGIC = 0x5445524D49445831L;
+
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final long HEADER_BYTES = 3L * Long.BYTES;
+    private static final long[] NONE = new long[0];
+
+    private final MemorySegment segment;
+    private final long slotMask;
+
+    TermDictionary(MemorySegment segment, Path file) {
+        if (segment.byteSize() < HEADER_BYTES || segment.get(LONG, 0) != MAGIC) {
+            throw new IndexException("Not a term dictionary: " + file);
+        }
+        this.segment = segment;
+        this.slotMask = segment.get(LONG, 2L * Long.BYTES) - 1;
+    }
+
+    /**
+     * Numbers of the records containing {@code term}, ascending; empty if there are none.
+     */
+    long[] find(String term) {
+        byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+        long hash = HashingUtility.hash64(bytes);
+        for (long slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            long entry = segment.get(LONG, HEADER_BYTES + slot * Long.BYTES);
+            if (entry == 0) {
+                return NONE;
+            }
+            if (segment.get(LONG, entry) == hash && matches(entry, bytes)) {
+                long postings = entry + 2L * Long.BYTES + padded(bytes.length);
+                int count = Math.toIntExact(segment.get(LONG, postings));
+                long[] records = new long[count];
+                MemorySegment.copy(segment, LONG, postings + Long.BYTES, records, 0, count);
+                return records;
+            }
+        }
+    }
+
+    private boolean matches(long entry, byte[] term) {
+        if (segment.get(LONG, entry + Long.BYTES) != term.length) {
+            return false;
+        }
+        long start = entry + 2L * Long.BYTES;
+        return MemorySegment.mismatch(segment, start, start + term.length,
+                MemorySegment.ofArray(term), 0, term.length) == -1;
+    }
+
+    static void write(Path file, Map<String, LongList> postings) throws IOException {
+        int termCount = postings.size();
+        long slotCount = Long.highestOneBit(Math.max(1, 2L * termCount - 1)) << 1;
+        long[] slots = new long[Math.toIntExact(slotCount)];
+        List<byte[]> terms = new ArrayList<>(termCount);
+        List<LongList> records = new ArrayList<>(termCount);
+
+        long offset = HEADER_BYTES + slotCount * Long.BYTES;
+        for (Map.Entry<String, LongList> posting : postings.entrySet()) {
+            byte[] term = posting.getKey().getBytes(StandardCharsets.UTF_8);
+            long slot = HashingUtility.hash64(term) & (slotCount - 1);
+            while (slots[(int) slot] != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[(int) slot] = offset;
+            terms.add(term);
+            records.add(posting.getValue());
+            offset += 3L * Long.BYTES + padded(term.length) + (long) posting.getValue().size() * Long.BYTES;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeLong(MAGIC);
+            out.writeLong(termCount);
+            out.writeLong(slotCount);
+            for (long slot : slots) {
+                out.writeLong(slot);
+            }
+            for (int i = 0; i < terms.size(); i++) {
+                byte[] term = terms.get(i);
+                out.writeLong(HashingUtility.hash64(term));
+                out.writeLong(term.length);
+                out.write(term);
+                out.write(new byte[(int) (padded(term.length) - term.length)]);
+                LongList termRecords = records.get(i);
+                out.writeLong(termRecords.size());
+                for (int r = 0; r < termRecords.size(); r++) {
+                    out.writeLong(termRecords.get(r));
+                }
+            }
+        }
+    }
+
+    private static long padded(int length) {
+        return (length + Long.BYTES - 1L) & -Long.BYTES;
+    }
+}
@@ -0,0 +1,182 @@
+package io.template.index.logic;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import io.template.index.exceptions.IndexException;
+
+/**
+ * Memory-mapped column of record timestamps sorted by time, with sparse keys for range lookups.
+ * <p>
+ * Layout, in big-endian longs:
+ * <pre>
+ *   header:      magic, entry count, sparse interval
+ *   sparse keys: epoch second of every sparse-interval-th entry
+ *   entries:     epoch second, then nanosecond &lt;&lt; 33 | record number
+ * </pre>
+ * Each entry orders by time and then record number as a pair of longs. A lookup binary-searches the small
+ * sparse key array first and then only the one block of entries it points to, so it touches a few pages of
+ * the column however long it is. Record numbers are limited to 33 bits, about 8.6 billion records.
+ */
+final class TimestampColumn {
+
+    static final long MAGIC = 0x54494D4549445831L;
+    static final int SPARSE_INTERVAL = 256;
+    static final long MAX_RECORD_NUMBER = (1L << 33) - 1;
+
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final long HEADER_BYTES = 3L * Long.BYTES;
+    private static final int NANO_SHIFT = 33;
+
+    private final MemorySegment segment;
+    private final long entryCount;
+    private final long sparseCount;
+    private final long entriesOffset;
+
+    TimestampColumn(MemorySegment segment, Path file) {
+        if (segment.byteSize() < HEADER_BYTES || segment.get(LONG, 0) != MAGIC) {
+            throw new IndexException("Not a timestamp column: " + file);
+        }
+        this.segment = segment;
+        this.entryCount = segment.get(LONG, Long.BYTES);
+        this.sparseCount = sparseCount(entryCount);
+        this.entriesOffset = HEADER_BYTES + sparseCount * Long.BYTES;
+    }
+
+    /**
+     * Numbers of the records with a timestamp in {@code [from, to)}, ascending.
+     */
+    long[] find(Instant from, Instant to) {
+        long start = lowerBound(from);
+        long[] records = new long[Math.toIntExact(Math.max(0, lowerBound(to) - start))];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = segment.get(LONG, entryOffset(start + i) + Long.BYTES) & MAX_RECORD_NUMBER;
+        }
+        Arrays.sort(records);
+        return records;
+    }
+
+    /**
+     * Index of the first entry at or after {@code instant}, or the entry count if there is none.
+     */
+    private long lowerBound(Instant instant) {
+        long second = instant.getEpochSecond();
+        // Entries before the last block starting strictly before this second are all earlier, and entries from the
+        // first block starting after it are all later
+        long below = countSparseKeys(second, false);
+        long atOrBelow = countSparseKeys(second, true);
+        long low = Math.max(0, below - 1) * SPARSE_INTERVAL;
+        long high = Math.min(entryCount, atOrBelow * SPARSE_INTERVAL);
+        long target = (long) instant.getNano() << NANO_SHIFT;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            long entry = entryOffset(middle);
+            long entrySecond = segment.get(LONG, entry);
+            if (entrySecond < second || entrySecond == second && segment.get(LONG, entry + Long.BYTES) < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Number of sparse keys below {@code second}, or at or below it when {@code inclusive}.
+     */
+    private long countSparseKeys(long second, boolean inclusive) {
+        long low = 0;
+        long high = sparseCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            long key = segment.get(LONG, HEADER_BYTES + middle * Long.BYTES);
+            if (key < second || inclusive && key == second) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long entryOffset(long index) {
+        return entriesOffset + index * 2 * Long.BYTES;
+    }
+
+    /**
+     * @param seconds Epoch second of each entry, in record order
+     * @param nanosAndRecords Nanosecond and record number of each entry, packed as in the file
+     * @param count Number of entries
+     */
+    static void write(Path file, long[] seconds, long[] nanosAndRecords, int count) throws IOException {
+        sort(seconds, nanosAndRecords, count);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeLong(MAGIC);
+            out.writeLong(count);
+            out.writeLong(SPARSE_INTERVAL);
+            for (int i = 0; i < count; i += SPARSE_INTERVAL) {
+                out.writeLong(seconds[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                out.writeLong(seconds[i]);
+                out.writeLong(nanosAndRecords[i]);
+            }
+        }
+    }
+
+    static long pack(Instant timestamp, long recordNumber) {
+        return (long) timestamp.getNano() << NANO_SHIFT | recordNumber;
+    }
+
+    private static int compare(long[] seconds, long[] packed, int left, int right) {
+        int bySecond = Long.compare(seconds[left], seconds[right]);
+        return bySecond != 0 ? bySecond : Long.compare(packed[left], packed[right]);
+    }
+
+    private static long sparseCount(long entryCount) {
+        return (entryCount + SPARSE_INTERVAL - 1) / SPARSE_INTERVAL;
+    }
+
+    /**
+     * Bottom-up merge sort of the first {@code count} pairs, by second and then by the packed value.
+     */
+    private static void sort(long[] seconds, long[] nanosAndRecords, int count) {
+        long[] sourceSeconds = seconds;
+        long[] sourcePacked = nanosAndRecords;
+        long[] targetSeconds = new long[count];
+        long[] targetPacked = new long[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int start = 0; start < count; start += 2 * width) {
+                int middle = Math.min(start + width, count);
+                int end = Math.min(start + 2 * width, count);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    boolean takeLeft = right >= end
+                            || left < middle && compare(sourceSeconds, sourcePacked, left, right) <= 0;
+                    int from = takeLeft ? left++ : right++;
+                    targetSeconds[i] = sourceSeconds[from];
+                    targetPacked[i] = sourcePacked[from];
+                }
+            }
+            long[] swapSeconds = sourceSeconds;
+            sourceSeconds = targetSeconds;
+            targetSeconds = swapSeconds;
+            long[] swapPacked = sourcePacked;
+            sourcePacked = targetPacked;
+            targetPacked = swapPacked;
+        }
+        if (sourceSeconds != seconds) {
+            System.arraycopy(sourceSeconds, 0, seconds, 0, count);
+            System.arraycopy(sourcePacked, 0, nanosAndRecords, 0, count);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.template.replay.exceptions;
+
+/**
+ * Thrown when an input journal cannot be opened, written or read, or is not a valid journal file.
+ */
+public final class JournalException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JournalException(String message) {
+        super(message);
+    }
+
+    public JournalException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,306 @@
+package io.template.replay.logic;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.replay.exceptions.JournalException;
+import io.template.replay.models.JournalEntry;
+import io.template.replay.models.JournalOutcome;
+import io.template.shared.utilities.SystemPropertyUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only capture of single-input invocations, written in the {@link JournalFormat} for {@link Replayer}.
+ * <p>
+ * Recording only hands the entry to a bounded queue; a background thread encodes queued entries into one
+ * buffer and writes it to the {@link FileChannel} whenever the queue runs empty, so a burst of invocations
+ * costs one write. When the writer falls behind, entries are dropped and counted rather than slowing down the
+ * invocations being recorded. An existing journal is appended to, and it is locked while recording so two
+ * processes cannot interleave their entries. Nothing is recorded until {@link #start(Path)} is called.
+ */
+@Singleton
+public class InputJournal implements Flushable, AutoCloseable {
+
+    /** Entries buffered unless {@code -Dio.template.journal.queueCapacity=<n>} sets otherwise. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    static final String QUEUE_CAPACITY_PROPERTY = "io.template.journal.queueCapacity";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InputJournal.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long HANDOFF_TIMEOUT_SECONDS = 10;
+    // Queued by flush() and close() and recognised by identity, so they share the queue's ordering
+    private static final JournalEntry FLUSH = marker();
+    private static final JournalEntry CLOSE = marker();
+
+    private final BlockingQueue<JournalEntry> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Object flushLock = new Object();
+    private long flushesRequested;
+    private long flushesCompleted;
+    private volatile boolean recording;
+    private volatile boolean failed;
+    private Path file;
+    private FileChannel channel;
+    private Thread writer;
+
+    @Inject
+    public InputJournal() {
+        this.queue = new ArrayBlockingQueue<>(
+                SystemPropertyUtility.positiveInt(QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Starts recording to {@code journal}, creating it or appending to it. Starting again with the same file has no
+     * effect.
+     *
+     * @throws JournalException if the file cannot be opened or locked, is not a journal, or a different journal is
+     *         already being recorded
+     */
+    public synchronized void start(Path journal) {
+        if (file != null) {
+            if (!file.equals(journal)) {
+                throw new JournalException("Already recording to " + file + ", cannot record to " + journal);
+            }
+            return;
+        }
+        FileChannel opened = open(journal);
+        file = journal;
+        channel = opened;
+        failed = false;
+        recording = true;
+        writer = Thread.ofPlatform().daemon().name("input-journal-writer").start(() -> writeEntries(opened));
+        LOGGER.info("Recording inputs to {}", journal);
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Queues {@code entry} for writing. Never blocks: if the queue is full the entry is dropped.
+     */
+    public void record(JournalEntry entry) {
+        if (!recording) {
+            return;
+        }
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Entries dropped since startup because the writer fell behind or the entry was too large.
+     */
+    public long droppedEntries() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until every entry recorded before this call is written and forced to storage.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!isStarted()) {
+            return;
+        }
+        long target;
+        synchronized (flushLock) {
+            target = ++flushesRequested;
+        }
+        try {
+            if (!queue.offer(FLUSH, HANDOFF_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IOException("Input journal writer did not accept a flush in time");
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(HANDOFF_TIMEOUT_SECONDS);
+            synchronized (flushLock) {
+                while (flushesCompleted < target && !failed) {
+                    long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                    if (remainingMillis <= 0) {
+                        throw new IOException("Input journal was not flushed in time");
+                    }
+                    flushLock.wait(remainingMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing the input journal");
+        }
+        if (failed) {
+            throw new IOException("Input journal writer failed, see the earlier error");
+        }
+    }
+
+    /**
+     * Stops recording, writes the entries already queued and closes the journal.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (file == null) {
+            return;
+        }
+        recording = false;
+        try {
+            if (queue.offer(CLOSE, HANDOFF_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                writer.join(TimeUnit.SECONDS.toMillis(HANDOFF_TIMEOUT_SECONDS));
+            }
+            if (writer.isAlive()) {
+                LOGGER.warn("Input journal writer did not finish in time, unwritten entries are lost");
+                writer.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.interrupt();
+        } finally {
+            channel.close();
+            queue.clear();
+            long droppedEntries = dropped.sum();
+            if (droppedEntries > 0) {
+                LOGGER.warn("Input journal {} is missing {} dropped entries", file, droppedEntries);
+            }
+            file = null;
+            channel = null;
+            writer = null;
+        }
+    }
+
+    private synchronized boolean isStarted() {
+        return file != null;
+    }
+
+    private void writeEntries(FileChannel target) {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        List<JournalEntry> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (JournalEntry entry : batch) {
+                    if (entry == CLOSE) {
+                        writeOut(buffer, target);
+                        target.force(false);
+                        return;
+                    }
+                    if (entry == FLUSH) {
+                        writeOut(buffer, target);
+                        target.force(false);
+                        completeFlush();
+                    } else {
+                        append(entry, buffer, target);
+                    }
+                }
+                batch.clear();
+                writeOut(buffer, target);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Input journal writer failed, recording stopped", e);
+            recording = false;
+            failed = true;
+            synchronized (flushLock) {
+                flushLock.notifyAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(JournalEntry entry, ByteBuffer buffer, FileChannel target) throws IOException {
+        byte[] message = JournalFormat.messageBytes(entry);
+        int length = JournalFormat.LENGTH_PREFIX_BYTES + JournalFormat.bodyLength(entry, message);
+        if (length > JournalFormat.LENGTH_PREFIX_BYTES + JournalFormat.MAX_ENTRY_BYTES) {
+            dropped.increment();
+            return;
+        }
+        if (buffer.remaining() < length) {
+            writeOut(buffer, target);
+        }
+        if (length > buffer.capacity()) {
+            ByteBuffer large = ByteBuffer.allocate(length);
+            JournalFormat.encode(entry, message, large);
+            writeOut(large, target);
+        } else {
+            JournalFormat.encode(entry, message, buffer);
+        }
+    }
+
+    private void completeFlush() {
+        synchronized (flushLock) {
+            flushesCompleted++;
+            flushLock.notifyAll();
+        }
+    }
+
+    private static void writeOut(ByteBuffer buffer, FileChannel target) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static FileChannel open(Path journal) {
+        FileChannel opened = null;
+        try {
+            opened = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            FileLock lock = opened.tryLock();
+            if (lock == null) {
+                throw new JournalException("Input journal " + journal + " is being recorded by another process");
+            }
+            if (opened.size() == 0) {
+                writeOut(ByteBuffer.allocate(JournalFormat.HEADER_LENGTH)
+                        .put(JournalFormat.MAGIC).put(JournalFormat.VERSION), opened);
+            } else if (!hasHeader(opened)) {
+                throw new JournalException("Not an input journal: " + journal);
+            }
+            opened.position(opened.size());
+            return opened;
+        } catch (IOException e) {
+            closeQuietly(opened);
+            throw new JournalException("Could not open input journal " + journal, e);
+        } catch (JournalException e) {
+            closeQuietly(opened);
+            throw e;
+        }
+    }
+
+    private static boolean hasHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(JournalFormat.HEADER_LENGTH);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return false;
+            }
+        }
+        return JournalFormat.isHeader(header.array());
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Could not close input journal", e);
+        }
+    }
+
+    private static JournalEntry marker() {
+        return JournalEntry.unaccepted(Instant.EPOCH, new byte[0], 0, 0, JournalOutcome.FAILED, "");
+    }
+}
@@ -0,0 +1,104 @@
+package io.template.replay.logic;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import io.template.replay.models.JournalEntry;
+import io.template.replay.models.JournalOutcome;
+
+/**
+ * Binary layout of an input journal, big-endian throughout.
+ * <pre>
+ *   header: the {@link #MAGIC} bytes, then a format version byte
+ *   entry:  4-byte length of the rest of the entry, then
+ *           start time in epoch nanoseconds (8), sanitize nanoseconds (8), calculate nanoseconds (8),
+ *           outcome (1), result as IEEE 754 bits (8),
+ *           message length (4) and UTF-8 message, input length (4) and raw input
+ * </pre>
+ * Entries are self-delimiting, so a journal appended to by several consecutive runs is still one valid journal,
+ * and an entry cut short by a crash can be recognised and ignored.
+ */
+final class JournalFormat {
+
+    static final byte[] MAGIC = {'T', 'P', 'L', 'J'};
+    static final byte VERSION = 1;
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+    static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+    static final int MAX_ENTRY_BYTES = 16 * 1024 * 1024;
+
+    private static final int FIXED_BYTES = 4 * Long.BYTES + 1 + 2 * Integer.BYTES;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final JournalOutcome[] OUTCOMES = JournalOutcome.values();
+
+    private JournalFormat() { }
+
+    static boolean isHeader(byte[] leading) {
+        return leading.length >= HEADER_LENGTH
+                && Arrays.equals(leading, 0, MAGIC.length, MAGIC, 0, MAGIC.length)
+                && leading[MAGIC.length] == VERSION;
+    }
+
+    /**
+     * Length of the encoded entry without its length prefix.
+     */
+    static int bodyLength(JournalEntry entry, byte[] message) {
+        return FIXED_BYTES + message.length + entry.input().length;
+    }
+
+    static byte[] messageBytes(JournalEntry entry) {
+        return entry.message().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Puts the length prefix and the entry; {@code buffer} must have room for {@code bodyLength} plus the prefix.
+     */
+    static void encode(JournalEntry entry, byte[] message, ByteBuffer buffer) {
+        Instant recordedAt = entry.recordedAt();
+        buffer.putInt(bodyLength(entry, message))
+                .putLong(recordedAt.getEpochSecond() * NANOS_PER_SECOND + recordedAt.getNano())
+                .putLong(entry.sanitizeNanos())
+                .putLong(entry.calculateNanos())
+                .put((byte) entry.outcome().ordinal())
+                .putLong(Double.doubleToRawLongBits(entry.result()))
+                .putInt(message.length)
+                .put(message)
+                .putInt(entry.input().length)
+                .put(entry.input());
+    }
+
+    /**
+     * Decodes an entry body, the bytes after its length prefix.
+     *
+     * @throws IllegalArgumentException if the body is not a well-formed entry
+     */
+    static JournalEntry decode(ByteBuffer body) {
+        if (body.remaining() < FIXED_BYTES) {
+            throw new IllegalArgumentException("Journal entry of " + body.remaining() + " bytes is too short");
+        }
+        long epochNanos = body.getLong();
+        long sanitizeNanos = body.getLong();
+        long calculateNanos = body.getLong();
+        int outcome = body.get();
+        if (outcome < 0 || outcome >= OUTCOMES.length) {
+            throw new IllegalArgumentException("Unknown journal outcome: " + outcome);
+        }
+        double result = Double.longBitsToDouble(body.getLong());
+        String message = new String(slice(body), StandardCharsets.UTF_8);
+        byte[] input = slice(body);
+        return new JournalEntry(Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND)), input, sanitizeNanos, calculateNanos,
+                OUTCOMES[outcome], result, message);
+    }
+
+    private static byte[] slice(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0 || length > body.remaining()) {
+            throw new IllegalArgumentException("Journal field of " + length + " bytes overruns its entry");
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return bytes;
+    }
+}
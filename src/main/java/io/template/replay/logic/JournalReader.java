@@ -0,0 +1,102 @@
+package io.template.replay.logic;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.template.replay.exceptions.JournalException;
+import io.template.replay.models.JournalEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the entries of an input journal in the order they were recorded.
+ * <p>
+ * A last entry cut short, as left by a process that died while writing it, ends the journal with a warning
+ * instead of failing the whole read.
+ */
+public final class JournalReader implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalReader.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path journal;
+    private final DataInputStream in;
+    private long entriesRead;
+
+    /**
+     * @throws JournalException if the file cannot be read or is not a journal
+     */
+    public JournalReader(Path journal) {
+        this.journal = journal;
+        this.in = open(journal);
+    }
+
+    /**
+     * Returns the next entry, or {@code null} once the journal is exhausted.
+     *
+     * @throws JournalException if an entry is corrupt or the file cannot be read
+     */
+    public JournalEntry next() {
+        try {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            if (length < 0 || length > JournalFormat.MAX_ENTRY_BYTES) {
+                throw new JournalException("Corrupt entry " + entriesRead + " of " + length + " bytes in " + journal);
+            }
+            byte[] body = in.readNBytes(length);
+            if (body.length < length) {
+                LOGGER.warn("Ignoring truncated entry {} at the end of {}", entriesRead, journal);
+                return null;
+            }
+            JournalEntry entry = JournalFormat.decode(ByteBuffer.wrap(body));
+            entriesRead++;
+            return entry;
+        } catch (IllegalArgumentException e) {
+            throw new JournalException("Corrupt entry " + entriesRead + " in " + journal, e);
+        } catch (IOException e) {
+            throw new JournalException("Could not read input journal " + journal, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static DataInputStream open(Path journal) {
+        DataInputStream opened = null;
+        try {
+            opened = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal), BUFFER_SIZE));
+            if (!JournalFormat.isHeader(opened.readNBytes(JournalFormat.HEADER_LENGTH))) {
+                throw new JournalException("Not an input journal: " + journal);
+            }
+            return opened;
+        } catch (IOException e) {
+            closeQuietly(opened);
+            throw new JournalException("Could not read input journal " + journal, e);
+        } catch (JournalException e) {
+            closeQuietly(opened);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(DataInputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            LOGGER.debug("Could not close input journal", e);
+        }
+    }
+}
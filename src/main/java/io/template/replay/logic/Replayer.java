@@ -0,0 +1,172 @@
+package io.template.replay.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.inject.Inject;
+import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.bootstrap.logic.Executor;
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.replay.exceptions.JournalException;
+import io.template.replay.models.JournalEntry;
+import io.template.replay.models.JournalOutcome;
+import io.template.replay.models.ReplayReport;
+import io.template.samplebusinesslayer.logic.Calculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Feeds a journal recorded by {@link InputJournal} back through the same stages as a single-input invocation of
+ * {@link Executor}, and compares what happens now with what was recorded.
+ * <p>
+ * Entries are replayed one at a time on the calling thread, at the recorded pace divided by {@code speed}: 1
+ * reproduces the original arrival times, 10 replays ten times faster and 0 replays as fast as possible. Every
+ * entry whose outcome, result or message differs is counted and the first few are logged. Latencies are
+ * compared as percentiles, since the first replayed entries run on a cold JIT while the recorded ones may not
+ * have.
+ */
+public class Replayer {
+
+    static final int LOGGED_MISMATCHES = 10;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Replayer.class);
+
+    private final InputSanitizer inputSanitizer;
+    private final Calculator calculator;
+
+    @Inject
+    public Replayer(InputSanitizer inputSanitizer, Calculator calculator) {
+        this.inputSanitizer = inputSanitizer;
+        this.calculator = calculator;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code speed} is negative or not a number
+     * @throws JournalException if the journal cannot be read
+     */
+    public ReplayReport replay(Path journal, double speed) {
+        if (!(speed >= 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be a finite number of at least 0, got: " + speed);
+        }
+        Latencies recordedSanitize = new Latencies();
+        Latencies replayedSanitize = new Latencies();
+        Latencies recordedCalculate = new Latencies();
+        Latencies replayedCalculate = new Latencies();
+        long entries = 0;
+        long mismatches = 0;
+
+        try (JournalReader reader = new JournalReader(journal)) {
+            long replayStart = System.nanoTime();
+            JournalEntry first = null;
+            for (JournalEntry recorded = reader.next(); recorded != null; recorded = reader.next()) {
+                if (first == null) {
+                    first = recorded;
+                }
+                if (speed > 0) {
+                    long offsetNanos = Duration.between(first.recordedAt(), recorded.recordedAt()).toNanos();
+                    waitUntil(replayStart + (long) (offsetNanos / speed));
+                }
+                JournalEntry replayed = execute(recorded.input());
+                if (!replayed.sameOutcomeAs(recorded)) {
+                    if (mismatches < LOGGED_MISMATCHES) {
+                        LOGGER.warn("Entry {} recorded at {} was {} {} {} but replayed as {} {} {}", entries,
+                                recorded.recordedAt(), recorded.outcome(), recorded.result(), recorded.message(),
+                                replayed.outcome(), replayed.result(), replayed.message());
+                    }
+                    mismatches++;
+                }
+                recordedSanitize.add(recorded.sanitizeNanos());
+                replayedSanitize.add(replayed.sanitizeNanos());
+                if (recorded.outcome() == JournalOutcome.ACCEPTED) {
+                    recordedCalculate.add(recorded.calculateNanos());
+                }
+                if (replayed.outcome() == JournalOutcome.ACCEPTED) {
+                    replayedCalculate.add(replayed.calculateNanos());
+                }
+                entries++;
+            }
+        } catch (IOException e) {
+            throw new JournalException("Could not close input journal " + journal, e);
+        }
+
+        return new ReplayReport(entries, mismatches, compare(recordedSanitize, replayedSanitize),
+                compare(recordedCalculate, replayedCalculate));
+    }
+
+    /**
+     * Runs {@code input} as {@link Executor} does and captures it the way {@link InputJournal} would have.
+     */
+    private JournalEntry execute(byte[] input) {
+        String[] args = {new String(input, StandardCharsets.UTF_8)};
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        try {
+            inputSanitizer.sanitize(args);
+        } catch (InvalidInputException e) {
+            return JournalEntry.unaccepted(startedAt, input, System.nanoTime() - start, 0, JournalOutcome.REJECTED,
+                    e.getMessage());
+        } catch (RuntimeException e) {
+            return JournalEntry.unaccepted(startedAt, input, System.nanoTime() - start, 0, JournalOutcome.FAILED,
+                    e.getMessage());
+        }
+        long sanitized = System.nanoTime();
+        try {
+            double result = calculator.calculate(Executor.SAMPLE_REQUEST).result();
+            return JournalEntry.accepted(startedAt, input, sanitized - start, System.nanoTime() - sanitized, result);
+        } catch (RuntimeException e) {
+            return JournalEntry.unaccepted(startedAt, input, sanitized - start, System.nanoTime() - sanitized,
+                    JournalOutcome.FAILED, e.getMessage());
+        }
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        for (long remaining = deadlineNanos - System.nanoTime(); remaining > 0;
+                remaining = deadlineNanos - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static ReplayReport.StageLatency compare(Latencies recorded, Latencies replayed) {
+        recorded.sort();
+        replayed.sort();
+        return new ReplayReport.StageLatency(
+                recorded.percentile(0.50), replayed.percentile(0.50),
+                recorded.percentile(0.99), replayed.percentile(0.99),
+                recorded.percentile(1.0), replayed.percentile(1.0));
+    }
+
+    /**
+     * Growable array of latencies in nanoseconds.
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        /**
+         * Nearest-rank percentile of the sorted values, 0 when there are none.
+         */
+        long percentile(double fraction) {
+            if (size == 0) {
+                return 0;
+            }
+            return values[Math.max(0, (int) Math.ceil(fraction * size) - 1)];
+        }
+    }
+}
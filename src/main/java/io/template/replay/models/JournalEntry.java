@@ -0,0 +1,46 @@
+package io.template.replay.models;
+
+import java.time.Instant;
+
+/**
+ * One single-input invocation captured in an input journal.
+ *
+ * @param recordedAt Wall-clock time the invocation started
+ * @param input Raw input bytes, UTF-8 as received
+ * @param sanitizeNanos Time spent sanitizing the input
+ * @param calculateNanos Time spent calculating, 0 when sanitization did not accept the input
+ * @param outcome How the invocation ended
+ * @param result Calculated result, {@code NaN} unless {@link JournalOutcome#ACCEPTED}
+ * @param message Rejection or failure message, empty when {@link JournalOutcome#ACCEPTED}
+ */
+public record JournalEntry(
+        Instant recordedAt,
+        byte[] input,
+        long sanitizeNanos,
+        long calculateNanos,
+        JournalOutcome outcome,
+        double result,
+        String message
+) {
+
+    public static JournalEntry accepted(
+            Instant recordedAt, byte[] input, long sanitizeNanos, long calculateNanos, double result) {
+        return new JournalEntry(recordedAt, input, sanitizeNanos, calculateNanos, JournalOutcome.ACCEPTED, result, "");
+    }
+
+    public static JournalEntry unaccepted(
+            Instant recordedAt, byte[] input, long sanitizeNanos, long calculateNanos, JournalOutcome outcome,
+            String message) {
+        return new JournalEntry(recordedAt, input, sanitizeNanos, calculateNanos, outcome, Double.NaN,
+                message == null ? "" : message);
+    }
+
+    /**
+     * Whether {@code other} ended the same way: same outcome, same result bits and same message.
+     */
+    public boolean sameOutcomeAs(JournalEntry other) {
+        return outcome == other.outcome
+                && Double.compare(result, other.result) == 0
+                && message.equals(other.message);
+    }
+}
@@ -0,0 +1,22 @@
+package io.template.replay.models;
+
+/**
+ * How a journaled invocation ended.
+ */
+public enum JournalOutcome {
+
+    /**
+     * Sanitized and calculated; the entry carries the result.
+     */
+    ACCEPTED,
+
+    /**
+     * Rejected by input sanitization; the entry carries the rejection message.
+     */
+    REJECTED,
+
+    /**
+     * Failed with any other exception; the entry carries its message.
+     */
+    FAILED
+}
@@ -0,0 +1,29 @@
+package io.template.replay.models;
+
+/**
+ * Outcome of replaying an input journal.
+ *
+ * @param entries Entries replayed
+ * @param mismatches Entries whose replayed outcome, result or message differs from the recorded one
+ * @param sanitize Recorded and replayed latency of input sanitization
+ * @param calculate Recorded and replayed latency of the calculation, over accepted entries
+ */
+public record ReplayReport(
+        long entries,
+        long mismatches,
+        StageLatency sanitize,
+        StageLatency calculate
+) {
+
+    /**
+     * Latency percentiles of one stage, as recorded and as replayed, in nanoseconds.
+     */
+    public record StageLatency(
+            long recordedP50Nanos,
+            long replayedP50Nanos,
+            long recordedP99Nanos,
+            long replayedP99Nanos,
+            long recordedMaxNanos,
+            long replayedMaxNanos
+    ) { }
+}
@@ -0,0 +1,17 @@
+package io.template.resultcache.exceptions;
+
+/**
+ * Thrown when the shared result cache file cannot be created or mapped, or is not a valid cache file.
+ */
+public final class ResultCacheException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResultCacheException(String message) {
+        super(message);
+    }
+
+    public ResultCacheException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
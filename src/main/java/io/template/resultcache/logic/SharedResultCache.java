@@ -0,0 +1,301 @@
+package io.template.resultcache.logic;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.template.resultcache.exceptions.ResultCacheException;
+import io.template.resultcache.models.ResultCacheMetrics;
+import io.template.shared.utilities.HashingUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed-size hash table of calculation results in a memory-mapped file, shared by every process on the host that
+ * maps the same file, so results outlive the short-lived processes that computed them.
+ * <p>
+ * Layout, in longs of native byte order:
+ * <pre>
+ *   header: magic, format version, slot count, slot size, checksum of the preceding four
+ *   slots:  sequence, operand A bits, operand B bits, operation code, result bits, checksum of the four before it
+ * </pre>
+ * The header and every slot take one 64-byte cache line, so processes updating neighbouring slots do not
+ * contend. Slots are updated without locks, seqlock style, through a {@link VarHandle} on the mapped segment: a
+ * writer claims a slot by moving its sequence from even to odd with a compare-and-set, writes the fields and
+ * publishes the next even sequence. A reader only trusts fields read between two identical even sequences, and
+ * writers never wait: a slot held by another writer is simply not stored to. A slot whose fields do not match its
+ * checksum is skipped and counted instead of returning a wrong result. A process killed halfway through a store
+ * leaves that one slot unusable until the file is deleted.
+ * <p>
+ * A key probes {@link #PROBE_LENGTH} consecutive slots. A store takes the first empty one, or overwrites the first
+ * one when all are taken; slots are never emptied again, so a lookup stops at the first empty slot.
+ * <p>
+ * Enabled with {@code -Dio.template.resultCache=<file>}; without it nothing is mapped and every lookup misses.
+ * The file is created on first use and has to be deleted to change its size or format. Lookups and stores may run
+ * concurrently, but not concurrently with {@link #close()}, which unmaps the file.
+ */
+@Singleton
+public class SharedResultCache implements AutoCloseable {
+
+    static final String PROPERTY = "io.template.resultCache";
+    static final int DEFAULT_SLOTS = 1 << 16;
+    static final int PROBE_LENGTH = 4;
+    static final long MAGIC = 0x54504C5253434143L;
+    static final long VERSION = 1;
+    static final long LINE_BYTES = 64;
+
+    // Offsets of the header fields and of the fields within a slot
+    static final long HEADER_VERSION = Long.BYTES;
+    static final long HEADER_SLOTS = 2L * Long.BYTES;
+    static final long HEADER_SLOT_BYTES = 3L * Long.BYTES;
+    static final long HEADER_CHECKSUM = 4L * Long.BYTES;
+    static final long SEQUENCE = 0;
+    static final long OPERAND_A = Long.BYTES;
+    static final long OPERAND_B = 2L * Long.BYTES;
+    static final long OPERATION = 3L * Long.BYTES;
+    static final long RESULT = 4L * Long.BYTES;
+    static final long CHECKSUM = 5L * Long.BYTES;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedResultCache.class);
+    private static final VarHandle LONG = ValueLayout.JAVA_LONG.varHandle();
+
+    private final Path file;
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final long slotMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder contendedStores = new LongAdder();
+    private final LongAdder corruptSlots = new LongAdder();
+
+    @Inject
+    public SharedResultCache() {
+        this(configuredFile(System.getProperty(PROPERTY)), DEFAULT_SLOTS);
+    }
+
+    /**
+     * @param file cache file to create or map, {@code null} to disable the cache
+     * @param slots number of slots, a power of two; must match an existing file
+     * @throws IllegalArgumentException if {@code slots} is not a positive power of two
+     * @throws ResultCacheException if the file cannot be created or mapped, or is not a cache of this size and format
+     */
+    SharedResultCache(Path file, int slots) {
+        if (slots <= 0 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Result cache slots must be a positive power of two, got: " + slots);
+        }
+        this.file = file;
+        this.slotMask = slots - 1;
+        if (file == null) {
+            this.arena = null;
+            this.segment = null;
+            return;
+        }
+        this.arena = Arena.ofShared();
+        try {
+            this.segment = map(file, slots, arena);
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+        LOGGER.info("Sharing calculation results through {}", file);
+    }
+
+    /**
+     * A cache that stores nothing, for callers constructed without injection.
+     */
+    public static SharedResultCache disabled() {
+        return new SharedResultCache(null, DEFAULT_SLOTS);
+    }
+
+    public boolean isEnabled() {
+        return segment != null;
+    }
+
+    /**
+     * The result stored for the operands and {@code operation}, if any process has stored one.
+     *
+     * @param operation code identifying the operation and everything else its result depends on
+     */
+    public OptionalDouble get(double operandA, double operandB, long operation) {
+        if (segment == null) {
+            return OptionalDouble.empty();
+        }
+        long a = Double.doubleToRawLongBits(operandA);
+        long b = Double.doubleToRawLongBits(operandB);
+        long home = home(a, b, operation);
+        for (int probe = 0; probe < PROBE_LENGTH; probe++) {
+            long slot = slotOffset(home + probe);
+            long sequence = (long) LONG.getAcquire(segment, slot + SEQUENCE);
+            if (sequence == 0) {
+                break;
+            }
+            if ((sequence & 1) != 0) {
+                continue;
+            }
+            long storedA = (long) LONG.getOpaque(segment, slot + OPERAND_A);
+            long storedB = (long) LONG.getOpaque(segment, slot + OPERAND_B);
+            long storedOperation = (long) LONG.getOpaque(segment, slot + OPERATION);
+            long result = (long) LONG.getOpaque(segment, slot + RESULT);
+            long checksum = (long) LONG.getOpaque(segment, slot + CHECKSUM);
+            VarHandle.loadLoadFence();
+            if ((long) LONG.getOpaque(segment, slot + SEQUENCE) != sequence) {
+                // Rewritten while it was being read
+                continue;
+            }
+            if (checksum != checksum(storedA, storedB, storedOperation, result)) {
+                corruptSlots.increment();
+                continue;
+            }
+            if (storedA == a && storedB == b && storedOperation == operation) {
+                hits.increment();
+                return OptionalDouble.of(Double.longBitsToDouble(result));
+            }
+        }
+        misses.increment();
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Stores {@code result} for the operands and {@code operation}, unless another writer holds the slot.
+     * Never blocks.
+     */
+    public void put(double operandA, double operandB, long operation, double result) {
+        if (segment == null) {
+            return;
+        }
+        long a = Double.doubleToRawLongBits(operandA);
+        long b = Double.doubleToRawLongBits(operandB);
+        long home = home(a, b, operation);
+        long slot = slotOffset(home);
+        for (int probe = 0; probe < PROBE_LENGTH; probe++) {
+            long candidate = slotOffset(home + probe);
+            if ((long) LONG.getAcquire(segment, candidate + SEQUENCE) == 0) {
+                slot = candidate;
+                break;
+            }
+        }
+        long sequence = (long) LONG.getVolatile(segment, slot + SEQUENCE);
+        if ((sequence & 1) != 0 || !LONG.compareAndSet(segment, slot + SEQUENCE, sequence, sequence + 1)) {
+            contendedStores.increment();
+            return;
+        }
+        long bits = Double.doubleToRawLongBits(result);
+        LONG.setOpaque(segment, slot + OPERAND_A, a);
+        LONG.setOpaque(segment, slot + OPERAND_B, b);
+        LONG.setOpaque(segment, slot + OPERATION, operation);
+        LONG.setOpaque(segment, slot + RESULT, bits);
+        LONG.setOpaque(segment, slot + CHECKSUM, checksum(a, b, operation, bits));
+        LONG.setRelease(segment, slot + SEQUENCE, sequence + 2);
+        stores.increment();
+    }
+
+    public ResultCacheMetrics metrics() {
+        return new ResultCacheMetrics(hits.sum(), misses.sum(), stores.sum(), contendedStores.sum(),
+                corruptSlots.sum());
+    }
+
+    /**
+     * Unmaps the file; the results stay in it for other processes.
+     */
+    @Override
+    public void close() {
+        if (arena == null) {
+            return;
+        }
+        ResultCacheMetrics metrics = metrics();
+        LOGGER.info("Result cache {}: {} hits, {} misses, {} stores, {} contended stores, {} corrupt slots", file,
+                metrics.hits(), metrics.misses(), metrics.stores(), metrics.contendedStores(),
+                metrics.corruptSlots());
+        arena.close();
+    }
+
+    private long slotOffset(long index) {
+        return LINE_BYTES + (index & slotMask) * LINE_BYTES;
+    }
+
+    private static long home(long a, long b, long operation) {
+        return HashingUtility.hash64(a ^ HashingUtility.hash64(b ^ HashingUtility.hash64(operation)));
+    }
+
+    static long checksum(long a, long b, long operation, long result) {
+        return HashingUtility.hash64(result ^ home(a, b, operation));
+    }
+
+    static long headerChecksum(long version, long slots, long slotBytes) {
+        return HashingUtility.hash64(MAGIC ^ HashingUtility.hash64(version
+                ^ HashingUtility.hash64(slots ^ HashingUtility.hash64(slotBytes))));
+    }
+
+    private static Path configuredFile(String property) {
+        return property == null || property.isBlank() ? null : Path.of(property.strip());
+    }
+
+    /**
+     * Creates and initializes the file, or validates the existing one, under an exclusive file lock so that
+     * processes starting together agree on its contents.
+     */
+    private static MemorySegment map(Path file, int slots, Arena arena) {
+        long size = LINE_BYTES + slots * LINE_BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return initialize(channel, file, slots, size, arena);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new ResultCacheException("Could not map result cache " + file, e);
+        }
+    }
+
+    private static MemorySegment initialize(FileChannel channel, Path file, int slots, long size, Arena arena)
+            throws IOException {
+        long existing = channel.size();
+        if (existing != 0 && existing != size) {
+            throw new ResultCacheException("Result cache " + file + " has " + existing + " bytes instead of "
+                    + size + "; delete it to recreate it");
+        }
+        // Mapping past the end grows the file, and the new bytes read as zero: every slot starts empty
+        MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+        if (existing == 0) {
+            segment.set(ValueLayout.JAVA_LONG, 0, MAGIC);
+            segment.set(ValueLayout.JAVA_LONG, HEADER_VERSION, VERSION);
+            segment.set(ValueLayout.JAVA_LONG, HEADER_SLOTS, slots);
+            segment.set(ValueLayout.JAVA_LONG, HEADER_SLOT_BYTES, LINE_BYTES);
+            segment.set(ValueLayout.JAVA_LONG, HEADER_CHECKSUM, headerChecksum(VERSION, slots, LINE_BYTES));
+            segment.force();
+        } else {
+            validateHeader(segment, file, slots);
+        }
+        return segment;
+    }
+
+    private static void validateHeader(MemorySegment segment, Path file, int slots) {
+        long version = segment.get(ValueLayout.JAVA_LONG, HEADER_VERSION);
+        long storedSlots = segment.get(ValueLayout.JAVA_LONG, HEADER_SLOTS);
+        long slotBytes = segment.get(ValueLayout.JAVA_LONG, HEADER_SLOT_BYTES);
+        if (segment.get(ValueLayout.JAVA_LONG, 0) != MAGIC) {
+            throw new ResultCacheException("Not a result cache: " + file);
+        }
+        if (segment.get(ValueLayout.JAVA_LONG, HEADER_CHECKSUM) != headerChecksum(version, storedSlots, slotBytes)) {
+            throw new ResultCacheException("Result cache " + file + " has a corrupt header; delete it to recreate it");
+        }
+        if (version != VERSION || storedSlots != slots || slotBytes != LINE_BYTES) {
+            throw new ResultCacheException("Result cache " + file + " has format version " + version + " with "
+                    + storedSlots + " slots, expected version " + VERSION + " with " + slots
+                    + " slots; delete it to recreate it");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.template.resultcache.models;
+
+/**
+ * Point-in-time view of this process's use of the shared result cache.
+ *
+ * @param hits Lookups answered from the cache
+ * @param misses Lookups that found no usable entry
+ * @param stores Results written to the cache
+ * @param contendedStores Results not written because another writer held the slot
+ * @param corruptSlots Slots skipped because their contents did not match their checksum
+ */
+public record ResultCacheMetrics(
+        long hits,
+        long misses,
+        long stores,
+        long contendedStores,
+        long corruptSlots
+) {
+
+    /**
+     * Fraction of lookups answered from the cache.
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
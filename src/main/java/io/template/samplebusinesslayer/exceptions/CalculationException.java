@@ -1,13 +1,16 @@
 package io.template.samplebusinesslayer.exceptions;
 
+import io.template.shared.utilities.StackTraceUtility;
+
 /**
  * Exception thrown when calculation fails.
+ * Captures a stack trace only while {@link StackTraceUtility#isCapturing()}.
  */
 public class CalculationException extends RuntimeException {
 
     private static final long serialVersionUID = 1L;
 
     public CalculationException(String message) {
-        super(message);
+        super(message, null, true, StackTraceUtility.isCapturing());
     }
 }
@@ -1,35 +1,164 @@
 package io.template.samplebusinesslayer.logic;
 
 import java.util.Locale;
+import java.util.OptionalDouble;
 
 import com.google.inject.Inject;
+import io.template.resultcache.logic.SharedResultCache;
 import io.template.samplebusinesslayer.exceptions.CalculationException;
 import io.template.samplebusinesslayer.models.CalculationRequest;
 import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.NumericMode;
+import io.template.shared.models.NumericSettings;
+import io.template.shared.models.Result;
 
 /**
  * Simple calculator service demonstrating business logic.
+ * The arithmetic is selected per request through {@link CalculationRequest#numericMode()}; requests that do not
+ * choose one use the {@link NumericSettings#mode()} the calculator is configured with, from the optional
+ * {@code NUMERIC_*} variables. Results are {@code double}s whatever the arithmetic: an exact decimal or fixed-point
+ * result is output as the nearest {@code double}, which keeps 15 to 17 significant digits.
+ * {@link #tryCalculate(CalculationRequest)} reports failures as a {@link Result} instead of throwing.
+ * Successful results are shared with other processes through the {@link SharedResultCache} when it is enabled.
  */
 public class Calculator {
 
+    static final int DEFAULT_DECIMAL_PRECISION = NumericSettings.DEFAULT.decimalPrecision();
+    static final int DEFAULT_FIXED_POINT_SCALE = NumericSettings.DEFAULT.fixedPointScale();
+    // Never a valid operation code, see operationCode(String, NumericMode)
+    static final long UNCACHEABLE = 0;
+
+    private final NumericBackend doubleBackend = new DoubleBackend();
+    private final NumericBackend decimalBackend;
+    private final NumericBackend fixedPointBackend;
+    private final NumericMode defaultMode;
+    private final int decimalPrecision;
+    private final int fixedPointScale;
+    private final SharedResultCache resultCache;
+
+    /**
+     * Calculator with the arithmetic configured by the optional {@code NUMERIC_*} variables.
+     */
     @Inject
-    public Calculator() { }
+    public Calculator(EnvironmentVariables environmentVariables, SharedResultCache resultCache) {
+        this(environmentVariables.numericSettings(), resultCache);
+    }
+
+    public Calculator(SharedResultCache resultCache) {
+        this(NumericSettings.DEFAULT, resultCache);
+    }
+
+    public Calculator() {
+        this(NumericSettings.DEFAULT);
+    }
+
+    /**
+     * @param decimalPrecision significant digits kept by {@link NumericMode#DECIMAL}, at least 1
+     * @param fixedPointScale decimal places kept by {@link NumericMode#FIXED_POINT}
+     */
+    public Calculator(int decimalPrecision, int fixedPointScale) {
+        this(new NumericSettings(NumericSettings.DEFAULT.mode(), decimalPrecision, fixedPointScale));
+    }
+
+    public Calculator(NumericSettings settings) {
+        this(settings, SharedResultCache.disabled());
+    }
+
+    Calculator(NumericSettings settings, SharedResultCache resultCache) {
+        this.defaultMode = settings.mode();
+        this.decimalPrecision = settings.decimalPrecision();
+        this.fixedPointScale = settings.fixedPointScale();
+        this.resultCache = resultCache;
+        this.decimalBackend = new DecimalBackend(DecimalBackend.contextForPrecision(decimalPrecision));
+        this.fixedPointBackend = new FixedPointBackend(fixedPointScale);
+    }
 
     public CalculationResult calculate(CalculationRequest request) {
+        return tryCalculate(request).orElseThrow(CalculationException::new);
+    }
+
+    /**
+     * Same as {@link #calculate(CalculationRequest)}, returning failures instead of throwing. Division by zero and
+     * unknown operations cost no exception; the rare arithmetic failures inside a backend, such as fixed-point
+     * overflow, are still thrown there and converted, including any {@link ArithmeticException}.
+     */
+    public Result<CalculationResult> tryCalculate(CalculationRequest request) {
+        if (!resultCache.isEnabled()) {
+            return compute(request);
+        }
+        long operationCode = operationCode(request.operation().toUpperCase(Locale.ROOT), request.numericMode());
+        if (operationCode == UNCACHEABLE) {
+            return compute(request);
+        }
+        OptionalDouble cached = resultCache.get(request.operandA(), request.operandB(), operationCode);
+        if (cached.isPresent()) {
+            return Result.success(new CalculationResult(cached.getAsDouble(), request.operation()));
+        }
+        Result<CalculationResult> result = compute(request);
+        if (result instanceof Result.Success<CalculationResult>(CalculationResult calculated)) {
+            resultCache.put(request.operandA(), request.operandB(), operationCode, calculated.result());
+        }
+        return result;
+    }
+
+    private Result<CalculationResult> compute(CalculationRequest request) {
+        NumericBackend backend = backendFor(request.numericMode());
         String operation = request.operation().toUpperCase(Locale.ROOT);
-        double result = switch (operation) {
-            case "ADD" -> request.operandA() + request.operandB();
-            case "SUBTRACT" -> request.operandA() - request.operandB();
-            case "MULTIPLY" -> request.operandA() * request.operandB();
-            case "DIVIDE" -> {
-                if (request.operandB() == 0) {
-                    throw new CalculationException("Division by zero");
+        double result;
+        try {
+            switch (operation) {
+                case "ADD" -> result = backend.add(request.operandA(), request.operandB());
+                case "SUBTRACT" -> result = backend.subtract(request.operandA(), request.operandB());
+                case "MULTIPLY" -> result = backend.multiply(request.operandA(), request.operandB());
+                case "DIVIDE" -> {
+                    if (request.operandB() == 0) {
+                        return Result.failure("Division by zero");
+                    }
+                    result = backend.divide(request.operandA(), request.operandB());
+                }
+                default -> {
+                    return Result.failure("Unknown operation: " + request.operation());
                 }
-                yield request.operandA() / request.operandB();
             }
-            default -> throw new CalculationException("Unknown operation: " + request.operation());
+        } catch (CalculationException e) {
+            return Result.failure(e.getMessage());
+        } catch (ArithmeticException | NumberFormatException e) {
+            return Result.failure(operation + " failed: " + e.getMessage());
+        }
+
+        return Result.success(new CalculationResult(result, request.operation()));
+    }
+
+    /**
+     * Identifies the operation together with the arithmetic settings its result depends on, so that processes
+     * configured differently never share results; {@link #UNCACHEABLE} for unknown operations.
+     */
+    long operationCode(String operation, NumericMode numericMode) {
+        long operationIndex = switch (operation) {
+            case "ADD" -> 1;
+            case "SUBTRACT" -> 2;
+            case "MULTIPLY" -> 3;
+            case "DIVIDE" -> 4;
+            default -> UNCACHEABLE;
         };
+        if (operationIndex == UNCACHEABLE) {
+            return UNCACHEABLE;
+        }
+        NumericMode mode = numericMode == null ? defaultMode : numericMode;
+        long setting = switch (mode) {
+            case DOUBLE -> 0;
+            case DECIMAL -> decimalPrecision;
+            case FIXED_POINT -> fixedPointScale;
+        };
+        return operationIndex | (long) mode.ordinal() << Byte.SIZE | setting << Short.SIZE;
+    }
 
-        return new CalculationResult(result, request.operation());
+    private NumericBackend backendFor(NumericMode numericMode) {
+        return switch (numericMode == null ? defaultMode : numericMode) {
+            case DOUBLE -> doubleBackend;
+            case DECIMAL -> decimalBackend;
+            case FIXED_POINT -> fixedPointBackend;
+        };
     }
 }
@@ -0,0 +1,82 @@
+package io.template.samplebusinesslayer.logic;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import io.template.samplebusinesslayer.exceptions.CalculationException;
+
+/**
+ * {@link BigDecimal} arithmetic on the shortest decimal representation of each operand,
+ * so {@code 0.1 + 0.2} is exactly {@code 0.3}. The result is rounded to a {@code double} only once, at the end.
+ * Non-finite operands have no decimal form and fail with a {@link CalculationException}.
+ */
+final class DecimalBackend implements NumericBackend {
+
+    static final int MAX_POOLED_PRECISION = 64;
+
+    // MathContext is immutable, so one instance per precision is shared instead of allocating per call
+    private static final MathContext[] POOLED_CONTEXTS = createPooledContexts();
+
+    private final MathContext mathContext;
+
+    /**
+     * @param mathContext limited to at least one significant digit, so that every division terminates
+     */
+    DecimalBackend(MathContext mathContext) {
+        requirePrecision(mathContext.getPrecision());
+        this.mathContext = mathContext;
+    }
+
+    /**
+     * Shared context rounding half-even to the given number of significant digits.
+     */
+    static MathContext contextForPrecision(int precision) {
+        requirePrecision(precision);
+        if (precision > MAX_POOLED_PRECISION) {
+            return new MathContext(precision, RoundingMode.HALF_EVEN);
+        }
+        return POOLED_CONTEXTS[precision];
+    }
+
+    @Override
+    public double add(double operandA, double operandB) {
+        return decimal(operandA).add(decimal(operandB), mathContext).doubleValue();
+    }
+
+    @Override
+    public double subtract(double operandA, double operandB) {
+        return decimal(operandA).subtract(decimal(operandB), mathContext).doubleValue();
+    }
+
+    @Override
+    public double multiply(double operandA, double operandB) {
+        return decimal(operandA).multiply(decimal(operandB), mathContext).doubleValue();
+    }
+
+    @Override
+    public double divide(double operandA, double operandB) {
+        return decimal(operandA).divide(decimal(operandB), mathContext).doubleValue();
+    }
+
+    private static BigDecimal decimal(double operand) {
+        if (!Double.isFinite(operand)) {
+            throw new CalculationException("Decimal arithmetic needs finite operands");
+        }
+        return BigDecimal.valueOf(operand);
+    }
+
+    private static void requirePrecision(int precision) {
+        if (precision < 1) {
+            throw new IllegalArgumentException("Decimal precision must be at least 1");
+        }
+    }
+
+    private static MathContext[] createPooledContexts() {
+        MathContext[] contexts = new MathContext[MAX_POOLED_PRECISION + 1];
+        for (int precision = 1; precision <= MAX_POOLED_PRECISION; precision++) {
+            contexts[precision] = new MathContext(precision, RoundingMode.HALF_EVEN);
+        }
+        return contexts;
+    }
+}
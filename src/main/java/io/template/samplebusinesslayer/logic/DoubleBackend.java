@@ -0,0 +1,27 @@
+package io.template.samplebusinesslayer.logic;
+
+/**
+ * Plain {@code double} arithmetic.
+ */
+final class DoubleBackend implements NumericBackend {
+
+    @Override
+    public double add(double operandA, double operandB) {
+        return operandA + operandB;
+    }
+
+    @Override
+    public double subtract(double operandA, double operandB) {
+        return operandA - operandB;
+    }
+
+    @Override
+    public double multiply(double operandA, double operandB) {
+        return operandA * operandB;
+    }
+
+    @Override
+    public double divide(double operandA, double operandB) {
+        return operandA / operandB;
+    }
+}
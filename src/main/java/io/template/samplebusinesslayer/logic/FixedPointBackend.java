@@ -0,0 +1,121 @@
+package io.template.samplebusinesslayer.logic;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import io.template.samplebusinesslayer.exceptions.CalculationException;
+import io.template.shared.models.NumericSettings;
+
+/**
+ * Fixed-point arithmetic on {@code long}s scaled by {@code 10^scale}.
+ * <p>
+ * Operands are rounded to {@code scale} decimal places on the way in. Every step uses the exact
+ * {@link Math} operations, so any overflow fails with a {@link CalculationException} instead of wrapping.
+ * Products and quotients are rescaled through a 128-bit intermediate, so only a result that does not fit fails,
+ * and are rounded half-even at the fixed scale.
+ */
+final class FixedPointBackend implements NumericBackend {
+
+    static final int MAX_SCALE = NumericSettings.MAX_FIXED_POINT_SCALE;
+
+    private final long factor;
+
+    FixedPointBackend(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Fixed-point scale must be between 0 and " + MAX_SCALE);
+        }
+        long value = 1;
+        for (int i = 0; i < scale; i++) {
+            value *= 10;
+        }
+        this.factor = value;
+    }
+
+    @Override
+    public double add(double operandA, double operandB) {
+        try {
+            return toDouble(Math.addExact(toFixed(operandA), toFixed(operandB)));
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
+    }
+
+    @Override
+    public double subtract(double operandA, double operandB) {
+        try {
+            return toDouble(Math.subtractExact(toFixed(operandA), toFixed(operandB)));
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
+    }
+
+    @Override
+    public double multiply(double operandA, double operandB) {
+        try {
+            return toDouble(scaledQuotient(toFixed(operandA), toFixed(operandB), factor));
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
+    }
+
+    @Override
+    public double divide(double operandA, double operandB) {
+        long divisor = toFixed(operandB);
+        if (divisor == 0) {
+            throw new CalculationException("Division by zero at fixed-point scale");
+        }
+        try {
+            return toDouble(scaledQuotient(toFixed(operandA), factor, divisor));
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
+    }
+
+    /**
+     * {@code a * b / divisor}, rounded half-even. The product is computed in 128 bits; it takes the
+     * {@link BigDecimal} path only when it does not fit in a {@code long}.
+     *
+     * @throws ArithmeticException if the quotient does not fit in a {@code long}
+     */
+    static long scaledQuotient(long a, long b, long divisor) {
+        long low = a * b;
+        if (Math.multiplyHigh(a, b) == low >> 63) {
+            return divideHalfEven(low, divisor);
+        }
+        BigInteger product = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b));
+        return new BigDecimal(product)
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    private static long divideHalfEven(long dividend, long divisor) {
+        long quotient = Math.divideExact(dividend, divisor);
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder == 0) {
+            return quotient;
+        }
+        // Distance to the next multiple of the divisor; wraps to the right value for a divisor of Long.MIN_VALUE
+        long rest = Math.abs(divisor) - remainder;
+        if (remainder > rest || remainder == rest && (quotient & 1) != 0) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    private long toFixed(double operand) {
+        double scaled = Math.rint(operand * factor);
+        if (Double.isNaN(scaled) || scaled >= 0x1p63 || scaled < -0x1p63) {
+            throw overflow();
+        }
+        return (long) scaled;
+    }
+
+    private double toDouble(long fixed) {
+        return (double) fixed / factor;
+    }
+
+    private static CalculationException overflow() {
+        return new CalculationException("Fixed-point overflow");
+    }
+}
@@ -0,0 +1,17 @@
+package io.template.samplebusinesslayer.logic;
+
+/**
+ * Arithmetic for one {@link io.template.shared.models.NumericMode}.
+ * Operands and results cross the boundary as {@code double}; each backend converts internally.
+ * Division by zero is rejected by the {@link Calculator} before a backend is called.
+ */
+interface NumericBackend {
+
+    double add(double operandA, double operandB);
+
+    double subtract(double operandA, double operandB);
+
+    double multiply(double operandA, double operandB);
+
+    double divide(double operandA, double operandB);
+}
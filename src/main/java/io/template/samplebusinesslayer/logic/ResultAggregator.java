@@ -0,0 +1,103 @@
+package io.template.samplebusinesslayer.logic;
+
+import java.util.Arrays;
+
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.samplebusinesslayer.models.ResultStatistics;
+
+/**
+ * Single-pass aggregation of calculation results: count, sum, min, max, mean and a magnitude histogram.
+ * <p>
+ * The sum uses Neumaier's compensated summation, so the error does not grow with the number of results.
+ * An aggregator is not thread-safe: parallel runs keep one per thread and {@link #merge(ResultAggregator)}
+ * the partials once they are done, which needs no locking.
+ */
+public final class ResultAggregator {
+
+    static final int HISTOGRAM_BUCKETS = 64;
+    static final int HISTOGRAM_EXPONENT_OFFSET = 32;
+
+    private long count;
+    private double sum;
+    private double compensation;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final long[] histogram = new long[HISTOGRAM_BUCKETS];
+
+    public static ResultAggregator restore(ResultStatistics statistics) {
+        ResultAggregator aggregator = new ResultAggregator();
+        aggregator.count = statistics.count();
+        aggregator.sum = statistics.sum();
+        aggregator.compensation = statistics.sumCompensation();
+        aggregator.min = statistics.min();
+        aggregator.max = statistics.max();
+        System.arraycopy(statistics.histogram(), 0, aggregator.histogram, 0, HISTOGRAM_BUCKETS);
+        return aggregator;
+    }
+
+    public void accept(CalculationResult result) {
+        accept(result.result());
+    }
+
+    public void accept(double value) {
+        count++;
+        addToSum(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        histogram[bucketOf(value)]++;
+    }
+
+    /**
+     * Aggregates {@code values[from]} to {@code values[to - 1]}.
+     * Min and max are computed in their own branch-free loop, which the JIT can vectorize.
+     */
+    public void acceptAll(double[] values, int from, int to) {
+        double chunkMin = min;
+        double chunkMax = max;
+        for (int i = from; i < to; i++) {
+            chunkMin = Math.min(chunkMin, values[i]);
+            chunkMax = Math.max(chunkMax, values[i]);
+        }
+        min = chunkMin;
+        max = chunkMax;
+
+        for (int i = from; i < to; i++) {
+            addToSum(values[i]);
+            histogram[bucketOf(values[i])]++;
+        }
+        count += to - from;
+    }
+
+    /**
+     * Folds another partial aggregate into this one.
+     */
+    public void merge(ResultAggregator other) {
+        count += other.count;
+        addToSum(other.sum);
+        compensation += other.compensation;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] += other.histogram[i];
+        }
+    }
+
+    public ResultStatistics snapshot() {
+        return new ResultStatistics(count, sum, compensation, min, max, Arrays.copyOf(histogram, HISTOGRAM_BUCKETS));
+    }
+
+    private void addToSum(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - total) + value;
+        } else {
+            compensation += (value - total) + sum;
+        }
+        sum = total;
+    }
+
+    static int bucketOf(double value) {
+        int bucket = Math.getExponent(value) + HISTOGRAM_EXPONENT_OFFSET;
+        return Math.max(0, Math.min(HISTOGRAM_BUCKETS - 1, bucket));
+    }
+}
@@ -0,0 +1,238 @@
+package io.template.samplebusinesslayer.logic;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.samplebusinesslayer.models.WindowStatistics;
+import io.template.shared.models.WindowSpec;
+
+/**
+ * Streaming aggregation of calculation results into tumbling or sliding event-time windows, see
+ * {@link WindowSpec} for how windows, the watermark and lateness behave.
+ * <p>
+ * Records are aggregated into panes one slide long, and a window is the merge of the panes it spans, so a record
+ * is added once however many sliding windows contain it. Pane state is a ring of primitive arrays (count, sum,
+ * compensation, min, max) sized from the spec alone: once the watermark has passed a pane's last window plus the
+ * allowed lateness the pane is cleared, so memory depends on the number of open windows and not on the number of
+ * records. Windows are handed to the sink as soon as the watermark passes them, and again whenever a late record
+ * changes them. Not thread-safe.
+ */
+public final class WindowedAggregator {
+
+    static final int MAX_PANES = 1 << 24;
+
+    private final long slide;
+    private final long panesPerWindow;
+    private final long maxOutOfOrderness;
+    private final long allowedLateness;
+    private final Consumer<WindowStatistics> sink;
+
+    private final long[] counts;
+    private final double[] sums;
+    private final double[] compensations;
+    private final double[] mins;
+    private final double[] maxs;
+    private final int mask;
+
+    private boolean hasPanes;
+    private long lowPane;
+    private long highPane;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long watermark = Long.MIN_VALUE;
+    private long droppedRecords;
+
+    public WindowedAggregator(WindowSpec spec, Consumer<WindowStatistics> sink) {
+        this.slide = spec.slide().toMillis();
+        this.panesPerWindow = spec.size().toMillis() / slide;
+        this.maxOutOfOrderness = spec.maxOutOfOrderness().toMillis();
+        this.allowedLateness = spec.allowedLateness().toMillis();
+        this.sink = sink;
+
+        // Every live pane lies between the purge horizon and the pane of the latest record
+        long livePanes = (maxOutOfOrderness + allowedLateness) / slide + panesPerWindow + 2;
+        if (livePanes > MAX_PANES) {
+            throw new IllegalArgumentException("Window spec keeps more than " + MAX_PANES + " panes open: " + spec);
+        }
+        int capacity = Integer.highestOneBit((int) livePanes - 1) << 1;
+        this.counts = new long[capacity];
+        this.sums = new double[capacity];
+        this.compensations = new double[capacity];
+        this.mins = new double[capacity];
+        this.maxs = new double[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public void accept(Instant timestamp, CalculationResult result) {
+        accept(timestamp, result.result());
+    }
+
+    /**
+     * Adds a result at its event time, emitting every window the advancing watermark closes. A record later than
+     * the allowed lateness is dropped and counted in {@link #droppedRecords()}.
+     */
+    public void accept(Instant timestamp, double value) {
+        long time = timestamp.toEpochMilli();
+        if (time > maxTimestamp) {
+            maxTimestamp = time;
+            // Advancing first frees the panes this record no longer needs; its own windows all end after it
+            advanceTo(saturatingSubtract(time, maxOutOfOrderness));
+        }
+        long pane = Math.floorDiv(time, slide);
+        if (isPurged(pane)) {
+            droppedRecords++;
+            return;
+        }
+        add(pane, value);
+        emitUpdatesForLate(pane);
+    }
+
+    /**
+     * Moves the watermark forward without a record, for a source known to have no earlier records left, such as
+     * one that has been idle. A watermark that is not ahead of the current one is ignored.
+     */
+    public void advanceWatermark(Instant newWatermark) {
+        advanceTo(newWatermark.toEpochMilli());
+    }
+
+    /**
+     * Emits every window not emitted yet and clears all state, at the end of the stream.
+     * Records accepted afterwards are dropped.
+     */
+    public void flush() {
+        advanceTo(Long.MAX_VALUE);
+    }
+
+    public long droppedRecords() {
+        return droppedRecords;
+    }
+
+    private void advanceTo(long newWatermark) {
+        if (newWatermark <= watermark) {
+            return;
+        }
+        long previous = watermark;
+        watermark = newWatermark;
+        if (!hasPanes) {
+            return;
+        }
+        // Windows whose end passed the watermark in this step and that overlap a live pane
+        long first = Math.max(lowPane - panesPerWindow + 1, lastWindowEndingBy(previous) + 1);
+        long last = Math.min(highPane, lastWindowEndingBy(newWatermark));
+        for (long window = first; window <= last; window++) {
+            emit(window, false);
+        }
+        purge();
+    }
+
+    /**
+     * Emits, marked late, the windows containing {@code pane} that the watermark has passed but not purged yet.
+     */
+    private void emitUpdatesForLate(long pane) {
+        long first = pane - panesPerWindow + 1;
+        long last = Math.min(pane, lastWindowEndingBy(watermark));
+        for (long window = first; window <= last; window++) {
+            if (!isWindowPurged(window)) {
+                emit(window, true);
+            }
+        }
+    }
+
+    private void emit(long window, boolean late) {
+        long count = 0;
+        double sum = 0;
+        double compensation = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        long from = Math.max(window, lowPane);
+        long to = Math.min(window + panesPerWindow - 1, highPane);
+        for (long pane = from; pane <= to; pane++) {
+            int slot = (int) (pane & mask);
+            if (counts[slot] == 0) {
+                continue;
+            }
+            count += counts[slot];
+            double total = sum + sums[slot];
+            compensation += Math.abs(sum) >= Math.abs(sums[slot])
+                    ? (sum - total) + sums[slot]
+                    : (sums[slot] - total) + sum;
+            compensation += compensations[slot];
+            sum = total;
+            min = Math.min(min, mins[slot]);
+            max = Math.max(max, maxs[slot]);
+        }
+        if (count > 0) {
+            sink.accept(new WindowStatistics(Instant.ofEpochMilli(window * slide),
+                    Instant.ofEpochMilli((window + panesPerWindow) * slide), count, sum + compensation, min, max,
+                    late));
+        }
+    }
+
+    private void add(long pane, double value) {
+        if (!hasPanes) {
+            hasPanes = true;
+            lowPane = pane;
+            highPane = pane;
+        } else {
+            lowPane = Math.min(lowPane, pane);
+            highPane = Math.max(highPane, pane);
+        }
+        int slot = (int) (pane & mask);
+        if (counts[slot] == 0) {
+            sums[slot] = 0;
+            compensations[slot] = 0;
+            mins[slot] = Double.POSITIVE_INFINITY;
+            maxs[slot] = Double.NEGATIVE_INFINITY;
+        }
+        counts[slot]++;
+        double sum = sums[slot];
+        double total = sum + value;
+        compensations[slot] += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+        sums[slot] = total;
+        mins[slot] = Math.min(mins[slot], value);
+        maxs[slot] = Math.max(maxs[slot], value);
+    }
+
+    /**
+     * Clears the panes whose last window has passed the allowed lateness.
+     */
+    private void purge() {
+        while (hasPanes && isPurged(lowPane)) {
+            counts[(int) (lowPane & mask)] = 0;
+            if (lowPane == highPane) {
+                hasPanes = false;
+            }
+            lowPane++;
+        }
+    }
+
+    /**
+     * Whether every window containing {@code pane} is past the allowed lateness; the last of them starts at it.
+     */
+    private boolean isPurged(long pane) {
+        return isWindowPurged(pane);
+    }
+
+    private boolean isWindowPurged(long window) {
+        long end = (window + panesPerWindow) * slide;
+        return watermark != Long.MIN_VALUE && saturatingSubtract(watermark, allowedLateness) >= end;
+    }
+
+    /**
+     * Highest window whose end is at or before {@code time}.
+     */
+    private long lastWindowEndingBy(long time) {
+        if (time == Long.MIN_VALUE) {
+            return Long.MIN_VALUE / 2;
+        }
+        if (time == Long.MAX_VALUE) {
+            return Long.MAX_VALUE / 2;
+        }
+        return Math.floorDiv(time, slide) - panesPerWindow;
+    }
+
+    private static long saturatingSubtract(long value, long amount) {
+        long difference = value - amount;
+        return ((value ^ amount) & (value ^ difference)) < 0 ? Long.MIN_VALUE : difference;
+    }
+}
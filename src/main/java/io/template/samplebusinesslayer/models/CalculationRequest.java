@@ -1,14 +1,26 @@
 package io.template.samplebusinesslayer.models;
 
+import io.template.shared.models.NumericMode;
+
 /**
  * Request for a calculation operation.
  *
  * @param operandA First operand
  * @param operandB Second operand
  * @param operation Operation to perform (ADD, SUBTRACT, MULTIPLY, DIVIDE)
+ * @param numericMode Arithmetic to perform the operation with, or {@code null} for the calculator's configured one
  */
 public record CalculationRequest(
         double operandA,
         double operandB,
-        String operation
-) { }
+        String operation,
+        NumericMode numericMode
+) {
+
+    /**
+     * Request using the arithmetic the calculator is configured with, {@link NumericMode#DOUBLE} by default.
+     */
+    public CalculationRequest(double operandA, double operandB, String operation) {
+        this(operandA, operandB, operation, null);
+    }
+}
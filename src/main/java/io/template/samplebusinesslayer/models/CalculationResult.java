@@ -1,12 +1,19 @@
 package io.template.samplebusinesslayer.models;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * Result of a calculation operation.
  *
- * @param result The calculated result
+ * @param result The calculated result, as the nearest {@code double} whatever the arithmetic used
  * @param operation The operation performed
  */
 public record CalculationResult(
+
+        @JsonProperty("result")
         double result,
+
+        @JsonProperty("operation")
         String operation
+
 ) { }
@@ -0,0 +1,72 @@
+package io.template.samplebusinesslayer.models;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Aggregate of calculation results.
+ * Carries the summation compensation term so an aggregate can be restored and extended without losing precision.
+ *
+ * @param count Number of results
+ * @param sum Compensated sum of the results, excluding {@code sumCompensation}
+ * @param sumCompensation Low-order part of the sum lost to rounding
+ * @param min Smallest result ({@code Infinity} when empty)
+ * @param max Largest result ({@code -Infinity} when empty)
+ * @param histogram Counts per magnitude bucket; bucket {@code i} holds results whose absolute value is in
+ *                  {@code [2^(i - 32), 2^(i - 31))}, with the first and last buckets open-ended
+ */
+public record ResultStatistics(
+
+        @JsonProperty("count")
+        long count,
+
+        @JsonProperty("sum")
+        double sum,
+
+        @JsonProperty("sumCompensation")
+        double sumCompensation,
+
+        @JsonProperty("min")
+        double min,
+
+        @JsonProperty("max")
+        double max,
+
+        @JsonProperty("histogram")
+        long[] histogram
+
+) {
+
+    public double total() {
+        return sum + sumCompensation;
+    }
+
+    public double mean() {
+        return count == 0 ? Double.NaN : total() / count;
+    }
+
+    // Records compare arrays by reference; statistics are values, so the histogram is compared by content
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ResultStatistics statistics
+                && count == statistics.count
+                && Double.compare(sum, statistics.sum) == 0
+                && Double.compare(sumCompensation, statistics.sumCompensation) == 0
+                && Double.compare(min, statistics.min) == 0
+                && Double.compare(max, statistics.max) == 0
+                && Arrays.equals(histogram, statistics.histogram);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, sum, sumCompensation, min, max, Arrays.hashCode(histogram));
+    }
+
+    @Override
+    public String toString() {
+        return "ResultStatistics[count=" + count + ", sum=" + total() + ", min=" + min + ", max=" + max
+                + ", histogram=" + Arrays.toString(histogram) + "]";
+    }
+}
@@ -0,0 +1,47 @@
+package io.template.samplebusinesslayer.models;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Aggregate of the calculation results whose timestamps fall in one window.
+ *
+ * @param start Inclusive start of the window
+ * @param end Exclusive end of the window
+ * @param count Number of results
+ * @param sum Compensated sum of the results
+ * @param min Smallest result
+ * @param max Largest result
+ * @param late Whether the window is emitted after the watermark passed it, because a late record changed it;
+ *             replaces any earlier emission of the same window
+ */
+public record WindowStatistics(
+
+        @JsonProperty("start")
+        Instant start,
+
+        @JsonProperty("end")
+        Instant end,
+
+        @JsonProperty("count")
+        long count,
+
+        @JsonProperty("sum")
+        double sum,
+
+        @JsonProperty("min")
+        double min,
+
+        @JsonProperty("max")
+        double max,
+
+        @JsonProperty("late")
+        boolean late
+
+) {
+
+    public double mean() {
+        return sum / count;
+    }
+}
@@ -0,0 +1,39 @@
+package io.template.shared.logic;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+/**
+ * String deserializer that returns canonical instances from one process-wide {@link StringDictionary}, for
+ * text fields whose values repeat across records that are kept in memory. Strings are looked up straight from
+ * the parser's character buffer, so a repeated value is never materialized again. Other tokens are handled
+ * exactly as by Jackson's own {@link StringDeserializer}.
+ * <p>
+ * Applied per field with {@code @JsonDeserialize(using = ...)}, or {@code contentUsing} for list elements.
+ */
+public final class DeduplicatingStringDeserializer extends StdScalarDeserializer<String> {
+
+    static final int DICTIONARY_CAPACITY = 4096;
+    static final int MAX_INTERNED_LENGTH = 64;
+
+    private static final long serialVersionUID = 1L;
+    private static final StringDictionary DICTIONARY =
+            new StringDictionary(DICTIONARY_CAPACITY, MAX_INTERNED_LENGTH);
+
+    public DeduplicatingStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+            return StringDeserializer.instance.deserialize(parser, context);
+        }
+        return DICTIONARY.canonical(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+}
@@ -0,0 +1,92 @@
+package io.template.shared.logic;
+
+/**
+ * Bounded table of canonical strings, so repeated text values share one instance instead of one per occurrence.
+ * <p>
+ * The table is direct-mapped: each value has a single slot chosen by its hash, and a different value hashing to
+ * an occupied slot evicts the one there. Memory is therefore bounded by the slot count and the maximum interned
+ * length whatever the cardinality of the input; a burst of distinct values only lowers the hit rate until
+ * repeated values come back. Longer values are never interned, since they rarely repeat.
+ * <p>
+ * Safe for concurrent use without locks: slots hold immutable strings, so a racy read sees either the previous
+ * or the new canonical value, and a lost write only costs a later miss.
+ */
+public final class StringDictionary {
+
+    private final String[] slots;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param capacity Number of slots, a power of two
+     * @param maxLength Longest value, in chars, that is interned
+     */
+    public StringDictionary(int capacity, int maxLength) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a positive power of two: " + capacity);
+        }
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength must not be negative: " + maxLength);
+        }
+        this.slots = new String[capacity];
+        this.mask = capacity - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * The canonical instance of the value in {@code chars[offset, offset + length)}. A hit allocates nothing,
+     * which is the point of reading straight from a parser's buffer.
+     */
+    public String canonical(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = spread(hash) & mask;
+        String existing = slots[slot];
+        if (existing != null && existing.hashCode() == hash && contentEquals(existing, chars, offset, length)) {
+            return existing;
+        }
+        String created = new String(chars, offset, length);
+        slots[slot] = created;
+        return created;
+    }
+
+    /**
+     * The canonical instance equal to {@code value}, which becomes canonical itself when there is none.
+     */
+    public String canonical(String value) {
+        if (value.length() > maxLength) {
+            return value;
+        }
+        int slot = spread(value.hashCode()) & mask;
+        String existing = slots[slot];
+        if (value.equals(existing)) {
+            return existing;
+        }
+        slots[slot] = value;
+        return value;
+    }
+
+    /**
+     * Mixes the high bits of {@link String#hashCode()} into the low ones used to pick a slot.
+     */
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x45D9F3B;
+    }
+
+    private static boolean contentEquals(String value, char[] chars, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -4,11 +4,15 @@ import java.time.Instant;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.template.shared.logic.DeduplicatingStringDeserializer;
 
 /**
  * Application input model.
  * Represents the deserialized input received by the application.
  * Customize fields based on your application's needs.
+ * Text values that repeat across records are deserialized to shared instances, see
+ * {@link DeduplicatingStringDeserializer}.
  *
  * @param exampleStringField Example string field
  * @param exampleIntField Example integer field
@@ -19,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public record ApplicationInput(
 
         @JsonProperty("exampleStringField")
+        @JsonDeserialize(using = DeduplicatingStringDeserializer.class)
         String exampleStringField,
 
         @JsonProperty("exampleIntField")
@@ -31,6 +36,7 @@ public record ApplicationInput(
         Instant exampleTimestampField,
 
         @JsonProperty("exampleListField")
+        @JsonDeserialize(contentUsing = DeduplicatingStringDeserializer.class)
         List<String> exampleListField
 
 ) { }
@@ -8,11 +8,38 @@ package io.template.shared.models;
  * @param exampleStringVar Example string environment variable
  * @param exampleIntVar Example integer environment variable
  * @param exampleBooleanVar Example boolean environment variable
+ * @param flushPolicy When streaming output is written, from the optional {@code FLUSH_*} variables
+ * @param windowSpec Event-time windows streamed results are aggregated into, from the optional {@code WINDOW_*}
+ *                   variables
+ * @param prevalidationLimits Limits raw input is checked against before it is deserialized, from the optional
+ *                            {@code PREVALIDATION_*} variables
+ * @param numericSettings Arithmetic of calculations, from the optional {@code NUMERIC_*} variables
  */
 public record EnvironmentVariables(
         String stage,
         String region,
         String exampleStringVar,
         int exampleIntVar,
-        boolean exampleBooleanVar
-) { }
+        boolean exampleBooleanVar,
+        FlushPolicy flushPolicy,
+        WindowSpec windowSpec,
+        PrevalidationLimits prevalidationLimits,
+        NumericSettings numericSettings
+) {
+
+    /**
+     * Configuration with the {@link FlushPolicy#DEFAULT default flush policy}, {@link WindowSpec#DEFAULT default
+     * windows}, {@link PrevalidationLimits#DEFAULT default prevalidation limits} and
+     * {@link NumericSettings#DEFAULT default arithmetic}.
+     */
+    public EnvironmentVariables(
+            String stage,
+            String region,
+            String exampleStringVar,
+            int exampleIntVar,
+            boolean exampleBooleanVar
+    ) {
+        this(stage, region, exampleStringVar, exampleIntVar, exampleBooleanVar, FlushPolicy.DEFAULT,
+                WindowSpec.DEFAULT, PrevalidationLimits.DEFAULT, NumericSettings.DEFAULT);
+    }
+}
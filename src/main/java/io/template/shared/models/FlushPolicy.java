@@ -0,0 +1,26 @@
+package io.template.shared.models;
+
+import java.time.Duration;
+
+/**
+ * When buffered streaming output is written out: as soon as any one limit is reached.
+ *
+ * @param maxRecords Most records held before they are written
+ * @param maxBytes Most bytes held before they are written
+ * @param maxLinger Longest time the oldest held record waits before it is written
+ */
+public record FlushPolicy(
+        int maxRecords,
+        int maxBytes,
+        Duration maxLinger
+) {
+
+    public static final FlushPolicy DEFAULT = new FlushPolicy(512, 64 * 1024, Duration.ofMillis(10));
+
+    public FlushPolicy {
+        if (maxRecords <= 0 || maxBytes <= 0 || maxLinger == null || maxLinger.isNegative() || maxLinger.isZero()) {
+            throw new IllegalArgumentException("Flush limits must be positive, got: "
+                    + maxRecords + ", " + maxBytes + ", " + maxLinger);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.template.shared.models;
+
+/**
+ * Arithmetic used to carry out a calculation.
+ */
+public enum NumericMode {
+
+    /**
+     * Binary floating point; fastest, subject to binary rounding (0.1 + 0.2 != 0.3).
+     */
+    DOUBLE,
+
+    /**
+     * {@link java.math.BigDecimal} on the shortest decimal form of the operands; exact for decimal inputs,
+     * with division rounded to the configured {@link java.math.MathContext}. The result is still returned as the
+     * nearest {@code double}, so digits beyond a {@code double}'s 15 to 17 are lost at the output.
+     */
+    DECIMAL,
+
+    /**
+     * Scaled {@code long} with a fixed number of decimal places; exact within its range and fails on overflow.
+     */
+    FIXED_POINT
+}
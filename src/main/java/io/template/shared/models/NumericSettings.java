@@ -0,0 +1,36 @@
+package io.template.shared.models;
+
+/**
+ * Arithmetic of calculations.
+ *
+ * @param mode Arithmetic of requests that do not choose their own
+ * @param decimalPrecision Significant digits kept by {@link NumericMode#DECIMAL}
+ * @param fixedPointScale Decimal places kept by {@link NumericMode#FIXED_POINT}, at most
+ *                        {@link #MAX_FIXED_POINT_SCALE}
+ */
+public record NumericSettings(
+        NumericMode mode,
+        int decimalPrecision,
+        int fixedPointScale
+) {
+
+    /**
+     * Largest scale whose factor, {@code 10^scale}, fits a {@code long}.
+     */
+    public static final int MAX_FIXED_POINT_SCALE = 18;
+
+    public static final NumericSettings DEFAULT = new NumericSettings(NumericMode.DOUBLE, 16, 4);
+
+    public NumericSettings {
+        if (mode == null) {
+            throw new IllegalArgumentException("Numeric mode must be set");
+        }
+        if (decimalPrecision < 1) {
+            throw new IllegalArgumentException("Decimal precision must be at least 1, got: " + decimalPrecision);
+        }
+        if (fixedPointScale < 0 || fixedPointScale > MAX_FIXED_POINT_SCALE) {
+            throw new IllegalArgumentException("Fixed-point scale must be between 0 and " + MAX_FIXED_POINT_SCALE
+                    + ", got: " + fixedPointScale);
+        }
+    }
+}
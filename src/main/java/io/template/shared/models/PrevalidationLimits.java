@@ -0,0 +1,24 @@
+package io.template.shared.models;
+
+/**
+ * Limits enforced on raw input before it is deserialized.
+ *
+ * @param maxBytes Largest accepted payload, in bytes
+ * @param maxDepth Deepest accepted nesting of objects and arrays; the top-level object is depth one
+ * @param maxArrayElements Most elements accepted in any single array, such as {@code exampleListField}
+ */
+public record PrevalidationLimits(
+        int maxBytes,
+        int maxDepth,
+        int maxArrayElements
+) {
+
+    public static final PrevalidationLimits DEFAULT = new PrevalidationLimits(1024 * 1024, 16, 10_000);
+
+    public PrevalidationLimits {
+        if (maxBytes <= 0 || maxDepth <= 0 || maxArrayElements <= 0) {
+            throw new IllegalArgumentException("Prevalidation limits must be positive, got: "
+                    + maxBytes + ", " + maxDepth + ", " + maxArrayElements);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.template.shared.models;
+
+import java.util.function.Function;
+
+/**
+ * Outcome of an operation whose expected failures are reported as a value instead of an exception, for paths
+ * where failures are frequent enough that creating exceptions dominates the cost.
+ *
+ * @param <T> Type of the value on success
+ */
+public sealed interface Result<T> {
+
+    static <T> Result<T> success(T value) {
+        return new Success<>(value);
+    }
+
+    static <T> Result<T> failure(String message) {
+        return new Failure<>(message);
+    }
+
+    /**
+     * Applies {@code next} to the value on success; a failure is passed through unchanged.
+     */
+    <U> Result<U> flatMap(Function<? super T, Result<U>> next);
+
+    /**
+     * The value on success, otherwise the exception {@code exceptionFactory} creates from the failure message.
+     */
+    <X extends RuntimeException> T orElseThrow(Function<String, X> exceptionFactory);
+
+    /**
+     * @param value Result of the operation
+     */
+    record Success<T>(T value) implements Result<T> {
+
+        @Override
+        public <U> Result<U> flatMap(Function<? super T, Result<U>> next) {
+            return next.apply(value);
+        }
+
+        @Override
+        public <X extends RuntimeException> T orElseThrow(Function<String, X> exceptionFactory) {
+            return value;
+        }
+    }
+
+    /**
+     * @param message Reason the operation failed, identical to the message of the equivalent exception
+     */
+    record Failure<T>(String message) implements Result<T> {
+
+        @Override
+        public <U> Result<U> flatMap(Function<? super T, Result<U>> next) {
+            return new Failure<>(message);
+        }
+
+        @Override
+        public <X extends RuntimeException> T orElseThrow(Function<String, X> exceptionFactory) {
+            throw exceptionFactory.apply(message);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.template.shared.models;
+
+import java.time.Duration;
+
+/**
+ * Shape of the event-time windows a {@code WindowedAggregator} computes.
+ * <p>
+ * A window covers {@code [start, start + size)} and a new one starts every {@code slide}; windows are tumbling
+ * when both are equal. The watermark trails the latest timestamp seen by {@code maxOutOfOrderness}, and a window
+ * is emitted once the watermark passes its end. Records for an emitted window are still counted, and the window
+ * emitted again, until the watermark passes its end plus {@code allowedLateness}; later records are dropped.
+ *
+ * @param size Length of each window, a whole number of milliseconds and a multiple of {@code slide}
+ * @param slide Distance between the starts of consecutive windows, a whole positive number of milliseconds
+ * @param maxOutOfOrderness How far behind the latest timestamp records are still expected to arrive
+ * @param allowedLateness How long after being emitted a window still accepts records
+ */
+public record WindowSpec(
+        Duration size,
+        Duration slide,
+        Duration maxOutOfOrderness,
+        Duration allowedLateness
+) {
+
+    public static final WindowSpec DEFAULT = tumbling(Duration.ofMinutes(1), Duration.ofSeconds(5), Duration.ZERO);
+
+    public WindowSpec {
+        if (slide.toMillis() <= 0 || !Duration.ofMillis(slide.toMillis()).equals(slide)) {
+            throw new IllegalArgumentException("slide must be a whole positive number of milliseconds: " + slide);
+        }
+        if (size.compareTo(slide) < 0 || size.toMillis() % slide.toMillis() != 0
+                || !Duration.ofMillis(size.toMillis()).equals(size)) {
+            throw new IllegalArgumentException("size must be a multiple of slide " + slide + ": " + size);
+        }
+        if (maxOutOfOrderness.isNegative() || allowedLateness.isNegative()) {
+            throw new IllegalArgumentException("maxOutOfOrderness and allowedLateness must not be negative");
+        }
+    }
+
+    public static WindowSpec tumbling(Duration size, Duration maxOutOfOrderness, Duration allowedLateness) {
+        return new WindowSpec(size, size, maxOutOfOrderness, allowedLateness);
+    }
+
+    public static WindowSpec sliding(
+            Duration size,
+            Duration slide,
+            Duration maxOutOfOrderness,
+            Duration allowedLateness
+    ) {
+        return new WindowSpec(size, slide, maxOutOfOrderness, allowedLateness);
+    }
+}
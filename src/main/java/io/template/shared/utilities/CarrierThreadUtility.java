@@ -0,0 +1,42 @@
+package io.template.shared.utilities;
+
+import java.util.Properties;
+
+/**
+ * Sizes the pool of carrier threads that virtual threads are scheduled on.
+ * <p>
+ * The JDK schedules virtual threads on a work-stealing pool with one carrier per core by default. Starting the JVM
+ * with {@code -Dio.template.carrierParallelism=<n>} runs them on {@code n} carriers instead, for instance to leave
+ * cores to other processes in a shared container. The JDK reads its scheduler settings once, when the first
+ * virtual thread starts, so {@link #configure(Properties)} must run before that; an explicit
+ * {@code -Djdk.virtualThreadScheduler.parallelism} takes precedence.
+ */
+public final class CarrierThreadUtility {
+
+    static final String PROPERTY = "io.template.carrierParallelism";
+    static final String SCHEDULER_PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+
+    private CarrierThreadUtility() { }
+
+    /**
+     * Translates the application property into the JDK scheduler property, if it is set.
+     *
+     * @throws IllegalArgumentException if the property is not a positive integer
+     */
+    public static void configure(Properties properties) {
+        String parallelism = properties.getProperty(PROPERTY);
+        if (parallelism == null || properties.getProperty(SCHEDULER_PARALLELISM) != null) {
+            return;
+        }
+        int carriers;
+        try {
+            carriers = Integer.parseInt(parallelism.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(PROPERTY + " must be a positive integer, got: " + parallelism, e);
+        }
+        if (carriers < 1) {
+            throw new IllegalArgumentException(PROPERTY + " must be a positive integer, got: " + parallelism);
+        }
+        properties.setProperty(SCHEDULER_PARALLELISM, Integer.toString(carriers));
+    }
+}
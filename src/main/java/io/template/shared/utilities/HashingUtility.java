@@ -0,0 +1,80 @@
+package io.template.shared.utilities;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Fast non-cryptographic hashing of raw bytes and of single values.
+ * Hashes are only suitable for bucketing and deduplication; equal 64-bit hashes must be confirmed by comparing
+ * bytes.
+ */
+public final class HashingUtility {
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER = 0xBF58476D1CE4E5B9L;
+    private static final long SECOND_SEED = 0xC2B2AE3D27D4EB4FL;
+    private static final long SECOND_MULTIPLIER = 0x9FB21C651E98DF25L;
+
+    private HashingUtility() { }
+
+    /**
+     * 64-bit hash of the whole array, consuming eight bytes per step.
+     */
+    public static long hash64(byte[] bytes) {
+        long hash = SEED ^ bytes.length;
+        int index = 0;
+        for (; index + Long.BYTES <= bytes.length; index += Long.BYTES) {
+            hash = Long.rotateLeft(hash ^ mix((long) LONG_VIEW.get(bytes, index)), 27) * MULTIPLIER;
+        }
+        long tail = 0;
+        for (int shift = 0; index < bytes.length; index++, shift += Byte.SIZE) {
+            tail |= (bytes[index] & 0xFFL) << shift;
+        }
+        return mix(hash ^ mix(tail));
+    }
+
+    /**
+     * 128-bit hash of the whole array, for fingerprints that are trusted without comparing bytes: two lanes with
+     * their own seed, rotation and multiplier consume the same words in one pass.
+     */
+    public static Hash128 hash128(byte[] bytes) {
+        long high = SEED ^ bytes.length;
+        long low = SECOND_SEED ^ bytes.length;
+        int index = 0;
+        for (; index + Long.BYTES <= bytes.length; index += Long.BYTES) {
+            long word = mix((long) LONG_VIEW.get(bytes, index));
+            high = Long.rotateLeft(high ^ word, 27) * MULTIPLIER;
+            low = Long.rotateLeft(low ^ word, 31) * SECOND_MULTIPLIER;
+        }
+        long tail = 0;
+        for (int shift = 0; index < bytes.length; index++, shift += Byte.SIZE) {
+            tail |= (bytes[index] & 0xFFL) << shift;
+        }
+        long mixedTail = mix(tail);
+        return new Hash128(mix(high ^ mixedTail), mix(low ^ mixedTail ^ high));
+    }
+
+    /**
+     * 64-bit hash of a single value; distinct values never collide.
+     */
+    public static long hash64(long value) {
+        return mix(value);
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads every input bit over the whole output.
+     */
+    private static long mix(long value) {
+        long mixed = (value ^ (value >>> 30)) * MULTIPLIER;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    /**
+     * Both halves of a {@link #hash128(byte[])}.
+     */
+    public record Hash128(long high, long low) { }
+}
@@ -2,17 +2,33 @@ package io.template.shared.utilities;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 public final class JsonMapperUtility {
 
     public static final JsonMapper MAPPER = createStrictMapper();
 
+    /**
+     * Binary (Smile) counterpart of {@link #MAPPER}, with the same strict configuration.
+     */
+    public static final SmileMapper SMILE_MAPPER = createStrictSmileMapper();
+
     private JsonMapperUtility() { }
 
     public static JsonMapper createStrictMapper() {
-        return JsonMapper.builder()
+        return configureStrict(JsonMapper.builder()).build();
+    }
+
+    public static SmileMapper createStrictSmileMapper() {
+        return configureStrict(SmileMapper.builder()).build();
+    }
+
+    private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configureStrict(B builder) {
+        return builder
                 .disable(MapperFeature.AUTO_DETECT_CREATORS)
                 .disable(MapperFeature.AUTO_DETECT_FIELDS)
                 .disable(MapperFeature.AUTO_DETECT_GETTERS)
@@ -33,8 +49,6 @@ public final class JsonMapperUtility {
 
                 .disable(MapperFeature.USE_BASE_TYPE_AS_DEFAULT_IMPL)
 
-                .addModule(new JavaTimeModule())
-
-                .build();
+                .addModule(new JavaTimeModule());
     }
 }
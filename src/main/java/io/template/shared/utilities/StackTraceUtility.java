@@ -0,0 +1,28 @@
+package io.template.shared.utilities;
+
+/**
+ * Process-wide switch for whether the application's own exceptions capture a stack trace when created.
+ * <p>
+ * Capturing is on by default; starting the JVM with {@code -Dio.template.stackTraces=false} turns it off. Filling
+ * in the stack trace is most of the cost of an exception, which matters on rejection-heavy traffic where inputs
+ * are routinely refused. Without it, exceptions still carry their message and cause.
+ */
+public final class StackTraceUtility {
+
+    static final String PROPERTY = "io.template.stackTraces";
+
+    private static volatile boolean capturing = !"false".equals(System.getProperty(PROPERTY));
+
+    private StackTraceUtility() { }
+
+    public static boolean isCapturing() {
+        return capturing;
+    }
+
+    /**
+     * Applies to exceptions created afterwards.
+     */
+    public static void setCapturing(boolean capturing) {
+        StackTraceUtility.capturing = capturing;
+    }
+}
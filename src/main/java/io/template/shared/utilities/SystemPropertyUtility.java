@@ -0,0 +1,65 @@
+package io.template.shared.utilities;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Properties;
+
+/**
+ * Reads the {@code -Dio.template.*} sizing switches, most of which are set by the startup resource tuning.
+ */
+public final class SystemPropertyUtility {
+
+    private SystemPropertyUtility() { }
+
+    /**
+     * Value of {@code property}, or {@code defaultValue} when it is not set.
+     *
+     * @throws IllegalArgumentException if the property is set but not a positive integer
+     */
+    public static int positiveInt(String property, int defaultValue) {
+        return positiveInt(System.getProperties(), property, defaultValue);
+    }
+
+    /**
+     * Same as {@link #positiveInt(String, int)}, reading from {@code properties}.
+     */
+    public static int positiveInt(Properties properties, String property, int defaultValue) {
+        String value = properties.getProperty(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(property + " must be a positive integer, got: " + value, e);
+        }
+        if (parsed < 1) {
+            throw new IllegalArgumentException(property + " must be a positive integer, got: " + value);
+        }
+        return parsed;
+    }
+
+    /**
+     * Value of {@code property} as an ISO-8601 duration such as {@code PT15M}, or {@code defaultValue} when it is
+     * not set.
+     *
+     * @throws IllegalArgumentException if the property is set but not a positive duration
+     */
+    public static Duration positiveDuration(String property, Duration defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        Duration parsed;
+        try {
+            parsed = Duration.parse(value.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(property + " must be an ISO-8601 duration, got: " + value, e);
+        }
+        if (parsed.isNegative() || parsed.isZero()) {
+            throw new IllegalArgumentException(property + " must be a positive duration, got: " + value);
+        }
+        return parsed;
+    }
+}
@@ -1,13 +1,21 @@
 package io.template;
 
+import java.time.Duration;
+
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Stage;
+import io.template.bootstrap.injectionmodules.ApplicationModule;
+import io.template.bootstrap.injectionmodules.LifecycleModule;
 import io.template.bootstrap.logic.Executor;
+import io.template.bootstrap.logic.LifecycleRegistry;
+import io.template.bootstrap.models.ShutdownReport;
 import io.template.shared.models.EnvironmentVariables;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Composition test: verifies that a small slice of the application
@@ -56,14 +64,45 @@ class ApplicationCompositionTest {
     @Test
     void assemblesApplication() {
         assertDoesNotThrow(() -> {
-            EnvironmentVariables envVars = mock(EnvironmentVariables.class);
+            EnvironmentVariables envVars = new EnvironmentVariables("test", "local", "", 0, false);
 
             Injector injector = Guice.createInjector(
-                    binder -> binder.bind(EnvironmentVariables.class).toInstance(envVars)
+                    binder -> binder.bind(EnvironmentVariables.class).toInstance(envVars),
+                    new LifecycleModule(),
+                    new ApplicationModule()
             );
 
             injector.getInstance(Executor.class);
             // No call to executor.execute(args) here; that behavior is covered by unit tests.
         });
     }
+
+    @Test
+    void shutsDownSingletonsCreatedByInjector() {
+        EnvironmentVariables envVars = new EnvironmentVariables("test", "local", "", 0, false);
+
+        Injector injector = Guice.createInjector(
+                binder -> binder.bind(EnvironmentVariables.class).toInstance(envVars),
+                new LifecycleModule(),
+                new ApplicationModule()
+        );
+        injector.getInstance(Executor.class);
+
+        ShutdownReport report = injector.getInstance(LifecycleRegistry.class).shutdown(Duration.ofSeconds(1));
+
+        assertTrue(report.drained());
+        assertEquals(0, report.failures());
+    }
+
+    @Test
+    void assemblesEveryBindingEagerlyInProductionStage() {
+        EnvironmentVariables envVars = new EnvironmentVariables("test", "local", "", 0, false);
+
+        assertDoesNotThrow(() -> Guice.createInjector(
+                Stage.PRODUCTION,
+                binder -> binder.bind(EnvironmentVariables.class).toInstance(envVars),
+                new LifecycleModule(),
+                new ApplicationModule()
+        ));
+    }
 }
@@ -0,0 +1,420 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.batch.models.BatchSummary;
+import io.template.batch.models.Checkpoint;
+import io.template.batch.models.Shard;
+import io.template.bootstrap.logic.InputProcessor;
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.index.logic.RecordIndex;
+import io.template.samplebusinesslayer.logic.Calculator;
+import io.template.samplebusinesslayer.logic.ResultAggregator;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.samplebusinesslayer.models.ResultStatistics;
+import io.template.samplebusinesslayer.models.WindowStatistics;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.Result;
+import io.template.shared.models.WindowSpec;
+import io.template.shared.utilities.JsonMapperUtility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_MALFORMED;
+import static io.template.testsupport.SampleJsonInputs.validInput;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchProcessorTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path input;
+    private Path output;
+    private BatchProcessor batchProcessor;
+
+    @BeforeEach
+    void setUp() {
+        input = directory.resolve("input.ndjson");
+        output = directory.resolve("output.ndjson");
+        InputProcessor inputProcessor = new InputProcessor(
+                new InputSanitizer(),
+                new Calculator()
+        );
+        batchProcessor = new BatchProcessor(inputProcessor, 2);
+    }
+
+    @Test
+    void writesOneOutputLinePerRecord() throws IOException {
+        writeInput(record(1), INVALID_JSON_MALFORMED, record(2));
+
+        BatchSummary summary = batchProcessor.run(input, output);
+
+        assertEquals(0, summary.resumedFromOffset());
+        assertEquals(3, summary.recordsProcessed());
+        assertEquals(1, summary.recordsRejected());
+        assertTrue(summary.completed());
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("{\"result\":2.0,\"operation\":\"ADD\"}", lines.get(0));
+        assertTrue(lines.get(1).startsWith("{\"error\":"));
+        assertEquals("{\"result\":3.0,\"operation\":\"ADD\"}", lines.get(2));
+        assertFalse(Files.exists(BatchProcessor.checkpointPathFor(output)));
+        ResultStatistics statistics = JsonMapperUtility.MAPPER.readValue(
+                BatchProcessor.statisticsPathFor(output).toFile(), ResultStatistics.class);
+        assertEquals(2, statistics.count());
+        assertEquals(5.0, statistics.total());
+    }
+
+    @Test
+    void resumesFromCheckpoint() throws IOException {
+        writeInput(record(1), record(2), record(3));
+        String firstRecordLine = record(1) + "\n";
+        String firstOutputLine = "{\"result\":2.0,\"operation\":\"ADD\"}\n";
+        // Output of the first record, followed by partial output written after the checkpoint
+        Files.writeString(output, firstOutputLine + "{\"resu", StandardCharsets.UTF_8);
+        ResultAggregator firstRecordStatistics = new ResultAggregator();
+        firstRecordStatistics.accept(2.0);
+        writeCheckpoint(new Checkpoint(firstRecordLine.getBytes(StandardCharsets.UTF_8).length,
+                firstOutputLine.getBytes(StandardCharsets.UTF_8).length, 1, firstRecordStatistics.snapshot()));
+
+        BatchSummary summary = batchProcessor.run(input, output);
+
+        assertEquals(3, summary.recordsProcessed());
+        assertEquals(3, summary.statistics().count());
+        assertEquals(9.0, summary.statistics().total());
+        assertTrue(summary.completed());
+        assertEquals(List.of(
+                "{\"result\":2.0,\"operation\":\"ADD\"}",
+                "{\"result\":3.0,\"operation\":\"ADD\"}",
+                "{\"result\":4.0,\"operation\":\"ADD\"}"
+        ), Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void keepsCheckpointWhenStoppedEarly() throws IOException {
+        writeInput(record(1), record(2));
+        BatchProcessor stopping = stoppingAfter(1, 2);
+
+        BatchSummary summary = stopping.run(input, output);
+
+        assertFalse(summary.completed());
+        assertTrue(stopping.awaitDrained(Duration.ofSeconds(1)));
+        Checkpoint checkpoint = Checkpointer.load(BatchProcessor.checkpointPathFor(output)).orElseThrow();
+        assertEquals((record(1) + "\n").getBytes(StandardCharsets.UTF_8).length, checkpoint.inputOffset());
+        assertEquals(1, checkpoint.statistics().count());
+    }
+
+    @Test
+    void stopsJobsStartedAfterIntakeStopped() throws IOException {
+        writeInput(record(1), record(2));
+        batchProcessor.stopIntake();
+
+        BatchSummary stopped = batchProcessor.run(input, output);
+
+        assertFalse(stopped.completed());
+        assertEquals(0, stopped.recordsProcessed());
+        assertTrue(Files.exists(BatchProcessor.checkpointPathFor(output)));
+    }
+
+    @Test
+    void stopsAndAwaitsEveryConcurrentJob() throws Exception {
+        Path secondInput = directory.resolve("second-input.ndjson");
+        Path secondOutput = directory.resolve("second-output.ndjson");
+        writeInput(record(1), record(2));
+        Files.copy(input, secondInput);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Map<String, CountDownLatch> releases = Map.of("first", new CountDownLatch(1), "second", new CountDownLatch(1));
+        BatchProcessor processor = new BatchProcessor(new InputProcessor(
+                new InputSanitizer(),
+                new Calculator()
+        ) {
+            @Override
+            public Result<CalculationResult> tryProcessEncoded(byte[] record) {
+                bothStarted.countDown();
+                await(releases.get(Thread.currentThread().getName()));
+                return super.tryProcessEncoded(record);
+            }
+        }, 1);
+        FutureTask<BatchSummary> first = new FutureTask<>(() -> processor.run(input, output));
+        FutureTask<BatchSummary> second = new FutureTask<>(() -> processor.run(secondInput, secondOutput));
+        Thread.ofVirtual().name("first").start(first);
+        Thread.ofVirtual().name("second").start(second);
+        await(bothStarted);
+
+        processor.stopIntake();
+        releases.get("second").countDown();
+        BatchSummary secondSummary = second.get(5, TimeUnit.SECONDS);
+
+        assertFalse(processor.awaitDrained(Duration.ofMillis(100)));
+        releases.get("first").countDown();
+        assertTrue(processor.awaitDrained(Duration.ofSeconds(5)));
+        BatchSummary firstSummary = first.get(5, TimeUnit.SECONDS);
+        assertFalse(firstSummary.completed());
+        assertFalse(secondSummary.completed());
+        assertEquals(1, firstSummary.recordsProcessed());
+        assertEquals(1, secondSummary.recordsProcessed());
+    }
+
+    @Test
+    void countsRecordsRejectedBeforeAResume() throws IOException {
+        writeInput(record(1), INVALID_JSON_MALFORMED, record(2), INVALID_JSON_MALFORMED);
+        BatchProcessor stopping = stoppingAfter(2, 1);
+
+        BatchSummary stopped = stopping.run(input, output);
+        BatchSummary resumed = batchProcessor.run(input, output);
+
+        assertEquals(1, stopped.recordsRejected());
+        assertEquals(4, resumed.recordsProcessed());
+        assertEquals(2, resumed.recordsRejected());
+    }
+
+    @Test
+    void processesOnlyTheRecordsOfAShard() throws IOException {
+        writeInput(record(1), record(2), record(3));
+        long secondRecordStart = (record(1) + "\n").getBytes(StandardCharsets.UTF_8).length;
+        long thirdRecordStart = secondRecordStart + (record(2) + "\n").getBytes(StandardCharsets.UTF_8).length;
+        Path shardOutput = directory.resolve("output.ndjson.shard-1");
+
+        BatchSummary summary = batchProcessor.runShard(input, new Shard(1, secondRecordStart, thirdRecordStart),
+                shardOutput);
+
+        assertEquals(1, summary.recordsProcessed());
+        assertEquals(List.of("{\"result\":3.0,\"operation\":\"ADD\"}"),
+                Files.readAllLines(shardOutput, StandardCharsets.UTF_8));
+        assertTrue(Files.exists(BatchProcessor.statisticsPathFor(shardOutput)));
+    }
+
+    @Test
+    void readsGzipInputAndWritesGzipOutput() throws IOException {
+        writeInput(record(1), INVALID_JSON_MALFORMED, record(2));
+        Path compressedInput = directory.resolve("input.ndjson.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressedInput))) {
+            out.write(Files.readAllBytes(input));
+        }
+        Path compressedOutput = directory.resolve("output.ndjson.gz");
+
+        BatchSummary plain = batchProcessor.run(input, output);
+        BatchSummary compressed = batchProcessor.run(compressedInput, compressedOutput);
+
+        assertEquals(plain.statistics(), compressed.statistics());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressedOutput))) {
+            assertEquals(Files.readString(output), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void resumesGzipOutputFromCheckpoint() throws IOException {
+        writeInput(record(1), record(2), record(3), record(4), record(5));
+        Path compressedOutput = directory.resolve("output.ndjson.gz");
+
+        assertFalse(stoppingAfter(2, 1).run(input, compressedOutput).completed());
+        BatchSummary resumed = batchProcessor.run(input, compressedOutput);
+
+        assertTrue(resumed.completed());
+        assertEquals(5, resumed.recordsProcessed());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressedOutput))) {
+            assertEquals(5, new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().count());
+        }
+    }
+
+    @Test
+    void indexesAcceptedRecordsByRecordNumber() throws IOException {
+        writeInput(
+                validInput("first", 1, true, "2024-01-01T00:00:00Z", "a", "b").replace("\n", ""),
+                INVALID_JSON_MALFORMED,
+                validInput("second", 2, true, "2024-01-02T00:00:00Z", "b").replace("\n", ""));
+
+        batchProcessor.runIndexed(input, output);
+
+        try (RecordIndex index = RecordIndex.open(BatchProcessor.indexPathFor(output))) {
+            assertArrayEquals(new long[]{2}, index.findByString("second"));
+            assertArrayEquals(new long[]{0, 2}, index.findByListElement("b"));
+            assertArrayEquals(new long[]{0}, index.findByTimestamp(
+                    Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-02T00:00:00Z")));
+        }
+    }
+
+    @Test
+    void skipsIndexWhenResumingFromCheckpoint() throws IOException {
+        writeInput(record(1), record(2));
+        String firstOutputLine = "{\"result\":2.0,\"operation\":\"ADD\"}\n";
+        Files.writeString(output, firstOutputLine, StandardCharsets.UTF_8);
+        ResultAggregator firstRecordStatistics = new ResultAggregator();
+        firstRecordStatistics.accept(2.0);
+        writeCheckpoint(new Checkpoint((record(1) + "\n").getBytes(StandardCharsets.UTF_8).length,
+                firstOutputLine.getBytes(StandardCharsets.UTF_8).length, 1, firstRecordStatistics.snapshot()));
+
+        assertTrue(batchProcessor.runIndexed(input, output).completed());
+
+        assertFalse(Files.exists(BatchProcessor.indexPathFor(output)));
+    }
+
+    @Test
+    void reprocessesOnlyChangedRecordsInIncrementalRuns() throws IOException {
+        Path state = directory.resolve("state");
+        AtomicInteger processedRecords = new AtomicInteger();
+        BatchProcessor incremental = new BatchProcessor(countingProcessor(processedRecords), 2);
+        writeInput(record(1), INVALID_JSON_MALFORMED, record(2));
+        incremental.runIncremental(input, output, state);
+        writeInput(record(1), INVALID_JSON_MALFORMED, record(4), record(2));
+        processedRecords.set(0);
+
+        BatchSummary summary = incremental.runIncremental(input, output, state);
+
+        assertEquals(1, processedRecords.get());
+        assertEquals(4, summary.recordsProcessed());
+        assertEquals(1, summary.recordsRejected());
+        Path fullOutput = directory.resolve("full.ndjson");
+        BatchSummary full = batchProcessor.run(input, fullOutput);
+        assertEquals(full.statistics(), summary.statistics());
+        assertEquals(Files.readString(fullOutput), Files.readString(output));
+    }
+
+    @Test
+    void keepsIncrementalStateWhenResumingFromCheckpoint() throws IOException {
+        Path state = directory.resolve("state");
+        AtomicInteger processedRecords = new AtomicInteger();
+        BatchProcessor incremental = new BatchProcessor(countingProcessor(processedRecords), 2);
+        writeInput(record(1), record(2));
+        incremental.runIncremental(input, output, state);
+        writeInput(record(1), record(3));
+        String firstOutputLine = "{\"result\":2.0,\"operation\":\"ADD\"}\n";
+        Files.writeString(output, firstOutputLine, StandardCharsets.UTF_8);
+        ResultAggregator firstRecordStatistics = new ResultAggregator();
+        firstRecordStatistics.accept(2.0);
+        writeCheckpoint(new Checkpoint((record(1) + "\n").getBytes(StandardCharsets.UTF_8).length,
+                firstOutputLine.getBytes(StandardCharsets.UTF_8).length, 1, firstRecordStatistics.snapshot()));
+        assertTrue(incremental.runIncremental(input, output, state).completed());
+        writeInput(record(2));
+        processedRecords.set(0);
+
+        incremental.runIncremental(input, output, state);
+
+        assertEquals(0, processedRecords.get());
+    }
+
+    @Test
+    void streamsRecordsInMicroBatches() throws IOException {
+        byte[] records = (record(1) + "\n" + INVALID_JSON_MALFORMED + "\n" + record(2) + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+
+        BatchSummary summary = batchProcessor.runStream(Channels.newChannel(new ByteArrayInputStream(records)), output,
+                new FlushPolicy(2, 1024, Duration.ofMinutes(1)), WindowSpec.DEFAULT);
+
+        assertTrue(summary.completed());
+        assertEquals(3, summary.recordsProcessed());
+        assertEquals(1, summary.recordsRejected());
+        assertEquals(5.0, summary.statistics().total());
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("{\"result\":3.0,\"operation\":\"ADD\"}", lines.get(2));
+        assertTrue(Files.exists(BatchProcessor.statisticsPathFor(output)));
+    }
+
+    @Test
+    void aggregatesStreamedResultsIntoEventTimeWindows() throws IOException {
+        byte[] records = (record(1) + "\n" + INVALID_JSON_MALFORMED + "\n" + record(2) + "\n"
+                + validInput("value", 4, true, "2024-01-01T00:05:00Z", "a").replace("\n", "") + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+
+        batchProcessor.runStream(Channels.newChannel(new ByteArrayInputStream(records)), output,
+                FlushPolicy.DEFAULT, WindowSpec.DEFAULT);
+
+        List<String> lines = Files.readAllLines(BatchProcessor.windowsPathFor(output), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        WindowStatistics first = JsonMapperUtility.MAPPER.readValue(lines.get(0), WindowStatistics.class);
+        WindowStatistics second = JsonMapperUtility.MAPPER.readValue(lines.get(1), WindowStatistics.class);
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), first.start());
+        assertEquals(2, first.count());
+        assertEquals(5.0, first.sum());
+        assertEquals(Instant.parse("2024-01-01T00:05:00Z"), second.start());
+        assertEquals(1, second.count());
+    }
+
+    @Test
+    void failsOnMissingInput() {
+        assertThrows(BatchProcessingException.class, () -> batchProcessor.run(input, output));
+    }
+
+    private static String record(int exampleIntField) {
+        return validInput("value", exampleIntField, true, "2024-01-01T00:00:00Z", "a").replace("\n", "");
+    }
+
+    private static InputProcessor countingProcessor(AtomicInteger processedRecords) {
+        return new InputProcessor(
+                new InputSanitizer(),
+                new Calculator()
+        ) {
+            @Override
+            public Result<CalculationResult> tryProcessEncoded(byte[] record) {
+                processedRecords.incrementAndGet();
+                return super.tryProcessEncoded(record);
+            }
+        };
+    }
+
+    /**
+     * Processor that stops intake while processing its {@code records}-th record.
+     */
+    private static BatchProcessor stoppingAfter(int records, int checkpointIntervalRecords) {
+        AtomicReference<BatchProcessor> stopping = new AtomicReference<>();
+        AtomicInteger remaining = new AtomicInteger(records);
+        stopping.set(new BatchProcessor(new InputProcessor(
+                new InputSanitizer(),
+                new Calculator()
+        ) {
+            @Override
+            public Result<CalculationResult> tryProcessEncoded(byte[] record) {
+                if (remaining.decrementAndGet() == 0) {
+                    stopping.get().stopIntake();
+                }
+                return super.tryProcessEncoded(record);
+            }
+        }, checkpointIntervalRecords));
+        return stopping.get();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the other job");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeInput(String... records) throws IOException {
+        Files.writeString(input, String.join("\n", records) + "\n", StandardCharsets.UTF_8);
+    }
+
+    private void writeCheckpoint(Checkpoint checkpoint) throws IOException {
+        Files.write(BatchProcessor.checkpointPathFor(output), JsonMapperUtility.MAPPER.writeValueAsBytes(checkpoint));
+    }
+}
@@ -0,0 +1,98 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.batch.models.BatchSummary;
+import io.template.batch.models.Shard;
+import io.template.bootstrap.logic.InputProcessor;
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.samplebusinesslayer.logic.Calculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_MALFORMED;
+import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_WITH_NON_NUMERIC_INT_FIELD;
+import static io.template.testsupport.SampleJsonInputs.validInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryInputConverterTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path ndjson;
+    private Path binary;
+    private BatchProcessor batchProcessor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ndjson = directory.resolve("input.ndjson");
+        binary = directory.resolve("input.bin");
+        batchProcessor = new BatchProcessor(new InputProcessor(
+                new InputSanitizer(),
+                new Calculator()
+        ));
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            records.add(validInput("value-" + i, i, i % 2 == 0, "2024-01-01T00:00:00Z", "a", "b")
+                    .replace("\n", ""));
+        }
+        records.add(INVALID_JSON_MALFORMED);
+        records.add(INVALID_JSON_WITH_NON_NUMERIC_INT_FIELD.replace("\n", ""));
+        Files.writeString(ndjson, String.join("\n", records) + "\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void convertedInputProducesTheSameBatchOutput() throws IOException {
+        long converted = new BinaryInputConverter().convert(ndjson, binary);
+
+        Path fromJson = directory.resolve("from-json.ndjson");
+        Path fromBinary = directory.resolve("from-binary.ndjson");
+        BatchSummary jsonSummary = batchProcessor.run(ndjson, fromJson);
+        BatchSummary binarySummary = batchProcessor.run(binary, fromBinary);
+
+        assertEquals(52, converted);
+        assertEquals(jsonSummary.recordsProcessed(), binarySummary.recordsProcessed());
+        assertEquals(2, binarySummary.recordsRejected());
+        assertEquals(jsonSummary.statistics(), binarySummary.statistics());
+        assertEquals(Files.readAllLines(fromJson), Files.readAllLines(fromBinary));
+        assertTrue(Files.size(binary) < Files.size(ndjson));
+    }
+
+    @Test
+    void binaryInputIsRecognisedFromItsHeader() throws IOException {
+        new BinaryInputConverter().convert(ndjson, binary);
+
+        try (FileChannel binaryChannel = FileChannel.open(binary, StandardOpenOption.READ);
+             FileChannel jsonChannel = FileChannel.open(ndjson, StandardOpenOption.READ)) {
+            assertTrue(BinaryRecordFormat.isBinary(binaryChannel));
+            assertFalse(BinaryRecordFormat.isBinary(jsonChannel));
+        }
+    }
+
+    @Test
+    void binaryInputShardsOnFrameBoundaries() throws IOException {
+        new BinaryInputConverter().convert(ndjson, binary);
+
+        List<Shard> shards = ShardPlanner.plan(binary, 4);
+
+        long processed = 0;
+        for (Shard shard : shards) {
+            processed += batchProcessor.runShard(binary, shard, directory.resolve("shard-" + shard.index()))
+                    .recordsProcessed();
+        }
+        assertEquals(BinaryRecordFormat.HEADER_LENGTH, shards.get(0).start());
+        assertEquals(Files.size(binary), shards.get(shards.size() - 1).end());
+        assertEquals(52, processed);
+    }
+}
@@ -0,0 +1,78 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryRecordReaderTest {
+
+    @Test
+    void readsFramesAndTracksOffsets() throws IOException {
+        byte[] content = frames("first".getBytes(StandardCharsets.UTF_8), "second".getBytes(StandardCharsets.UTF_8));
+
+        try (BinaryRecordReader reader = readerOver(content, 5)) {
+            assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), reader.next());
+            assertEquals(14, reader.position());
+            assertArrayEquals("second".getBytes(StandardCharsets.UTF_8), reader.next());
+            assertEquals(24, reader.position());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsFramesLargerThanTheBuffer() throws IOException {
+        byte[] large = "x".repeat(200_000).getBytes(StandardCharsets.UTF_8);
+
+        try (BinaryRecordReader reader = readerOver(frames(large, new byte[0]), 0)) {
+            assertArrayEquals(large, reader.next());
+            assertArrayEquals(new byte[0], reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsTruncatedFrames() throws IOException {
+        byte[] content = frames("complete".getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = Arrays.copyOf(content, content.length - 1);
+
+        try (BinaryRecordReader reader = readerOver(truncated, 0)) {
+            assertThrows(IOException.class, reader::next);
+        }
+        try (BinaryRecordReader reader = readerOver(new byte[]{0, 0}, 0)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void rejectsNegativeLengths() throws IOException {
+        try (BinaryRecordReader reader = readerOver(ByteBuffer.allocate(4).putInt(-1).array(), 0)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    private static byte[] frames(byte[]... records) {
+        int size = 0;
+        for (byte[] record : records) {
+            size += Integer.BYTES + record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] record : records) {
+            buffer.putInt(record.length).put(record);
+        }
+        return buffer.array();
+    }
+
+    private static BinaryRecordReader readerOver(byte[] content, long startOffset) {
+        return new BinaryRecordReader(Channels.newChannel(new ByteArrayInputStream(content)), startOffset);
+    }
+}
@@ -0,0 +1,38 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BinaryRecordWriterTest {
+
+    @Test
+    void writesHeaderAndFramesReadableByTheReader() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        byte[] large = "z".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+
+        try (BinaryRecordWriter writer = new BinaryRecordWriter(Channels.newChannel(sink))) {
+            writer.write("first".getBytes(StandardCharsets.UTF_8));
+            writer.write(large);
+        }
+
+        byte[] written = sink.toByteArray();
+        assertArrayEquals(new byte[]{'T', 'P', 'L', 'B', BinaryRecordFormat.VERSION},
+                Arrays.copyOf(written, BinaryRecordFormat.HEADER_LENGTH));
+        byte[] frames = Arrays.copyOfRange(written, BinaryRecordFormat.HEADER_LENGTH, written.length);
+        try (BinaryRecordReader reader = new BinaryRecordReader(
+                Channels.newChannel(new ByteArrayInputStream(frames)), BinaryRecordFormat.HEADER_LENGTH)) {
+            assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), reader.next());
+            assertArrayEquals(large, reader.next());
+            assertNull(reader.next());
+        }
+    }
+}
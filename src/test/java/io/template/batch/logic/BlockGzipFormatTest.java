@@ -0,0 +1,77 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockGzipFormatTest {
+
+    private static final Random RANDOM = new Random(7);
+
+    @Test
+    void blocksRoundTripAndRecordTheirSize() throws IOException {
+        byte[] data = "record\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        byte[] block = BlockGzipFormat.compress(data, 0, data.length);
+
+        assertEquals(block.length, BlockGzipFormat.blockSize(ByteBuffer.wrap(block)));
+        assertArrayEquals(data, BlockGzipFormat.inflate(ByteBuffer.wrap(block)));
+    }
+
+    @Test
+    void incompressibleBlocksStillFit() throws IOException {
+        byte[] data = new byte[BlockGzipFormat.MAX_BLOCK_INPUT];
+        RANDOM.nextBytes(data);
+
+        byte[] block = BlockGzipFormat.compress(data, 0, data.length);
+
+        assertTrue(block.length <= BlockGzipFormat.MAX_BLOCK_SIZE);
+        assertArrayEquals(data, BlockGzipFormat.inflate(ByteBuffer.wrap(block)));
+    }
+
+    @Test
+    void concatenatedBlocksAreOrdinaryGzip() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(BlockGzipFormat.compress("first ".getBytes(StandardCharsets.UTF_8), 0, 6));
+        file.write(BlockGzipFormat.compress("second".getBytes(StandardCharsets.UTF_8), 0, 6));
+        file.write(BlockGzipFormat.endOfFileBlock());
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(file.toByteArray()))) {
+            assertEquals("first second", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void detectsCorruptBlocks() throws IOException {
+        byte[] block = BlockGzipFormat.compress("payload".getBytes(StandardCharsets.UTF_8), 0, 7);
+        block[block.length - BlockGzipFormat.TRAILER_LENGTH] ^= 1;
+
+        assertThrows(ZipException.class, () -> BlockGzipFormat.inflate(ByteBuffer.wrap(block)));
+    }
+
+    @Test
+    void rejectsNonBlockHeaders() {
+        assertEquals(-1, BlockGzipFormat.blockSize(ByteBuffer.wrap(new byte[BlockGzipFormat.HEADER_LENGTH])));
+    }
+
+    @Test
+    void compressesOutputsNamedWithGzipSuffix() {
+        assertTrue(BlockGzipFormat.isCompressedOutput(Path.of("output.ndjson.gz")));
+        assertFalse(BlockGzipFormat.isCompressedOutput(Path.of("output.ndjson")));
+    }
+}
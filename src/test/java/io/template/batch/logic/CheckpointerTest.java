@@ -0,0 +1,79 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.batch.models.Checkpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointerTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void persistsLatestSubmittedCheckpoint() throws IOException {
+        Path checkpointPath = directory.resolve("out.checkpoint");
+
+        try (FileChannel output = openOutput()) {
+            Checkpointer checkpointer = new Checkpointer(checkpointPath, output);
+            checkpointer.submit(checkpoint(10, 20, 1));
+            checkpointer.submit(checkpoint(30, 40, 2));
+            checkpointer.close();
+
+            assertEquals(checkpoint(30, 40, 2), checkpointer.lastPersisted());
+        }
+
+        assertEquals(Optional.of(checkpoint(30, 40, 2)), Checkpointer.load(checkpointPath));
+        assertFalse(Files.exists(directory.resolve("out.checkpoint.tmp")));
+    }
+
+    @Test
+    void loadsNothingWhenNoCheckpointExists() {
+        assertEquals(Optional.empty(), Checkpointer.load(directory.resolve("missing.checkpoint")));
+    }
+
+    @Test
+    void rejectsCorruptCheckpoint() throws IOException {
+        Path checkpointPath = directory.resolve("corrupt.checkpoint");
+        Files.writeString(checkpointPath, "{", StandardCharsets.UTF_8);
+
+        assertThrows(BatchProcessingException.class, () -> Checkpointer.load(checkpointPath));
+    }
+
+    @Test
+    void deletesCheckpoint() throws IOException {
+        Path checkpointPath = directory.resolve("out.checkpoint");
+
+        try (FileChannel output = openOutput()) {
+            Checkpointer checkpointer = new Checkpointer(checkpointPath, output);
+            checkpointer.submit(Checkpoint.START);
+            checkpointer.close();
+            assertTrue(Files.exists(checkpointPath));
+
+            checkpointer.delete();
+        }
+
+        assertFalse(Files.exists(checkpointPath));
+    }
+
+    private static Checkpoint checkpoint(long inputOffset, long outputPosition, long recordsProcessed) {
+        return new Checkpoint(inputOffset, outputPosition, recordsProcessed, Checkpoint.START.statistics());
+    }
+
+    private FileChannel openOutput() throws IOException {
+        return FileChannel.open(directory.resolve("out"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+}
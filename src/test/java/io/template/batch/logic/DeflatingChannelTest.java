@@ -0,0 +1,51 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeflatingChannelTest {
+
+    @Test
+    void writesGzipReadableByAnyReader() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        String content = "line of output\n".repeat(20_000);
+
+        try (DeflatingChannel channel = new DeflatingChannel(Channels.newChannel(sink), 2)) {
+            channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        assertEquals(content, gunzip(sink.toByteArray()));
+    }
+
+    @Test
+    void flushEndsOnABlockBoundarySoTheFileCanBeTruncatedThere() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        DeflatingChannel channel = new DeflatingChannel(Channels.newChannel(sink), 2);
+        channel.write(ByteBuffer.wrap("kept\n".getBytes(StandardCharsets.UTF_8)));
+        channel.flush();
+        int checkpoint = sink.size();
+        channel.write(ByteBuffer.wrap("discarded\n".getBytes(StandardCharsets.UTF_8)));
+        channel.close();
+
+        byte[] truncated = Arrays.copyOf(sink.toByteArray(), checkpoint);
+
+        assertEquals("kept\n", gunzip(truncated));
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
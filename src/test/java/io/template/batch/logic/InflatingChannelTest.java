@@ -0,0 +1,90 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InflatingChannelTest {
+
+    @TempDir
+    private Path directory;
+
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append("{\"record\":").append(i).append("}\n");
+        }
+        content = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void inflatesBlockedGzipInParallel() throws IOException {
+        Path file = directory.resolve("blocked.gz");
+        try (DeflatingChannel out = new DeflatingChannel(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE), 3)) {
+            out.write(ByteBuffer.wrap(content));
+        }
+
+        assertArrayEquals(content, inflate(file, 3));
+        assertArrayEquals(content, inflate(file, 1));
+    }
+
+    @Test
+    void inflatesMultiMemberGzipSequentially() throws IOException {
+        Path file = directory.resolve("members.gz");
+        int half = content.length / 2;
+        Files.write(file, concat(gzip(Arrays.copyOf(content, half)),
+                gzip(Arrays.copyOfRange(content, half, content.length))));
+
+        assertArrayEquals(content, inflate(file, 4));
+    }
+
+    @Test
+    void reportsTruncatedInput() throws IOException {
+        Path file = directory.resolve("truncated.gz");
+        byte[] compressed = gzip(content);
+        Files.write(file, Arrays.copyOf(compressed, compressed.length / 2));
+
+        assertThrows(IOException.class, () -> inflate(file, 2));
+    }
+
+    private static byte[] inflate(Path file, int parallelism) throws IOException {
+        try (InflatingChannel channel = new InflatingChannel(FileChannel.open(file, StandardOpenOption.READ),
+                parallelism)) {
+            return Channels.newInputStream(channel).readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
@@ -0,0 +1,34 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocalProcessLauncherTest {
+
+    @Test
+    void startsWorkersWithTheJvmOptionsOfTheCoordinator() {
+        List<String> command = LocalProcessLauncher.command(
+                List.of("-Xmx2g", "-Dio.template.resultCache=cache.bin",
+                        "-agentlib:jdwp=transport=dt_socket,server=y,address=5005"),
+                List.of("--worker", "coordinator.sock", "input.ndjson", "output.ndjson"));
+
+        assertEquals(List.of("-Xmx2g", "-Dio.template.resultCache=cache.bin", "-cp",
+                        System.getProperty("java.class.path"), LocalProcessLauncher.MAIN_CLASS,
+                        "--worker", "coordinator.sock", "input.ndjson", "output.ndjson"),
+                command.subList(1, command.size()));
+    }
+
+    @Test
+    void asksWorkersToExitBeforeForcingThem() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("sleep", "60").start();
+
+        new LocalProcessLauncher.ProcessWorker(process).stop();
+
+        // 128 + SIGTERM; a forced stop would have been 128 + SIGKILL
+        assertEquals(143, process.exitValue());
+    }
+}
@@ -0,0 +1,137 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.batch.models.FlushMetrics;
+import io.template.shared.models.FlushPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatchWriterTest {
+
+    private static final Duration LONG_LINGER = Duration.ofMinutes(1);
+
+    private final RecordingStream stream = new RecordingStream();
+
+    @Test
+    void writesOneBatchPerRecordLimit() throws IOException {
+        try (MicroBatchWriter writer = new MicroBatchWriter(stream, new FlushPolicy(2, 1024, LONG_LINGER))) {
+            writer.write(bytes("a"));
+            writer.write(bytes("b"));
+            writer.write(bytes("c"));
+
+            assertEquals(List.of("a\nb\n"), stream.writes());
+        }
+
+        assertEquals(List.of("a\nb\n", "c\n"), stream.writes());
+        assertTrue(stream.closed);
+    }
+
+    @Test
+    void writesABatchOnceItReachesTheByteLimit() throws IOException {
+        try (MicroBatchWriter writer = new MicroBatchWriter(stream, new FlushPolicy(100, 6, LONG_LINGER))) {
+            writer.write(bytes("ab"));
+            writer.write(bytes("cd"));
+            writer.write(bytes("ef"));
+            writer.write(bytes("a record longer than the byte limit"));
+
+            assertEquals(List.of("ab\ncd\n", "ef\na record longer than the byte limit\n"), stream.writes());
+            FlushMetrics metrics = writer.metrics();
+            assertEquals(2, metrics.flushesByBytes());
+            assertEquals(0, metrics.flushesByRecords());
+        }
+    }
+
+    @Test
+    void writesALingeringBatchWithoutFurtherRecords() throws IOException, InterruptedException {
+        FlushPolicy policy = new FlushPolicy(100, 1024, Duration.ofMillis(20));
+        try (MicroBatchWriter writer = new MicroBatchWriter(stream, policy)) {
+            writer.write(bytes("lonely"));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (stream.writes().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(List.of("lonely\n"), stream.writes());
+            FlushMetrics metrics = writer.metrics();
+            assertEquals(1, metrics.flushesByLinger());
+            assertTrue(metrics.ageMaxNanos() >= Duration.ofMillis(20).toNanos());
+        }
+    }
+
+    @Test
+    void recordsTheSizeOfEveryFlush() throws IOException {
+        MicroBatchWriter writer = new MicroBatchWriter(stream, new FlushPolicy(4, 1024, LONG_LINGER));
+        for (int i = 0; i < 10; i++) {
+            writer.write(bytes("r" + i));
+        }
+        writer.close();
+
+        FlushMetrics metrics = writer.metrics();
+        assertEquals(3, metrics.flushes());
+        assertEquals(2, metrics.flushesByRecords());
+        assertEquals(1, metrics.flushesOnClose());
+        assertEquals(4, metrics.recordsMax());
+        assertEquals(4, metrics.recordsP50());
+        assertEquals(12, metrics.bytesMax());
+    }
+
+    @Test
+    void reportsAFailedWriteToTheNextCall() throws IOException {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        MicroBatchWriter writer = new MicroBatchWriter(failing, new FlushPolicy(1, 1024, LONG_LINGER));
+
+        assertThrows(IOException.class, () -> writer.write(bytes("lost")));
+        assertThrows(IOException.class, () -> writer.write(bytes("refused")));
+        assertThrows(IOException.class, writer::close);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Keeps each write separately, to tell batches apart.
+     */
+    private static final class RecordingStream extends OutputStream {
+
+        private final List<String> writes = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            copy.write(bytes, offset, length);
+            writes.add(copy.toString(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        synchronized List<String> writes() {
+            return List.copyOf(writes);
+        }
+    }
+}
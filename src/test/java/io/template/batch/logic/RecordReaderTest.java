@@ -0,0 +1,71 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RecordReaderTest {
+
+    @Test
+    void readsRecordsAndTracksOffsets() throws IOException {
+        try (RecordReader reader = readerOver("first\nsecond\n", 0)) {
+            assertEquals("first", next(reader));
+            assertEquals(6, reader.position());
+            assertEquals("second", next(reader));
+            assertEquals(13, reader.position());
+            assertNull(next(reader));
+        }
+    }
+
+    @Test
+    void skipsBlankLinesAndStripsCarriageReturns() throws IOException {
+        try (RecordReader reader = readerOver("\n\r\nfirst\r\n\n", 0)) {
+            assertEquals("first", next(reader));
+            assertNull(next(reader));
+            assertEquals(11, reader.position());
+        }
+    }
+
+    @Test
+    void returnsFinalRecordWithoutTrailingNewline() throws IOException {
+        try (RecordReader reader = readerOver("only", 0)) {
+            assertEquals("only", next(reader));
+            assertEquals(4, reader.position());
+            assertNull(next(reader));
+        }
+    }
+
+    @Test
+    void offsetsStartFromGivenPosition() throws IOException {
+        try (RecordReader reader = readerOver("resumed\n", 100)) {
+            assertEquals("resumed", next(reader));
+            assertEquals(108, reader.position());
+        }
+    }
+
+    @Test
+    void readsRecordsLongerThanInitialCapacity() throws IOException {
+        String longRecord = "x".repeat(10_000);
+
+        try (RecordReader reader = readerOver(longRecord + "\nshort\n", 0)) {
+            assertEquals(longRecord, next(reader));
+            assertEquals("short", next(reader));
+        }
+    }
+
+    private static RecordReader readerOver(String content, long startOffset) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new RecordReader(Channels.newChannel(new ByteArrayInputStream(bytes)), startOffset);
+    }
+
+    private static String next(RecordReader reader) throws IOException {
+        byte[] record = reader.next();
+        return record == null ? null : new String(record, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package io.template.batch.logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecordWriterTest {
+
+    @Test
+    void writesNewlineTerminatedRecordsOnFlush() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        RecordWriter writer = new RecordWriter(Channels.newChannel(sink), 0);
+
+        writer.write(bytes("first"));
+        writer.write(bytes("second"));
+        assertEquals(0, sink.size());
+
+        assertEquals(13, writer.flush());
+        assertEquals("first\nsecond\n", sink.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void positionStartsFromGivenPosition() throws IOException {
+        RecordWriter writer = new RecordWriter(Channels.newChannel(new ByteArrayOutputStream()), 50);
+
+        writer.write(bytes("abc"));
+
+        assertEquals(54, writer.position());
+    }
+
+    @Test
+    void writesRecordsLargerThanBuffer() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        String large = "y".repeat(100_000);
+
+        try (RecordWriter writer = new RecordWriter(Channels.newChannel(sink), 0)) {
+            writer.write(bytes("small"));
+            writer.write(bytes(large));
+        }
+
+        assertEquals("small\n" + large + "\n", sink.toString(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
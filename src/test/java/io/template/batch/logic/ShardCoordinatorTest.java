@@ -0,0 +1,223 @@
+package io.template.batch.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.template.batch.exceptions.BatchProcessingException;
+import io.template.batch.models.BatchSummary;
+import io.template.bootstrap.logic.InputProcessor;
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.samplebusinesslayer.logic.Calculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_MALFORMED;
+import static io.template.testsupport.SampleJsonInputs.validInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardCoordinatorTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path input;
+    private Path output;
+    private BatchProcessor batchProcessor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        input = directory.resolve("input.ndjson");
+        output = directory.resolve("output.ndjson");
+        InputProcessor inputProcessor = new InputProcessor(
+                new InputSanitizer(),
+                new Calculator()
+        );
+        batchProcessor = new BatchProcessor(inputProcessor);
+
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add(i % 10 == 0 ? INVALID_JSON_MALFORMED : record(i));
+        }
+        Files.writeString(input, String.join("\n", records) + "\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void producesTheSameOutputAsASingleProcessRun() throws IOException {
+        Path expected = directory.resolve("expected.ndjson");
+        BatchSummary single = batchProcessor.run(input, expected);
+
+        BatchSummary sharded = new ShardCoordinator(inProcessWorkers(new AtomicInteger())).run(input, output, 3);
+
+        assertTrue(sharded.completed());
+        assertEquals(single.recordsProcessed(), sharded.recordsProcessed());
+        assertEquals(single.recordsRejected(), sharded.recordsRejected());
+        assertEquals(single.statistics(), sharded.statistics());
+        assertEquals(Files.readAllLines(expected), Files.readAllLines(output));
+        assertEquals(Files.readString(BatchProcessor.statisticsPathFor(expected)),
+                Files.readString(BatchProcessor.statisticsPathFor(output)));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.filter(file -> file.toString().contains(".shard-")).count());
+        }
+    }
+
+    @Test
+    void reassignsShardsOfDeadWorkers() throws IOException {
+        AtomicInteger launches = new AtomicInteger();
+        WorkerLauncher firstWorkerDies = arguments -> launches.get() == 0
+                ? startThread(launches, () -> dieAfterTakingShard(arguments))
+                : inProcessWorkers(launches).launch(arguments);
+
+        BatchSummary summary = new ShardCoordinator(firstWorkerDies).run(input, output, 1);
+
+        assertEquals(200, summary.recordsProcessed());
+        assertEquals(20, summary.recordsRejected());
+        assertEquals(200, Files.readAllLines(output).size());
+        assertEquals(2, launches.get());
+    }
+
+    @Test
+    void failsWhenAShardKeepsKillingWorkers() {
+        AtomicInteger launches = new AtomicInteger();
+        WorkerLauncher workersAlwaysDie = arguments ->
+                startThread(launches, () -> dieAfterTakingShard(arguments));
+
+        assertThrows(BatchProcessingException.class,
+                () -> new ShardCoordinator(workersAlwaysDie).run(input, output, 1));
+        assertEquals(ShardCoordinator.MAX_ATTEMPTS_PER_SHARD, launches.get());
+    }
+
+    @Test
+    void replacesWorkersThatExitImmediately() throws IOException {
+        AtomicInteger launches = new AtomicInteger();
+        WorkerLauncher firstWorkerExits = arguments -> launches.get() == 0
+                ? startThread(launches, () -> { })
+                : inProcessWorkers(launches).launch(arguments);
+
+        BatchSummary summary = new ShardCoordinator(firstWorkerExits).run(input, output, 1);
+
+        assertEquals(200, summary.recordsProcessed());
+        assertEquals(200, Files.readAllLines(output).size());
+        assertEquals(2, launches.get());
+    }
+
+    @Test
+    void failsWhenNoWorkerIsLeft() {
+        AtomicInteger launches = new AtomicInteger();
+        WorkerLauncher workersExitImmediately = arguments -> startThread(launches, () -> { });
+
+        BatchProcessingException exception = assertThrows(BatchProcessingException.class,
+                () -> new ShardCoordinator(workersExitImmediately).run(input, output, 2));
+        assertTrue(exception.getMessage().startsWith("No live workers left"), exception.getMessage());
+        assertEquals(2 + 2 * ShardCoordinator.MAX_RELAUNCHES_PER_WORKER, launches.get());
+    }
+
+    @Test
+    void failsWhenNoWorkerCanBeLaunched() {
+        WorkerLauncher launchFails = arguments -> {
+            throw new IOException("no such binary");
+        };
+
+        assertThrows(BatchProcessingException.class, () -> new ShardCoordinator(launchFails).run(input, output, 2));
+    }
+
+    @Test
+    void stopsWorkersThatHoldAShardPastItsLease() throws IOException {
+        AtomicInteger launches = new AtomicInteger();
+        WorkerLauncher firstWorkerHangs = arguments -> launches.get() == 0
+                ? startThread(launches, () -> hangAfterTakingShard(arguments))
+                : inProcessWorkers(launches).launch(arguments);
+
+        BatchSummary summary = new ShardCoordinator(firstWorkerHangs, Duration.ofSeconds(3)).run(input, output, 1);
+
+        assertEquals(200, summary.recordsProcessed());
+        assertEquals(200, Files.readAllLines(output).size());
+        assertEquals(2, launches.get());
+    }
+
+    private WorkerLauncher inProcessWorkers(AtomicInteger launches) {
+        ShardWorker worker = new ShardWorker(batchProcessor);
+        return arguments -> startThread(launches, () -> worker.run(
+                Path.of(arguments.get(1)), Path.of(arguments.get(2)), Integer.parseInt(arguments.get(3))));
+    }
+
+    /**
+     * Runs a worker on a thread, which is interrupted when it is stopped and still running after a grace period.
+     */
+    private static WorkerHandle startThread(AtomicInteger launches, Runnable body) {
+        launches.incrementAndGet();
+        CompletableFuture<Void> exited = new CompletableFuture<>();
+        Thread thread = Thread.ofPlatform().daemon(true).start(() -> {
+            try {
+                body.run();
+            } finally {
+                exited.complete(null);
+            }
+        });
+        return new WorkerHandle() {
+            @Override
+            public CompletableFuture<?> exited() {
+                return exited;
+            }
+
+            @Override
+            public void stop() throws InterruptedException {
+                if (!thread.join(Duration.ofSeconds(1))) {
+                    thread.interrupt();
+                    thread.join();
+                }
+            }
+        };
+    }
+
+    private static void dieAfterTakingShard(List<String> arguments) {
+        try {
+            // Closing the connection with the shard taken is the death of the worker
+            takeShard(arguments).close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void hangAfterTakingShard(List<String> arguments) {
+        try {
+            SocketChannel channel = takeShard(arguments);
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } finally {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static SocketChannel takeShard(List<String> arguments) throws IOException {
+        SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(Path.of(arguments.get(1))));
+        String ready = ShardCoordinator.READY + " " + arguments.get(3) + "\n";
+        channel.write(ByteBuffer.wrap(ready.getBytes(StandardCharsets.UTF_8)));
+        new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8)).readLine();
+        return channel;
+    }
+
+    private static String record(int exampleIntField) {
+        return validInput("value", exampleIntField, true, "2024-01-01T00:00:00Z", "a").replace("\n", "");
+    }
+}
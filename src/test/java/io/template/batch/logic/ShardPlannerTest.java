@@ -0,0 +1,61 @@
+package io.template.batch.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.template.batch.models.Shard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardPlannerTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void splitsOnRecordBoundariesAndCoversTheWholeInput() throws IOException {
+        Path input = directory.resolve("input.ndjson");
+        String content = "aaaa\nbbbbbbbbbbbb\ncc\nd\neeeeeee\n";
+        Files.writeString(input, content, StandardCharsets.UTF_8);
+
+        List<Shard> shards = ShardPlanner.plan(input, 3);
+
+        long expectedStart = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            assertEquals(i, shard.index());
+            assertEquals(expectedStart, shard.start());
+            assertTrue(shard.start() == 0 || content.charAt((int) shard.start() - 1) == '\n');
+            expectedStart = shard.end();
+        }
+        assertEquals(content.length(), expectedStart);
+    }
+
+    @Test
+    void neverProducesEmptyShards() throws IOException {
+        Path input = directory.resolve("input.ndjson");
+        Files.writeString(input, "single-record\n", StandardCharsets.UTF_8);
+
+        assertEquals(List.of(new Shard(0, 0, 14)), ShardPlanner.plan(input, 8));
+    }
+
+    @Test
+    void returnsNoShardsForEmptyInput() throws IOException {
+        Path input = directory.resolve("input.ndjson");
+        Files.writeString(input, "", StandardCharsets.UTF_8);
+
+        assertEquals(List.of(), ShardPlanner.plan(input, 4));
+    }
+
+    @Test
+    void rejectsNonPositiveShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> ShardPlanner.plan(directory.resolve("input.ndjson"), 0));
+    }
+}
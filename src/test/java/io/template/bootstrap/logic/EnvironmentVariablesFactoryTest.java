@@ -1,9 +1,16 @@
 package io.template.bootstrap.logic;
 
+import java.time.Duration;
 import java.util.Map;
 
 import io.template.bootstrap.exceptions.EnvironmentVariableException;
+import io.template.bootstrap.models.ResourceSetting;
 import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.NumericMode;
+import io.template.shared.models.NumericSettings;
+import io.template.shared.models.PrevalidationLimits;
+import io.template.shared.models.WindowSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -245,5 +252,179 @@ class EnvironmentVariablesFactoryTest {
         assertEquals(Integer.MAX_VALUE, result.exampleIntVar());
     }
 
+    @Test
+    void readsResourceOverridesFromTuningVariables() {
+        environment.put("TUNING_CARRIER_THREADS", "4");
+        environment.put("TUNING_JOURNAL_QUEUE_CAPACITY", " 512 ");
+        environment.put("TUNING_SCHEDULER_PARALLELISM", "");
+
+        Map<ResourceSetting, Integer> overrides = EnvironmentVariablesFactory.resourceOverrides(environment);
+
+        assertEquals(Map.of(ResourceSetting.CARRIER_THREADS, 4, ResourceSetting.JOURNAL_QUEUE_CAPACITY, 512),
+                overrides);
+    }
+
+    @Test
+    void throwsExceptionWhenResourceOverrideIsNotPositive() {
+        environment.put("TUNING_COMPRESSION_THREADS", "0");
+
+        EnvironmentVariableException exception = assertThrows(
+                EnvironmentVariableException.class,
+                () -> EnvironmentVariablesFactory.resourceOverrides(environment)
+        );
+
+        assertTrue(exception.getMessage().contains("TUNING_COMPRESSION_THREADS"));
+        assertTrue(exception.getMessage().contains("positive integer"));
+    }
+
+    @Test
+    void throwsExceptionWhenResourceOverrideIsNotANumber() {
+        environment.put("TUNING_REJECTION_CACHE_ENTRIES", "many");
+
+        EnvironmentVariableException exception = assertThrows(
+                EnvironmentVariableException.class,
+                () -> EnvironmentVariablesFactory.resourceOverrides(environment)
+        );
+
+        assertTrue(exception.getMessage().contains("TUNING_REJECTION_CACHE_ENTRIES"));
+        assertNotNull(exception.getCause());
+    }
+
+    @Test
+    void usesTheDefaultFlushPolicyWithoutFlushVariables() {
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(FlushPolicy.DEFAULT, result.flushPolicy());
+    }
+
+    @Test
+    void readsTheFlushPolicyFromFlushVariables() {
+        environment.put("FLUSH_MAX_RECORDS", "64");
+        environment.put("FLUSH_MAX_LINGER_MILLIS", " 250 ");
+
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(new FlushPolicy(64, FlushPolicy.DEFAULT.maxBytes(), Duration.ofMillis(250)),
+                result.flushPolicy());
+    }
+
+    @Test
+    void throwsExceptionWhenFlushVariableIsNotPositive() {
+        environment.put("FLUSH_MAX_BYTES", "0");
+
+        EnvironmentVariableException exception = assertThrows(
+                EnvironmentVariableException.class,
+                () -> EnvironmentVariablesFactory.from(environment)
+        );
+
+        assertTrue(exception.getMessage().contains("FLUSH_MAX_BYTES"));
+    }
+
+    @Test
+    void usesTheDefaultWindowsWithoutWindowVariables() {
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(WindowSpec.DEFAULT, result.windowSpec());
+    }
+
+    @Test
+    void readsTheWindowsFromWindowVariables() {
+        environment.put("WINDOW_SIZE_MILLIS", "60000");
+        environment.put("WINDOW_SLIDE_MILLIS", "15000");
+        environment.put("WINDOW_ALLOWED_LATENESS_MILLIS", "30000");
+
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(new WindowSpec(Duration.ofMinutes(1), Duration.ofSeconds(15),
+                WindowSpec.DEFAULT.maxOutOfOrderness(), Duration.ofSeconds(30)), result.windowSpec());
+    }
+
+    @Test
+    void throwsExceptionWhenWindowSizeIsNotAMultipleOfTheSlide() {
+        environment.put("WINDOW_SIZE_MILLIS", "60000");
+        environment.put("WINDOW_SLIDE_MILLIS", "7000");
+
+        EnvironmentVariableException exception = assertThrows(
+                EnvironmentVariableException.class,
+                () -> EnvironmentVariablesFactory.from(environment)
+        );
+
+        assertTrue(exception.getMessage().contains("WINDOW_"));
+        assertNotNull(exception.getCause());
+    }
+
+    @Test
+    void usesTheDefaultPrevalidationLimitsWithoutPrevalidationVariables() {
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(PrevalidationLimits.DEFAULT, result.prevalidationLimits());
+    }
+
+    @Test
+    void readsThePrevalidationLimitsFromPrevalidationVariables() {
+        environment.put("PREVALIDATION_MAX_BYTES", "4096");
+        environment.put("PREVALIDATION_MAX_ARRAY_ELEMENTS", " 50 ");
+
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(new PrevalidationLimits(4096, PrevalidationLimits.DEFAULT.maxDepth(), 50),
+                result.prevalidationLimits());
+    }
+
+    @Test
+    void throwsExceptionWhenPrevalidationVariableIsNotPositive() {
+        environment.put("PREVALIDATION_MAX_DEPTH", "0");
+
+        EnvironmentVariableException exception = assertThrows(
+                EnvironmentVariableException.class,
+                () -> EnvironmentVariablesFactory.from(environment)
+        );
+
+        assertTrue(exception.getMessage().contains("PREVALIDATION_MAX_DEPTH"));
+    }
+
+    @Test
+    void usesTheDefaultArithmeticWithoutNumericVariables() {
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(NumericSettings.DEFAULT, result.numericSettings());
+    }
+
+    @Test
+    void readsTheArithmeticFromNumericVariables() {
+        environment.put("NUMERIC_MODE", "fixed_point");
+        environment.put("NUMERIC_FIXED_POINT_SCALE", "2");
+
+        EnvironmentVariables result = EnvironmentVariablesFactory.from(environment);
+
+        assertEquals(new NumericSettings(NumericMode.FIXED_POINT, NumericSettings.DEFAULT.decimalPrecision(), 2),
+                result.numericSettings());
+    }
+
+    @Test
+    void throwsExceptionWhenNumericModeIsUnknown() {
+        environment.put("NUMERIC_MODE", "float");
+
+        EnvironmentVariableException exception = assertThrows(
+                EnvironmentVariableException.class,
+                () -> EnvironmentVariablesFactory.from(environment)
+        );
+
+        assertTrue(exception.getMessage().contains("NUMERIC_MODE"));
+    }
+
+    @Test
+    void throwsExceptionWhenFixedPointScaleIsTooLarge() {
+        environment.put("NUMERIC_FIXED_POINT_SCALE", "19");
+
+        EnvironmentVariableException exception = assertThrows(
+                EnvironmentVariableException.class,
+                () -> EnvironmentVariablesFactory.from(environment)
+        );
+
+        assertTrue(exception.getMessage().contains("NUMERIC_"));
+        assertNotNull(exception.getCause());
+    }
+
     // Singleton behavior is a Guice concern and is not tested here.
 }
@@ -0,0 +1,34 @@
+package io.template.bootstrap.logic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutorModesTest {
+
+    @Test
+    void treatsServingModesAsLongRunning() {
+        assertTrue(Executor.isLongRunning(new String[]{"--daemon", "daemon.sock"}));
+        assertTrue(Executor.isLongRunning(new String[]{"--coordinator", "input.ndjson", "output.ndjson", "4"}));
+        assertTrue(Executor.isLongRunning(new String[]{"--worker", "coordinator.sock", "input.ndjson", "1"}));
+        assertTrue(Executor.isLongRunning(new String[]{"--stream", "output.ndjson"}));
+        assertTrue(Executor.isLongRunning(new String[]{"--record", "inputs.journal", "--daemon", "daemon.sock"}));
+        assertFalse(Executor.isLongRunning(new String[]{"--batch", "input.ndjson", "output.ndjson"}));
+        assertFalse(Executor.isLongRunning(new String[]{"--record", "inputs.journal", "{}"}));
+        assertFalse(Executor.isLongRunning(new String[]{"{}"}));
+        assertFalse(Executor.isLongRunning(null));
+    }
+
+    @Test
+    void forwardsOnlySingleInputsAndBatchRuns() {
+        assertTrue(Executor.isForwardable(new String[]{"{}"}));
+        assertTrue(Executor.isForwardable(new String[]{"--batch", "input.ndjson", "output.ndjson"}));
+        assertTrue(Executor.isForwardable(new String[]{"--batch", "input.ndjson", "output.ndjson", "--index"}));
+        assertFalse(Executor.isForwardable(new String[]{"--record", "inputs.journal", "{}"}));
+        assertFalse(Executor.isForwardable(new String[]{"--daemon", "daemon.sock"}));
+        assertFalse(Executor.isForwardable(new String[]{"--coordinator", "input.ndjson", "output.ndjson", "4"}));
+        assertFalse(Executor.isForwardable(new String[]{"--stream", "output.ndjson"}));
+        assertFalse(Executor.isForwardable(null));
+    }
+}
@@ -1,10 +1,34 @@
 package io.template.bootstrap.logic;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.template.batch.logic.BatchProcessor;
+import io.template.batch.logic.BinaryInputConverter;
+import io.template.batch.logic.ShardCoordinator;
+import io.template.batch.logic.ShardWorker;
+import io.template.batch.models.BatchSummary;
 import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.concurrency.exceptions.ConcurrencyLimitExceededException;
+import io.template.concurrency.logic.AdaptiveConcurrencyLimiter;
+import io.template.concurrency.logic.RequestCoalescer;
+import io.template.daemon.logic.DaemonServer;
+import io.template.replay.logic.InputJournal;
+import io.template.replay.logic.Replayer;
+import io.template.replay.models.JournalOutcome;
+import io.template.replay.models.ReplayReport;
 import io.template.samplebusinesslayer.logic.Calculator;
+import io.template.samplebusinesslayer.logic.ResultAggregator;
+import io.template.samplebusinesslayer.models.CalculationResult;
 import io.template.shared.models.ApplicationInput;
 import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.WindowSpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,10 +37,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static io.template.testsupport.SampleApplicationInputs.exampleApplicationInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +61,27 @@ class ExecutorTest {
     @Mock
     private EnvironmentVariables environmentVariables;
 
+    @Mock
+    private BatchProcessor batchProcessor;
+
+    @Mock
+    private ShardCoordinator shardCoordinator;
+
+    @Mock
+    private ShardWorker shardWorker;
+
+    @Mock
+    private DaemonServer daemonServer;
+
+    @Mock
+    private BinaryInputConverter binaryInputConverter;
+
+    @Mock
+    private InputJournal inputJournal;
+
+    @Mock
+    private Replayer replayer;
+
     private Executor executor;
 
     @BeforeEach
@@ -39,7 +89,7 @@ class ExecutorTest {
         when(environmentVariables.stage()).thenReturn("test");
         when(environmentVariables.region()).thenReturn("us-east-1");
 
-        executor = new Executor(environmentVariables, inputSanitizer, calculator);
+        executor = executorWith(new AdaptiveConcurrencyLimiter());
     }
 
     @Test
@@ -110,4 +160,196 @@ class ExecutorTest {
         // Verify calculator is never called when sanitization fails
         verify(calculator, never()).calculate(argThat(request -> true));
     }
+
+    @Test
+    void rejectsARepeatedInvalidInputWithoutSanitizingItAgain() {
+        String[] args = new String[]{"invalid-input"};
+        when(inputSanitizer.sanitize(args)).thenThrow(new InvalidInputException("Invalid input JSON"));
+
+        assertThrows(InvalidInputException.class, () -> executor.execute(args));
+        InvalidInputException repeated = assertThrows(InvalidInputException.class, () -> executor.execute(args));
+
+        assertEquals("Invalid input JSON", repeated.getMessage());
+        verify(inputSanitizer, times(1)).sanitize(args);
+    }
+
+    @Test
+    void shedsSingleInputsBeyondTheConcurrencyLimit() {
+        AdaptiveConcurrencyLimiter saturated = mock(AdaptiveConcurrencyLimiter.class);
+        when(saturated.execute(any())).thenThrow(new ConcurrencyLimitExceededException("Concurrency limit reached"));
+        Executor limited = executorWith(saturated);
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> limited.execute(new String[]{"{}"}));
+
+        verify(inputSanitizer, never()).sanitize(any());
+    }
+
+    @Test
+    void delegatesToBatchProcessorInBatchMode() {
+        String[] args = new String[]{"--batch", "input.ndjson", "output.ndjson"};
+        BatchSummary summary = new BatchSummary(0, 0, 0, true, new ResultAggregator().snapshot());
+        when(batchProcessor.run(Path.of("input.ndjson"), Path.of("output.ndjson"))).thenReturn(summary);
+
+        executor.execute(args);
+
+        verify(batchProcessor).run(Path.of("input.ndjson"), Path.of("output.ndjson"));
+        verify(inputSanitizer, never()).sanitize(args);
+    }
+
+    @Test
+    void writesTheResultOfASingleInputToTheOutput() {
+        String[] args = new String[]{"opaque-input"};
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        when(inputSanitizer.sanitize(args)).thenReturn(exampleApplicationInput());
+        when(calculator.calculate(Executor.SAMPLE_REQUEST)).thenReturn(new CalculationResult(15.0, "ADD"));
+
+        executor.execute(args, new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        assertEquals("{\"result\":15.0,\"operation\":\"ADD\"}" + System.lineSeparator(),
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writesASummaryOfABatchRunToTheOutput() {
+        String[] args = new String[]{"--batch", "input.ndjson", "output.ndjson"};
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BatchSummary summary = new BatchSummary(0, 3, 1, true, new ResultAggregator().snapshot());
+        when(batchProcessor.run(Path.of("input.ndjson"), Path.of("output.ndjson"))).thenReturn(summary);
+
+        executor.execute(args, new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        assertEquals("Batch processed 3 records (1 rejected), completed: true" + System.lineSeparator(),
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void indexesBatchWhenRequested() {
+        String[] args = new String[]{"--batch", "input.ndjson", "output.ndjson", "--index"};
+        BatchSummary summary = new BatchSummary(0, 0, 0, true, new ResultAggregator().snapshot());
+        when(batchProcessor.runIndexed(Path.of("input.ndjson"), Path.of("output.ndjson"))).thenReturn(summary);
+
+        executor.execute(args);
+
+        verify(batchProcessor).runIndexed(Path.of("input.ndjson"), Path.of("output.ndjson"));
+        verify(batchProcessor, never()).run(Path.of("input.ndjson"), Path.of("output.ndjson"));
+    }
+
+    @Test
+    void streamsStandardInputWithTheConfiguredFlushPolicyAndWindows() {
+        String[] args = new String[]{"--stream", "output.ndjson"};
+        BatchSummary summary = new BatchSummary(0, 0, 0, true, new ResultAggregator().snapshot());
+        when(environmentVariables.flushPolicy()).thenReturn(FlushPolicy.DEFAULT);
+        when(environmentVariables.windowSpec()).thenReturn(WindowSpec.DEFAULT);
+        when(batchProcessor.runStream(any(ReadableByteChannel.class), eq(Path.of("output.ndjson")),
+                eq(FlushPolicy.DEFAULT), eq(WindowSpec.DEFAULT))).thenReturn(summary);
+
+        executor.execute(args);
+
+        verify(batchProcessor).runStream(any(ReadableByteChannel.class), eq(Path.of("output.ndjson")),
+                eq(FlushPolicy.DEFAULT), eq(WindowSpec.DEFAULT));
+        verify(inputSanitizer, never()).sanitize(args);
+    }
+
+    @Test
+    void delegatesToShardCoordinatorInCoordinatorMode() {
+        String[] args = new String[]{"--coordinator", "input.ndjson", "output.ndjson", "4"};
+        BatchSummary summary = new BatchSummary(0, 0, 0, true, new ResultAggregator().snapshot());
+        when(shardCoordinator.run(Path.of("input.ndjson"), Path.of("output.ndjson"), 4)).thenReturn(summary);
+
+        executor.execute(args);
+
+        verify(shardCoordinator).run(Path.of("input.ndjson"), Path.of("output.ndjson"), 4);
+        verify(inputSanitizer, never()).sanitize(args);
+    }
+
+    @Test
+    void delegatesToShardWorkerInWorkerMode() {
+        String[] args = new String[]{"--worker", "coordinator.sock", "input.ndjson", "2"};
+
+        executor.execute(args);
+
+        verify(shardWorker).run(Path.of("coordinator.sock"), Path.of("input.ndjson"), 2);
+        verify(inputSanitizer, never()).sanitize(args);
+    }
+
+    @Test
+    void servesForwardedInvocationsInDaemonMode() {
+        String[] args = new String[]{"--daemon", "daemon.sock"};
+
+        executor.execute(args);
+
+        verify(daemonServer).serve(Path.of("daemon.sock"));
+        verify(inputSanitizer, never()).sanitize(args);
+    }
+
+    @Test
+    void convertsInputInConversionMode() {
+        String[] args = new String[]{"--convert-to-binary", "input.ndjson", "input.bin"};
+
+        executor.execute(args);
+
+        verify(binaryInputConverter).convert(Path.of("input.ndjson"), Path.of("input.bin"));
+        verify(inputSanitizer, never()).sanitize(args);
+    }
+
+    @Test
+    void startsJournalBeforeRunningRecordedArguments() {
+        String[] args = new String[]{"--record", "inputs.journal", "--daemon", "daemon.sock"};
+
+        executor.execute(args);
+
+        InOrder inOrder = inOrder(inputJournal, daemonServer);
+        inOrder.verify(inputJournal).start(Path.of("inputs.journal"));
+        inOrder.verify(daemonServer).serve(Path.of("daemon.sock"));
+    }
+
+    @Test
+    void recordsInvocationsWhileJournalIsRecording() {
+        String[] args = new String[]{"opaque-input"};
+        when(inputJournal.isRecording()).thenReturn(true);
+        when(inputSanitizer.sanitize(args)).thenReturn(exampleApplicationInput());
+        when(calculator.calculate(Executor.SAMPLE_REQUEST)).thenReturn(new CalculationResult(15.0, "ADD"));
+
+        executor.execute(args);
+
+        verify(inputJournal).record(argThat(entry ->
+                entry.outcome() == JournalOutcome.ACCEPTED
+                        && entry.result() == 15.0
+                        && Arrays.equals("opaque-input".getBytes(StandardCharsets.UTF_8), entry.input())
+        ));
+    }
+
+    @Test
+    void recordsRejectedInputAndStillThrows() {
+        String[] args = new String[]{"invalid-input"};
+        when(inputJournal.isRecording()).thenReturn(true);
+        when(inputSanitizer.sanitize(args)).thenThrow(new InvalidInputException("Invalid input JSON"));
+
+        assertThrows(InvalidInputException.class, () -> executor.execute(args));
+
+        verify(inputJournal).record(argThat(entry ->
+                entry.outcome() == JournalOutcome.REJECTED
+                        && "Invalid input JSON".equals(entry.message())
+                        && entry.calculateNanos() == 0
+        ));
+        verify(calculator, never()).calculate(argThat(request -> true));
+    }
+
+    @Test
+    void replaysJournalAtRequestedSpeed() {
+        String[] args = new String[]{"--replay", "inputs.journal", "10"};
+        ReplayReport.StageLatency latency = new ReplayReport.StageLatency(0, 0, 0, 0, 0, 0);
+        when(replayer.replay(Path.of("inputs.journal"), 10.0)).thenReturn(new ReplayReport(0, 0, latency, latency));
+
+        executor.execute(args);
+
+        verify(replayer).replay(Path.of("inputs.journal"), 10.0);
+        verify(inputSanitizer, never()).sanitize(args);
+    }
+
+    private Executor executorWith(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        return new Executor(
+                environmentVariables, inputSanitizer, calculator, batchProcessor, shardCoordinator, shardWorker,
+                daemonServer, binaryInputConverter, inputJournal, replayer, new RequestCoalescer(), concurrencyLimiter);
+    }
 }
@@ -0,0 +1,125 @@
+package io.template.bootstrap.logic;
+
+import java.nio.charset.StandardCharsets;
+
+import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.NumericSettings;
+import io.template.shared.models.PrevalidationLimits;
+import io.template.shared.models.WindowSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_MALFORMED;
+import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_WITH_NON_NUMERIC_INT_FIELD;
+import static io.template.testsupport.SampleJsonInputs.VALID_JSON_WITH_NULL_STRING_FIELD;
+import static io.template.testsupport.SampleJsonInputs.toSmile;
+import static io.template.testsupport.SampleJsonInputs.validInput;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputPrevalidatorTest {
+
+    private InputPrevalidator prevalidator;
+
+    @BeforeEach
+    void setUp() {
+        prevalidator = new InputPrevalidator(new PrevalidationLimits(1024, 3, 4));
+    }
+
+    @Test
+    void acceptsValidInput() {
+        assertDoesNotThrow(() -> check(validInput("hello", 3, true, "2024-01-01T00:00:00Z", "a", "b", "c", "d")));
+        assertDoesNotThrow(() -> check(VALID_JSON_WITH_NULL_STRING_FIELD));
+        assertDoesNotThrow(() -> check("\uFEFF" + validInput("bom", 1, true, "2024-01-01T00:00:00Z")));
+    }
+
+    @Test
+    void leavesTypeErrorsAndMalformedJsonToTheDeserializer() {
+        assertDoesNotThrow(() -> check(INVALID_JSON_WITH_NON_NUMERIC_INT_FIELD));
+        assertDoesNotThrow(() -> check(INVALID_JSON_MALFORMED));
+    }
+
+    @Test
+    void rejectsEmptyAndNonObjectPayloads() {
+        assertRejected("", "empty payload");
+        assertRejected(" \n\t", "empty payload");
+        assertRejected("[1, 2]", "expected a JSON object");
+        assertRejected("null", "expected a JSON object");
+    }
+
+    @Test
+    void rejectsOversizedPayloads() {
+        assertRejected(validInput("x".repeat(1024), 3, true, "2024-01-01T00:00:00Z"), "exceeds the limit of 1024");
+        assertThrows(InvalidInputException.class, () -> prevalidator.checkSmile(new byte[1025]));
+    }
+
+    @Test
+    void rejectsLongArrays() {
+        assertRejected(validInput("hello", 3, true, "2024-01-01T00:00:00Z", "a", "b", "c", "d", "e"),
+                "more than 4 elements");
+    }
+
+    @Test
+    void rejectsDeepNesting() {
+        assertRejected("{\"exampleStringField\": {\"a\": [[1]]}}", "nesting deeper than 3");
+    }
+
+    @Test
+    void rejectsMissingKeys() {
+        String json = validInput("hello", 3, true, "2024-01-01T00:00:00Z").replace("exampleIntField", "other");
+
+        assertRejected(json, "missing required key 'exampleIntField'");
+    }
+
+    @Test
+    void ignoresKeysInsideStringsAndNestedObjects() {
+        String json = "{\"exampleStringField\": \"\\\"exampleIntField\\\": {[\", \"nested\": {\"exampleIntField\": 1},"
+                + " \"exampleBooleanField\": true, \"exampleTimestampField\": null, \"exampleListField\": []}";
+
+        assertRejected(json, "missing required key 'exampleIntField'");
+    }
+
+    @Test
+    void leavesEscapedKeysToTheDeserializer() {
+        String json = validInput("hello", 3, true, "2024-01-01T00:00:00Z")
+                .replace("exampleIntField", "exampleInt\\u0046ield");
+
+        assertDoesNotThrow(() -> check(json));
+    }
+
+    @Test
+    void rejectsWithoutStackTrace() {
+        InvalidInputException exception = assertThrows(InvalidInputException.class, () -> check(""));
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertTrue(exception.getMessage().startsWith("Invalid input JSON: "));
+    }
+
+    @Test
+    void checksOnlyTheSizeOfSmile() {
+        assertDoesNotThrow(() -> prevalidator.checkSmile(toSmile("[1, 2, 3, 4, 5, 6]")));
+    }
+
+    @Test
+    void appliesTheLimitsOfTheEnvironment() {
+        EnvironmentVariables environmentVariables = new EnvironmentVariables("test", "local", "", 0, false,
+                FlushPolicy.DEFAULT, WindowSpec.DEFAULT, new PrevalidationLimits(64, 16, 100), NumericSettings.DEFAULT);
+        prevalidator = new InputPrevalidator(environmentVariables);
+
+        assertRejected(validInput("hello", 3, true, "2024-01-01T00:00:00Z"), "exceeds the limit of 64");
+    }
+
+    private void check(String json) {
+        prevalidator.checkJson(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertRejected(String json, String reason) {
+        InvalidInputException exception = assertThrows(InvalidInputException.class, () -> check(json));
+
+        assertTrue(exception.getMessage().contains(reason), exception.getMessage());
+    }
+}
@@ -0,0 +1,84 @@
+package io.template.bootstrap.logic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.samplebusinesslayer.logic.Calculator;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_MALFORMED;
+import static io.template.testsupport.SampleJsonInputs.VALID_JSON_WITH_NULL_STRING_FIELD;
+import static io.template.testsupport.SampleJsonInputs.toSmile;
+import static io.template.testsupport.SampleJsonInputs.validInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class InputProcessorTest {
+
+    private InputProcessor inputProcessor;
+
+    @BeforeEach
+    void setUp() {
+        inputProcessor = new InputProcessor(
+                new InputSanitizer(),
+                new Calculator()
+        );
+    }
+
+    @Test
+    void addsIntFieldAndListSize() {
+        String json = validInput("hello", 3, true, "2024-01-01T00:00:00Z", "a", "b");
+
+        CalculationResult result = process(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(5.0, result.result());
+        assertEquals("ADD", result.operation());
+    }
+
+    @Test
+    void processesInputFromSampleJson() {
+        CalculationResult result = process(VALID_JSON_WITH_NULL_STRING_FIELD.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(5.0, result.result());
+    }
+
+    @Test
+    void rejectsInvalidJson() {
+        Result<CalculationResult> result =
+                inputProcessor.tryProcessEncoded(INVALID_JSON_MALFORMED.getBytes(StandardCharsets.UTF_8));
+
+        assertInstanceOf(Result.Failure.class, result);
+    }
+
+    @Test
+    void processesSmileAndJsonRecordsAlike() {
+        String json = validInput("hello", 3, true, "2024-01-01T00:00:00Z", "a", "b");
+
+        assertEquals(process(json.getBytes(StandardCharsets.UTF_8)), process(toSmile(json)));
+        assertEquals(5.0, process(toSmile(json)).result());
+    }
+
+    @Test
+    void handsOnlyAcceptedInputsToTheObserver() {
+        List<ApplicationInput> accepted = new ArrayList<>();
+        byte[] valid = validInput("hello", 3, true, "2024-01-01T00:00:00Z", "a").getBytes(StandardCharsets.UTF_8);
+
+        Result<CalculationResult> success = inputProcessor.tryProcessEncoded(valid, accepted::add);
+        Result<CalculationResult> failure = inputProcessor.tryProcessEncoded(
+                INVALID_JSON_MALFORMED.getBytes(StandardCharsets.UTF_8), accepted::add);
+
+        assertInstanceOf(Result.Success.class, success);
+        assertInstanceOf(Result.Failure.class, failure);
+        assertEquals(1, accepted.size());
+        assertEquals("hello", accepted.getFirst().exampleStringField());
+    }
+
+    private CalculationResult process(byte[] record) {
+        return inputProcessor.tryProcessEncoded(record).orElseThrow(IllegalStateException::new);
+    }
+}
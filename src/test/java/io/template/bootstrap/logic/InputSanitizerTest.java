@@ -1,9 +1,12 @@
 package io.template.bootstrap.logic;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
 
 import io.template.bootstrap.exceptions.InvalidInputException;
 import io.template.shared.models.ApplicationInput;
+import io.template.shared.models.Result;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,10 +16,12 @@ import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_NOT_JSON;
 import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_WITH_INVALID_TIMESTAMP;
 import static io.template.testsupport.SampleJsonInputs.INVALID_JSON_WITH_NON_NUMERIC_INT_FIELD;
 import static io.template.testsupport.SampleJsonInputs.VALID_JSON_WITH_NULL_STRING_FIELD;
+import static io.template.testsupport.SampleJsonInputs.toSmile;
 import static io.template.testsupport.SampleJsonInputs.validInput;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -49,6 +54,17 @@ class InputSanitizerTest {
         assertEquals(Set.of("a", "b"), Set.copyOf(input.exampleListField()));
     }
 
+    @Test
+    void sharesRepeatedTextValuesAcrossInputs() {
+        String json = validInput("repeated", 1, true, "2024-01-01T00:00:00Z", "tag", "other");
+
+        ApplicationInput first = sanitizer.sanitize(new String[]{json});
+        ApplicationInput second = sanitizer.sanitizeEncoded(toSmile(json));
+
+        assertSame(first.exampleStringField(), second.exampleStringField());
+        assertSame(first.exampleListField().get(0), second.exampleListField().get(0));
+    }
+
     @Test
     void sanitizesInputWithFalseBoolean() {
         String json = validInput(
@@ -170,4 +186,54 @@ class InputSanitizerTest {
         assertNotNull(input);
         // null string field is allowed (no validation constraints)
     }
+
+    @Test
+    void sanitizesSmileInputLikeJson() {
+        String json = validInput("hello", 3, true, "2024-01-01T00:00:00Z", "a", "b");
+
+        ApplicationInput fromSmile = sanitizer.sanitizeEncoded(toSmile(json));
+
+        assertEquals(sanitizer.sanitizeJson(json), fromSmile);
+    }
+
+    @Test
+    void sanitizesJsonBytesWithoutSmileHeader() {
+        String json = validInput("hello", 3, true, "2024-01-01T00:00:00Z");
+
+        assertFalse(InputSanitizer.isSmile(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(3, sanitizer.sanitizeEncoded(json.getBytes(StandardCharsets.UTF_8)).exampleIntField());
+    }
+
+    @Test
+    void appliesTheSameRulesToSmileInput() {
+        byte[] smile = toSmile(INVALID_JSON_WITH_NON_NUMERIC_INT_FIELD);
+
+        assertTrue(InputSanitizer.isSmile(smile));
+        assertThrows(InvalidInputException.class, () -> sanitizer.sanitizeEncoded(smile));
+        assertThrows(InvalidInputException.class, () -> sanitizer.sanitizeEncoded(toSmile("{\"unknown\": 1}")));
+    }
+
+    @Test
+    void reportsRejectionsAsResultsWithTheExceptionMessage() {
+        List<byte[]> rejected = List.of(
+                INVALID_JSON_EMPTY_STRING.getBytes(StandardCharsets.UTF_8),
+                INVALID_JSON_MALFORMED.getBytes(StandardCharsets.UTF_8),
+                INVALID_JSON_WITH_INVALID_TIMESTAMP.getBytes(StandardCharsets.UTF_8),
+                toSmile(INVALID_JSON_WITH_NON_NUMERIC_INT_FIELD)
+        );
+
+        for (byte[] bytes : rejected) {
+            InvalidInputException exception = assertThrows(InvalidInputException.class,
+                    () -> sanitizer.sanitizeEncoded(bytes));
+
+            assertEquals(Result.failure(exception.getMessage()), sanitizer.trySanitizeEncoded(bytes));
+        }
+    }
+
+    @Test
+    void reportsAcceptedInputAsResult() {
+        byte[] json = validInput("hello", 3, true, "2024-01-01T00:00:00Z", "a").getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(Result.success(sanitizer.sanitizeEncoded(json)), sanitizer.trySanitizeEncoded(json));
+    }
 }
@@ -0,0 +1,111 @@
+package io.template.bootstrap.logic;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.bootstrap.models.ShutdownReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LifecycleRegistryTest {
+
+    private final List<String> events = new ArrayList<>();
+    private LifecycleRegistry lifecycleRegistry;
+
+    @BeforeEach
+    void setUp() {
+        lifecycleRegistry = new LifecycleRegistry();
+    }
+
+    @Test
+    void shutsDownInPhasesInReverseRegistrationOrder() {
+        lifecycleRegistry.register(new RecordingComponent("first", true));
+        lifecycleRegistry.register(new RecordingComponent("second", true));
+
+        ShutdownReport report = lifecycleRegistry.shutdown(Duration.ofSeconds(1));
+
+        assertEquals(List.of(
+                "second:stopIntake", "first:stopIntake",
+                "second:awaitDrained", "first:awaitDrained",
+                "second:flush", "first:flush",
+                "second:close", "first:close"
+        ), events);
+        assertTrue(report.drained());
+        assertEquals(0, report.failures());
+    }
+
+    @Test
+    void reportsComponentsThatDoNotDrain() {
+        lifecycleRegistry.register(new RecordingComponent("stuck", false));
+
+        ShutdownReport report = lifecycleRegistry.shutdown(Duration.ZERO);
+
+        assertFalse(report.drained());
+        assertTrue(events.contains("stuck:close"));
+    }
+
+    @Test
+    void continuesAfterFailingComponents() {
+        lifecycleRegistry.register((AutoCloseable) () -> events.add("healthy:close"));
+        lifecycleRegistry.register((Flushable) () -> {
+            throw new IOException("flush failed");
+        });
+        lifecycleRegistry.register((AutoCloseable) () -> {
+            throw new IllegalStateException("close failed");
+        });
+
+        ShutdownReport report = lifecycleRegistry.shutdown(Duration.ofSeconds(1));
+
+        assertEquals(2, report.failures());
+        assertEquals(List.of("healthy:close"), events);
+    }
+
+    @Test
+    void ignoresComponentsWithoutShutdownBehaviour() {
+        lifecycleRegistry.register("plain object");
+
+        ShutdownReport report = lifecycleRegistry.shutdown(Duration.ofSeconds(1));
+
+        assertTrue(report.drained());
+        assertEquals(0, report.failures());
+    }
+
+    private final class RecordingComponent implements Drainable, Flushable, AutoCloseable {
+
+        private final String name;
+        private final boolean drains;
+
+        private RecordingComponent(String name, boolean drains) {
+            this.name = name;
+            this.drains = drains;
+        }
+
+        @Override
+        public void stopIntake() {
+            events.add(name + ":stopIntake");
+        }
+
+        @Override
+        public boolean awaitDrained(Duration timeout) {
+            events.add(name + ":awaitDrained");
+            return drains;
+        }
+
+        @Override
+        public void flush() {
+            events.add(name + ":flush");
+        }
+
+        @Override
+        public void close() {
+            events.add(name + ":close");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.template.bootstrap.logic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import io.template.bootstrap.models.ContainerLimits;
+import io.template.bootstrap.models.ResourcePlan;
+import io.template.bootstrap.models.ResourceSetting;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResourceTunerTest {
+
+    private static final long MEBIBYTE = 1L << 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsTheLimitsOfTheProcessCgroup() throws IOException {
+        Path mount = directory.resolve("cgroup");
+        Path cgroup = Files.createDirectories(mount.resolve("app.slice/service"));
+        Files.writeString(cgroup.resolve("cpu.max"), "150000 100000\n");
+        Files.writeString(cgroup.resolve("memory.max"), "536870912\n");
+
+        ContainerLimits limits = ResourceTuner.readLimits(mount, selfCgroup("0::/app.slice/service"));
+
+        assertEquals(1.5, limits.cpus());
+        assertEquals(512 * MEBIBYTE, limits.memoryBytes());
+    }
+
+    @Test
+    void keepsTheTightestLimitOfNestedCgroups() throws IOException {
+        Path mount = directory.resolve("cgroup");
+        Path parent = Files.createDirectories(mount.resolve("pod"));
+        Path child = Files.createDirectories(parent.resolve("container"));
+        Files.writeString(parent.resolve("cpu.max"), "100000 100000\n");
+        Files.writeString(parent.resolve("memory.max"), "max\n");
+        Files.writeString(child.resolve("cpu.max"), "max 100000\n");
+        Files.writeString(child.resolve("memory.max"), "1073741824\n");
+
+        ContainerLimits limits = ResourceTuner.readLimits(mount, selfCgroup("1:cpu:/ignored", "0::/pod/container"));
+
+        assertEquals(1.0, limits.cpus());
+        assertEquals(1024 * MEBIBYTE, limits.memoryBytes());
+    }
+
+    @Test
+    void readsTheMountItselfInsideACgroupNamespace() throws IOException {
+        Path mount = Files.createDirectories(directory.resolve("cgroup"));
+        Files.writeString(mount.resolve("cpu.max"), "200000 100000\n");
+
+        assertEquals(new ContainerLimits(2.0, Long.MAX_VALUE),
+                ResourceTuner.readLimits(mount, selfCgroup("0::/")));
+        assertEquals(new ContainerLimits(2.0, Long.MAX_VALUE),
+                ResourceTuner.readLimits(mount, directory.resolve("missing")));
+    }
+
+    @Test
+    void treatsMissingOrUnexpectedFilesAsUnlimited() throws IOException {
+        Path mount = Files.createDirectories(directory.resolve("cgroup"));
+        Files.writeString(mount.resolve("cpu.max"), "lots 100000\n");
+        Files.writeString(mount.resolve("memory.max"), "-1\n");
+
+        assertEquals(ContainerLimits.UNLIMITED, ResourceTuner.readLimits(mount, selfCgroup("0::/")));
+        assertEquals(ContainerLimits.UNLIMITED,
+                ResourceTuner.readLimits(directory.resolve("absent"), directory.resolve("absent-too")));
+    }
+
+    @Test
+    void derivesThreadCountsFromTheRoundedUpQuota() {
+        ResourcePlan plan = ResourceTuner.derive(new ContainerLimits(1.5, Long.MAX_VALUE), 8);
+
+        assertEquals(2, plan.get(ResourceSetting.CARRIER_THREADS));
+        assertEquals(2, plan.get(ResourceSetting.SCHEDULER_PARALLELISM));
+        assertEquals(2, plan.get(ResourceSetting.COMPRESSION_THREADS));
+    }
+
+    @Test
+    void neverPlansMoreThreadsThanAvailableProcessors() {
+        ResourcePlan limited = ResourceTuner.derive(new ContainerLimits(16, Long.MAX_VALUE), 8);
+        ResourcePlan unlimited = ResourceTuner.derive(ContainerLimits.UNLIMITED, 8);
+
+        assertEquals(8, limited.get(ResourceSetting.SCHEDULER_PARALLELISM));
+        assertEquals(8, unlimited.get(ResourceSetting.CARRIER_THREADS));
+        assertEquals(4, unlimited.get(ResourceSetting.COMPRESSION_THREADS));
+    }
+
+    @Test
+    void scalesQueuesAndCachesWithMemory() {
+        ResourcePlan half = ResourceTuner.derive(new ContainerLimits(1, 512 * MEBIBYTE), 1);
+        ResourcePlan unlimited = ResourceTuner.derive(ContainerLimits.UNLIMITED, 1);
+
+        assertEquals(2048, half.get(ResourceSetting.JOURNAL_QUEUE_CAPACITY));
+        assertEquals(5000, half.get(ResourceSetting.REJECTION_CACHE_ENTRIES));
+        assertEquals(4096, unlimited.get(ResourceSetting.JOURNAL_QUEUE_CAPACITY));
+        assertEquals(10_000, unlimited.get(ResourceSetting.REJECTION_CACHE_ENTRIES));
+    }
+
+    @Test
+    void boundsScaledSizesWithinSixteenTimesTheDefault() {
+        ResourcePlan tiny = ResourceTuner.derive(new ContainerLimits(1, MEBIBYTE), 1);
+        ResourcePlan huge = ResourceTuner.derive(new ContainerLimits(1, 1L << 40), 1);
+
+        assertEquals(4096 / ResourceTuner.MAX_SCALE, tiny.get(ResourceSetting.JOURNAL_QUEUE_CAPACITY));
+        assertEquals(4096 * ResourceTuner.MAX_SCALE, huge.get(ResourceSetting.JOURNAL_QUEUE_CAPACITY));
+    }
+
+    @Test
+    void publishesThePlanBelowExplicitPropertiesAndOverrides() {
+        ResourcePlan derived = ResourceTuner.derive(new ContainerLimits(2, 512 * MEBIBYTE), 8);
+        Properties properties = new Properties();
+        properties.setProperty(ResourceSetting.SCHEDULER_PARALLELISM.property(), "3");
+
+        ResourcePlan plan = ResourceTuner.apply(derived,
+                Map.of(ResourceSetting.CARRIER_THREADS, 5, ResourceSetting.SCHEDULER_PARALLELISM, 7), properties);
+
+        assertEquals(5, plan.get(ResourceSetting.CARRIER_THREADS));
+        assertEquals(3, plan.get(ResourceSetting.SCHEDULER_PARALLELISM));
+        assertEquals(2048, plan.get(ResourceSetting.JOURNAL_QUEUE_CAPACITY));
+        assertEquals("5", properties.getProperty("io.template.carrierParallelism"));
+        assertEquals("3", properties.getProperty("io.template.scheduler.parallelism"));
+        assertEquals("2", properties.getProperty("io.template.batch.compressionThreads"));
+        assertEquals("2048", properties.getProperty("io.template.journal.queueCapacity"));
+        assertEquals("5000", properties.getProperty("io.template.coalescer.rejectionCacheEntries"));
+    }
+
+    @Test
+    void rejectsExplicitPropertiesThatAreNotPositiveIntegers() {
+        ResourcePlan derived = ResourceTuner.derive(ContainerLimits.UNLIMITED, 2);
+        Properties properties = new Properties();
+        properties.setProperty(ResourceSetting.JOURNAL_QUEUE_CAPACITY.property(), "0");
+
+        assertThrows(IllegalArgumentException.class, () -> ResourceTuner.apply(derived, Map.of(), properties));
+    }
+
+    private Path selfCgroup(String... lines) throws IOException {
+        return Files.write(directory.resolve("self-cgroup"), List.of(lines));
+    }
+}
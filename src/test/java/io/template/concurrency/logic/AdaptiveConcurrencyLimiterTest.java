@@ -0,0 +1,91 @@
+package io.template.concurrency.logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.template.concurrency.exceptions.ConcurrencyLimitExceededException;
+import io.template.concurrency.models.LimiterMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(clock::get);
+    }
+
+    @Test
+    void returnsResultOfWork() {
+        assertEquals("done", limiter.execute(() -> "done"));
+
+        LimiterMetrics metrics = limiter.metrics();
+        assertEquals(1, metrics.accepted());
+        assertEquals(0, metrics.inFlight());
+    }
+
+    @Test
+    void rejectsWorkBeyondLimit() {
+        ConcurrencyLimitExceededException exception = assertThrows(
+                ConcurrencyLimitExceededException.class,
+                () -> nest(AdaptiveConcurrencyLimiter.INITIAL_LIMIT + 1)
+        );
+
+        assertTrue(exception.getMessage().contains("limit"));
+        LimiterMetrics metrics = limiter.metrics();
+        assertEquals(1, metrics.rejected());
+        assertEquals(AdaptiveConcurrencyLimiter.INITIAL_LIMIT, metrics.accepted());
+        assertEquals(0, metrics.inFlight());
+    }
+
+    @Test
+    void growsLimitWhileLatencyStaysAtBaselineUnderFullUse() {
+        nest(AdaptiveConcurrencyLimiter.INITIAL_LIMIT);
+
+        assertTrue(limiter.metrics().limit() > AdaptiveConcurrencyLimiter.INITIAL_LIMIT);
+    }
+
+    @Test
+    void keepsLimitWhenMostlyIdle() {
+        timed(10);
+        timed(10);
+
+        assertEquals(AdaptiveConcurrencyLimiter.INITIAL_LIMIT, limiter.metrics().limit());
+    }
+
+    @Test
+    void shrinksLimitWhenLatencyRisesAboveBaseline() {
+        timed(10);
+        timed(100);
+        timed(100);
+
+        LimiterMetrics metrics = limiter.metrics();
+        assertEquals(AdaptiveConcurrencyLimiter.INITIAL_LIMIT - 2, metrics.limit());
+        assertEquals(10, metrics.minRttNanos());
+    }
+
+    private void timed(long rttNanos) {
+        limiter.execute(() -> clock.addAndGet(rttNanos));
+    }
+
+    /**
+     * Holds {@code depth} permits at once, each completing in 10 nanoseconds.
+     */
+    private long nest(int depth) {
+        if (depth == 0) {
+            return clock.addAndGet(10);
+        }
+        return limiter.execute(() -> {
+            long start = clock.get();
+            nest(depth - 1);
+            clock.set(start + 10);
+            return start;
+        });
+    }
+}
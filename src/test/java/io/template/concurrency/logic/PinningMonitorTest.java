@@ -0,0 +1,99 @@
+package io.template.concurrency.logic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.template.bootstrap.logic.Executor;
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.concurrency.models.PinningMetrics;
+import io.template.samplebusinesslayer.logic.Calculator;
+import io.template.shared.models.ApplicationInput;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.template.testsupport.SampleJsonInputs.validInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinningMonitorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PinningMonitorTest.class);
+    private static final int INVOCATIONS = 2_000;
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void reportsVirtualThreadsBlockingWhilePinned() throws InterruptedException {
+        try (PinningMonitor monitor = new PinningMonitor(Duration.ZERO)) {
+            monitor.start();
+
+            // Blocking inside a class initializer pins: the initializer runs beneath a native frame
+            Thread.ofVirtual().start(SlowInitializer::touch).join();
+
+            assertTrue(monitor.awaitDelivery(DELIVERY_TIMEOUT));
+            PinningMetrics metrics = monitor.metrics();
+            assertTrue(metrics.pinnedEvents() >= 1);
+            assertTrue(metrics.pinnedNanos() > 0);
+            assertTrue(metrics.eventsByFrame().keySet().stream()
+                    .anyMatch(frame -> frame.startsWith(SlowInitializer.class.getName() + ".")),
+                    () -> "Pinned at " + metrics.eventsByFrame());
+        }
+    }
+
+    /**
+     * Stress test of the single-input path of {@link Executor}, as the daemon runs it: thousands of concurrent
+     * virtual threads contending for the same logging appender must never block while pinned.
+     */
+    @Test
+    void singleInputPathDoesNotPinCarrierThreads() throws InterruptedException, ExecutionException {
+        InputSanitizer inputSanitizer = new InputSanitizer();
+        Calculator calculator = new Calculator();
+        String[] args = {validInput("value", 1, true, "2024-01-01T00:00:00Z", "a", "b")};
+        Runnable invocation = () -> {
+            ApplicationInput input = inputSanitizer.sanitize(args);
+            LOGGER.info("Sanitized input: {}", input);
+            calculator.calculate(Executor.SAMPLE_REQUEST);
+        };
+        // Initializes every class on the path first, so first-use class initialization is not what gets measured
+        invocation.run();
+
+        try (PinningMonitor monitor = new PinningMonitor(Duration.ZERO)) {
+            monitor.start();
+            List<Future<?>> invocations = new ArrayList<>(INVOCATIONS);
+            try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < INVOCATIONS; i++) {
+                    invocations.add(threads.submit(invocation));
+                }
+            }
+            for (Future<?> completed : invocations) {
+                completed.get();
+            }
+
+            assertTrue(monitor.awaitDelivery(DELIVERY_TIMEOUT));
+            PinningMetrics metrics = monitor.metrics();
+            assertEquals(0, metrics.pinnedEvents(), () -> "Pinned at " + metrics.eventsByFrame());
+        }
+    }
+
+    private static final class SlowInitializer {
+
+        static {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private SlowInitializer() { }
+
+        static void touch() {
+            // Calling any static method runs the initializer once
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package io.template.concurrency.logic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.template.concurrency.exceptions.DeadlineExpiredException;
+import io.template.concurrency.models.SchedulerMetrics;
+import io.template.concurrency.models.WorkPriority;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrioritySchedulerTest {
+
+    private static final long NO_DEADLINE = PriorityScheduler.NO_DEADLINE;
+    private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().start(task);
+
+    @Test
+    void runsWorkRightAwayWhileAPermitIsFree() {
+        PriorityScheduler scheduler = new PriorityScheduler(1);
+
+        assertEquals("done", scheduler.execute(WorkPriority.NORMAL, NO_DEADLINE, () -> "done"));
+        assertEquals(1, scheduler.metrics().priorities().get(WorkPriority.NORMAL).completed());
+        assertEquals(0, scheduler.metrics().running());
+    }
+
+    @Test
+    void startsWaitingWorkByPriorityThenByDeadline() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = occupy(scheduler, release);
+        Queue<String> started = new ConcurrentLinkedQueue<>();
+        long sooner = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        long later = sooner + TimeUnit.MINUTES.toNanos(1);
+        List<CompletableFuture<Void>> queued = new ArrayList<>();
+
+        queued.add(enqueue(scheduler, WorkPriority.BULK, NO_DEADLINE, "bulk", started));
+        queued.add(enqueue(scheduler, WorkPriority.NORMAL, NO_DEADLINE, "normal", started));
+        queued.add(enqueue(scheduler, WorkPriority.URGENT, later, "urgent-later", started));
+        queued.add(enqueue(scheduler, WorkPriority.URGENT, sooner, "urgent-sooner", started));
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Void> work : queued) {
+            work.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("urgent-sooner", "urgent-later", "normal", "bulk"), List.copyOf(started));
+    }
+
+    @Test
+    void dropsWorkWhoseDeadlineHasAlreadyPassed() {
+        PriorityScheduler scheduler = new PriorityScheduler(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        DeadlineExpiredException exception = assertThrows(DeadlineExpiredException.class,
+                () -> scheduler.execute(WorkPriority.URGENT, System.nanoTime() - 1, () -> ran.getAndSet(true)));
+
+        assertEquals("Deadline of URGENT work expired before it started", exception.getMessage());
+        assertFalse(ran.get());
+        assertEquals(1, scheduler.metrics().priorities().get(WorkPriority.URGENT).expired());
+    }
+
+    @Test
+    void dropsQueuedWorkOnceItsDeadlinePasses() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = occupy(scheduler, release);
+        AtomicBoolean ran = new AtomicBoolean();
+        long deadline = PriorityScheduler.deadlineAfter(System.nanoTime(), Duration.ofMillis(50));
+
+        assertThrows(DeadlineExpiredException.class,
+                () -> scheduler.execute(WorkPriority.NORMAL, deadline, () -> ran.getAndSet(true)));
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        assertFalse(ran.get());
+        assertTrue(System.nanoTime() - deadline >= 0);
+        // The abandoned place in the queue does not cost a permit
+        assertEquals("next", scheduler.execute(WorkPriority.BULK, NO_DEADLINE, () -> "next"));
+        assertEquals(0, scheduler.metrics().running());
+        assertEquals(0, scheduler.metrics().queued());
+    }
+
+    @Test
+    void stopsWaitingWhenInterrupted() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = occupy(scheduler, release);
+        CompletableFuture<Boolean> interruptedWhileWaiting = new CompletableFuture<>();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                scheduler.execute(WorkPriority.NORMAL, NO_DEADLINE, () -> "never");
+                interruptedWhileWaiting.complete(false);
+            } catch (CancellationException e) {
+                interruptedWhileWaiting.complete(Thread.currentThread().isInterrupted());
+            }
+        });
+        awaitQueued(scheduler, 1);
+
+        waiter.interrupt();
+
+        assertTrue(interruptedWhileWaiting.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        assertEquals(0, scheduler.metrics().running());
+        assertEquals(0, scheduler.metrics().queued());
+    }
+
+    /**
+     * Urgent work arriving behind a long bulk backlog only waits for a running unit to finish.
+     */
+    @Test
+    void doesNotQueueUrgentWorkBehindBulkWork() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(2);
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                callers.submit(() -> scheduler.execute(WorkPriority.BULK, NO_DEADLINE, () -> sleep(2)));
+            }
+            awaitQueued(scheduler, 100);
+            for (int i = 0; i < 20; i++) {
+                callers.submit(() -> scheduler.execute(WorkPriority.URGENT, NO_DEADLINE, () -> sleep(2))).get();
+            }
+        }
+
+        SchedulerMetrics.PriorityMetrics urgent = scheduler.metrics().priorities().get(WorkPriority.URGENT);
+        SchedulerMetrics.PriorityMetrics bulk = scheduler.metrics().priorities().get(WorkPriority.BULK);
+        assertEquals(20, urgent.completed());
+        assertEquals(200, bulk.completed());
+        assertTrue(urgent.waitP99Nanos() < bulk.waitP50Nanos(),
+                () -> "urgent p99 wait " + urgent.waitP99Nanos() + " ns, bulk p50 wait " + bulk.waitP50Nanos() + " ns");
+    }
+
+    @Test
+    void computesDeadlinesWithoutOverflowing() {
+        assertEquals(NO_DEADLINE, PriorityScheduler.deadlineAfter(0, null));
+        assertEquals(NO_DEADLINE, PriorityScheduler.deadlineAfter(Long.MAX_VALUE - 10, Duration.ofSeconds(1)));
+        assertEquals(1_500_000_000L, PriorityScheduler.deadlineAfter(500_000_000L, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void rejectsParallelismBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> new PriorityScheduler(0));
+    }
+
+    /**
+     * Takes every permit until {@code release} is counted down.
+     */
+    private static CompletableFuture<Void> occupy(PriorityScheduler scheduler, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(scheduler.parallelism());
+        List<CompletableFuture<Void>> holders = new ArrayList<>();
+        for (int i = 0; i < scheduler.parallelism(); i++) {
+            holders.add(CompletableFuture.runAsync(() -> scheduler.execute(WorkPriority.NORMAL, NO_DEADLINE, () -> {
+                running.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }), VIRTUAL_THREADS));
+        }
+        running.await();
+        return CompletableFuture.allOf(holders.toArray(CompletableFuture[]::new));
+    }
+
+    private static CompletableFuture<Void> enqueue(PriorityScheduler scheduler, WorkPriority priority,
+            long deadlineNanos, String name, Queue<String> started) throws InterruptedException {
+        int queuedBefore = scheduler.metrics().queued();
+        CompletableFuture<Void> work = CompletableFuture.runAsync(
+                () -> scheduler.execute(priority, deadlineNanos, () -> started.add(name)), VIRTUAL_THREADS);
+        awaitQueued(scheduler, queuedBefore + 1);
+        return work;
+    }
+
+    private static void awaitQueued(PriorityScheduler scheduler, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.metrics().queued() < count) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("Only " + scheduler.metrics().queued() + " queued, expected " + count);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.template.concurrency.logic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.concurrency.models.CoalescingMetrics;
+import io.template.samplebusinesslayer.models.CalculationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private static final CalculationResult RESULT = new CalculationResult(1.0, "ADD");
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer(clock::get);
+    }
+
+    @Test
+    void sharesInFlightResultBetweenIdenticalInputs()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        CompletableFuture<CalculationResult> leader = CompletableFuture.supplyAsync(() ->
+                coalescer.execute(bytes("same"), input -> {
+                    executions.incrementAndGet();
+                    leaderStarted.countDown();
+                    await(releaseLeader);
+                    return RESULT;
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<CalculationResult> follower = CompletableFuture.supplyAsync(() ->
+                coalescer.execute(bytes("same"), input -> {
+                    executions.incrementAndGet();
+                    return new CalculationResult(2.0, "ADD");
+                }));
+        while (coalescer.metrics().coalesced() == 0) {
+            Thread.onSpinWait();
+        }
+        releaseLeader.countDown();
+
+        assertSame(RESULT, leader.get(5, TimeUnit.SECONDS));
+        assertSame(RESULT, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(new CoalescingMetrics(2, 1, 1, 0), coalescer.metrics());
+        assertEquals(0.5, coalescer.metrics().coalescingRatio());
+    }
+
+    @Test
+    void runsSequentialIdenticalInputsSeparately() {
+        coalescer.execute(bytes("same"), this::countedResult);
+        coalescer.execute(bytes("same"), this::countedResult);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void remembersInvalidInputsUntilTtlExpires() {
+        assertThrows(InvalidInputException.class, () -> coalescer.execute(bytes("bad"), this::countedRejection));
+
+        InvalidInputException cached = assertThrows(
+                InvalidInputException.class,
+                () -> coalescer.execute(bytes("bad"), this::countedRejection)
+        );
+        assertEquals("rejected", cached.getMessage());
+        assertEquals(0, cached.getStackTrace().length);
+        assertEquals(1, executions.get());
+        assertEquals(1, coalescer.metrics().negativeHits());
+
+        clock.addAndGet(RequestCoalescer.NEGATIVE_TTL_NANOS);
+        assertThrows(InvalidInputException.class, () -> coalescer.execute(bytes("bad"), this::countedRejection));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void doesNotCacheOtherFailures() {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute(bytes("boom"), input -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+
+        assertSame(RESULT, coalescer.execute(bytes("boom"), this::countedResult));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void reportsZeroRatioWithoutRequests() {
+        assertEquals(0.0, coalescer.metrics().coalescingRatio());
+    }
+
+    private CalculationResult countedResult(byte[] input) {
+        executions.incrementAndGet();
+        return RESULT;
+    }
+
+    private CalculationResult countedRejection(byte[] input) {
+        executions.incrementAndGet();
+        throw new InvalidInputException("rejected");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.template.concurrency.logic;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.template.concurrency.exceptions.ExecutionTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualExecutionTest {
+
+    private static final Duration GENEROUS = Duration.ofSeconds(10);
+
+    private final VirtualExecution execution = new VirtualExecution();
+
+    @Test
+    void runsWorkOnAVirtualThread() {
+        assertTrue(execution.call(() -> Thread.currentThread().isVirtual(), GENEROUS));
+    }
+
+    @Test
+    void returnsResultsInTheOrderOfTheWork() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        List<Supplier<String>> work = List.of(
+                () -> sleepThenReturn(Duration.ofMillis(50), interrupted, "slow"),
+                () -> "fast");
+
+        assertEquals(List.of("slow", "fast"), execution.invokeAll(work, GENEROUS));
+    }
+
+    @Test
+    void stopsTheOtherUnitsWhenOneFails() {
+        IllegalStateException failure = new IllegalStateException("failed");
+        AtomicBoolean interrupted = new AtomicBoolean();
+        List<Supplier<String>> work = List.of(
+                () -> sleepThenReturn(GENEROUS, interrupted, "never"),
+                () -> {
+                    throw failure;
+                });
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> execution.invokeAll(work, GENEROUS)));
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    void interruptsWorkThatExceedsTheTimeout() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        ExecutionTimeoutException exception = assertThrows(ExecutionTimeoutException.class,
+                () -> execution.call(() -> sleepThenReturn(GENEROUS, interrupted, "never"), Duration.ofMillis(50)));
+
+        assertEquals("Work did not finish within PT0.05S", exception.getMessage());
+        // The call only returns once the work has stopped
+        assertTrue(interrupted.get());
+    }
+
+    private static String sleepThenReturn(Duration duration, AtomicBoolean interrupted, String value) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            interrupted.set(true);
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,71 @@
+package io.template.daemon.logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.template.daemon.exceptions.DaemonException;
+import io.template.daemon.models.DaemonRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DaemonClientTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recognisesClientInvocations() {
+        assertTrue(DaemonClient.isClientInvocation(new String[]{"--client", "daemon.sock", "{}"}));
+        assertTrue(DaemonClient.isClientInvocation(new String[]{"--client", "daemon.sock"}));
+        assertFalse(DaemonClient.isClientInvocation(new String[]{"--client"}));
+        assertFalse(DaemonClient.isClientInvocation(new String[]{"{}"}));
+        assertFalse(DaemonClient.isClientInvocation(null));
+    }
+
+    @Test
+    void sendsThePathsOfBatchRunsAbsolute() {
+        String cwd = Path.of("").toAbsolutePath().toString();
+
+        List<String> resolved = DaemonClient.resolvePaths(
+                List.of("--priority", "bulk", "--batch", "in.ndjson", "out/out.ndjson", "--incremental", "/tmp/state"));
+
+        assertEquals(List.of("--priority", "bulk", "--batch", Path.of(cwd, "in.ndjson").toString(),
+                Path.of(cwd, "out/out.ndjson").toString(), "--incremental", "/tmp/state"), resolved);
+    }
+
+    @Test
+    void sendsSingleInputsUnchanged() {
+        assertEquals(List.of("{\"a\":1}"), DaemonClient.resolvePaths(List.of("{\"a\":1}")));
+        assertEquals(List.of("--priority", "urgent"), DaemonClient.resolvePaths(List.of("--priority", "urgent")));
+    }
+
+    @Test
+    void failsWhenNoDaemonIsListening() {
+        DaemonClient client = new DaemonClient(directory.resolve("missing.sock"));
+
+        assertThrows(DaemonException.class, () -> client.send(new DaemonRequest(List.of(), "")));
+    }
+
+    @Test
+    void forwardReturnsFailureExitCodeWhenNoDaemonIsListening() {
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        String[] args = new String[]{"--client", directory.resolve("missing.sock").toString(), "-"};
+
+        int exitCode = DaemonClient.forward(args, new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8),
+                new PrintStream(stderr, true, StandardCharsets.UTF_8));
+
+        assertEquals(1, exitCode);
+        assertTrue(stderr.toString(StandardCharsets.UTF_8).contains("Could not reach daemon"));
+    }
+}
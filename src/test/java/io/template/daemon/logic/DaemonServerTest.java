@@ -0,0 +1,226 @@
+package io.template.daemon.logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.template.bootstrap.exceptions.InvalidInputException;
+import io.template.bootstrap.logic.Executor;
+import io.template.concurrency.exceptions.ConcurrencyLimitExceededException;
+import io.template.concurrency.logic.PinningMonitor;
+import io.template.concurrency.logic.PriorityScheduler;
+import io.template.concurrency.logic.VirtualExecution;
+import io.template.daemon.models.DaemonRequest;
+import io.template.daemon.models.DaemonResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DaemonServerTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private Executor executor;
+
+    @Mock
+    private PinningMonitor pinningMonitor;
+
+    private Path socketPath;
+    private DaemonServer daemonServer;
+    private CompletableFuture<Long> serving;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        startServer(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        daemonServer.stopIntake();
+    }
+
+    @Test
+    void runsForwardedArgumentsThroughTheExecutor() {
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(List.of("{\"a\":1}"), ""));
+
+        assertEquals(DaemonResponse.SUCCESS, response);
+        verify(executor).execute(aryEq(new String[]{"{\"a\":1}"}), any(PrintStream.class));
+    }
+
+    @Test
+    void substitutesStandardInputForDashArguments() {
+        new DaemonClient(socketPath).send(new DaemonRequest(List.of("-"), "{\"from\":\"stdin\"}"));
+
+        verify(executor).execute(aryEq(new String[]{"{\"from\":\"stdin\"}"}), any(PrintStream.class));
+    }
+
+    @Test
+    void reportsFailuresWithoutStopping() {
+        String[] invalid = new String[]{"invalid"};
+        doThrow(new InvalidInputException("Invalid input JSON"))
+                .when(executor).execute(aryEq(invalid), any(PrintStream.class));
+        DaemonClient client = new DaemonClient(socketPath);
+
+        DaemonResponse failure = client.send(new DaemonRequest(List.of("invalid"), ""));
+        DaemonResponse success = client.send(new DaemonRequest(List.of("valid"), ""));
+
+        assertEquals(DaemonResponse.failure("Invalid input JSON"), failure);
+        assertEquals(DaemonResponse.SUCCESS, success);
+        verify(executor, times(1)).execute(aryEq(new String[]{"valid"}), any(PrintStream.class));
+    }
+
+    @Test
+    void answersShedInvocationsWithAnError() {
+        String[] shed = new String[]{"shed"};
+        doThrow(new ConcurrencyLimitExceededException("Concurrency limit of 20 reached"))
+                .when(executor).execute(aryEq(shed), any(PrintStream.class));
+
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(List.of("shed"), ""));
+
+        assertEquals(DaemonResponse.failure("Concurrency limit of 20 reached"), response);
+    }
+
+    @Test
+    void printsTheOutputOfTheInvocationOnTheClient() {
+        doAnswer(invocation -> {
+            invocation.<PrintStream>getArgument(1).println("{\"result\":15.0}");
+            return null;
+        }).when(executor).execute(aryEq(new String[]{"{\"a\":1}"}), any(PrintStream.class));
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        String[] args = new String[]{DaemonClient.CLIENT_FLAG, socketPath.toString(), "{\"a\":1}"};
+
+        int exitCode = DaemonClient.forward(args, InputStream.nullInputStream(),
+                new PrintStream(stdout, true, StandardCharsets.UTF_8),
+                new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8));
+
+        assertEquals(0, exitCode);
+        assertEquals("{\"result\":15.0}" + System.lineSeparator(), stdout.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void refusesModesThatWouldOutliveTheInvocation() {
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(
+                List.of("--daemon", "other.sock"), ""));
+
+        assertEquals(DaemonResponse.failure("Invocation cannot be forwarded to a daemon: --daemon"), response);
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void refusesInvocationsWithoutApplicationArguments() {
+        DaemonClient client = new DaemonClient(socketPath);
+
+        DaemonResponse empty = client.send(new DaemonRequest(List.of(), ""));
+        DaemonResponse onlyPriority = client.send(new DaemonRequest(List.of("--priority", "urgent"), ""));
+
+        assertEquals(DaemonResponse.failure("Invocation has no arguments to run"), empty);
+        assertEquals(DaemonResponse.failure("Invocation has no arguments to run"), onlyPriority);
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void refusesToStartRecordingForAClient() {
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(
+                List.of("--record", "journal", "{\"a\":1}"), ""));
+
+        assertEquals(DaemonResponse.failure("Invocation cannot be forwarded to a daemon: --record"), response);
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void monitorsPinningWhileServing() {
+        verify(pinningMonitor).start();
+    }
+
+    @Test
+    void interruptsInvocationsThatExceedTheTimeout() throws InterruptedException {
+        daemonServer.stopIntake();
+        startServer(Duration.ofMillis(100));
+        String[] slow = new String[]{"slow"};
+        doAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return null;
+        }).when(executor).execute(aryEq(slow), any(PrintStream.class));
+
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(List.of("slow"), ""));
+
+        assertEquals(DaemonResponse.failure("Work did not finish within PT0.1S"), response);
+    }
+
+    @Test
+    void schedulesByLeadingPriorityAndDeadlineArguments() {
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(
+                List.of("--priority", "urgent", "--deadline", "PT10S", "{\"a\":1}"), ""));
+
+        assertEquals(DaemonResponse.SUCCESS, response);
+        verify(executor).execute(aryEq(new String[]{"{\"a\":1}"}), any(PrintStream.class));
+    }
+
+    @Test
+    void dropsInvocationsWhoseDeadlineHasPassed() {
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(
+                List.of("--priority", "bulk", "--deadline", "PT0S", "{\"a\":1}"), ""));
+
+        assertEquals(DaemonResponse.failure("Deadline of BULK work expired before it started"), response);
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void rejectsUnknownPriorities() {
+        DaemonResponse response = new DaemonClient(socketPath).send(new DaemonRequest(
+                List.of("--priority", "soon", "{\"a\":1}"), ""));
+
+        assertEquals(DaemonResponse.failure("Unknown priority: soon, expected one of urgent, normal, bulk"), response);
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void stopsServingAndRemovesSocketOnStopIntake()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        new DaemonClient(socketPath).send(new DaemonRequest(List.of("valid"), ""));
+
+        daemonServer.stopIntake();
+
+        assertEquals(1L, serving.get(5, TimeUnit.SECONDS));
+        assertTrue(daemonServer.awaitDrained(Duration.ofSeconds(5)));
+        assertFalse(Files.exists(socketPath));
+    }
+
+    private void startServer(Duration invocationTimeout) throws InterruptedException {
+        socketPath = directory.resolve("daemon-" + System.nanoTime() + ".sock");
+        daemonServer = new DaemonServer(() -> executor, pinningMonitor, new VirtualExecution(),
+                new PriorityScheduler(), invocationTimeout);
+        serving = CompletableFuture.supplyAsync(() -> daemonServer.serve(socketPath));
+        while (!Files.exists(socketPath)) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.template.incremental.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+import io.template.incremental.exceptions.IncrementalStateException;
+import io.template.incremental.models.CachedOutput;
+import io.template.shared.utilities.HashingUtility;
+import io.template.shared.utilities.HashingUtility.Hash128;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalStateTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reusesTheOutputsOfTheLastCommittedRun() {
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            assertNull(state.reuse(fingerprint("first")));
+            state.remember(fingerprint("first"), bytes("{\"result\":1.0}"), true, 1.0);
+            state.remember(fingerprint("second"), bytes("{\"error\":\"invalid\"}"), false, 0);
+            state.commit();
+        }
+
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            CachedOutput accepted = state.reuse(fingerprint("first"));
+            CachedOutput rejected = state.reuse(fingerprint("second"));
+
+            assertArrayEquals(bytes("{\"result\":1.0}"), accepted.output());
+            assertTrue(accepted.accepted());
+            assertEquals(1.0, accepted.result());
+            assertArrayEquals(bytes("{\"error\":\"invalid\"}"), rejected.output());
+            assertFalse(rejected.accepted());
+            assertNull(state.reuse(fingerprint("third")));
+            assertEquals(2, state.reused());
+        }
+    }
+
+    @Test
+    void carriesReusedRecordsOverAndDropsRecordsNotSeenAgain() {
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            state.remember(fingerprint("kept"), bytes("kept"), true, 1.0);
+            state.remember(fingerprint("dropped"), bytes("dropped"), true, 2.0);
+            state.commit();
+        }
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            state.reuse(fingerprint("kept"));
+            state.commit();
+        }
+
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            assertArrayEquals(bytes("kept"), state.reuse(fingerprint("kept")).output());
+            assertNull(state.reuse(fingerprint("dropped")));
+        }
+    }
+
+    @Test
+    void keepsTheFirstOutputOfARepeatedRecord() {
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            for (int i = 0; i < 3000; i++) {
+                state.remember(fingerprint("record " + i % 1000), bytes("output " + i), true, i);
+            }
+            state.commit();
+        }
+
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            for (int i = 0; i < 1000; i++) {
+                assertArrayEquals(bytes("output " + i), state.reuse(fingerprint("record " + i)).output());
+            }
+        }
+    }
+
+    @Test
+    void discardsAnUncommittedRun() throws IOException {
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            state.remember(fingerprint("committed"), bytes("committed"), true, 1.0);
+            state.commit();
+        }
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            state.remember(fingerprint("uncommitted"), bytes("uncommitted"), true, 2.0);
+        }
+
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            assertArrayEquals(bytes("committed"), state.reuse(fingerprint("committed")).output());
+            assertNull(state.reuse(fingerprint("uncommitted")));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void ignoresFilesOfDifferentRuns() throws IOException {
+        Path previousOutputs = directory.resolve("previous-outputs");
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            state.remember(fingerprint("first"), bytes("first"), true, 1.0);
+            state.commit();
+        }
+        Files.copy(directory.resolve(FingerprintStore.OUTPUTS_FILE), previousOutputs);
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            state.remember(fingerprint("second"), bytes("second"), true, 2.0);
+            state.commit();
+        }
+        Files.copy(previousOutputs, directory.resolve(FingerprintStore.OUTPUTS_FILE),
+                StandardCopyOption.REPLACE_EXISTING);
+
+        try (IncrementalState state = IncrementalState.open(directory)) {
+            assertNull(state.reuse(fingerprint("first")));
+            assertNull(state.reuse(fingerprint("second")));
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotAState() throws IOException {
+        Files.writeString(directory.resolve(FingerprintStore.FINGERPRINTS_FILE), "not a fingerprint store");
+        Files.writeString(directory.resolve(FingerprintStore.OUTPUTS_FILE), "not outputs either");
+
+        assertThrows(IncrementalStateException.class, () -> IncrementalState.open(directory));
+    }
+
+    private static Hash128 fingerprint(String record) {
+        return HashingUtility.hash128(bytes(record));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package io.template.index.logic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import io.template.index.exceptions.IndexException;
+import io.template.shared.models.ApplicationInput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordIndexTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void findsRecordsByStringAndListElement() throws IOException {
+        IndexBuilder builder = new IndexBuilder();
+        builder.add(0, input("alpha", START, "x", "y", "x"));
+        builder.add(2, input("beta", START, "y"));
+        builder.add(3, input("alpha", START));
+        builder.write(directory);
+
+        try (RecordIndex index = RecordIndex.open(directory)) {
+            assertArrayEquals(new long[]{0, 3}, index.findByString("alpha"));
+            assertArrayEquals(new long[]{2}, index.findByString("beta"));
+            assertArrayEquals(new long[0], index.findByString("gamma"));
+            assertArrayEquals(new long[]{0}, index.findByListElement("x"));
+            assertArrayEquals(new long[]{0, 2}, index.findByListElement("y"));
+        }
+    }
+
+    @Test
+    void findsTimestampRangesAcrossSparseBlocks() throws IOException {
+        IndexBuilder builder = new IndexBuilder();
+        int records = 3 * TimestampColumn.SPARSE_INTERVAL + 17;
+        // Timestamps in reverse record order, two records per second, half a second apart
+        for (int record = 0; record < records; record++) {
+            builder.add(record, input("value", START.plusMillis(500L * (records - 1 - record))));
+        }
+        builder.write(directory);
+
+        try (RecordIndex index = RecordIndex.open(directory)) {
+            assertArrayEquals(new long[]{records - 3, records - 2},
+                    index.findByTimestamp(START.plusMillis(500), START.plusMillis(1500)));
+            assertArrayEquals(new long[]{records - 1},
+                    index.findByTimestamp(START.minusSeconds(60), START.plusNanos(1)));
+            assertArrayEquals(new long[0], index.findByTimestamp(START.minusSeconds(60), START));
+            assertArrayEquals(new long[0], index.findByTimestamp(START.plusSeconds(1), START));
+            assertArrayEquals(new long[]{0, 1, 2}, index.findByTimestamp(
+                    START.plusMillis(500L * (records - 3)), START.plusSeconds(records)));
+            long[] all = index.findByTimestamp(START.minusSeconds(1), START.plusSeconds(records));
+            assertArrayEquals(new long[]{0, 1, records - 1}, new long[]{all[0], all[1], all[all.length - 1]});
+        }
+    }
+
+    @Test
+    void intersectsAscendingResults() {
+        assertArrayEquals(new long[]{3, 9}, RecordIndex.intersect(new long[]{1, 3, 5, 9}, new long[]{2, 3, 9, 11}));
+        assertArrayEquals(new long[0], RecordIndex.intersect(new long[]{1}, new long[0]));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotAnIndex() throws IOException {
+        new IndexBuilder().write(directory);
+        Files.writeString(directory.resolve(RecordIndex.STRINGS_FILE), "not an index");
+
+        assertThrows(IndexException.class, () -> RecordIndex.open(directory));
+    }
+
+    @Test
+    void failsOnMissingIndex() {
+        assertThrows(IndexException.class, () -> RecordIndex.open(directory.resolve("missing")));
+    }
+
+    private static ApplicationInput input(String string, Instant timestamp, String... elements) {
+        return new ApplicationInput(string, 1, true, timestamp, List.of(elements));
+    }
+}
@@ -0,0 +1,158 @@
+package io.template.replay.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.replay.exceptions.JournalException;
+import io.template.replay.models.JournalEntry;
+import io.template.replay.models.JournalOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputJournalTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00.123456789Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void readsBackRecordedEntries() throws IOException {
+        Path file = directory.resolve("inputs.journal");
+        JournalEntry accepted = JournalEntry.accepted(START, bytes("{\"a\":1}"), 1_200, 300, 15.0);
+        JournalEntry rejected = JournalEntry.unaccepted(START.plusMillis(5), bytes("not json"), 800, 0,
+                JournalOutcome.REJECTED, "Invalid input JSON: ");
+
+        try (InputJournal journal = new InputJournal()) {
+            journal.start(file);
+            journal.record(accepted);
+            journal.record(rejected);
+            journal.flush();
+
+            List<JournalEntry> entries = readAll(file);
+            assertEquals(2, entries.size());
+            assertSameEntry(accepted, entries.get(0));
+            assertSameEntry(rejected, entries.get(1));
+        }
+    }
+
+    @Test
+    void appendsToAnExistingJournal() throws IOException {
+        Path file = directory.resolve("inputs.journal");
+        for (int run = 0; run < 2; run++) {
+            try (InputJournal journal = new InputJournal()) {
+                journal.start(file);
+                journal.record(JournalEntry.accepted(START.plusSeconds(run), bytes("run " + run), 1, 1, run));
+            }
+        }
+
+        List<JournalEntry> entries = readAll(file);
+        assertEquals(2, entries.size());
+        assertEquals(0.0, entries.get(0).result());
+        assertEquals(1.0, entries.get(1).result());
+    }
+
+    @Test
+    void writesEntriesLargerThanTheWriteBuffer() throws IOException {
+        Path file = directory.resolve("inputs.journal");
+        byte[] large = new byte[200 * 1024];
+        large[large.length - 1] = 7;
+
+        try (InputJournal journal = new InputJournal()) {
+            journal.start(file);
+            journal.record(JournalEntry.accepted(START, bytes("small"), 1, 1, 1.0));
+            journal.record(JournalEntry.accepted(START, large, 1, 1, 2.0));
+        }
+
+        List<JournalEntry> entries = readAll(file);
+        assertEquals(2, entries.size());
+        assertArrayEquals(large, entries.get(1).input());
+    }
+
+    @Test
+    void ignoresEntriesUntilStartedAndAfterClosed() throws IOException {
+        Path file = directory.resolve("inputs.journal");
+        InputJournal journal = new InputJournal();
+        journal.record(JournalEntry.accepted(START, bytes("before"), 1, 1, 1.0));
+        assertFalse(journal.isRecording());
+
+        journal.start(file);
+        assertTrue(journal.isRecording());
+        journal.close();
+        journal.record(JournalEntry.accepted(START, bytes("after"), 1, 1, 1.0));
+
+        assertEquals(0, readAll(file).size());
+    }
+
+    @Test
+    void refusesToSwitchJournalsWhileRecording() throws IOException {
+        try (InputJournal journal = new InputJournal()) {
+            journal.start(directory.resolve("first.journal"));
+            journal.start(directory.resolve("first.journal"));
+
+            assertThrows(JournalException.class, () -> journal.start(directory.resolve("second.journal")));
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotJournals() throws IOException {
+        Path file = directory.resolve("inputs.ndjson");
+        Files.writeString(file, "{\"exampleStringField\":\"value\"}\n");
+
+        try (InputJournal journal = new InputJournal()) {
+            assertThrows(JournalException.class, () -> journal.start(file));
+        }
+        assertThrows(JournalException.class, () -> new JournalReader(file));
+    }
+
+    @Test
+    void endsAtAnEntryCutShort() throws IOException {
+        Path file = directory.resolve("inputs.journal");
+        try (InputJournal journal = new InputJournal()) {
+            journal.start(file);
+            journal.record(JournalEntry.accepted(START, bytes("complete"), 1, 1, 1.0));
+            journal.record(JournalEntry.accepted(START, bytes("cut short"), 1, 1, 2.0));
+        }
+        try (var channel = Files.newByteChannel(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<JournalEntry> entries = readAll(file);
+        assertEquals(1, entries.size());
+        assertArrayEquals(bytes("complete"), entries.get(0).input());
+    }
+
+    private static List<JournalEntry> readAll(Path file) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JournalReader reader = new JournalReader(file)) {
+            for (JournalEntry entry = reader.next(); entry != null; entry = reader.next()) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static void assertSameEntry(JournalEntry expected, JournalEntry actual) {
+        assertEquals(expected.recordedAt(), actual.recordedAt());
+        assertArrayEquals(expected.input(), actual.input());
+        assertEquals(expected.sanitizeNanos(), actual.sanitizeNanos());
+        assertEquals(expected.calculateNanos(), actual.calculateNanos());
+        assertTrue(expected.sameOutcomeAs(actual));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
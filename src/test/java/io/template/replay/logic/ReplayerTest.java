@@ -0,0 +1,99 @@
+package io.template.replay.logic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import io.template.bootstrap.logic.InputSanitizer;
+import io.template.replay.models.JournalEntry;
+import io.template.replay.models.JournalOutcome;
+import io.template.replay.models.ReplayReport;
+import io.template.samplebusinesslayer.logic.Calculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.template.testsupport.SampleJsonInputs.validInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayerTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String VALID = validInput("value", 1, true, "2024-01-01T00:00:00Z", "a");
+
+    @TempDir
+    private Path directory;
+
+    private final Replayer replayer = new Replayer(new InputSanitizer(), new Calculator());
+
+    @Test
+    void reportsNoMismatchesWhenOutcomesAreReproduced() throws IOException {
+        Path file = record(
+                JournalEntry.accepted(START, bytes(VALID), 5_000, 100, 15.0),
+                JournalEntry.unaccepted(START.plusMillis(1), bytes("not json"), 2_000, 0, JournalOutcome.REJECTED,
+                        rejectionOf("not json")));
+
+        ReplayReport report = replayer.replay(file, 0);
+
+        assertEquals(2, report.entries());
+        assertEquals(0, report.mismatches());
+        assertEquals(2_000, report.sanitize().recordedP50Nanos());
+        assertEquals(5_000, report.sanitize().recordedMaxNanos());
+        assertEquals(100, report.calculate().recordedP99Nanos());
+        assertTrue(report.calculate().replayedMaxNanos() > 0);
+    }
+
+    @Test
+    void countsEntriesThatNowEndDifferently() throws IOException {
+        Path file = record(
+                JournalEntry.accepted(START, bytes(VALID), 1, 1, 16.0),
+                JournalEntry.accepted(START, bytes("not json"), 1, 1, 15.0),
+                JournalEntry.accepted(START, bytes(VALID), 1, 1, 15.0));
+
+        ReplayReport report = replayer.replay(file, 0);
+
+        assertEquals(3, report.entries());
+        assertEquals(2, report.mismatches());
+    }
+
+    @Test
+    void keepsTheRecordedPaceScaledBySpeed() throws IOException {
+        Path file = record(
+                JournalEntry.accepted(START, bytes(VALID), 1, 1, 15.0),
+                JournalEntry.accepted(START.plusMillis(400), bytes(VALID), 1, 1, 15.0));
+
+        long start = System.nanoTime();
+        replayer.replay(file, 2);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 200, "replay took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void rejectsNegativeSpeed() {
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay(directory.resolve("any.journal"), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> replayer.replay(directory.resolve("any.journal"), Double.NaN));
+    }
+
+    private Path record(JournalEntry... entries) throws IOException {
+        Path file = directory.resolve("inputs.journal");
+        try (InputJournal journal = new InputJournal()) {
+            journal.start(file);
+            for (JournalEntry entry : entries) {
+                journal.record(entry);
+            }
+        }
+        return file;
+    }
+
+    private static String rejectionOf(String input) {
+        return assertThrows(RuntimeException.class, () -> new InputSanitizer().sanitizeJson(input)).getMessage();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
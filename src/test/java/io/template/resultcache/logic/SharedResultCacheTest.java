@@ -0,0 +1,217 @@
+package io.template.resultcache.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.template.resultcache.exceptions.ResultCacheException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedResultCacheTest {
+
+    private static final int SLOTS = 16;
+    private static final long ADD = 1;
+    private static final long MULTIPLY = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void missesWhenDisabled() {
+        SharedResultCache cache = SharedResultCache.disabled();
+        cache.put(1, 2, ADD, 3);
+
+        assertFalse(cache.isEnabled());
+        assertEquals(OptionalDouble.empty(), cache.get(1, 2, ADD));
+    }
+
+    @Test
+    void returnsStoredResults() {
+        try (SharedResultCache cache = new SharedResultCache(directory.resolve("results"), SLOTS)) {
+            assertEquals(OptionalDouble.empty(), cache.get(1, 2, ADD));
+            cache.put(1, 2, ADD, 3);
+
+            assertEquals(OptionalDouble.of(3), cache.get(1, 2, ADD));
+            assertEquals(1, cache.metrics().hits());
+            assertEquals(1, cache.metrics().misses());
+            assertEquals(1, cache.metrics().stores());
+        }
+    }
+
+    @Test
+    void distinguishesOperandsAndOperations() {
+        try (SharedResultCache cache = new SharedResultCache(directory.resolve("results"), SLOTS)) {
+            cache.put(0.0, 2, MULTIPLY, 0.0);
+
+            assertEquals(OptionalDouble.empty(), cache.get(-0.0, 2, MULTIPLY));
+            assertEquals(OptionalDouble.empty(), cache.get(0.0, 2, ADD));
+            assertEquals(OptionalDouble.empty(), cache.get(2, 0.0, MULTIPLY));
+        }
+    }
+
+    @Test
+    void sharesResultsBetweenMappingsOfTheSameFile() {
+        Path file = directory.resolve("results");
+        try (SharedResultCache writer = new SharedResultCache(file, SLOTS);
+             SharedResultCache reader = new SharedResultCache(file, SLOTS)) {
+            writer.put(1, 2, ADD, 3);
+
+            assertEquals(OptionalDouble.of(3), reader.get(1, 2, ADD));
+        }
+        try (SharedResultCache reopened = new SharedResultCache(file, SLOTS)) {
+            assertEquals(OptionalDouble.of(3), reopened.get(1, 2, ADD));
+        }
+    }
+
+    @Test
+    void overwritesWhenEveryProbedSlotIsTaken() {
+        try (SharedResultCache cache = new SharedResultCache(directory.resolve("results"), SLOTS)) {
+            for (int i = 0; i < 10 * SLOTS; i++) {
+                cache.put(i, i, ADD, 2.0 * i);
+            }
+            int found = 0;
+            for (int i = 0; i < 10 * SLOTS; i++) {
+                OptionalDouble result = cache.get(i, i, ADD);
+                if (result.isPresent()) {
+                    assertEquals(2.0 * i, result.getAsDouble());
+                    found++;
+                }
+            }
+
+            assertTrue(found > 0 && found <= SLOTS, found + " results found");
+        }
+    }
+
+    @Test
+    void skipsSlotsThatDoNotMatchTheirChecksum() throws IOException {
+        Path file = directory.resolve("results");
+        try (SharedResultCache cache = new SharedResultCache(file, SLOTS)) {
+            cache.put(1, 2, ADD, 3);
+            corrupt(file, occupiedSlot(file) + SharedResultCache.RESULT);
+
+            assertEquals(OptionalDouble.empty(), cache.get(1, 2, ADD));
+            assertEquals(1, cache.metrics().corruptSlots());
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotACache() throws IOException {
+        Path file = directory.resolve("results");
+        Files.write(file, new byte[(int) ((SLOTS + 1) * SharedResultCache.LINE_BYTES)]);
+        corrupt(file, 0);
+
+        ResultCacheException exception = assertThrows(ResultCacheException.class,
+                () -> new SharedResultCache(file, SLOTS));
+        assertEquals("Not a result cache: " + file, exception.getMessage());
+    }
+
+    @Test
+    void rejectsACorruptHeader() throws IOException {
+        Path file = directory.resolve("results");
+        new SharedResultCache(file, SLOTS).close();
+        corrupt(file, SharedResultCache.HEADER_VERSION);
+
+        ResultCacheException exception = assertThrows(ResultCacheException.class,
+                () -> new SharedResultCache(file, SLOTS));
+        assertTrue(exception.getMessage().contains("corrupt header"), exception.getMessage());
+    }
+
+    @Test
+    void rejectsACacheOfAnotherSize() {
+        Path file = directory.resolve("results");
+        new SharedResultCache(file, SLOTS).close();
+
+        ResultCacheException exception = assertThrows(ResultCacheException.class,
+                () -> new SharedResultCache(file, 2 * SLOTS));
+        assertTrue(exception.getMessage().contains("delete it to recreate it"), exception.getMessage());
+    }
+
+    @Test
+    void rejectsSlotCountsThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new SharedResultCache(directory.resolve("results"), 12));
+    }
+
+    /**
+     * Writers on two mappings keep overwriting the same few slots while readers look them up; a reader must
+     * never see a result stored for another key or half of one.
+     */
+    @Test
+    void neverReturnsTornOrForeignResultsUnderContention() throws Exception {
+        Path file = directory.resolve("results");
+        try (SharedResultCache first = new SharedResultCache(file, SLOTS);
+             SharedResultCache second = new SharedResultCache(file, SLOTS);
+             ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            List<Future<long[]>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 8; worker++) {
+                SharedResultCache cache = worker % 2 == 0 ? first : second;
+                long seed = worker;
+                workers.add(threads.submit(() -> hammer(cache, seed)));
+            }
+            long hits = 0;
+            for (Future<long[]> worker : workers) {
+                long[] outcome = worker.get();
+                assertEquals(0, outcome[1], "wrong results");
+                hits += outcome[0];
+            }
+
+            assertTrue(hits > 0);
+            assertEquals(0, first.metrics().corruptSlots() + second.metrics().corruptSlots());
+        }
+    }
+
+    private static long[] hammer(SharedResultCache cache, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long hits = 0;
+        long wrong = 0;
+        for (int i = 0; i < 200_000; i++) {
+            double operand = random.nextInt(4 * SLOTS);
+            OptionalDouble cached = cache.get(operand, operand, MULTIPLY);
+            if (cached.isEmpty()) {
+                cache.put(operand, operand, MULTIPLY, operand * operand);
+            } else if (cached.getAsDouble() == operand * operand) {
+                hits++;
+            } else {
+                wrong++;
+            }
+        }
+        return new long[]{hits, wrong};
+    }
+
+    private static long occupiedSlot(Path file) throws IOException {
+        ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.nativeOrder());
+        long line = SharedResultCache.LINE_BYTES;
+        for (long slot = line; slot < contents.capacity(); slot += line) {
+            if (contents.getLong((int) (slot + SharedResultCache.SEQUENCE)) != 0) {
+                return slot;
+            }
+        }
+        throw new AssertionError("No occupied slot");
+    }
+
+    private static void corrupt(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, offset);
+            value.flip();
+            value.put(0, (byte) (value.get(0) ^ 0x5A));
+            channel.write(value, offset);
+        }
+    }
+}
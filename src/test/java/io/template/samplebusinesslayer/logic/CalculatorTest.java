@@ -1,12 +1,32 @@
 package io.template.samplebusinesslayer.logic;
 
+import java.util.List;
+import java.util.OptionalDouble;
+
+import io.template.resultcache.logic.SharedResultCache;
 import io.template.samplebusinesslayer.exceptions.CalculationException;
 import io.template.samplebusinesslayer.models.CalculationRequest;
+import io.template.shared.models.EnvironmentVariables;
+import io.template.shared.models.FlushPolicy;
+import io.template.shared.models.NumericMode;
+import io.template.shared.models.NumericSettings;
+import io.template.shared.models.PrevalidationLimits;
+import io.template.shared.models.Result;
+import io.template.shared.models.WindowSpec;
+import io.template.shared.utilities.StackTraceUtility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class CalculatorTest {
 
@@ -66,4 +86,153 @@ class CalculatorTest {
 
         assertThrows(CalculationException.class, () -> calculator.calculate(request));
     }
+
+    @Test
+    void calculatesExactDecimalAddition() {
+        CalculationRequest request = new CalculationRequest(0.1, 0.2, "ADD", NumericMode.DECIMAL);
+
+        double result = calculator.calculate(request).result();
+
+        assertEquals(0.3, result);
+    }
+
+    @Test
+    void calculatesFixedPointAddition() {
+        CalculationRequest request = new CalculationRequest(0.1, 0.2, "ADD", NumericMode.FIXED_POINT);
+
+        double result = calculator.calculate(request).result();
+
+        assertEquals(0.3, result);
+    }
+
+    @Test
+    void defaultsToDoubleArithmetic() {
+        CalculationRequest request = new CalculationRequest(0.1, 0.2, "ADD");
+
+        double result = calculator.calculate(request).result();
+
+        assertEquals(0.1 + 0.2, result);
+    }
+
+    @Test
+    void usesTheConfiguredArithmeticForRequestsWithoutOne() {
+        Calculator decimal = new Calculator(environment(new NumericSettings(NumericMode.DECIMAL, 16, 4)),
+                SharedResultCache.disabled());
+
+        assertEquals(0.3, decimal.calculate(new CalculationRequest(0.1, 0.2, "ADD")).result());
+        assertEquals(0.1 + 0.2, decimal.calculate(new CalculationRequest(0.1, 0.2, "ADD", NumericMode.DOUBLE))
+                .result());
+    }
+
+    @Test
+    void throwsOnDivisionByZeroInEveryMode() {
+        for (NumericMode numericMode : NumericMode.values()) {
+            CalculationRequest request = new CalculationRequest(1.0, 0.0, "DIVIDE", numericMode);
+
+            assertThrows(CalculationException.class, () -> calculator.calculate(request));
+        }
+    }
+
+    @Test
+    void reportsFailuresAsResultsWithTheExceptionMessage() {
+        CalculationRequest divisionByZero = new CalculationRequest(1.0, 0.0, "DIVIDE");
+        CalculationRequest unknown = new CalculationRequest(1.0, 2.0, "MODULO");
+        CalculationRequest overflow = new CalculationRequest(1e300, 1.0, "ADD", NumericMode.FIXED_POINT);
+
+        for (CalculationRequest request : List.of(divisionByZero, unknown, overflow)) {
+            CalculationException exception = assertThrows(CalculationException.class,
+                    () -> calculator.calculate(request));
+
+            assertEquals(Result.failure(exception.getMessage()), calculator.tryCalculate(request));
+        }
+    }
+
+    @Test
+    void reportsDecimalFailuresAsResults() {
+        CalculationRequest nonFinite = new CalculationRequest(Double.NaN, 1.0, "ADD", NumericMode.DECIMAL);
+
+        assertInstanceOf(Result.Failure.class, calculator.tryCalculate(nonFinite));
+        assertThrows(IllegalArgumentException.class, () -> new Calculator(0, Calculator.DEFAULT_FIXED_POINT_SCALE));
+    }
+
+    @Test
+    void reportsSuccessAsResult() {
+        CalculationRequest request = new CalculationRequest(2.0, 3.0, "ADD");
+
+        assertEquals(Result.success(calculator.calculate(request)), calculator.tryCalculate(request));
+    }
+
+    @Test
+    void skipsStackTracesWhenCapturingIsOff() {
+        CalculationRequest request = new CalculationRequest(1.0, 0.0, "DIVIDE");
+        StackTraceUtility.setCapturing(false);
+        try {
+            CalculationException exception = assertThrows(CalculationException.class,
+                    () -> calculator.calculate(request));
+
+            assertEquals(0, exception.getStackTrace().length);
+        } finally {
+            StackTraceUtility.setCapturing(true);
+        }
+    }
+
+    @Test
+    void answersFromTheSharedResultCache() {
+        SharedResultCache resultCache = mock(SharedResultCache.class);
+        Calculator cachingCalculator = new Calculator(resultCache);
+        long add = cachingCalculator.operationCode("ADD", NumericMode.DOUBLE);
+        when(resultCache.isEnabled()).thenReturn(true);
+        when(resultCache.get(2.0, 3.0, add)).thenReturn(OptionalDouble.of(5.0));
+
+        assertEquals(5.0, cachingCalculator.calculate(new CalculationRequest(2.0, 3.0, "add")).result());
+        verify(resultCache, never()).put(anyDouble(), anyDouble(), anyLong(), anyDouble());
+    }
+
+    @Test
+    void storesCalculatedResultsInTheSharedResultCache() {
+        SharedResultCache resultCache = mock(SharedResultCache.class);
+        Calculator cachingCalculator = new Calculator(resultCache);
+        long add = cachingCalculator.operationCode("ADD", NumericMode.DOUBLE);
+        when(resultCache.isEnabled()).thenReturn(true);
+        when(resultCache.get(2.0, 3.0, add)).thenReturn(OptionalDouble.empty());
+
+        assertEquals(5.0, cachingCalculator.calculate(new CalculationRequest(2.0, 3.0, "ADD")).result());
+        verify(resultCache).put(2.0, 3.0, add, 5.0);
+    }
+
+    @Test
+    void neverCachesFailures() {
+        SharedResultCache resultCache = mock(SharedResultCache.class);
+        Calculator cachingCalculator = new Calculator(resultCache);
+        when(resultCache.isEnabled()).thenReturn(true);
+        when(resultCache.get(anyDouble(), anyDouble(), anyLong())).thenReturn(OptionalDouble.empty());
+
+        assertThrows(CalculationException.class,
+                () -> cachingCalculator.calculate(new CalculationRequest(1.0, 0.0, "DIVIDE")));
+        assertThrows(CalculationException.class,
+                () -> cachingCalculator.calculate(new CalculationRequest(1.0, 2.0, "MODULO")));
+        verify(resultCache, never()).put(anyDouble(), anyDouble(), anyLong(), anyDouble());
+    }
+
+    @Test
+    void keysCachedResultsByArithmeticSettings() {
+        Calculator other = new Calculator(
+                Calculator.DEFAULT_DECIMAL_PRECISION + 1, Calculator.DEFAULT_FIXED_POINT_SCALE);
+
+        assertEquals(Calculator.UNCACHEABLE, calculator.operationCode("MODULO", NumericMode.DOUBLE));
+        assertEquals(calculator.operationCode("ADD", NumericMode.DOUBLE), calculator.operationCode("ADD", null));
+        assertNotEquals(calculator.operationCode("ADD", NumericMode.DOUBLE),
+                calculator.operationCode("ADD", NumericMode.DECIMAL));
+        assertNotEquals(calculator.operationCode("ADD", NumericMode.DOUBLE),
+                calculator.operationCode("MULTIPLY", NumericMode.DOUBLE));
+        assertNotEquals(calculator.operationCode("ADD", NumericMode.DECIMAL),
+                other.operationCode("ADD", NumericMode.DECIMAL));
+        assertEquals(calculator.operationCode("ADD", NumericMode.FIXED_POINT),
+                other.operationCode("ADD", NumericMode.FIXED_POINT));
+    }
+
+    private static EnvironmentVariables environment(NumericSettings numericSettings) {
+        return new EnvironmentVariables("test", "local", "", 0, false, FlushPolicy.DEFAULT, WindowSpec.DEFAULT,
+                PrevalidationLimits.DEFAULT, numericSettings);
+    }
 }
@@ -0,0 +1,47 @@
+package io.template.samplebusinesslayer.logic;
+
+import java.math.MathContext;
+
+import io.template.samplebusinesslayer.exceptions.CalculationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DecimalBackendTest {
+
+    private final DecimalBackend backend = new DecimalBackend(MathContext.DECIMAL64);
+
+    @Test
+    void operatesOnShortestDecimalForm() {
+        assertEquals(0.3, backend.add(0.1, 0.2));
+        assertEquals(0.1, backend.subtract(0.3, 0.2));
+        assertEquals(0.06, backend.multiply(0.2, 0.3));
+    }
+
+    @Test
+    void roundsNonTerminatingDivisionToContext() {
+        DecimalBackend threeDigits = new DecimalBackend(DecimalBackend.contextForPrecision(3));
+
+        assertEquals(0.333, threeDigits.divide(1.0, 3.0));
+    }
+
+    @Test
+    void sharesPooledContexts() {
+        assertSame(DecimalBackend.contextForPrecision(16), DecimalBackend.contextForPrecision(16));
+        assertEquals(100, DecimalBackend.contextForPrecision(100).getPrecision());
+    }
+
+    @Test
+    void rejectsUnlimitedPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> DecimalBackend.contextForPrecision(0));
+        assertThrows(IllegalArgumentException.class, () -> new DecimalBackend(MathContext.UNLIMITED));
+    }
+
+    @Test
+    void rejectsNonFiniteOperands() {
+        assertThrows(CalculationException.class, () -> backend.add(Double.NaN, 1.0));
+        assertThrows(CalculationException.class, () -> backend.divide(1.0, Double.POSITIVE_INFINITY));
+    }
+}
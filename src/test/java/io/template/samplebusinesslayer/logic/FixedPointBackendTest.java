@@ -0,0 +1,62 @@
+package io.template.samplebusinesslayer.logic;
+
+import io.template.samplebusinesslayer.exceptions.CalculationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPointBackendTest {
+
+    private final FixedPointBackend backend = new FixedPointBackend(4);
+
+    @Test
+    void operatesAtFixedScale() {
+        assertEquals(0.3, backend.add(0.1, 0.2));
+        assertEquals(-0.1, backend.subtract(0.1, 0.2));
+        assertEquals(0.02, backend.multiply(0.1, 0.2));
+        assertEquals(0.3333, backend.divide(1.0, 3.0));
+    }
+
+    @Test
+    void roundsOperandsToScale() {
+        assertEquals(0.0001, backend.add(0.00006, 0.0));
+    }
+
+    @Test
+    void roundsProductsAndQuotientsHalfEven() {
+        assertEquals(0.0002, backend.multiply(0.0003, 0.5));
+        assertEquals(-0.0002, backend.multiply(-0.0003, 0.5));
+        assertEquals(0.0, backend.multiply(0.0001, 0.5));
+        assertEquals(0.6667, backend.divide(2.0, 3.0));
+        assertEquals(-0.6667, backend.divide(2.0, -3.0));
+    }
+
+    @Test
+    void rescalesProductsLargerThanALong() {
+        assertEquals(1.0e12, backend.multiply(1.0e6, 1.0e6));
+        assertEquals(5.0e11, backend.divide(1.0e12, 2.0));
+        assertEquals(3, FixedPointBackend.scaledQuotient(Long.MAX_VALUE, 3, Long.MAX_VALUE));
+        assertEquals(1L << 62, FixedPointBackend.scaledQuotient(Long.MAX_VALUE, 2, 4));
+        assertEquals(5, FixedPointBackend.scaledQuotient(Long.MIN_VALUE, 5, Long.MIN_VALUE));
+    }
+
+    @Test
+    void detectsOverflow() {
+        assertThrows(CalculationException.class, () -> backend.add(9.0e14, 9.0e14));
+        assertThrows(CalculationException.class, () -> backend.multiply(1.0e9, 1.0e9));
+        assertThrows(CalculationException.class, () -> backend.divide(1.0e14, 0.01));
+        assertThrows(CalculationException.class, () -> backend.add(1.0e300, 0.0));
+        assertThrows(CalculationException.class, () -> backend.subtract(Double.NaN, 0.0));
+    }
+
+    @Test
+    void rejectsDivisorThatRoundsToZero() {
+        assertThrows(CalculationException.class, () -> backend.divide(1.0, 0.00001));
+    }
+
+    @Test
+    void rejectsUnsupportedScale() {
+        assertThrows(IllegalArgumentException.class, () -> new FixedPointBackend(FixedPointBackend.MAX_SCALE + 1));
+    }
+}
@@ -0,0 +1,105 @@
+package io.template.samplebusinesslayer.logic;
+
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.samplebusinesslayer.models.ResultStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultAggregatorTest {
+
+    private ResultAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new ResultAggregator();
+    }
+
+    @Test
+    void aggregatesCountSumMinMaxAndMean() {
+        aggregator.accept(new CalculationResult(2.0, "ADD"));
+        aggregator.accept(-4.0);
+        aggregator.accept(8.0);
+
+        ResultStatistics statistics = aggregator.snapshot();
+
+        assertEquals(3, statistics.count());
+        assertEquals(6.0, statistics.total());
+        assertEquals(-4.0, statistics.min());
+        assertEquals(8.0, statistics.max());
+        assertEquals(2.0, statistics.mean());
+    }
+
+    @Test
+    void reportsEmptyAggregate() {
+        ResultStatistics statistics = aggregator.snapshot();
+
+        assertEquals(0, statistics.count());
+        assertTrue(Double.isNaN(statistics.mean()));
+        assertEquals(Double.POSITIVE_INFINITY, statistics.min());
+    }
+
+    @Test
+    void compensatesSummationError() {
+        aggregator.accept(1.0);
+        for (int i = 0; i < 10_000; i++) {
+            aggregator.accept(1.0e-16);
+        }
+        aggregator.accept(-1.0);
+
+        assertEquals(1.0e-12, aggregator.snapshot().total(), 1.0e-20);
+    }
+
+    @Test
+    void bulkPathMatchesSingleValuePath() {
+        double[] values = {3.5, -1.25, 1.0e10, 0.0, 7.0};
+        ResultAggregator single = new ResultAggregator();
+        for (double value : values) {
+            single.accept(value);
+        }
+
+        aggregator.acceptAll(new double[]{99.0, 3.5, -1.25, 1.0e10, 0.0, 7.0}, 1, 6);
+
+        assertEquals(single.snapshot(), aggregator.snapshot());
+    }
+
+    @Test
+    void mergesPartialAggregates() {
+        ResultAggregator partialA = new ResultAggregator();
+        ResultAggregator partialB = new ResultAggregator();
+        partialA.accept(1.0);
+        partialA.accept(5.0);
+        partialB.accept(-3.0);
+
+        partialA.merge(partialB);
+
+        ResultStatistics statistics = partialA.snapshot();
+        assertEquals(3, statistics.count());
+        assertEquals(3.0, statistics.total());
+        assertEquals(-3.0, statistics.min());
+        assertEquals(5.0, statistics.max());
+    }
+
+    @Test
+    void restoresFromSnapshot() {
+        aggregator.accept(1.5);
+        aggregator.accept(2.5);
+
+        ResultAggregator restored = ResultAggregator.restore(aggregator.snapshot());
+        restored.accept(4.0);
+        aggregator.accept(4.0);
+
+        assertEquals(aggregator.snapshot(), restored.snapshot());
+    }
+
+    @Test
+    void bucketsByMagnitude() {
+        assertEquals(ResultAggregator.HISTOGRAM_EXPONENT_OFFSET, ResultAggregator.bucketOf(1.5));
+        assertEquals(ResultAggregator.HISTOGRAM_EXPONENT_OFFSET, ResultAggregator.bucketOf(-1.5));
+        assertEquals(ResultAggregator.HISTOGRAM_EXPONENT_OFFSET + 3, ResultAggregator.bucketOf(8.0));
+        assertEquals(0, ResultAggregator.bucketOf(0.0));
+        assertEquals(ResultAggregator.HISTOGRAM_BUCKETS - 1, ResultAggregator.bucketOf(Double.POSITIVE_INFINITY));
+    }
+}
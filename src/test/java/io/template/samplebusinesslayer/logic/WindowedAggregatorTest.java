@@ -0,0 +1,143 @@
+package io.template.samplebusinesslayer.logic;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.template.samplebusinesslayer.models.CalculationResult;
+import io.template.samplebusinesslayer.models.WindowStatistics;
+import io.template.shared.models.WindowSpec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowedAggregatorTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    private final List<WindowStatistics> emitted = new ArrayList<>();
+
+    @Test
+    void emitsTumblingWindowsOnceTheWatermarkPassesThem() {
+        WindowedAggregator aggregator = new WindowedAggregator(
+                WindowSpec.tumbling(MINUTE, Duration.ZERO, Duration.ZERO), emitted::add);
+
+        aggregator.accept(at(10), 1.0);
+        aggregator.accept(at(50), 3.0);
+        assertTrue(emitted.isEmpty());
+        aggregator.accept(at(70), new CalculationResult(5.0, "ADD"));
+
+        assertEquals(List.of(window(0, 60, 2, 4.0, 1.0, 3.0, false)), emitted);
+        aggregator.flush();
+        assertEquals(window(60, 120, 1, 5.0, 5.0, 5.0, false), emitted.get(1));
+    }
+
+    @Test
+    void countsEachRecordInEverySlidingWindowContainingIt() {
+        WindowedAggregator aggregator = new WindowedAggregator(
+                WindowSpec.sliding(Duration.ofMinutes(2), MINUTE, Duration.ZERO, Duration.ZERO), emitted::add);
+
+        aggregator.accept(at(30), 1.0);
+        aggregator.accept(at(90), 2.0);
+        aggregator.flush();
+
+        assertEquals(List.of(
+                window(-60, 60, 1, 1.0, 1.0, 1.0, false),
+                window(0, 120, 2, 3.0, 1.0, 2.0, false),
+                window(60, 180, 1, 2.0, 2.0, 2.0, false)
+        ), emitted);
+    }
+
+    @Test
+    void waitsForOutOfOrderRecordsWithinTheBound() {
+        WindowedAggregator aggregator = new WindowedAggregator(
+                WindowSpec.tumbling(MINUTE, Duration.ofSeconds(30), Duration.ZERO), emitted::add);
+
+        aggregator.accept(at(50), 1.0);
+        aggregator.accept(at(80), 2.0);
+        aggregator.accept(at(55), 4.0);
+        assertTrue(emitted.isEmpty());
+        aggregator.accept(at(95), 8.0);
+
+        assertEquals(List.of(window(0, 60, 2, 5.0, 1.0, 4.0, false)), emitted);
+    }
+
+    @Test
+    void reEmitsWindowsChangedByLateRecordsUntilTheLatenessExpires() {
+        WindowedAggregator aggregator = new WindowedAggregator(
+                WindowSpec.tumbling(MINUTE, Duration.ZERO, Duration.ofSeconds(30)), emitted::add);
+
+        aggregator.accept(at(10), 1.0);
+        aggregator.accept(at(65), 2.0);
+        aggregator.accept(at(20), 4.0);
+        aggregator.accept(at(95), 8.0);
+        aggregator.accept(at(30), 16.0);
+
+        assertEquals(List.of(
+                window(0, 60, 1, 1.0, 1.0, 1.0, false),
+                window(0, 60, 2, 5.0, 1.0, 4.0, true)
+        ), emitted);
+        assertEquals(1, aggregator.droppedRecords());
+    }
+
+    @Test
+    void keepsStateBoundedAcrossLongStreams() {
+        WindowedAggregator aggregator = new WindowedAggregator(
+                WindowSpec.tumbling(MINUTE, Duration.ZERO, Duration.ZERO), emitted::add);
+
+        for (int second = 0; second < 24 * 60 * 60; second++) {
+            aggregator.accept(at(second), 1.0);
+        }
+        aggregator.flush();
+
+        assertEquals(24 * 60, emitted.size());
+        assertTrue(emitted.stream().allMatch(window -> window.count() == 60 && !window.late()));
+    }
+
+    @Test
+    void emitsIdleWindowsWhenTheWatermarkIsAdvanced() {
+        WindowedAggregator aggregator = new WindowedAggregator(
+                WindowSpec.tumbling(MINUTE, Duration.ofMinutes(5), Duration.ZERO), emitted::add);
+
+        aggregator.accept(at(10), 1.0);
+        aggregator.advanceWatermark(at(60));
+
+        assertEquals(1, emitted.size());
+        aggregator.flush();
+        aggregator.accept(at(120), 1.0);
+        assertEquals(1, emitted.size());
+        assertEquals(1, aggregator.droppedRecords());
+    }
+
+    @Test
+    void rejectsWindowsThatAreNotAMultipleOfTheSlide() {
+        assertThrows(IllegalArgumentException.class, () ->
+                WindowSpec.sliding(Duration.ofSeconds(90), MINUTE, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () ->
+                WindowSpec.tumbling(Duration.ofNanos(1), Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () ->
+                WindowSpec.tumbling(MINUTE, Duration.ofSeconds(-1), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedAggregator(
+                WindowSpec.tumbling(Duration.ofMillis(1), Duration.ofDays(365), Duration.ZERO), emitted::add));
+    }
+
+    private static Instant at(long seconds) {
+        return START.plusSeconds(seconds);
+    }
+
+    private static WindowStatistics window(
+            long startSecond,
+            long endSecond,
+            long count,
+            double sum,
+            double min,
+            double max,
+            boolean late
+    ) {
+        return new WindowStatistics(at(startSecond), at(endSecond), count, sum, min, max, late);
+    }
+}
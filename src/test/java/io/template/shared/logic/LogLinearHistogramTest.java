@@ -0,0 +1,50 @@
+package io.template.shared.logic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogLinearHistogramTest {
+
+    @Test
+    void reportsZeroWhileEmpty() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.count());
+    }
+
+    @Test
+    void boundsEveryValueWithinOneSixteenth() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            long upperBound = LogLinearHistogram.upperBound(LogLinearHistogram.bucketOf(value));
+
+            assertTrue(upperBound >= value, () -> value + " above its bucket");
+            assertTrue(upperBound - value <= value / LogLinearHistogram.SUB_BUCKETS, () -> value + " bucket too wide");
+        }
+    }
+
+    @Test
+    void reportsNearestRankPercentiles() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (long nanos = 1; nanos <= 1_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+
+        assertEquals(1_000, histogram.count());
+        assertEquals(1_000_000, histogram.max());
+        assertEquals(1_000_000, histogram.percentile(1.0));
+        assertTrue(Math.abs(histogram.percentile(0.50) - 500_000) <= 500_000 / LogLinearHistogram.SUB_BUCKETS);
+        assertTrue(Math.abs(histogram.percentile(0.99) - 990_000) <= 990_000 / LogLinearHistogram.SUB_BUCKETS);
+    }
+
+    @Test
+    void countsNegativeValuesAsZero() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.record(-5);
+
+        assertEquals(0, histogram.percentile(0.5));
+    }
+}
@@ -0,0 +1,60 @@
+package io.template.shared.logic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringDictionaryTest {
+
+    @Test
+    void returnsTheSameInstanceForRepeatedValues() {
+        StringDictionary dictionary = new StringDictionary(16, 32);
+        char[] buffer = "xxhelloxx".toCharArray();
+
+        String first = dictionary.canonical(buffer, 2, 5);
+        String second = dictionary.canonical(buffer, 2, 5);
+
+        assertEquals("hello", first);
+        assertSame(first, second);
+        assertSame(first, dictionary.canonical(String.valueOf("hello".toCharArray())));
+    }
+
+    @Test
+    void keepsAtMostOneValuePerSlot() {
+        StringDictionary dictionary = new StringDictionary(1, 32);
+
+        String first = dictionary.canonical("first");
+        dictionary.canonical("second");
+
+        assertNotSame(first, dictionary.canonical(String.valueOf("first".toCharArray())));
+    }
+
+    @Test
+    void doesNotInternLongValues() {
+        StringDictionary dictionary = new StringDictionary(16, 3);
+        char[] buffer = "long".toCharArray();
+
+        assertNotSame(dictionary.canonical(buffer, 0, 4), dictionary.canonical(buffer, 0, 4));
+    }
+
+    @Test
+    void distinguishesValuesWithEqualHashes() {
+        StringDictionary dictionary = new StringDictionary(16, 32);
+        // "Aa" and "BB" share String.hashCode
+        String first = dictionary.canonical("Aa".toCharArray(), 0, 2);
+
+        assertEquals("BB", dictionary.canonical("BB".toCharArray(), 0, 2));
+        assertEquals("Aa", dictionary.canonical("Aa".toCharArray(), 0, 2));
+        assertEquals("Aa", first);
+    }
+
+    @Test
+    void rejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(12, 32));
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(0, 32));
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(16, -1));
+    }
+}
@@ -0,0 +1,64 @@
+package io.template.shared.utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashingUtilityTest {
+
+    @Test
+    void hashesEqualContentEqually() {
+        byte[] first = "{\"exampleIntField\": 1}".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"exampleIntField\": 1}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(HashingUtility.hash64(first), HashingUtility.hash64(second));
+    }
+
+    @Test
+    void distinguishesTrailingBytesAndLengths() {
+        assertNotEquals(HashingUtility.hash64(new byte[]{1, 2, 3}), HashingUtility.hash64(new byte[]{1, 2, 4}));
+        assertNotEquals(HashingUtility.hash64(new byte[0]), HashingUtility.hash64(new byte[1]));
+    }
+
+    @Test
+    void hasNoCollisionsAcrossSmallInputs() {
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            hashes.add(HashingUtility.hash64(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        assertEquals(10_000, hashes.size());
+    }
+
+    @Test
+    void distinguishesInputsInBothHalvesOfA128BitHash() {
+        Set<Long> highs = new HashSet<>();
+        Set<Long> lows = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            HashingUtility.Hash128 hash = HashingUtility.hash128(("record-" + i).getBytes(StandardCharsets.UTF_8));
+            highs.add(hash.high());
+            lows.add(hash.low());
+        }
+
+        assertEquals(10_000, highs.size());
+        assertEquals(10_000, lows.size());
+        assertEquals(HashingUtility.hash128(new byte[]{1, 2, 3}), HashingUtility.hash128(new byte[]{1, 2, 3}));
+        assertNotEquals(HashingUtility.hash128(new byte[0]), HashingUtility.hash128(new byte[1]));
+    }
+
+    @Test
+    void spreadsConsecutiveValuesOverTheLowBits() {
+        Set<Long> buckets = new HashSet<>();
+        for (long value = 0; value < 1024; value++) {
+            buckets.add(HashingUtility.hash64(value) & 1023);
+        }
+
+        assertTrue(buckets.size() > 512, () -> buckets.size() + " buckets used");
+    }
+}
@@ -1,9 +1,25 @@
 package io.template.testsupport;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import io.template.shared.utilities.JsonMapperUtility;
+
 public final class SampleJsonInputs {
 
     private SampleJsonInputs() { }
 
+    /**
+     * Re-encodes a well-formed JSON document as Smile.
+     */
+    public static byte[] toSmile(String json) {
+        try {
+            return JsonMapperUtility.SMILE_MAPPER.writeValueAsBytes(JsonMapperUtility.MAPPER.readTree(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static String validInput(
             String exampleStringField,
             int exampleIntField,